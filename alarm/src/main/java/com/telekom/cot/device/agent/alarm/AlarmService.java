@@ -3,6 +3,7 @@ package com.telekom.cot.device.agent.alarm;
 import com.telekom.cot.device.agent.common.AlarmSeverity;
 import com.telekom.cot.device.agent.common.exc.AbstractAgentException;
 import com.telekom.cot.device.agent.service.AgentService;
+import com.telekom.cot.device.agent.service.retry.CircuitState;
 
 public interface AlarmService extends AgentService {
 	/**
@@ -21,4 +22,9 @@ public interface AlarmService extends AgentService {
 	 */
 	public void createAlarm(String type, AlarmSeverity severity, String text, String status)
 			throws AbstractAgentException;
+
+	/**
+	 * gets the state of the circuit breaker of the requests to the platform
+	 */
+	public CircuitState getCircuitState();
 }
@@ -0,0 +1,27 @@
+package com.telekom.cot.device.agent.alarm;
+
+import javax.validation.Valid;
+
+import com.telekom.cot.device.agent.common.annotations.ConfigurationPath;
+import com.telekom.cot.device.agent.common.configuration.Configuration;
+import com.telekom.cot.device.agent.service.retry.RetryConfiguration;
+
+@ConfigurationPath("agent.services.alarmService")
+public class AlarmServiceConfiguration implements Configuration {
+
+	@Valid
+	private RetryConfiguration retry;
+
+	public RetryConfiguration getRetry() {
+		return retry;
+	}
+
+	public void setRetry(RetryConfiguration retry) {
+		this.retry = retry;
+	}
+
+	@Override
+	public String toString() {
+		return AlarmServiceConfiguration.class.getSimpleName() + " [retry=" + retry + "]";
+	}
+}
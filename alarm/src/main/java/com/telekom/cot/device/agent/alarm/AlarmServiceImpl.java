@@ -1,17 +1,22 @@
 package com.telekom.cot.device.agent.alarm;
 
 import java.util.Date;
+import java.util.Objects;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.telekom.cot.device.agent.common.AlarmSeverity;
+import com.telekom.cot.device.agent.common.configuration.ConfigurationManager;
 import com.telekom.cot.device.agent.common.exc.AbstractAgentException;
 import com.telekom.cot.device.agent.common.exc.AlarmServiceException;
 import com.telekom.cot.device.agent.common.injection.Inject;
 import com.telekom.cot.device.agent.common.util.AssertionUtil;
 import com.telekom.cot.device.agent.platform.PlatformService;
 import com.telekom.cot.device.agent.service.AbstractAgentService;
+import com.telekom.cot.device.agent.service.retry.CircuitBreaker;
+import com.telekom.cot.device.agent.service.retry.CircuitState;
+import com.telekom.cot.device.agent.service.retry.RetryConfiguration;
 
 public class AlarmServiceImpl extends AbstractAgentService implements AlarmService {
 
@@ -21,6 +26,12 @@ public class AlarmServiceImpl extends AbstractAgentService implements AlarmServi
 	@Inject
 	private PlatformService platformService;
 
+	@Inject
+	private ConfigurationManager configurationManager;
+
+	/** rejects requests while the platform is unavailable (except critical alarms), configured at start */
+	private CircuitBreaker circuitBreaker = new CircuitBreaker("alarmService", new RetryConfiguration());
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -33,6 +44,7 @@ public class AlarmServiceImpl extends AbstractAgentService implements AlarmServi
 		LOGGER.debug("start " + this.getClass().getSimpleName());
 
 		AssertionUtil.assertNotNull(platformService, AlarmServiceException.class, LOGGER, "no platform service given");
+		circuitBreaker = new CircuitBreaker("alarmService", getRetryConfiguration());
 
 		super.start();
 	}
@@ -56,7 +68,34 @@ public class AlarmServiceImpl extends AbstractAgentService implements AlarmServi
 	public void createAlarm(String type, AlarmSeverity severity, String text, String status)
 			throws AbstractAgentException {
 		LOGGER.debug("create and send alarm of type {} with text {} and severity {}", type, text, severity.getValue());
-		platformService.createAlarm(new Date(), type, severity, text, status);
+		CircuitBreaker.Request request = () -> platformService.createAlarm(new Date(), type, severity, text, status);
+		if (severity == AlarmSeverity.CRITICAL) {
+			// a critical alarm is always sent, its result is recorded nevertheless
+			circuitBreaker.forceExecute(request);
+		} else {
+			circuitBreaker.execute(request, AlarmServiceException.class);
+		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CircuitState getCircuitState() {
+		return circuitBreaker.getState();
+	}
+
+	/**
+	 * gets the configured retries of the alarm service, the default retries if there's no configuration section
+	 */
+	private RetryConfiguration getRetryConfiguration() throws AbstractAgentException {
+		if (Objects.isNull(configurationManager)
+				|| !configurationManager.existPath("agent", "services", "alarmService")) {
+			return new RetryConfiguration();
+		}
+
+		RetryConfiguration retryConfiguration = configurationManager.getConfiguration(AlarmServiceConfiguration.class)
+				.getRetry();
+		return Objects.nonNull(retryConfiguration) ? retryConfiguration : new RetryConfiguration();
+	}
 }
@@ -3,6 +3,8 @@ package com.telekom.cot.device.agent.alarm;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.verify;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
 import java.util.Date;
 
@@ -13,11 +15,14 @@ import org.mockito.MockitoAnnotations;
 import org.slf4j.Logger;
 
 import com.telekom.cot.device.agent.common.AlarmSeverity;
+import com.telekom.cot.device.agent.common.configuration.ConfigurationManager;
 import com.telekom.cot.device.agent.common.exc.AbstractAgentException;
 import com.telekom.cot.device.agent.common.exc.AlarmServiceException;
 import com.telekom.cot.device.agent.common.exc.PlatformServiceException;
 import com.telekom.cot.device.agent.common.injection.InjectionUtil;
 import com.telekom.cot.device.agent.platform.PlatformService;
+import com.telekom.cot.device.agent.service.retry.CircuitState;
+import com.telekom.cot.device.agent.service.retry.RetryConfiguration;
 
 public class AlarmServiceImplTest {
 	private static final String ALARM_TYPE = "alarmType";
@@ -29,6 +34,8 @@ public class AlarmServiceImplTest {
 	private Logger mockLogger;
 	@Mock
 	private PlatformService mockPlatformService;
+	@Mock
+	private ConfigurationManager mockConfigurationManager;
 
 	private AlarmServiceImpl alarmServiceImpl = new AlarmServiceImpl();
 
@@ -90,6 +97,80 @@ public class AlarmServiceImplTest {
 		alarmServiceImpl.createAlarm(ALARM_TYPE, ALARM_SEVERITY, ALARM_TEXT, ALARM_STATUS);
 	}
 
+	/**
+	 * test method createAlarm, repeated failures open the circuit and further alarms are rejected
+	 */
+	@Test
+	public void testCreateAlarmCircuitOpen() throws Exception {
+		doThrow(new PlatformServiceException("can't create alarm")).when(mockPlatformService)
+				.createAlarm(any(Date.class), eq(ALARM_TYPE), eq(AlarmSeverity.MAJOR), eq(ALARM_TEXT), eq(ALARM_STATUS));
+		for (int attempt = 0; attempt < 3; attempt++) {
+			try {
+				alarmServiceImpl.createAlarm(ALARM_TYPE, AlarmSeverity.MAJOR, ALARM_TEXT, ALARM_STATUS);
+				fail();
+			} catch (PlatformServiceException e) {
+				// expected
+			}
+		}
+		assertEquals(CircuitState.OPEN, alarmServiceImpl.getCircuitState());
+
+		try {
+			alarmServiceImpl.createAlarm(ALARM_TYPE, AlarmSeverity.MAJOR, ALARM_TEXT, ALARM_STATUS);
+			fail();
+		} catch (AlarmServiceException e) {
+			verify(mockPlatformService, times(3)).createAlarm(any(Date.class), eq(ALARM_TYPE), eq(AlarmSeverity.MAJOR),
+					eq(ALARM_TEXT), eq(ALARM_STATUS));
+		}
+	}
+
+	/**
+	 * test method createAlarm, a critical alarm is sent while the circuit is open and its success closes the circuit
+	 */
+	@Test
+	public void testCreateAlarmCriticalCircuitOpen() throws Exception {
+		doThrow(new PlatformServiceException("can't create alarm")).when(mockPlatformService)
+				.createAlarm(any(Date.class), eq(ALARM_TYPE), eq(AlarmSeverity.MAJOR), eq(ALARM_TEXT), eq(ALARM_STATUS));
+		for (int attempt = 0; attempt < 3; attempt++) {
+			try {
+				alarmServiceImpl.createAlarm(ALARM_TYPE, AlarmSeverity.MAJOR, ALARM_TEXT, ALARM_STATUS);
+				fail();
+			} catch (PlatformServiceException e) {
+				// expected
+			}
+		}
+		assertEquals(CircuitState.OPEN, alarmServiceImpl.getCircuitState());
+
+		alarmServiceImpl.createAlarm(ALARM_TYPE, AlarmSeverity.CRITICAL, ALARM_TEXT, ALARM_STATUS);
+
+		verify(mockPlatformService).createAlarm(any(Date.class), eq(ALARM_TYPE), eq(AlarmSeverity.CRITICAL),
+				eq(ALARM_TEXT), eq(ALARM_STATUS));
+		assertEquals(CircuitState.CLOSED, alarmServiceImpl.getCircuitState());
+	}
+
+	/**
+	 * test method start, the circuit is configured by the retries of the alarm service configuration
+	 */
+	@Test
+	public void testStartRetryConfiguration() throws Exception {
+		RetryConfiguration retryConfiguration = new RetryConfiguration();
+		retryConfiguration.setFailureThreshold(1);
+		AlarmServiceConfiguration configuration = new AlarmServiceConfiguration();
+		configuration.setRetry(retryConfiguration);
+		when(mockConfigurationManager.existPath("agent", "services", "alarmService")).thenReturn(true);
+		when(mockConfigurationManager.getConfiguration(AlarmServiceConfiguration.class)).thenReturn(configuration);
+		InjectionUtil.inject(alarmServiceImpl, mockConfigurationManager);
+		doThrow(new PlatformServiceException("can't create alarm")).when(mockPlatformService)
+				.createAlarm(any(Date.class), eq(ALARM_TYPE), eq(AlarmSeverity.MAJOR), eq(ALARM_TEXT), eq(ALARM_STATUS));
+
+		alarmServiceImpl.start();
+		try {
+			alarmServiceImpl.createAlarm(ALARM_TYPE, AlarmSeverity.MAJOR, ALARM_TEXT, ALARM_STATUS);
+			fail();
+		} catch (PlatformServiceException e) {
+			assertEquals(CircuitState.OPEN, alarmServiceImpl.getCircuitState());
+		}
+	}
+
 	/**
 	 * test method createAlarm
 	 */
@@ -0,0 +1,39 @@
+package com.telekom.cot.device.agent.common.exc;
+
+/**
+ * The platform service couldn't create all measurements of a call. The measurements are created in their order, so the
+ * created ones are the first measurements and only the following ones have to be sent again.
+ *
+ */
+public class MeasurementsNotCreatedException extends PlatformServiceException {
+
+	/**
+	 * serialVersionUID
+	 */
+	private static final long serialVersionUID = -4207937811520853467L;
+
+	/** The count of the first measurements that mustn't be sent again. */
+	private final int createdCount;
+
+	/**
+	 * If only the first measurements were created.
+	 * 
+	 * @param message
+	 * @param createdCount
+	 *            the count of the first measurements that were created or dropped as invalid
+	 */
+	public MeasurementsNotCreatedException(String message, int createdCount) {
+		super(message);
+		this.createdCount = createdCount;
+	}
+
+	/**
+	 * Get the count of the first measurements that were created or dropped as invalid, they mustn't be sent again.
+	 * 
+	 * @return the count
+	 */
+	public int getCreatedCount() {
+		return createdCount;
+	}
+
+}
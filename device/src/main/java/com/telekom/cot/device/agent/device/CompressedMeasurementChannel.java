@@ -0,0 +1,252 @@
+package com.telekom.cot.device.agent.device;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.telekom.cot.device.agent.platform.objects.CompressedSeries;
+import com.telekom.cot.device.agent.platform.objects.MeasurementBatch;
+import com.telekom.cot.device.agent.platform.objects.MeasurementSymbols;
+import com.telekom.cot.device.agent.platform.objects.SensorMeasurement;
+import com.telekom.cot.device.agent.service.channel.QueueChannel;
+
+/**
+ * Queue channel of sensor measurements that keeps the measurements compressed per series (type and unit), see
+ * {@link CompressedSeries}. The measurements are decoded only when they are retrieved. The order is kept within a
+ * series, the series are retrieved one after another. A consumer of the readings (e.g. the measurement service)
+ * should wait by {@link #awaitSize(int, long, TimeUnit)} until they're due and take them in column form by
+ * {@link #drainTo(MeasurementBatch, int)}, so they stay compressed until then.
+ *
+ * If a capacity is given, new measurements are dropped while the channel is full.
+ */
+public class CompressedMeasurementChannel implements QueueChannel<SensorMeasurement> {
+
+    /** The Logger. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(CompressedMeasurementChannel.class);
+
+    /** The max. count of measurements decoded at once. */
+    private static final int DECODE_CHUNK_SIZE = 256;
+
+    /** Guards the series. */
+    private final ReentrantLock lock = new ReentrantLock();
+    /** Signals a waiting consumer that the awaited count of measurements is reached. */
+    private final Condition notEmpty = lock.newCondition();
+    /** The series by type and unit id. */
+    private final Map<Long, CompressedSeries> series = new LinkedHashMap<>();
+    /** The batch the measurements are decoded to. */
+    private final MeasurementBatch decoded = new MeasurementBatch(DECODE_CHUNK_SIZE);
+    /** The max. count of measurements. */
+    private final int capacity;
+
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    /** The current count of measurements. */
+    private int count = 0;
+    /** The count of measurements a waiting consumer is signalled at. */
+    private int awaitedSize = 1;
+
+    /**
+     * @param capacity
+     *            the max. count of measurements, {@code null} for an unbounded channel
+     */
+    public CompressedMeasurementChannel(Integer capacity) {
+        if (Objects.nonNull(capacity) && capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = Objects.nonNull(capacity) ? capacity : Integer.MAX_VALUE;
+    }
+
+    @Override
+    public void add(SensorMeasurement[] items) {
+        for (int i = 0; i < items.length; i++) {
+            add(items[i]);
+        }
+    }
+
+    @Override
+    public void add(List<SensorMeasurement> items) {
+        for (SensorMeasurement item : items) {
+            add(item);
+        }
+    }
+
+    @Override
+    public void add(SensorMeasurement item) {
+        Objects.requireNonNull(item, "no item given");
+        int typeId = MeasurementSymbols.intern(item.getType());
+        int unitId = MeasurementSymbols.intern(item.getUnit());
+        long time = Objects.nonNull(item.getTime()) ? item.getTime().getTime() : System.currentTimeMillis();
+
+        lock.lock();
+        try {
+            if (count >= capacity) {
+                droppedCount.incrementAndGet();
+                LOGGER.debug("channel is full, dropped measurement {}", item);
+                return;
+            }
+            series.computeIfAbsent(key(typeId, unitId), key -> new CompressedSeries(typeId, unitId))
+                            .add(time, item.getValue());
+            count++;
+            if (count >= awaitedSize) {
+                notEmpty.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public SensorMeasurement getItem() {
+        SensorMeasurement[] item = new SensorMeasurement[1];
+        drainTo(measurement -> item[0] = measurement, 1);
+        return item[0];
+    }
+
+    /**
+     * Decodes the measurements chunk by chunk with a single lock acquisition.
+     */
+    @Override
+    public int drainTo(Consumer<? super SensorMeasurement> consumer, int maxItems) {
+        lock.lock();
+        try {
+            int drained = 0;
+            for (CompressedSeries current : series.values()) {
+                while (drained < maxItems && current.size() > 0) {
+                    decoded.clear();
+                    int chunk = current.decodeTo(decoded, Math.min(maxItems - drained, DECODE_CHUNK_SIZE));
+                    decoded.toSensorMeasurements().forEach(consumer);
+                    drained += chunk;
+                    count -= chunk;
+                }
+            }
+            return drained;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Decodes up to maxItems measurements into the batch, no objects are created per measurement.
+     *
+     * @param batch
+     *            the batch to add the measurements to
+     * @param maxItems
+     *            the max. count of measurements to retrieve
+     * @return the count of retrieved measurements
+     */
+    public int drainTo(MeasurementBatch batch, int maxItems) {
+        lock.lock();
+        try {
+            int drained = 0;
+            for (CompressedSeries current : series.values()) {
+                if (drained >= maxItems) {
+                    break;
+                }
+                drained += current.decodeTo(batch, maxItems - drained);
+            }
+            count -= drained;
+            return drained;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until the channel holds at least the given count of measurements or the timeout expires, the measurements
+     * stay in the channel.
+     *
+     * @param minSize
+     *            the count of measurements to wait for
+     * @param timeout
+     *            the max. time to wait
+     * @param unit
+     *            the unit of the timeout
+     * @return the current count of measurements
+     * @throws InterruptedException
+     *             if the waiting thread is interrupted
+     */
+    public int awaitSize(int minSize, long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            awaitedSize = Math.max(minSize, 1);
+            while (count < minSize && nanos > 0) {
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return count;
+        } finally {
+            awaitedSize = 1;
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits on a condition until a measurement is added or the timeout expires.
+     */
+    @Override
+    public int take(Consumer<? super SensorMeasurement> consumer, int maxItems, long timeout, TimeUnit unit)
+                    throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                if (nanos <= 0) {
+                    return 0;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return drainTo(consumer, maxItems);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the current count of measurements.
+     */
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the size (in bytes) of the encoded measurements buffers.
+     */
+    public long getSizeInBytes() {
+        lock.lock();
+        try {
+            long size = 0;
+            for (CompressedSeries current : series.values()) {
+                size += current.getSizeInBytes();
+            }
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the count of measurements dropped because the channel was full.
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    private static long key(int typeId, int unitId) {
+        return ((long) typeId << 32) | (unitId & 0xffffffffL);
+    }
+}
@@ -2,8 +2,12 @@ package com.telekom.cot.device.agent.device;
 
 import com.telekom.cot.device.agent.common.annotations.ConfigurationPath;
 import com.telekom.cot.device.agent.common.configuration.Configuration;
+import com.telekom.cot.device.agent.service.channel.OverflowPolicy;
 
+import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
 
 @ConfigurationPath("agent.services.deviceService")
 public class DeviceServiceConfiguration implements Configuration {
@@ -11,6 +15,9 @@ public class DeviceServiceConfiguration implements Configuration {
     @NotNull
     private Long handlersShutdownTimeout;
 
+    @Valid
+    private QueueChannelConfiguration queueChannel;
+
 	public Long getHandlersShutdownTimeout() {
 		return handlersShutdownTimeout;
 	}
@@ -19,8 +26,74 @@ public class DeviceServiceConfiguration implements Configuration {
 		this.handlersShutdownTimeout = handlersShutdownTimeout;
 	}
 
+	public QueueChannelConfiguration getQueueChannel() {
+		return queueChannel;
+	}
+
+	public void setQueueChannel(QueueChannelConfiguration queueChannel) {
+		this.queueChannel = queueChannel;
+	}
+
 	@Override
 	public String toString() {
-		return DeviceServiceConfiguration.class.getSimpleName() + " [handlersShutdownTimeout=" + handlersShutdownTimeout + "]";
+		return DeviceServiceConfiguration.class.getSimpleName() + " [handlersShutdownTimeout=" + handlersShutdownTimeout
+				+ ", queueChannel=" + queueChannel + "]";
+	}
+
+	/**
+	 * Configuration of the queue holding the sensor measurements. If no capacity is given, the queue is unbounded. A
+	 * compressed queue keeps the measurements encoded per series and always drops new measurements while it's full.
+	 */
+	public static class QueueChannelConfiguration {
+
+		@Positive
+		private Integer capacity;
+
+		@NotNull
+		private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_OLDEST;
+
+		@NotNull @PositiveOrZero
+		private Long blockTimeout = 1000L;
+
+		@NotNull
+		private Boolean compressed = false;
+
+		public Integer getCapacity() {
+			return capacity;
+		}
+
+		public void setCapacity(Integer capacity) {
+			this.capacity = capacity;
+		}
+
+		public OverflowPolicy getOverflowPolicy() {
+			return overflowPolicy;
+		}
+
+		public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+			this.overflowPolicy = overflowPolicy;
+		}
+
+		public Long getBlockTimeout() {
+			return blockTimeout;
+		}
+
+		public void setBlockTimeout(Long blockTimeout) {
+			this.blockTimeout = blockTimeout;
+		}
+
+		public Boolean getCompressed() {
+			return compressed;
+		}
+
+		public void setCompressed(Boolean compressed) {
+			this.compressed = compressed;
+		}
+
+		@Override
+		public String toString() {
+			return QueueChannelConfiguration.class.getSimpleName() + " [capacity=" + capacity + ", overflowPolicy="
+					+ overflowPolicy + ", blockTimeout=" + blockTimeout + ", compressed=" + compressed + "]";
+		}
 	}
 }
@@ -12,11 +12,14 @@ import com.telekom.cot.device.agent.common.exc.AgentServiceNotFoundException;
 import com.telekom.cot.device.agent.common.exc.DeviceServiceException;
 import com.telekom.cot.device.agent.common.injection.Inject;
 import com.telekom.cot.device.agent.common.util.AssertionUtil;
+import com.telekom.cot.device.agent.device.DeviceServiceConfiguration.QueueChannelConfiguration;
 import com.telekom.cot.device.agent.device.sensordevice.SensorDeviceService;
 import com.telekom.cot.device.agent.platform.objects.SensorMeasurement;
 import com.telekom.cot.device.agent.service.AbstractAgentService;
 import com.telekom.cot.device.agent.service.AgentService;
 import com.telekom.cot.device.agent.service.AgentServiceProvider;
+import com.telekom.cot.device.agent.service.channel.BoundedQueueChannel;
+import com.telekom.cot.device.agent.service.channel.OverflowPolicy;
 import com.telekom.cot.device.agent.service.channel.QueueChannel;
 import com.telekom.cot.device.agent.service.channel.QueueChannelImpl;
 
@@ -47,7 +50,7 @@ public class DeviceServiceImpl extends AbstractAgentService implements DeviceSer
 
 		AssertionUtil.assertNotNull(configuration, DeviceServiceException.class, LOGGER, "no configuration given");
 
-		queueChannel = new QueueChannelImpl<>();
+		queueChannel = createQueueChannel();
 
 		// start all sensor device services
 		startSensorDeviceServices();
@@ -69,6 +72,30 @@ public class DeviceServiceImpl extends AbstractAgentService implements DeviceSer
 		}
 	}
 
+	/**
+	 * creates the queue holding the sensor measurements, bounded if a capacity is configured. Overflow policy SPILL
+	 * is rejected, the device service has no spill handler (the measurement service journals the measurements)
+	 */
+	private QueueChannel<SensorMeasurement> createQueueChannel() throws AbstractAgentException {
+		QueueChannelConfiguration queueConfiguration = configuration.getQueueChannel();
+		if (Objects.nonNull(queueConfiguration) && Boolean.TRUE.equals(queueConfiguration.getCompressed())) {
+			LOGGER.info("use compressed queue channel {}", queueConfiguration);
+			return new CompressedMeasurementChannel(queueConfiguration.getCapacity());
+		}
+		if (Objects.isNull(queueConfiguration) || Objects.isNull(queueConfiguration.getCapacity())) {
+			LOGGER.info("use unbounded queue channel");
+			return new QueueChannelImpl<>();
+		}
+
+		if (queueConfiguration.getOverflowPolicy() == OverflowPolicy.SPILL) {
+			throw AssertionUtil.createExceptionAndLog(DeviceServiceException.class, LOGGER,
+					"overflow policy SPILL isn't supported by the device service, it has no spill handler");
+		}
+		LOGGER.info("use bounded queue channel {}", queueConfiguration);
+		return new BoundedQueueChannel<>(queueConfiguration.getCapacity(), queueConfiguration.getOverflowPolicy(),
+				queueConfiguration.getBlockTimeout());
+	}
+
 	/**
 	 * starts all registered sensor device services.
 	 * 
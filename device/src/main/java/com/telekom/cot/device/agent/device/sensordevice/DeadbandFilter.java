@@ -0,0 +1,70 @@
+package com.telekom.cot.device.agent.device.sensordevice;
+
+import java.util.Objects;
+
+import com.telekom.cot.device.agent.device.sensordevice.SensorConfiguration.DeadbandConfiguration;
+
+/**
+ * Change-of-value filter of the readings of a sensor. A reading passes if there's no previous recorded reading, if it
+ * differs from the last recorded reading by more than the absolute or the percentage threshold or if the max.
+ * silence is expired since the last recorded reading (heartbeat). Without any threshold only the heartbeat readings
+ * pass, without any threshold and max. silence all readings pass.
+ */
+public class DeadbandFilter {
+
+    private static final long MILLISECONDS_PER_SECOND = 1000L;
+
+    /** the absolute threshold, negative if not configured */
+    private final float absolute;
+    /** the percentage threshold (as fraction), negative if not configured */
+    private final float fraction;
+    /** the max. time (in milliseconds) without recorded reading, 0 if not configured */
+    private final long maxSilence;
+
+    private boolean recorded = false;
+    private float lastValue;
+    private long lastTime;
+
+    public DeadbandFilter(DeadbandConfiguration configuration) {
+        this.absolute = Objects.nonNull(configuration.getAbsolute()) ? configuration.getAbsolute() : -1f;
+        this.fraction = Objects.nonNull(configuration.getPercent()) ? configuration.getPercent() / 100f : -1f;
+        this.maxSilence = Objects.nonNull(configuration.getMaxSilence())
+                        ? configuration.getMaxSilence() * MILLISECONDS_PER_SECOND : 0L;
+    }
+
+    /**
+     * Checks whether a reading has to be recorded, a recorded reading becomes the new reference.
+     *
+     * @param value
+     *            the value of the reading
+     * @param time
+     *            the time of the reading in epoch milliseconds
+     * @return true, if the reading is outside the deadband or a heartbeat is due
+     */
+    public boolean accept(float value, long time) {
+        if (!isConfigured()) {
+            return true;
+        }
+        if (recorded && !isOutside(value) && !isHeartbeatDue(time)) {
+            return false;
+        }
+
+        recorded = true;
+        lastValue = value;
+        lastTime = time;
+        return true;
+    }
+
+    private boolean isConfigured() {
+        return absolute >= 0 || fraction >= 0 || maxSilence > 0;
+    }
+
+    private boolean isOutside(float value) {
+        float delta = Math.abs(value - lastValue);
+        return (absolute >= 0 && delta > absolute) || (fraction >= 0 && delta > fraction * Math.abs(lastValue));
+    }
+
+    private boolean isHeartbeatDue(long time) {
+        return maxSilence > 0 && time - lastTime >= maxSilence;
+    }
+}
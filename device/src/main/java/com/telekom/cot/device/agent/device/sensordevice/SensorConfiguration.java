@@ -9,6 +9,7 @@ public abstract class SensorConfiguration implements Configuration {
 
 	private int recordReadingsInterval;
 	private List<AlarmConfiguration> alarmConfigurations;
+	private DeadbandConfiguration deadband;
 
 	public int getRecordReadingsInterval() {
 		return recordReadingsInterval;
@@ -26,6 +27,58 @@ public abstract class SensorConfiguration implements Configuration {
 		this.alarmConfigurations = alarmConfigurations;
 	} 
 
+	public DeadbandConfiguration getDeadband() {
+		return deadband;
+	}
+
+	public void setDeadband(DeadbandConfiguration deadband) {
+		this.deadband = deadband;
+	}
+
+	/**
+	 * Configuration of the deadband (change-of-value) filter of a sensor: a reading is only recorded if it differs
+	 * from the last recorded reading by more than one of the given thresholds or if the max. silence is expired.
+	 */
+	public static class DeadbandConfiguration {
+
+		private Float absolute;
+		private Float percent;
+		private Integer maxSilence;
+
+		public DeadbandConfiguration() {
+		}
+
+		public DeadbandConfiguration(Float absolute, Float percent, Integer maxSilence) {
+			this.absolute = absolute;
+			this.percent = percent;
+			this.maxSilence = maxSilence;
+		}
+
+		public Float getAbsolute() {
+			return absolute;
+		}
+
+		public void setAbsolute(Float absolute) {
+			this.absolute = absolute;
+		}
+
+		public Float getPercent() {
+			return percent;
+		}
+
+		public void setPercent(Float percent) {
+			this.percent = percent;
+		}
+
+		public Integer getMaxSilence() {
+			return maxSilence;
+		}
+
+		public void setMaxSilence(Integer maxSilence) {
+			this.maxSilence = maxSilence;
+		}
+	}
+
 	public static class AlarmConfiguration {
 
 		private String text;
@@ -40,6 +40,9 @@ public abstract class TemperatureSensor extends AbstractAgentService implements
 	/** the fixed rate at which values are measured */
 	private int recordReadingsInterval;
 
+	/** the change-of-value filter of the readings (optional) */
+	private DeadbandFilter deadbandFilter;
+
 	/**
 	 * gets the next temperature measurement
 	 * 
@@ -71,6 +74,10 @@ public abstract class TemperatureSensor extends AbstractAgentService implements
 		// measured
 		recordReadingsInterval = configuration.getRecordReadingsInterval();
 
+		// readings inside the deadband aren't pushed to the queue
+		deadbandFilter = Objects.nonNull(configuration.getDeadband()) ? new DeadbandFilter(configuration.getDeadband())
+				: null;
+
 		// start the thread getting the temperature measurements
 		running.set(true);
 		worker = new Thread(() -> recordReading());
@@ -116,7 +123,9 @@ public abstract class TemperatureSensor extends AbstractAgentService implements
 
 					// Push the measurement to the queue - the sensor service sends all
 					// measurements from the queue regularly
-					deviceService.getQueueChannel().add(sensorMeasurement);
+					if (isOutsideDeadband(sensorMeasurement)) {
+						deviceService.getQueueChannel().add(sensorMeasurement);
+					}
 				}
 			} catch (AbstractAgentException exception) {
 				LOGGER.error("Can't get temperature measurement", exception);
@@ -126,6 +135,22 @@ public abstract class TemperatureSensor extends AbstractAgentService implements
 		}
 	}
 
+	/**
+	 * checks the measurement by the deadband filter (if any)
+	 */
+	private boolean isOutsideDeadband(SensorMeasurement measurement) {
+		if (Objects.isNull(deadbandFilter)) {
+			return true;
+		}
+
+		long time = Objects.nonNull(measurement.getTime()) ? measurement.getTime().getTime() : System.currentTimeMillis();
+		if (deadbandFilter.accept(measurement.getValue(), time)) {
+			return true;
+		}
+		LOGGER.debug("skip measurement inside deadband, value = {}", measurement.getValue());
+		return false;
+	}
+
 	/**
 	 * sleeps for a given interval
 	 */
@@ -0,0 +1,120 @@
+package com.telekom.cot.device.agent.device;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.telekom.cot.device.agent.platform.objects.MeasurementBatch;
+import com.telekom.cot.device.agent.platform.objects.SensorMeasurement;
+
+public class CompressedMeasurementChannelTest {
+
+	/**
+	 * Test the order within a series, the series are retrieved one after another
+	 */
+	@Test
+	public void testSeriesOrder() {
+		CompressedMeasurementChannel channel = new CompressedMeasurementChannel(null);
+		channel.add(measurement("c8y_Temperature", 20f, "C", 1000L));
+		channel.add(measurement("c8y_Humidity", 50f, "%", 1000L));
+		channel.add(measurement("c8y_Temperature", 21f, "C", 2000L));
+		assertEquals(3, channel.size());
+
+		List<SensorMeasurement> items = new ArrayList<>();
+		assertEquals(3, channel.drainTo(items::add, 10));
+		assertEquals("c8y_Temperature", items.get(0).getType());
+		assertEquals(20f, items.get(0).getValue(), 0f);
+		assertEquals(1000L, items.get(0).getTime().getTime());
+		assertEquals("c8y_Temperature", items.get(1).getType());
+		assertEquals(21f, items.get(1).getValue(), 0f);
+		assertEquals(2000L, items.get(1).getTime().getTime());
+		assertEquals("c8y_Humidity", items.get(2).getType());
+		assertEquals("%", items.get(2).getUnit());
+		assertNull(channel.getItem());
+	}
+
+	/**
+	 * Test a full channel, the new measurements are dropped
+	 */
+	@Test
+	public void testCapacity() {
+		CompressedMeasurementChannel channel = new CompressedMeasurementChannel(2);
+		channel.add(new SensorMeasurement[] { measurement("c8y_Temperature", 20f, "C", 1000L),
+				measurement("c8y_Temperature", 21f, "C", 2000L), measurement("c8y_Temperature", 22f, "C", 3000L) });
+
+		assertEquals(2, channel.size());
+		assertEquals(1, channel.getDroppedCount());
+		assertEquals(20f, channel.getItem().getValue(), 0f);
+		assertEquals(21f, channel.getItem().getValue(), 0f);
+		assertNull(channel.getItem());
+	}
+
+	/**
+	 * Test take, waits until a measurement is added or the timeout expires
+	 */
+	@Test
+	public void testTake() throws InterruptedException {
+		CompressedMeasurementChannel channel = new CompressedMeasurementChannel(null);
+		List<SensorMeasurement> items = new ArrayList<>();
+		assertEquals(0, channel.take(items::add, 10, 10, TimeUnit.MILLISECONDS));
+
+		Thread producer = new Thread(() -> channel.add(measurement("c8y_Temperature", 20f, "C", 1000L)));
+		producer.start();
+		assertEquals(1, channel.take(items::add, 10, 5, TimeUnit.SECONDS));
+		assertEquals(20f, items.get(0).getValue(), 0f);
+		producer.join();
+	}
+
+	/**
+	 * Test the drain into a batch, the measurements are decoded in column form up to the max. count
+	 */
+	@Test
+	public void testDrainToBatch() {
+		CompressedMeasurementChannel channel = new CompressedMeasurementChannel(null);
+		channel.add(measurement("c8y_Temperature", 20f, "C", 1000L));
+		channel.add(measurement("c8y_Humidity", 50f, "%", 1000L));
+		channel.add(measurement("c8y_Temperature", 21f, "C", 2000L));
+
+		MeasurementBatch batch = new MeasurementBatch(4);
+		assertEquals(2, channel.drainTo(batch, 2));
+		assertEquals(1, channel.size());
+		assertEquals(1, channel.drainTo(batch, 10));
+		assertEquals(0, channel.size());
+
+		assertEquals(3, batch.size());
+		assertEquals("c8y_Temperature", batch.getType(1));
+		assertEquals(21f, batch.getValue(1), 0f);
+		assertEquals(2000L, batch.getTime(1));
+		assertEquals("c8y_Humidity", batch.getType(2));
+		assertEquals("%", batch.getUnit(2));
+	}
+
+	/**
+	 * Test awaitSize, waits until the count of measurements is reached or the timeout expires, the measurements stay
+	 * in the channel
+	 */
+	@Test
+	public void testAwaitSize() throws InterruptedException {
+		CompressedMeasurementChannel channel = new CompressedMeasurementChannel(null);
+		channel.add(measurement("c8y_Temperature", 20f, "C", 1000L));
+		assertEquals(1, channel.awaitSize(2, 10, TimeUnit.MILLISECONDS));
+
+		Thread producer = new Thread(() -> channel.add(measurement("c8y_Temperature", 21f, "C", 2000L)));
+		producer.start();
+		assertEquals(2, channel.awaitSize(2, 5, TimeUnit.SECONDS));
+		assertEquals(2, channel.size());
+		producer.join();
+	}
+
+	private static SensorMeasurement measurement(String type, float value, String unit, long time) {
+		SensorMeasurement measurement = new SensorMeasurement(type, value, unit);
+		measurement.setTime(new Date(time));
+		return measurement;
+	}
+}
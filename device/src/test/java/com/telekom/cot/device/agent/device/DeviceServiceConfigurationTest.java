@@ -8,7 +8,7 @@ import org.junit.Test;
 public class DeviceServiceConfigurationTest {
 
 	private static final Long handlersShutdownTimeout = 100L;
-    private static final String toStringValue = DeviceServiceConfiguration.class.getSimpleName() + " [handlersShutdownTimeout=" + handlersShutdownTimeout + "]";
+    private static final String toStringValue = DeviceServiceConfiguration.class.getSimpleName() + " [handlersShutdownTimeout=" + handlersShutdownTimeout + ", queueChannel=null]";
 
 	
 	private DeviceServiceConfiguration configuration;
@@ -21,10 +21,13 @@ import com.telekom.cot.device.agent.common.exc.AgentServiceNotFoundException;
 import com.telekom.cot.device.agent.common.exc.DeviceServiceException;
 import com.telekom.cot.device.agent.common.exc.SensorDeviceServiceException;
 import com.telekom.cot.device.agent.common.injection.InjectionUtil;
+import com.telekom.cot.device.agent.device.DeviceServiceConfiguration.QueueChannelConfiguration;
 import com.telekom.cot.device.agent.device.sensordevice.SensorDeviceService;
 import com.telekom.cot.device.agent.device.sensordevice.TemperatureSensor;
 import com.telekom.cot.device.agent.service.AgentServiceProvider;
+import com.telekom.cot.device.agent.service.channel.BoundedQueueChannel;
 import com.telekom.cot.device.agent.service.channel.Channel;
+import com.telekom.cot.device.agent.service.channel.OverflowPolicy;
 
 
 
@@ -213,4 +216,64 @@ public class DeviceServiceImplTest {
         
         Assert.assertThat(deviceService.getQueueChannel(), instanceOf(Channel.class));;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Test Getter for the QueueChannel with a configured capacity
+	 * Should return a bounded channel with the configured overflow policy
+	 * @throws AbstractAgentException
+	 */
+	@Test
+	public void testGetBoundedQueueChannel() throws AbstractAgentException {
+		QueueChannelConfiguration queueConfiguration = new QueueChannelConfiguration();
+		queueConfiguration.setCapacity(10);
+		queueConfiguration.setOverflowPolicy(OverflowPolicy.DROP_NEWEST);
+		deviceServiceConf.setQueueChannel(queueConfiguration);
+		InjectionUtil.inject(deviceService, deviceServiceConf);
+
+		when(mockServiceProvider.getServices(SensorDeviceService.class)).thenReturn(new ArrayList<>());
+
+		deviceService.start();
+
+		Assert.assertThat(deviceService.getQueueChannel(), instanceOf(BoundedQueueChannel.class));
+		BoundedQueueChannel<?> channel = (BoundedQueueChannel<?>) deviceService.getQueueChannel();
+		Assert.assertEquals(10, channel.getCapacity());
+		Assert.assertEquals(OverflowPolicy.DROP_NEWEST, channel.getOverflowPolicy());
+	}
+
+	/**
+	 * Test start with overflow policy SPILL
+	 * Should be rejected, there's no spill handler
+	 * @throws AbstractAgentException
+	 */
+	@Test(expected = DeviceServiceException.class)
+	public void testStartSpillQueueChannel() throws AbstractAgentException {
+		QueueChannelConfiguration queueConfiguration = new QueueChannelConfiguration();
+		queueConfiguration.setCapacity(10);
+		queueConfiguration.setOverflowPolicy(OverflowPolicy.SPILL);
+		deviceServiceConf.setQueueChannel(queueConfiguration);
+		InjectionUtil.inject(deviceService, deviceServiceConf);
+
+		when(mockServiceProvider.getServices(SensorDeviceService.class)).thenReturn(new ArrayList<>());
+
+		deviceService.start();
+	}
+
+	/**
+	 * Test Getter for the QueueChannel with a compressed queue configured
+	 * Should return a compressed channel
+	 * @throws AbstractAgentException
+	 */
+	@Test
+	public void testGetCompressedQueueChannel() throws AbstractAgentException {
+		QueueChannelConfiguration queueConfiguration = new QueueChannelConfiguration();
+		queueConfiguration.setCompressed(true);
+		deviceServiceConf.setQueueChannel(queueConfiguration);
+		InjectionUtil.inject(deviceService, deviceServiceConf);
+
+		when(mockServiceProvider.getServices(SensorDeviceService.class)).thenReturn(new ArrayList<>());
+
+		deviceService.start();
+
+		Assert.assertThat(deviceService.getQueueChannel(), instanceOf(CompressedMeasurementChannel.class));
+	}
+}
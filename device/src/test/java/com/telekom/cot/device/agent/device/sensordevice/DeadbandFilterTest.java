@@ -0,0 +1,75 @@
+package com.telekom.cot.device.agent.device.sensordevice;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.telekom.cot.device.agent.device.sensordevice.SensorConfiguration.DeadbandConfiguration;
+
+public class DeadbandFilterTest {
+
+	/**
+	 * test the absolute threshold, the reference is the last recorded reading
+	 */
+	@Test
+	public void testAbsolute() {
+		DeadbandFilter filter = new DeadbandFilter(new DeadbandConfiguration(0.5f, null, null));
+
+		assertTrue(filter.accept(20.0f, 0L));
+		assertFalse(filter.accept(20.0f, 1000L));
+		assertFalse(filter.accept(20.4f, 2000L));
+		assertTrue(filter.accept(20.6f, 3000L));
+		assertFalse(filter.accept(20.2f, 4000L));
+		assertTrue(filter.accept(20.0f, 5000L));
+	}
+
+	/**
+	 * test the percentage threshold
+	 */
+	@Test
+	public void testPercent() {
+		DeadbandFilter filter = new DeadbandFilter(new DeadbandConfiguration(null, 10f, null));
+
+		assertTrue(filter.accept(50.0f, 0L));
+		assertFalse(filter.accept(54.0f, 1000L));
+		assertTrue(filter.accept(56.0f, 2000L));
+	}
+
+	/**
+	 * test both thresholds, exceeding one of them is sufficient
+	 */
+	@Test
+	public void testAbsoluteAndPercent() {
+		DeadbandFilter filter = new DeadbandFilter(new DeadbandConfiguration(2.0f, 50f, null));
+
+		assertTrue(filter.accept(1.0f, 0L));
+		assertTrue(filter.accept(1.6f, 1000L));
+		assertFalse(filter.accept(1.7f, 2000L));
+	}
+
+	/**
+	 * test the max. silence, a reading inside the deadband is recorded as heartbeat
+	 */
+	@Test
+	public void testMaxSilence() {
+		DeadbandFilter filter = new DeadbandFilter(new DeadbandConfiguration(1.0f, null, 60));
+
+		assertTrue(filter.accept(20.0f, 0L));
+		assertFalse(filter.accept(20.0f, 59999L));
+		assertTrue(filter.accept(20.0f, 60000L));
+		assertFalse(filter.accept(20.0f, 61000L));
+	}
+
+	/**
+	 * test a deadband without any threshold and max. silence, all readings pass
+	 */
+	@Test
+	public void testNotConfigured() {
+		DeadbandFilter filter = new DeadbandFilter(new DeadbandConfiguration(null, null, null));
+
+		assertTrue(filter.accept(20.0f, 0L));
+		assertTrue(filter.accept(20.0f, 1000L));
+		assertTrue(filter.accept(20.0f, 2000L));
+	}
+}
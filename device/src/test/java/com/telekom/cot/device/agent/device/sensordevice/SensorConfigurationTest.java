@@ -25,6 +25,7 @@ public class SensorConfigurationTest {
 
 		assertEquals(0, configuration.getRecordReadingsInterval());
 		assertNull(configuration.getAlarmConfigurations());
+		assertNull(configuration.getDeadband());
 	}
 
 	@Test
@@ -39,6 +40,22 @@ public class SensorConfigurationTest {
 		assertSame(alarmConfigurations, configuration.getAlarmConfigurations());
 	}
 
+	@Test
+	public void testDeadbandConfigurationGettersAndSetters() {
+		SensorConfiguration.DeadbandConfiguration deadband = new SensorConfiguration.DeadbandConfiguration();
+		deadband.setAbsolute(0.5f);
+		deadband.setPercent(2f);
+		deadband.setMaxSilence(300);
+
+		SensorConfiguration configuration = new SensorConfiguration() {};
+		configuration.setDeadband(deadband);
+
+		assertSame(deadband, configuration.getDeadband());
+		assertEquals(0.5f, deadband.getAbsolute(), 0.0f);
+		assertEquals(2f, deadband.getPercent(), 0.0f);
+		assertEquals(Integer.valueOf(300), deadband.getMaxSilence());
+	}
+
 	@Test
 	public void testAlarmConfigurationConstructor() {
 		SensorConfiguration.AlarmConfiguration configuration = new SensorConfiguration.AlarmConfiguration();
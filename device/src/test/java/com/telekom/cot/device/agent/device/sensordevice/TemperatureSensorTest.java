@@ -212,6 +212,25 @@ public class TemperatureSensorTest {
 		verify(mockAlarmService, never()).createAlarm(any(), any(), any(), any());
 	}
 
+	/**
+	 * test method recordReading with deadband, readings inside the deadband aren't pushed to the queue but alarms are
+	 * checked
+	 */
+	@Test
+	public void testRecordReadingDeadband() throws Exception {
+		configuration.setDeadband(new SensorConfiguration.DeadbandConfiguration(1.0f, null, null));
+		sensorMeasurements.clear();
+		sensorMeasurements.add(new SensorMeasurement("c8y_Temperature", 30.0f, "C"));
+		sensorMeasurements.add(new SensorMeasurement("c8y_Temperature", 30.5f, "C"));
+
+		temperatureSensor.start();
+		TimeUnit.MILLISECONDS.sleep(1500);
+		temperatureSensor.stop();
+
+		verify(mockQueueChannel, times(1)).add(any(SensorMeasurement.class));
+		verify(mockAlarmService, times(2)).createAlarm(ALARM_TYPE, ALARM_SEVERITY, ALARM_TEXT, null);
+	}
+
 	/**
 	 * test method stop
 	 */
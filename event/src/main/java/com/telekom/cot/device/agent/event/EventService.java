@@ -2,6 +2,7 @@ package com.telekom.cot.device.agent.event;
 
 import com.telekom.cot.device.agent.common.exc.AbstractAgentException;
 import com.telekom.cot.device.agent.service.AgentService;
+import com.telekom.cot.device.agent.service.retry.CircuitState;
 
 public interface EventService extends AgentService {
 
@@ -19,4 +20,9 @@ public interface EventService extends AgentService {
 	 *             if the event can't be created or sent
 	 */
 	public void createEvent(String type, String text, String condition) throws AbstractAgentException;
+
+	/**
+	 * gets the state of the circuit breaker of the requests to the platform
+	 */
+	public CircuitState getCircuitState();
 }
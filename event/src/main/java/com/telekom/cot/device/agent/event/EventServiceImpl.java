@@ -1,16 +1,21 @@
 package com.telekom.cot.device.agent.event;
 
 import java.util.Date;
+import java.util.Objects;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.telekom.cot.device.agent.common.configuration.ConfigurationManager;
 import com.telekom.cot.device.agent.common.exc.AbstractAgentException;
 import com.telekom.cot.device.agent.common.exc.EventServiceException;
 import com.telekom.cot.device.agent.common.injection.Inject;
 import com.telekom.cot.device.agent.common.util.AssertionUtil;
 import com.telekom.cot.device.agent.platform.PlatformService;
 import com.telekom.cot.device.agent.service.AbstractAgentService;
+import com.telekom.cot.device.agent.service.retry.CircuitBreaker;
+import com.telekom.cot.device.agent.service.retry.CircuitState;
+import com.telekom.cot.device.agent.service.retry.RetryConfiguration;
 
 public class EventServiceImpl extends AbstractAgentService implements EventService {
 
@@ -19,6 +24,12 @@ public class EventServiceImpl extends AbstractAgentService implements EventServi
 	
 	@Inject
 	private PlatformService platformService;
+
+	@Inject
+	private ConfigurationManager configurationManager;
+
+	/** rejects requests while the platform is unavailable, configured at start */
+	private CircuitBreaker circuitBreaker = new CircuitBreaker("eventService", new RetryConfiguration());
 	
 	/**
 	 * {@inheritDoc}
@@ -31,6 +42,7 @@ public class EventServiceImpl extends AbstractAgentService implements EventServi
 
 		LOGGER.debug("start " + this.getClass().getSimpleName());
         AssertionUtil.assertNotNull(platformService, EventServiceException.class, LOGGER, "no platform service given");
+		circuitBreaker = new CircuitBreaker("eventService", getRetryConfiguration());
 		super.start();
 	}
 
@@ -53,6 +65,29 @@ public class EventServiceImpl extends AbstractAgentService implements EventServi
 	public void createEvent(String type, String text, String condition)
 			throws AbstractAgentException {
 		LOGGER.debug("create and send event of type '{}' with text '{}'", type, text);
-		platformService.createEvent(new Date(), type, text, condition);
+		circuitBreaker.execute(() -> platformService.createEvent(new Date(), type, text, condition),
+				EventServiceException.class);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CircuitState getCircuitState() {
+		return circuitBreaker.getState();
+	}
+
+	/**
+	 * gets the configured retries of the event service, the default retries if there's no configuration section
+	 */
+	private RetryConfiguration getRetryConfiguration() throws AbstractAgentException {
+		if (Objects.isNull(configurationManager)
+				|| !configurationManager.existPath("agent", "services", "eventService")) {
+			return new RetryConfiguration();
+		}
+
+		RetryConfiguration retryConfiguration = configurationManager.getConfiguration(EventServiceConfiguration.class)
+				.getRetry();
+		return Objects.nonNull(retryConfiguration) ? retryConfiguration : new RetryConfiguration();
 	}
 }
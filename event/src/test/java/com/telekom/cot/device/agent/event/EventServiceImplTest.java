@@ -2,6 +2,8 @@ package com.telekom.cot.device.agent.event;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
 import java.util.Date;
 
@@ -11,10 +13,14 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.slf4j.Logger;
 
+import com.telekom.cot.device.agent.common.configuration.ConfigurationManager;
 import com.telekom.cot.device.agent.common.exc.AbstractAgentException;
+import com.telekom.cot.device.agent.common.exc.EventServiceException;
 import com.telekom.cot.device.agent.common.exc.PlatformServiceException;
 import com.telekom.cot.device.agent.common.injection.InjectionUtil;
 import com.telekom.cot.device.agent.platform.PlatformService;
+import com.telekom.cot.device.agent.service.retry.CircuitState;
+import com.telekom.cot.device.agent.service.retry.RetryConfiguration;
 
 public class EventServiceImplTest {
 
@@ -26,6 +32,8 @@ public class EventServiceImplTest {
 	private Logger mockLogger;
 	@Mock
 	private PlatformService mockPlatformService;
+	@Mock
+	private ConfigurationManager mockConfigurationManager;
 
 	private EventServiceImpl eventServiceImpl = new EventServiceImpl();
 
@@ -90,6 +98,56 @@ public class EventServiceImplTest {
 		eventServiceImpl.createEvent(EVENT_TYPE, EVENT_TEXT, EVENT_STARTUP);
 	}
 
+	/**
+	 * test method createEvent, repeated failures open the circuit and further events are rejected
+	 */
+	@Test
+	public void testCreateEventCircuitOpen() throws Exception {
+		doThrow(new PlatformServiceException("can't create event")).when(mockPlatformService)
+				.createEvent(any(Date.class), eq(EVENT_TYPE), eq(EVENT_TEXT), eq(EVENT_STARTUP));
+		for (int attempt = 0; attempt < 3; attempt++) {
+			try {
+				eventServiceImpl.createEvent(EVENT_TYPE, EVENT_TEXT, EVENT_STARTUP);
+				fail();
+			} catch (PlatformServiceException e) {
+				// expected
+			}
+		}
+		assertEquals(CircuitState.OPEN, eventServiceImpl.getCircuitState());
+
+		try {
+			eventServiceImpl.createEvent(EVENT_TYPE, EVENT_TEXT, EVENT_STARTUP);
+			fail();
+		} catch (EventServiceException e) {
+			verify(mockPlatformService, times(3)).createEvent(any(Date.class), eq(EVENT_TYPE), eq(EVENT_TEXT),
+					eq(EVENT_STARTUP));
+		}
+	}
+
+	/**
+	 * test method start, the circuit is configured by the retries of the event service configuration
+	 */
+	@Test
+	public void testStartRetryConfiguration() throws Exception {
+		RetryConfiguration retryConfiguration = new RetryConfiguration();
+		retryConfiguration.setFailureThreshold(1);
+		EventServiceConfiguration configuration = new EventServiceConfiguration();
+		configuration.setRetry(retryConfiguration);
+		when(mockConfigurationManager.existPath("agent", "services", "eventService")).thenReturn(true);
+		when(mockConfigurationManager.getConfiguration(EventServiceConfiguration.class)).thenReturn(configuration);
+		InjectionUtil.inject(eventServiceImpl, mockConfigurationManager);
+		doThrow(new PlatformServiceException("can't create event")).when(mockPlatformService)
+				.createEvent(any(Date.class), eq(EVENT_TYPE), eq(EVENT_TEXT), eq(EVENT_STARTUP));
+
+		eventServiceImpl.start();
+		try {
+			eventServiceImpl.createEvent(EVENT_TYPE, EVENT_TEXT, EVENT_STARTUP);
+			fail();
+		} catch (PlatformServiceException e) {
+			assertEquals(CircuitState.OPEN, eventServiceImpl.getCircuitState());
+		}
+	}
+
 	/**
 	 * test method createEvent
 	 */
@@ -0,0 +1,187 @@
+package com.telekom.cot.device.agent.measurement;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.telekom.cot.device.agent.common.exc.AbstractAgentException;
+import com.telekom.cot.device.agent.common.exc.MeasurementsNotCreatedException;
+import com.telekom.cot.device.agent.measurement.MeasurementServiceConfiguration.CatchUpConfiguration;
+import com.telekom.cot.device.agent.platform.PlatformService;
+import com.telekom.cot.device.agent.platform.objects.MeasurementBatch;
+
+/**
+ * Uploads a measurement backlog in parallel. The backlog is split into partitions per series (measurement type), each
+ * partition is sent in chunks by one of the bounded sender workers. The chunks of a series are sent one after another
+ * and a series stops at its first failed chunk, so the order within a series is kept. The count of concurrent
+ * requests is limited by the in-flight limit.
+ *
+ * The platform service must allow concurrent calls of {@code createMeasurements}.
+ */
+public class CatchUpUploader {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CatchUpUploader.class);
+
+    private final PlatformService platformService;
+    private final int workers;
+    private final int chunkSize;
+    private final Semaphore inFlight;
+
+    private ExecutorService executorService;
+
+    /** the measurements per second of the last upload */
+    private volatile double rate = 0;
+
+    public CatchUpUploader(PlatformService platformService, CatchUpConfiguration configuration) {
+        this.platformService = platformService;
+        this.workers = configuration.getWorkers();
+        this.chunkSize = configuration.getChunkSize();
+        this.inFlight = new Semaphore(configuration.getMaxInFlight());
+    }
+
+    /**
+     * Starts the sender workers.
+     */
+    public void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executorService = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "measurement-catch-up-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Stops the sender workers.
+     */
+    public void stop() {
+        if (Objects.nonNull(executorService)) {
+            executorService.shutdownNow();
+            executorService = null;
+        }
+    }
+
+    /**
+     * Uploads the measurements and waits until all partitions are done. The measurements not sent (behind a failed
+     * chunk of their series) remain in the batch in their original order.
+     *
+     * @param measurements
+     *            the backlog to upload
+     * @return the count of sent measurements
+     * @throws InterruptedException
+     *             if the calling thread is interrupted while waiting
+     */
+    public int upload(MeasurementBatch measurements) throws InterruptedException {
+        long startTime = System.nanoTime();
+        Map<Integer, Partition> partitions = partition(measurements);
+
+        List<Callable<Void>> tasks = new ArrayList<>(partitions.size());
+        for (Partition partition : partitions.values()) {
+            tasks.add(() -> {
+                partition.send();
+                return null;
+            });
+        }
+        executorService.invokeAll(tasks);
+
+        int sent = removeSent(measurements, partitions);
+        long elapsed = System.nanoTime() - startTime;
+        rate = elapsed > 0 ? sent * (double) TimeUnit.SECONDS.toNanos(1) / elapsed : 0;
+        LOGGER.debug("uploaded {} measurements of {} series, rate = {}/s", sent, partitions.size(), rate);
+        return sent;
+    }
+
+    /**
+     * Gets the measurements per second of the last upload.
+     */
+    public double getRate() {
+        return rate;
+    }
+
+    private Map<Integer, Partition> partition(MeasurementBatch measurements) {
+        Map<Integer, Partition> partitions = new LinkedHashMap<>();
+        for (int index = 0; index < measurements.size(); index++) {
+            partitions.computeIfAbsent(measurements.getTypeId(index), typeId -> new Partition())
+                            .add(measurements, index);
+        }
+        return partitions;
+    }
+
+    /**
+     * removes the sent measurements (the first measurements of each partition) from the batch
+     */
+    private int removeSent(MeasurementBatch measurements, Map<Integer, Partition> partitions) {
+        MeasurementBatch remaining = new MeasurementBatch(Math.max(measurements.size() / 2, 1));
+        for (int index = 0; index < measurements.size(); index++) {
+            Partition partition = partitions.get(measurements.getTypeId(index));
+            if (partition.position++ >= partition.sent) {
+                remaining.add(measurements.getTime(index), measurements.getTypeId(index),
+                                measurements.getValue(index), measurements.getUnitId(index));
+            }
+        }
+
+        int sent = measurements.size() - remaining.size();
+        measurements.clear();
+        for (int index = 0; index < remaining.size(); index++) {
+            measurements.add(remaining.getTime(index), remaining.getTypeId(index), remaining.getValue(index),
+                            remaining.getUnitId(index));
+        }
+        return sent;
+    }
+
+    /**
+     * The chunks of a series.
+     */
+    private class Partition {
+
+        private final List<MeasurementBatch> chunks = new ArrayList<>();
+
+        /** the count of sent measurements */
+        private volatile int sent = 0;
+
+        /** the position of the partition while the sent measurements are removed */
+        private int position = 0;
+
+        private void add(MeasurementBatch measurements, int index) {
+            MeasurementBatch chunk = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+            if (Objects.isNull(chunk) || chunk.size() >= chunkSize) {
+                chunk = new MeasurementBatch(chunkSize);
+                chunks.add(chunk);
+            }
+            chunk.add(measurements.getTime(index), measurements.getTypeId(index), measurements.getValue(index),
+                            measurements.getUnitId(index));
+        }
+
+        private void send() throws InterruptedException {
+            for (MeasurementBatch chunk : chunks) {
+                inFlight.acquire();
+                try {
+                    platformService.createMeasurements(chunk);
+                } catch (MeasurementsNotCreatedException exception) {
+                    LOGGER.error("Couldn't send measurements of series {}", chunk.getType(0), exception);
+                    // the first measurements of the chunk were created, the remaining ones are sent again
+                    sent += exception.getCreatedCount();
+                    return;
+                } catch (AbstractAgentException | RuntimeException exception) {
+                    LOGGER.error("Couldn't send measurements of series {}", chunk.getType(0), exception);
+                    // keep the order of the series, the remaining chunks are sent by the next upload
+                    return;
+                } finally {
+                    inFlight.release();
+                }
+                sent += chunk.size();
+            }
+        }
+    }
+}
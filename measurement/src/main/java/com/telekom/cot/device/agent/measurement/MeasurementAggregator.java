@@ -0,0 +1,261 @@
+package com.telekom.cot.device.agent.measurement;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import com.telekom.cot.device.agent.measurement.MeasurementServiceConfiguration.AggregationConfiguration;
+import com.telekom.cot.device.agent.measurement.MeasurementServiceConfiguration.AggregationConfiguration.Function;
+import com.telekom.cot.device.agent.measurement.MeasurementServiceConfiguration.AggregationConfiguration.WindowType;
+import com.telekom.cot.device.agent.platform.objects.MeasurementBatch;
+import com.telekom.cot.device.agent.platform.objects.MeasurementSymbols;
+
+/**
+ * Aggregates the measurements per type over time windows and emits only the aggregates (min, max, avg, count, last).
+ *
+ * A window is split into panes of the slide length (a tumbling window is a single pane). Each pane keeps primitive
+ * running accumulators, when a pane is completed the window of the last panes is emitted. The windows are aligned to
+ * the epoch and the aggregates are timed at the window end. Adding a sample doesn't allocate.
+ *
+ * The aggregate of function AVG keeps the measurement type, the other functions add a suffix (e.g.
+ * {@code c8y_Temperature_max}). The aggregator isn't thread safe.
+ */
+public class MeasurementAggregator {
+
+    private static final long MILLISECONDS_PER_SECOND = 1000L;
+
+    private final long paneLength;
+    private final int paneCount;
+    private final Function[] functions;
+    private final int countUnitId = MeasurementSymbols.intern("");
+
+    /** the series by type id */
+    private Series[] series = new Series[16];
+
+    public MeasurementAggregator(AggregationConfiguration configuration) {
+        long windowLength = configuration.getWindowSize() * MILLISECONDS_PER_SECOND;
+        if (configuration.getWindowType() == WindowType.SLIDING && Objects.nonNull(configuration.getSlide())) {
+            paneLength = configuration.getSlide() * MILLISECONDS_PER_SECOND;
+        } else {
+            paneLength = windowLength;
+        }
+        if (paneLength > windowLength || windowLength % paneLength != 0) {
+            throw new IllegalArgumentException("the window size must be a multiple of the slide");
+        }
+
+        List<Function> configuredFunctions = configuration.getFunctions();
+        if (Objects.isNull(configuredFunctions) || configuredFunctions.isEmpty()) {
+            throw new IllegalArgumentException("no aggregate functions given");
+        }
+        paneCount = (int) (windowLength / paneLength);
+        functions = configuredFunctions.toArray(new Function[configuredFunctions.size()]);
+    }
+
+    /**
+     * Adds the samples to their series, the aggregates of the windows completed by the samples are emitted. A sample
+     * without type ({@link MeasurementSymbols#NONE}) has no series, it's skipped.
+     *
+     * @param samples
+     *            the raw measurements
+     * @param aggregates
+     *            the batch to emit the aggregates to
+     */
+    public void add(MeasurementBatch samples, MeasurementBatch aggregates) {
+        for (int index = 0; index < samples.size(); index++) {
+            if (samples.getTypeId(index) == MeasurementSymbols.NONE) {
+                continue;
+            }
+            getSeries(samples.getTypeId(index)).add(samples.getTime(index), samples.getValue(index),
+                            samples.getUnitId(index), aggregates);
+        }
+    }
+
+    /**
+     * Emits the aggregates of all windows that are completed at the given time.
+     *
+     * @param now
+     *            the current time in epoch milliseconds
+     */
+    public void advance(long now, MeasurementBatch aggregates) {
+        for (Series current : series) {
+            if (Objects.nonNull(current) && current.paneStart >= 0) {
+                current.advanceTo(paneStart(now), aggregates);
+            }
+        }
+    }
+
+    /**
+     * Emits the aggregates of the incomplete windows (timed at the last sample) and resets all series.
+     */
+    public void flush(MeasurementBatch aggregates) {
+        for (Series current : series) {
+            if (Objects.nonNull(current) && current.paneStart >= 0) {
+                current.flush(aggregates);
+            }
+        }
+    }
+
+    /**
+     * Gets the end (epoch milliseconds) of the next window to emit, {@code Long.MAX_VALUE} if there's none.
+     */
+    public long getNextWindowEnd() {
+        long next = Long.MAX_VALUE;
+        for (Series current : series) {
+            if (Objects.nonNull(current) && current.paneStart >= 0) {
+                next = Math.min(next, current.paneStart + paneLength);
+            }
+        }
+        return next;
+    }
+
+    private Series getSeries(int typeId) {
+        if (typeId >= series.length) {
+            series = Arrays.copyOf(series, Math.max(typeId + 1, series.length * 2));
+        }
+        if (Objects.isNull(series[typeId])) {
+            series[typeId] = new Series(typeId);
+        }
+        return series[typeId];
+    }
+
+    private long paneStart(long time) {
+        return time - Math.floorMod(time, paneLength);
+    }
+
+    /**
+     * The ring of pane accumulators of a measurement type.
+     */
+    private class Series {
+
+        private final int[] aggregateTypeIds = new int[functions.length];
+        private final double[] min = new double[paneCount];
+        private final double[] max = new double[paneCount];
+        private final double[] sum = new double[paneCount];
+        private final long[] count = new long[paneCount];
+        private final float[] last = new float[paneCount];
+        private final long[] lastTime = new long[paneCount];
+
+        /** the start (epoch milliseconds) of the current pane, -1 if the series is empty */
+        private long paneStart = -1;
+        /** the ring index of the current pane */
+        private int current = 0;
+        /** the sample count of all panes */
+        private long windowCount = 0;
+        private int unitId = MeasurementSymbols.NONE;
+
+        private Series(int typeId) {
+            String type = MeasurementSymbols.get(typeId);
+            for (int index = 0; index < functions.length; index++) {
+                aggregateTypeIds[index] = functions[index] == Function.AVG ? typeId
+                                : MeasurementSymbols.intern(type + "_" + functions[index].name().toLowerCase());
+            }
+            for (int pane = 0; pane < paneCount; pane++) {
+                resetPane(pane);
+            }
+        }
+
+        private void add(long time, float value, int unitId, MeasurementBatch aggregates) {
+            long samplePaneStart = paneStart(time);
+            if (paneStart < 0) {
+                paneStart = samplePaneStart;
+            } else if (samplePaneStart > paneStart) {
+                advanceTo(samplePaneStart, aggregates);
+            }
+
+            // late samples are added to the current pane
+            min[current] = Math.min(min[current], value);
+            max[current] = Math.max(max[current], value);
+            sum[current] += value;
+            count[current]++;
+            if (time >= lastTime[current]) {
+                last[current] = value;
+                lastTime[current] = time;
+            }
+            windowCount++;
+            this.unitId = unitId;
+        }
+
+        /**
+         * Completes the panes in front of the given pane start, each completed pane emits its window.
+         */
+        private void advanceTo(long targetPaneStart, MeasurementBatch aggregates) {
+            while (paneStart < targetPaneStart) {
+                if (windowCount == 0) {
+                    // nothing left to emit, skip the empty panes
+                    paneStart = targetPaneStart;
+                    return;
+                }
+
+                emit(paneStart + paneLength, aggregates);
+                paneStart += paneLength;
+                current = (current + 1) % paneCount;
+                windowCount -= count[current];
+                resetPane(current);
+            }
+        }
+
+        private void flush(MeasurementBatch aggregates) {
+            if (windowCount > 0) {
+                long time = Long.MIN_VALUE;
+                for (int pane = 0; pane < paneCount; pane++) {
+                    time = Math.max(time, lastTime[pane]);
+                }
+                emit(time, aggregates);
+            }
+            for (int pane = 0; pane < paneCount; pane++) {
+                resetPane(pane);
+            }
+            paneStart = -1;
+            windowCount = 0;
+        }
+
+        private void emit(long time, MeasurementBatch aggregates) {
+            double windowMin = Double.POSITIVE_INFINITY;
+            double windowMax = Double.NEGATIVE_INFINITY;
+            double windowSum = 0;
+            long windowLastTime = Long.MIN_VALUE;
+            float windowLast = 0;
+            for (int pane = 0; pane < paneCount; pane++) {
+                if (count[pane] > 0) {
+                    windowMin = Math.min(windowMin, min[pane]);
+                    windowMax = Math.max(windowMax, max[pane]);
+                    windowSum += sum[pane];
+                    if (lastTime[pane] >= windowLastTime) {
+                        windowLastTime = lastTime[pane];
+                        windowLast = last[pane];
+                    }
+                }
+            }
+
+            for (int index = 0; index < functions.length; index++) {
+                switch (functions[index]) {
+                    case MIN:
+                        aggregates.add(time, aggregateTypeIds[index], (float) windowMin, unitId);
+                        break;
+                    case MAX:
+                        aggregates.add(time, aggregateTypeIds[index], (float) windowMax, unitId);
+                        break;
+                    case COUNT:
+                        aggregates.add(time, aggregateTypeIds[index], windowCount, countUnitId);
+                        break;
+                    case LAST:
+                        aggregates.add(time, aggregateTypeIds[index], windowLast, unitId);
+                        break;
+                    case AVG:
+                    default:
+                        aggregates.add(time, aggregateTypeIds[index], (float) (windowSum / windowCount), unitId);
+                        break;
+                }
+            }
+        }
+
+        private void resetPane(int pane) {
+            min[pane] = Double.POSITIVE_INFINITY;
+            max[pane] = Double.NEGATIVE_INFINITY;
+            sum[pane] = 0;
+            count[pane] = 0;
+            last[pane] = 0;
+            lastTime[pane] = Long.MIN_VALUE;
+        }
+    }
+}
@@ -0,0 +1,538 @@
+package com.telekom.cot.device.agent.measurement;
+
+import static com.telekom.cot.device.agent.common.util.AssertionUtil.createExceptionAndLog;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.telekom.cot.device.agent.common.exc.AbstractAgentException;
+import com.telekom.cot.device.agent.common.exc.MeasurementServiceException;
+import com.telekom.cot.device.agent.platform.objects.MeasurementBatch;
+import com.telekom.cot.device.agent.platform.objects.MeasurementSymbols;
+import com.telekom.cot.device.agent.platform.objects.SensorMeasurement;
+
+/**
+ * Durable store-and-forward journal of sensor measurements. The measurements are appended to fixed-size, memory
+ * mapped segment files, the position up to which the measurements have been sent to the platform is kept in a
+ * separate acknowledge file. Unacknowledged measurements are replayed after a restart, fully acknowledged segments
+ * are deleted.
+ *
+ * The mapped segments are only forced to disk every {@code syncInterval} milliseconds (group commit) and when a
+ * segment is completed, so a crash loses at most the measurements of the last sync interval. A timer forces the
+ * pending writes also if nothing is appended or acknowledged anymore.
+ *
+ * Record layout: {@code length (int) | crc32 (int) | time (long) | value (float) | type | unit}, strings are stored as
+ * {@code length (short, -1 for null) | UTF-8 bytes}. A length of 0 marks the end of the records of a segment.
+ */
+public class MeasurementJournal implements Closeable {
+
+    /** The logger. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(MeasurementJournal.class);
+
+    private static final String SEGMENT_FILE_PREFIX = "segment-";
+    private static final String SEGMENT_FILE_SUFFIX = ".journal";
+    private static final String ACK_FILE_NAME = "ack.journal";
+
+    /** length and crc32 of a record */
+    private static final int RECORD_HEADER_SIZE = 8;
+    /** time, value and both string lengths of a record */
+    private static final int RECORD_FIXED_PAYLOAD_SIZE = 16;
+    /** acknowledged position and its crc32 */
+    private static final int ACK_FILE_SIZE = 16;
+    private static final long OFFSET_MASK = 0xFFFFFFFFL;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long syncInterval;
+
+    /** existing segment files by segment number */
+    private final TreeMap<Long, Path> segments = new TreeMap<>();
+    private final CRC32 crc = new CRC32();
+    private ByteBuffer payload = ByteBuffer.allocate(256);
+    /** UTF-8 encoded symbols by symbol id */
+    private byte[][] symbolBytes = new byte[16][];
+
+    private MappedByteBuffer ackBuffer;
+    private MappedByteBuffer writeBuffer;
+    private long writeSegment;
+    private long ackPosition;
+    private long lastSync;
+    private boolean dirty;
+    /** forces the pending writes of an idle journal, only if there's a sync interval */
+    private ScheduledExecutorService syncTimer;
+
+    /**
+     * @param directory
+     *            the directory of the segment files
+     * @param segmentSize
+     *            the size (in bytes) of a segment file
+     * @param syncInterval
+     *            the min. interval (in milliseconds) between forcing the written records to disk, 0 forces every
+     *            record
+     */
+    public MeasurementJournal(Path directory, int segmentSize, long syncInterval) {
+        this.directory = Objects.requireNonNull(directory, "no journal directory given");
+        this.segmentSize = segmentSize;
+        this.syncInterval = syncInterval;
+    }
+
+    /**
+     * Opens the journal, reads the acknowledged position and recovers the write position from the existing segments.
+     */
+    public synchronized void open() throws AbstractAgentException {
+        try {
+            Files.createDirectories(directory);
+            ackBuffer = map(directory.resolve(ACK_FILE_NAME), ACK_FILE_SIZE);
+            ackPosition = readAckPosition();
+
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory,
+                            SEGMENT_FILE_PREFIX + "*" + SEGMENT_FILE_SUFFIX)) {
+                for (Path segmentFile : stream) {
+                    addSegment(segmentFile);
+                }
+            }
+
+            // remove segments that are fully acknowledged (deletion may have failed before)
+            reclaimSegments(segment(ackPosition));
+            if (segments.isEmpty()) {
+                ackPosition = position(segment(ackPosition), 0);
+                writeAckPosition();
+                createWriteSegment(segment(ackPosition));
+            } else {
+                if (segment(ackPosition) < segments.firstKey()) {
+                    ackPosition = position(segments.firstKey(), 0);
+                    writeAckPosition();
+                }
+                recoverWritePosition();
+            }
+        } catch (IOException e) {
+            throw createExceptionAndLog(MeasurementServiceException.class, LOGGER,
+                            "can't open measurement journal " + directory, e);
+        }
+
+        lastSync = System.currentTimeMillis();
+        startSyncTimer();
+        LOGGER.info("opened measurement journal {} at position {}, acknowledged position {}", directory,
+                        Long.toHexString(getPosition()), Long.toHexString(ackPosition));
+    }
+
+    /**
+     * Appends a measurement to the journal.
+     */
+    public void append(SensorMeasurement measurement) throws AbstractAgentException {
+        long time = Objects.nonNull(measurement.getTime()) ? measurement.getTime().getTime() : 0L;
+        append(time, MeasurementSymbols.intern(measurement.getType()), measurement.getValue(),
+                        MeasurementSymbols.intern(measurement.getUnit()));
+    }
+
+    /**
+     * Appends the readings of a batch to the journal.
+     *
+     * @param batch
+     *            the batch
+     * @param fromIndex
+     *            the index of the first reading to append
+     */
+    public synchronized void append(MeasurementBatch batch, int fromIndex) throws AbstractAgentException {
+        for (int index = fromIndex; index < batch.size(); index++) {
+            append(batch.getTime(index), batch.getTypeId(index), batch.getValue(index), batch.getUnitId(index));
+        }
+    }
+
+    private synchronized void append(long time, int typeId, float value, int unitId) throws AbstractAgentException {
+        assertOpen();
+        encode(time, typeId, value, unitId);
+        int recordSize = RECORD_HEADER_SIZE + payload.limit();
+        if (recordSize > segmentSize) {
+            throw createExceptionAndLog(MeasurementServiceException.class, LOGGER,
+                            "measurement doesn't fit into a journal segment");
+        }
+
+        try {
+            if (writeBuffer.remaining() < recordSize) {
+                // complete the current segment, the rest is zero filled
+                writeBuffer.force();
+                createWriteSegment(writeSegment + 1);
+            }
+        } catch (IOException e) {
+            throw createExceptionAndLog(MeasurementServiceException.class, LOGGER, "can't create journal segment", e);
+        }
+
+        crc.reset();
+        crc.update(payload.array(), 0, payload.limit());
+        writeBuffer.putInt(payload.limit());
+        writeBuffer.putInt((int) crc.getValue());
+        writeBuffer.put(payload.array(), 0, payload.limit());
+        dirty = true;
+        syncIfDue();
+    }
+
+    /**
+     * Adds all measurements from the acknowledged position up to the current write position to the batch.
+     *
+     * @return the count of replayed measurements
+     */
+    public synchronized int replay(MeasurementBatch measurements) throws AbstractAgentException {
+        assertOpen();
+        int size = measurements.size();
+        try {
+            for (Path segmentFile : segments.tailMap(segment(ackPosition)).values()) {
+                long segment = segmentNumber(segmentFile);
+                ByteBuffer buffer = segment == writeSegment ? writeBuffer.duplicate() : read(segmentFile);
+                if (segment == writeSegment) {
+                    buffer.limit(buffer.position());
+                }
+                buffer.position(segment == segment(ackPosition) ? offset(ackPosition) : 0);
+                readRecords(buffer, measurements);
+            }
+        } catch (IOException e) {
+            throw createExceptionAndLog(MeasurementServiceException.class, LOGGER, "can't replay measurement journal",
+                            e);
+        }
+        return measurements.size() - size;
+    }
+
+    /**
+     * Marks all measurements up to the given position as sent and deletes the segments that aren't needed anymore.
+     *
+     * @param position
+     *            the position returned by {@link #getPosition()} after appending the last sent measurement
+     */
+    public synchronized void acknowledge(long position) throws AbstractAgentException {
+        assertOpen();
+        if (position <= ackPosition) {
+            return;
+        }
+
+        ackPosition = position;
+        writeAckPosition();
+        dirty = true;
+        reclaimSegments(segment(position));
+        syncIfDue();
+    }
+
+    /**
+     * Gets the current write position.
+     */
+    public synchronized long getPosition() {
+        return position(writeSegment, Objects.nonNull(writeBuffer) ? writeBuffer.position() : 0);
+    }
+
+    /**
+     * Gets the position up to which the measurements are acknowledged.
+     */
+    public synchronized long getAcknowledgedPosition() {
+        return ackPosition;
+    }
+
+    /**
+     * Forces all written records and the acknowledged position to disk.
+     */
+    public synchronized void sync() {
+        if (Objects.nonNull(writeBuffer)) {
+            writeBuffer.force();
+        }
+        if (Objects.nonNull(ackBuffer)) {
+            ackBuffer.force();
+        }
+        dirty = false;
+        lastSync = System.currentTimeMillis();
+    }
+
+    /**
+     * Syncs and closes the journal.
+     */
+    @Override
+    public synchronized void close() {
+        if (Objects.isNull(writeBuffer)) {
+            return;
+        }
+
+        if (Objects.nonNull(syncTimer)) {
+            syncTimer.shutdownNow();
+            syncTimer = null;
+        }
+        sync();
+        writeBuffer = null;
+        ackBuffer = null;
+        segments.clear();
+        LOGGER.info("closed measurement journal {}", directory);
+    }
+
+    private void assertOpen() throws AbstractAgentException {
+        if (Objects.isNull(writeBuffer)) {
+            throw createExceptionAndLog(MeasurementServiceException.class, LOGGER, "measurement journal isn't open");
+        }
+    }
+
+    private void syncIfDue() {
+        if (dirty && System.currentTimeMillis() - lastSync >= syncInterval) {
+            sync();
+        }
+    }
+
+    /**
+     * Gets whether there are writes not forced to disk yet.
+     */
+    synchronized boolean isDirty() {
+        return dirty;
+    }
+
+    private void startSyncTimer() {
+        if (syncInterval <= 0 || Objects.nonNull(syncTimer)) {
+            return;
+        }
+        syncTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "measurement-journal-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        syncTimer.scheduleWithFixedDelay(this::syncPending, syncInterval, syncInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * forces the pending writes if the sync interval elapsed, a failure mustn't stop the timer
+     */
+    private synchronized void syncPending() {
+        if (Objects.isNull(writeBuffer)) {
+            return;
+        }
+        try {
+            syncIfDue();
+        } catch (RuntimeException e) {
+            LOGGER.error("can't sync measurement journal {}", directory, e);
+        }
+    }
+
+    /**
+     * Scans the records from the acknowledged position on. The write position is set behind the last valid record
+     * of the last segment, a torn record and the rest of the segment are cleared.
+     */
+    private void recoverWritePosition() throws IOException {
+        long lastSegment = segments.lastKey();
+        writeSegment = lastSegment;
+        writeBuffer = map(segments.get(lastSegment), segmentSize);
+        writeBuffer.position(lastSegment == segment(ackPosition) ? offset(ackPosition) : 0);
+        readRecords(writeBuffer, null);
+
+        // clear a torn record and stale data so that they can't be mistaken for records later
+        int writePosition = writeBuffer.position();
+        boolean stale = false;
+        while (writeBuffer.hasRemaining() && !stale) {
+            stale = writeBuffer.get() != 0;
+        }
+        if (stale) {
+            LOGGER.warn("discarded invalid data behind position {} of measurement journal {}", writePosition,
+                            segments.get(lastSegment));
+            for (int index = writePosition; index < writeBuffer.limit(); index++) {
+                writeBuffer.put(index, (byte) 0);
+            }
+            writeBuffer.force();
+        }
+        writeBuffer.position(writePosition);
+    }
+
+    /**
+     * Reads the valid records from the buffer position on, the buffer position is left behind the last valid record.
+     *
+     * @param measurements
+     *            the batch to add the measurements to, {@code null} to skip the decoding
+     */
+    private void readRecords(ByteBuffer buffer, MeasurementBatch measurements) {
+        while (buffer.remaining() >= RECORD_HEADER_SIZE) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length < RECORD_FIXED_PAYLOAD_SIZE || length > buffer.remaining()) {
+                buffer.position(start);
+                return;
+            }
+
+            ByteBuffer record = buffer.slice();
+            record.limit(length);
+            crc.reset();
+            crc.update(record.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                buffer.position(start);
+                return;
+            }
+
+            if (Objects.nonNull(measurements)) {
+                decode(record, measurements);
+            }
+            buffer.position(buffer.position() + length);
+        }
+    }
+
+    private void encode(long time, int typeId, float value, int unitId) {
+        byte[] type = symbolBytes(typeId);
+        byte[] unit = symbolBytes(unitId);
+        int size = RECORD_FIXED_PAYLOAD_SIZE + length(type) + length(unit);
+        if (payload.capacity() < size) {
+            payload = ByteBuffer.allocate(size);
+        }
+
+        payload.clear();
+        payload.putLong(time);
+        payload.putFloat(value);
+        putString(type);
+        putString(unit);
+        payload.flip();
+    }
+
+    private void decode(ByteBuffer record, MeasurementBatch measurements) {
+        long time = record.getLong();
+        float value = record.getFloat();
+        String type = getString(record);
+        String unit = getString(record);
+        measurements.add(time, MeasurementSymbols.intern(type), value, MeasurementSymbols.intern(unit));
+    }
+
+    private void putString(byte[] bytes) {
+        if (Objects.isNull(bytes)) {
+            payload.putShort((short) -1);
+            return;
+        }
+        payload.putShort((short) bytes.length);
+        payload.put(bytes);
+    }
+
+    private String getString(ByteBuffer record) {
+        short length = record.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        record.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private byte[] symbolBytes(int symbolId) {
+        if (symbolId == MeasurementSymbols.NONE) {
+            return null;
+        }
+        if (symbolId >= symbolBytes.length) {
+            symbolBytes = Arrays.copyOf(symbolBytes, Math.max(symbolId + 1, symbolBytes.length * 2));
+        }
+        if (Objects.isNull(symbolBytes[symbolId])) {
+            symbolBytes[symbolId] = MeasurementSymbols.get(symbolId).getBytes(StandardCharsets.UTF_8);
+        }
+        return symbolBytes[symbolId];
+    }
+
+    private int length(byte[] bytes) {
+        return Objects.nonNull(bytes) ? bytes.length : 0;
+    }
+
+    /**
+     * Reads the acknowledged position, an invalid acknowledge file results in position 0 (replay all segments).
+     */
+    private long readAckPosition() {
+        long position = ackBuffer.getLong(0);
+        long checksum = ackBuffer.getLong(8);
+        if (position == 0 && checksum == 0) {
+            // new journal
+            return 0;
+        }
+        if (checksum != checksum(position)) {
+            LOGGER.warn("invalid acknowledged position in measurement journal {}", directory);
+            return 0;
+        }
+        return position;
+    }
+
+    private void writeAckPosition() {
+        ackBuffer.putLong(0, ackPosition);
+        ackBuffer.putLong(8, checksum(ackPosition));
+    }
+
+    private long checksum(long position) {
+        crc.reset();
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            crc.update((int) (position >>> shift));
+        }
+        return crc.getValue();
+    }
+
+    private void createWriteSegment(long segment) throws IOException {
+        Path segmentFile = directory.resolve(String.format("%s%016d%s", SEGMENT_FILE_PREFIX, segment,
+                        SEGMENT_FILE_SUFFIX));
+        writeBuffer = map(segmentFile, segmentSize);
+        writeSegment = segment;
+        segments.put(segment, segmentFile);
+        LOGGER.debug("created measurement journal segment {}", segmentFile);
+    }
+
+    private void addSegment(Path segmentFile) {
+        try {
+            segments.put(segmentNumber(segmentFile), segmentFile);
+        } catch (NumberFormatException e) {
+            LOGGER.warn("ignore unknown journal file {}", segmentFile);
+        }
+    }
+
+    /**
+     * Deletes all segments in front of the given segment.
+     */
+    private void reclaimSegments(long segment) {
+        while (!segments.isEmpty() && segments.firstKey() < segment) {
+            Path segmentFile = segments.pollFirstEntry().getValue();
+            try {
+                Files.deleteIfExists(segmentFile);
+                LOGGER.debug("deleted measurement journal segment {}", segmentFile);
+            } catch (IOException e) {
+                LOGGER.warn("can't delete measurement journal segment {}", segmentFile, e);
+            }
+        }
+    }
+
+    private MappedByteBuffer map(Path file, int size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                        StandardOpenOption.WRITE)) {
+            // the mapping stays valid after closing the channel
+            return channel.map(MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    private ByteBuffer read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private static long segmentNumber(Path segmentFile) {
+        String name = segmentFile.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_FILE_PREFIX.length(), name.length() - SEGMENT_FILE_SUFFIX.length()));
+    }
+
+    private static long position(long segment, int offset) {
+        return (segment << 32) | offset;
+    }
+
+    private static long segment(long position) {
+        return position >>> 32;
+    }
+
+    private static int offset(long position) {
+        return (int) (position & OFFSET_MASK);
+    }
+}
@@ -1,7 +1,28 @@
 package com.telekom.cot.device.agent.measurement;
 
 import com.telekom.cot.device.agent.service.AgentService;
+import com.telekom.cot.device.agent.service.retry.CircuitState;
 
 public interface MeasurementService extends AgentService {
 
+	/**
+	 * Gets the count of measurements not sent to the platform yet: the collected ones (including the ones journaled
+	 * during an outage) and the ones still queued by the device service.
+	 */
+	public int getBacklogSize();
+
+	/**
+	 * Gets the upload rate (measurements per second) of the last catch-up upload, 0 if there was none.
+	 */
+	public double getCatchUpRate();
+
+	/**
+	 * Checks whether the service is in catch-up mode (uploading a backlog in parallel).
+	 */
+	public boolean isCatchingUp();
+
+	/**
+	 * Gets the state of the circuit breaker of the requests to the platform.
+	 */
+	public CircuitState getCircuitState();
 }
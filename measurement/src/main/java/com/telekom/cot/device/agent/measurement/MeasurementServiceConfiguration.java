@@ -2,12 +2,40 @@ package com.telekom.cot.device.agent.measurement;
 
 import com.telekom.cot.device.agent.common.annotations.ConfigurationPath;
 import com.telekom.cot.device.agent.common.configuration.Configuration;
+import com.telekom.cot.device.agent.service.retry.RetryConfiguration;
+
+import java.util.Arrays;
+import java.util.List;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
 
 @ConfigurationPath("agent.services.measurementService")
 public class MeasurementServiceConfiguration implements Configuration {
 
 	private int sendInterval;
 
+	@Positive
+	private Integer flushSize;
+
+	@Positive
+	private Integer flushBytes;
+
+	@Valid
+	private AggregationConfiguration aggregation;
+
+	@Valid
+	private JournalConfiguration journal;
+
+	@Valid
+	private CatchUpConfiguration catchUp;
+
+	@Valid
+	private RetryConfiguration retry;
+
 	public int getSendInterval() {
 		return sendInterval;
 	}
@@ -15,4 +43,223 @@ public class MeasurementServiceConfiguration implements Configuration {
 	public void setSendInterval(int sendInterval) {
 		this.sendInterval = sendInterval;
 	}
+
+	public Integer getFlushSize() {
+		return flushSize;
+	}
+
+	public void setFlushSize(Integer flushSize) {
+		this.flushSize = flushSize;
+	}
+
+	public Integer getFlushBytes() {
+		return flushBytes;
+	}
+
+	public void setFlushBytes(Integer flushBytes) {
+		this.flushBytes = flushBytes;
+	}
+
+	public AggregationConfiguration getAggregation() {
+		return aggregation;
+	}
+
+	public void setAggregation(AggregationConfiguration aggregation) {
+		this.aggregation = aggregation;
+	}
+
+	public JournalConfiguration getJournal() {
+		return journal;
+	}
+
+	public void setJournal(JournalConfiguration journal) {
+		this.journal = journal;
+	}
+
+	public CatchUpConfiguration getCatchUp() {
+		return catchUp;
+	}
+
+	public void setCatchUp(CatchUpConfiguration catchUp) {
+		this.catchUp = catchUp;
+	}
+
+	public RetryConfiguration getRetry() {
+		return retry;
+	}
+
+	public void setRetry(RetryConfiguration retry) {
+		this.retry = retry;
+	}
+
+	@Override
+	public String toString() {
+		return MeasurementServiceConfiguration.class.getSimpleName() + " [sendInterval=" + sendInterval + ", flushSize="
+				+ flushSize + ", flushBytes=" + flushBytes + ", aggregation=" + aggregation
+				+ ", journal=" + journal + ", catchUp=" + catchUp + ", retry=" + retry + "]";
+	}
+
+	/**
+	 * Configuration of the aggregation of the measurements per type. If no aggregation is configured, every measurement
+	 * is sent.
+	 */
+	public static class AggregationConfiguration {
+
+		public enum WindowType { TUMBLING, SLIDING }
+
+		public enum Function { MIN, MAX, AVG, COUNT, LAST }
+
+		@NotNull
+		private WindowType windowType = WindowType.TUMBLING;
+
+		@NotNull @Positive
+		private Integer windowSize = 60;
+
+		@Positive
+		private Integer slide;
+
+		@NotNull
+		private List<Function> functions = Arrays.asList(Function.AVG);
+
+		public WindowType getWindowType() {
+			return windowType;
+		}
+
+		public void setWindowType(WindowType windowType) {
+			this.windowType = windowType;
+		}
+
+		public Integer getWindowSize() {
+			return windowSize;
+		}
+
+		public void setWindowSize(Integer windowSize) {
+			this.windowSize = windowSize;
+		}
+
+		public Integer getSlide() {
+			return slide;
+		}
+
+		public void setSlide(Integer slide) {
+			this.slide = slide;
+		}
+
+		public List<Function> getFunctions() {
+			return functions;
+		}
+
+		public void setFunctions(List<Function> functions) {
+			this.functions = functions;
+		}
+
+		@Override
+		public String toString() {
+			return AggregationConfiguration.class.getSimpleName() + " [windowType=" + windowType + ", windowSize="
+					+ windowSize + ", slide=" + slide + ", functions=" + functions + "]";
+		}
+	}
+
+	/**
+	 * Configuration of the durable measurement journal. If no journal is configured, the measurements are only kept
+	 * in memory until they are sent.
+	 */
+	public static class JournalConfiguration {
+
+		@NotNull
+		private String directory;
+
+		@NotNull @Min(1024)
+		private Integer segmentSize = 1024 * 1024;
+
+		@NotNull @PositiveOrZero
+		private Long syncInterval = 10000L;
+
+		public String getDirectory() {
+			return directory;
+		}
+
+		public void setDirectory(String directory) {
+			this.directory = directory;
+		}
+
+		public Integer getSegmentSize() {
+			return segmentSize;
+		}
+
+		public void setSegmentSize(Integer segmentSize) {
+			this.segmentSize = segmentSize;
+		}
+
+		public Long getSyncInterval() {
+			return syncInterval;
+		}
+
+		public void setSyncInterval(Long syncInterval) {
+			this.syncInterval = syncInterval;
+		}
+
+		@Override
+		public String toString() {
+			return JournalConfiguration.class.getSimpleName() + " [directory=" + directory + ", segmentSize="
+					+ segmentSize + ", syncInterval=" + syncInterval + "]";
+		}
+	}
+
+	/**
+	 * Configuration of the catch-up mode. If the backlog of collected measurements reaches the threshold, it's
+	 * uploaded in parallel per series. If no catch-up is configured, the backlog is sent by a single request.
+	 */
+	public static class CatchUpConfiguration {
+
+		@NotNull @Positive
+		private Integer threshold = 1000;
+
+		@NotNull @Positive
+		private Integer workers = 4;
+
+		@NotNull @Positive
+		private Integer maxInFlight = 4;
+
+		@NotNull @Positive
+		private Integer chunkSize = 500;
+
+		public Integer getThreshold() {
+			return threshold;
+		}
+
+		public void setThreshold(Integer threshold) {
+			this.threshold = threshold;
+		}
+
+		public Integer getWorkers() {
+			return workers;
+		}
+
+		public void setWorkers(Integer workers) {
+			this.workers = workers;
+		}
+
+		public Integer getMaxInFlight() {
+			return maxInFlight;
+		}
+
+		public void setMaxInFlight(Integer maxInFlight) {
+			this.maxInFlight = maxInFlight;
+		}
+
+		public Integer getChunkSize() {
+			return chunkSize;
+		}
+
+		public void setChunkSize(Integer chunkSize) {
+			this.chunkSize = chunkSize;
+		}
+
+		@Override
+		public String toString() {
+			return CatchUpConfiguration.class.getSimpleName() + " [threshold=" + threshold + ", workers=" + workers
+					+ ", maxInFlight=" + maxInFlight + ", chunkSize=" + chunkSize + "]";
+		}
+	}
 }
@@ -1,7 +1,8 @@
 package com.telekom.cot.device.agent.measurement;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.file.Paths;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.slf4j.Logger;
@@ -9,17 +10,29 @@ import org.slf4j.LoggerFactory;
 
 import com.telekom.cot.device.agent.common.exc.AbstractAgentException;
 import com.telekom.cot.device.agent.common.exc.MeasurementServiceException;
+import com.telekom.cot.device.agent.common.exc.MeasurementsNotCreatedException;
 import com.telekom.cot.device.agent.common.injection.Inject;
 import com.telekom.cot.device.agent.common.util.AssertionUtil;
+import com.telekom.cot.device.agent.device.CompressedMeasurementChannel;
 import com.telekom.cot.device.agent.device.DeviceService;
 import com.telekom.cot.device.agent.platform.PlatformService;
+import com.telekom.cot.device.agent.platform.objects.MeasurementBatch;
+import com.telekom.cot.device.agent.platform.objects.MeasurementBatchPool;
+import com.telekom.cot.device.agent.platform.objects.MeasurementSymbols;
 import com.telekom.cot.device.agent.platform.objects.SensorMeasurement;
 import com.telekom.cot.device.agent.service.AbstractAgentService;
 import com.telekom.cot.device.agent.service.AgentServiceProvider;
+import com.telekom.cot.device.agent.service.channel.QueueChannel;
+import com.telekom.cot.device.agent.service.retry.CircuitBreaker;
+import com.telekom.cot.device.agent.service.retry.CircuitState;
+import com.telekom.cot.device.agent.service.retry.RetryConfiguration;
 
 public class MeasurementServiceImpl extends AbstractAgentService implements MeasurementService {
 
-	private static final long MILLISECONDS_PER_SECOND = 1000l;
+	/** the estimated size (in bytes) of a sent measurement without type and unit */
+	private static final int ESTIMATED_MEASUREMENT_SIZE = 64;
+	private static final int BATCH_CAPACITY = 1024;
+	private static final int MAX_POOLED_BATCHES = 2;
 
 	/** the logger. */
 	private static final Logger LOGGER = LoggerFactory.getLogger(MeasurementServiceImpl.class);
@@ -36,8 +49,17 @@ public class MeasurementServiceImpl extends AbstractAgentService implements Meas
 	@Inject
 	private DeviceService deviceService;
 
-	/** the list of measurements pushed by all registered SensorDeviceServices */
-	private final List<SensorMeasurement> measurements = new ArrayList<>();
+	/** the pool of the measurement batches, the batches are reused between start and stop */
+	private final MeasurementBatchPool batchPool = new MeasurementBatchPool(BATCH_CAPACITY, MAX_POOLED_BATCHES);
+
+	/** the batch of measurements pushed by all registered SensorDeviceServices (or their aggregates) */
+	private MeasurementBatch measurements;
+
+	/** the aggregation stage of the measurements (optional) */
+	private MeasurementAggregator aggregator;
+
+	/** the batch of the raw measurements taken from the queue if they are aggregated */
+	private MeasurementBatch samples;
 
 	/** the running flag */
 	private AtomicBoolean running = new AtomicBoolean(false);
@@ -45,8 +67,56 @@ public class MeasurementServiceImpl extends AbstractAgentService implements Meas
 	/** the worker thread */
 	private Thread worker;
 
-	/** the fixed rate at which measurements are sent to the platform */
-	private int sendInterval;
+	/** the max. time (in nanoseconds) a measurement is collected before it's sent to the platform */
+	private long maxLatency;
+
+	/** the count of measurements that triggers sending */
+	private int flushSize;
+
+	/** the estimated size (in bytes) of the measurements that triggers sending */
+	private long flushBytes;
+
+	/** the estimated size (in bytes) of the collected measurements */
+	private long estimatedBytes;
+
+	/** the time (System.nanoTime) at which the collected measurements are sent at the latest */
+	private long flushDeadline;
+
+	/** true after a failed send, sending is retried at the flush deadline (not earlier) */
+	private boolean retryPending;
+
+	/** schedules the retries of failed sends and rejects sending while the platform is unavailable */
+	private CircuitBreaker circuitBreaker;
+
+	/** guards the interruption of the worker thread while it's waiting for measurements */
+	private final Object waitLock = new Object();
+
+	/** true while the worker thread is waiting for measurements */
+	private boolean waiting;
+
+	/** the durable journal of the collected measurements (optional) */
+	private MeasurementJournal journal;
+
+	/** the journal position behind the last measurement kept in memory */
+	private long keptPosition;
+
+	/** the batch of the measurements taken while a retry is pending, they're only appended to the journal */
+	private MeasurementBatch outageMeasurements;
+
+	/** the count of measurements only kept by the journal, they're replayed when the kept measurements are sent */
+	private int journaledCount;
+
+	/** the parallel uploader of a measurement backlog (optional) */
+	private CatchUpUploader catchUpUploader;
+
+	/** the count of collected measurements that starts the catch-up mode */
+	private int catchUpThreshold;
+
+	/** true while a backlog is uploaded in catch-up mode */
+	private volatile boolean catchingUp;
+
+	/** the count of collected measurements not sent yet (without the queued ones) */
+	private volatile int backlogSize;
 
 	/**
 	 * {@inheritDoc}
@@ -63,8 +133,23 @@ public class MeasurementServiceImpl extends AbstractAgentService implements Meas
 		AssertionUtil.assertNotNull(platformService, MeasurementServiceException.class, LOGGER,
 				"no platform service given");
 
-		// get fixed rate (in seconds) at which measurements are sent to the platform
-		sendInterval = configuration.getSendInterval();
+		// get max. latency (in seconds) and the size triggers of sending measurements to the platform
+		maxLatency = TimeUnit.SECONDS.toNanos(configuration.getSendInterval());
+		flushSize = Objects.nonNull(configuration.getFlushSize()) ? configuration.getFlushSize() : Integer.MAX_VALUE;
+		flushBytes = Objects.nonNull(configuration.getFlushBytes()) ? configuration.getFlushBytes() : Long.MAX_VALUE;
+		retryPending = false;
+		RetryConfiguration retryConfiguration = Objects.nonNull(configuration.getRetry()) ? configuration.getRetry()
+				: new RetryConfiguration();
+		circuitBreaker = new CircuitBreaker("measurementService", retryConfiguration);
+
+		measurements = batchPool.acquire();
+		createAggregator();
+		createCatchUpUploader();
+
+		// open the journal and take over the measurements not sent before the last shutdown
+		openJournal();
+		estimatedBytes = 0;
+		measurementsAdded(0);
 
 		// start the thread that sends the measurements to the platform
 		running.set(true);
@@ -82,8 +167,13 @@ public class MeasurementServiceImpl extends AbstractAgentService implements Meas
 		if (isStarted()) {
 			LOGGER.debug("stop " + this.getClass().getSimpleName());
 
-			// Set running to false so that the worker thread execution will be stopped
-			running.set(false);
+			// Set running to false so that the worker thread execution will be stopped, wake it up if it's waiting
+			synchronized (waitLock) {
+				running.set(false);
+				if (waiting) {
+					worker.interrupt();
+				}
+			}
 
 			// Wait until the worker thread finishes sending the current measurements
 			try {
@@ -94,35 +184,360 @@ public class MeasurementServiceImpl extends AbstractAgentService implements Meas
 
 			// Send measurements already collected by the SensorDeviceServices to the
 			// platform
+			getMeasurements();
 			sendMeasurements();
+			closeJournal();
+			if (Objects.nonNull(catchUpUploader)) {
+				catchUpUploader.stop();
+			}
+			batchPool.release(measurements);
+			batchPool.release(samples);
+			samples = null;
+			batchPool.release(outageMeasurements);
+			outageMeasurements = null;
 
 			super.stop();
 		}
 	}
 
 	/**
-	 * run method for the worker thread
+	 * creates the configured aggregation stage (if any)
+	 */
+	private void createAggregator() throws AbstractAgentException {
+		aggregator = null;
+		if (Objects.isNull(configuration.getAggregation())) {
+			return;
+		}
+
+		try {
+			aggregator = new MeasurementAggregator(configuration.getAggregation());
+		} catch (IllegalArgumentException e) {
+			throw AssertionUtil.createExceptionAndLog(MeasurementServiceException.class, LOGGER,
+					"invalid aggregation configuration", e);
+		}
+		samples = batchPool.acquire();
+		LOGGER.info("aggregate measurements {}", configuration.getAggregation());
+	}
+
+	/**
+	 * creates and starts the uploader of the catch-up mode (if configured)
+	 */
+	private void createCatchUpUploader() {
+		catchingUp = false;
+		catchUpThreshold = Integer.MAX_VALUE;
+		catchUpUploader = null;
+		if (Objects.isNull(configuration.getCatchUp())) {
+			return;
+		}
+
+		catchUpThreshold = configuration.getCatchUp().getThreshold();
+		catchUpUploader = new CatchUpUploader(platformService, configuration.getCatchUp());
+		catchUpUploader.start();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getBacklogSize() {
+		QueueChannel<SensorMeasurement> queueChannel = Objects.nonNull(deviceService) ? deviceService.getQueueChannel()
+				: null;
+		return backlogSize + (Objects.nonNull(queueChannel) ? queueChannel.size() : 0);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getCatchUpRate() {
+		return Objects.nonNull(catchUpUploader) ? catchUpUploader.getRate() : 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isCatchingUp() {
+		return catchingUp;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CircuitState getCircuitState() {
+		return Objects.nonNull(circuitBreaker) ? circuitBreaker.getState() : CircuitState.CLOSED;
+	}
+
+	/**
+	 * opens the configured journal and adds the unacknowledged measurements to the measurements to send
+	 */
+	private void openJournal() throws AbstractAgentException {
+		MeasurementServiceConfiguration.JournalConfiguration journalConfiguration = configuration.getJournal();
+		if (Objects.isNull(journalConfiguration)) {
+			return;
+		}
+
+		journal = new MeasurementJournal(Paths.get(journalConfiguration.getDirectory()),
+				journalConfiguration.getSegmentSize(), journalConfiguration.getSyncInterval());
+		journal.open();
+		LOGGER.info("replayed {} measurements from journal", journal.replay(measurements));
+		keptPosition = journal.getPosition();
+		journaledCount = 0;
+		outageMeasurements = batchPool.acquire();
+	}
+
+	/**
+	 * closes the journal (if any)
+	 */
+	private void closeJournal() {
+		if (Objects.nonNull(journal)) {
+			journal.close();
+			journal = null;
+		}
+	}
+
+	/**
+	 * run method for the worker thread, an unexpected exception mustn't stop it
 	 */
 	private void processMeasurements() {
 		while (running.get()) {
-			sleep();
-			getMeasurements();
-			sendMeasurements();
+			try {
+				awaitMeasurements();
+				// the measurements collected at shutdown are sent by method stop
+				if (running.get() && isFlushDue()) {
+					sendMeasurements();
+				}
+			} catch (RuntimeException exception) {
+				LOGGER.error("Couldn't process measurements", exception);
+			}
+		}
+	}
+
+	/**
+	 * waits for sensor measurements until the flush deadline (or the max. latency if nothing is collected) and adds
+	 * the available measurements. While a retry is pending the new measurements are only appended to the journal, so
+	 * they survive a restart without growing the memory. Without a journal they remain in the queue until the retry,
+	 * so its capacity and overflow policy bound the measurements kept during an outage. A compressed queue keeps the
+	 * measurements until they're due, they're taken in column form at once then
+	 */
+	private void awaitMeasurements() {
+		long timeout = measurements.isEmpty() ? maxLatency : flushDeadline - System.nanoTime();
+		if (Objects.nonNull(aggregator)) {
+			// wake up to emit the next window
+			long windowEnd = aggregator.getNextWindowEnd();
+			if (windowEnd != Long.MAX_VALUE) {
+				timeout = Math.min(timeout,
+						TimeUnit.MILLISECONDS.toNanos(windowEnd - System.currentTimeMillis()));
+			}
+		}
+		int fromIndex = measurements.size();
+		CompressedMeasurementChannel compressedChannel = getCompressedChannel();
+		boolean compressedDue = false;
+
+		synchronized (waitLock) {
+			if (!running.get()) {
+				return;
+			}
+			waiting = true;
+		}
+		try {
+			if (retryPending && Objects.isNull(journal)) {
+				TimeUnit.NANOSECONDS.sleep(Math.max(flushDeadline - System.nanoTime(), 0));
+				return;
+			}
+			if (retryPending) {
+				MeasurementBatch target = Objects.nonNull(aggregator) ? samples : outageMeasurements;
+				deviceService.getQueueChannel().take(target::add, Integer.MAX_VALUE, Math.max(timeout, 0),
+						TimeUnit.NANOSECONDS);
+			} else if (Objects.nonNull(compressedChannel)) {
+				compressedDue = awaitCompressedMeasurements(compressedChannel);
+			} else {
+				MeasurementBatch target = Objects.nonNull(aggregator) ? samples : measurements;
+				deviceService.getQueueChannel().take(target::add, Integer.MAX_VALUE, Math.max(timeout, 0),
+						TimeUnit.NANOSECONDS);
+			}
+		} catch (InterruptedException e) {
+			LOGGER.debug("stopped waiting for measurements");
+		} finally {
+			synchronized (waitLock) {
+				waiting = false;
+				// clear an interruption by stop, it mustn't hit sending or journaling
+				Thread.interrupted();
+			}
+		}
+
+		if (retryPending) {
+			if (Objects.nonNull(aggregator)) {
+				aggregator.add(samples, outageMeasurements);
+				samples.clear();
+				aggregator.advance(System.currentTimeMillis(), outageMeasurements);
+			}
+			measurementsJournaled();
+			return;
 		}
+		if (compressedDue) {
+			compressedChannel.drainTo(measurements, Integer.MAX_VALUE);
+			measurementsAdded(fromIndex);
+			// the measurements are taken when they're due, send them now
+			flushDeadline = System.nanoTime();
+			return;
+		}
+		if (Objects.nonNull(aggregator)) {
+			aggregator.add(samples, measurements);
+			samples.clear();
+			aggregator.advance(System.currentTimeMillis(), measurements);
+		}
+		measurementsAdded(fromIndex);
 	}
 
 	/**
-	 * gets all sensor measurements from the queue
+	 * waits until the measurements kept by the compressed queue are due: the flush size (or the catch-up threshold) is
+	 * reached or the max. latency since the first measurement is expired
+	 * 
+	 * @return true if the measurements are due, false if no measurement was added within the max. latency
+	 */
+	private boolean awaitCompressedMeasurements(CompressedMeasurementChannel channel) throws InterruptedException {
+		long deadline = flushDeadline;
+		if (measurements.isEmpty()) {
+			if (channel.awaitSize(1, maxLatency, TimeUnit.NANOSECONDS) == 0) {
+				return false;
+			}
+			deadline = System.nanoTime() + maxLatency;
+		}
+		channel.awaitSize(Math.min(flushSize, catchUpThreshold) - measurements.size(),
+				Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+		return true;
+	}
+
+	/**
+	 * gets the queue of the device service if it keeps the measurements compressed (and they aren't aggregated)
+	 */
+	private CompressedMeasurementChannel getCompressedChannel() {
+		QueueChannel<SensorMeasurement> queueChannel = deviceService.getQueueChannel();
+		if (Objects.isNull(aggregator) && queueChannel instanceof CompressedMeasurementChannel) {
+			return (CompressedMeasurementChannel) queueChannel;
+		}
+		return null;
+	}
+
+	/**
+	 * gets all sensor measurements from the queue (without waiting), while a retry is pending they're only journaled
 	 */
 	private void getMeasurements() {
-		SensorMeasurement measurement;
-		while ((measurement = deviceService.getQueueChannel().getItem()) != null) {
-			measurements.add(measurement);
+		boolean journalOnly = retryPending && Objects.nonNull(journal);
+		MeasurementBatch target = journalOnly ? outageMeasurements : measurements;
+		int fromIndex = measurements.size();
+		CompressedMeasurementChannel compressedChannel = getCompressedChannel();
+		if (Objects.nonNull(compressedChannel)) {
+			compressedChannel.drainTo(target, Integer.MAX_VALUE);
+		} else if (Objects.nonNull(aggregator)) {
+			// emit the incomplete windows too
+			deviceService.getQueueChannel().drainTo(samples::add, Integer.MAX_VALUE);
+			aggregator.add(samples, target);
+			samples.clear();
+			aggregator.flush(target);
+		} else {
+			deviceService.getQueueChannel().drainTo(target::add, Integer.MAX_VALUE);
+		}
+
+		if (journalOnly) {
+			measurementsJournaled();
+		} else {
+			measurementsAdded(fromIndex);
+		}
+	}
+
+	/**
+	 * updates the flush triggers and the journal by the measurements added from the given index on
+	 */
+	private void measurementsAdded(int fromIndex) {
+		if (fromIndex == measurements.size()) {
+			return;
+		}
+
+		if (fromIndex == 0 && !retryPending) {
+			flushDeadline = System.nanoTime() + maxLatency;
 		}
+		addEstimatedBytes(fromIndex);
+		writeToJournal(fromIndex);
+		backlogSize = measurements.size() + journaledCount;
+	}
+
+	/**
+	 * appends the measurements taken while a retry is pending to the journal, they're kept in memory if that fails
+	 */
+	private void measurementsJournaled() {
+		if (outageMeasurements.isEmpty()) {
+			return;
+		}
+
+		try {
+			journal.append(outageMeasurements, 0);
+			journaledCount += outageMeasurements.size();
+		} catch (AbstractAgentException exception) {
+			LOGGER.error("Couldn't write measurement to journal", exception);
+			int fromIndex = measurements.size();
+			for (int index = 0; index < outageMeasurements.size(); index++) {
+				measurements.add(outageMeasurements.getTime(index), outageMeasurements.getTypeId(index),
+						outageMeasurements.getValue(index), outageMeasurements.getUnitId(index));
+			}
+			addEstimatedBytes(fromIndex);
+		}
+		outageMeasurements.clear();
+		backlogSize = measurements.size() + journaledCount;
+	}
+
+	/**
+	 * adds the estimated size of the measurements from the given index on
+	 */
+	private void addEstimatedBytes(int fromIndex) {
+		for (int index = fromIndex; index < measurements.size(); index++) {
+			estimatedBytes += ESTIMATED_MEASUREMENT_SIZE + length(measurements.getTypeId(index))
+					+ length(measurements.getUnitId(index));
+		}
+	}
+
+	/**
+	 * checks whether the collected measurements have to be sent: the count or the estimated size (or the catch-up
+	 * threshold) is reached or the flush deadline is expired (only the deadline counts while a retry is pending)
+	 */
+	private boolean isFlushDue() {
+		if (measurements.isEmpty()) {
+			return false;
+		}
+		if (System.nanoTime() - flushDeadline >= 0) {
+			return true;
+		}
+		return !retryPending && (measurements.size() >= flushSize || estimatedBytes >= flushBytes
+				|| measurements.size() >= catchUpThreshold);
+	}
+
+	private int length(int symbolId) {
+		String symbol = MeasurementSymbols.get(symbolId);
+		return Objects.nonNull(symbol) ? symbol.length() : 0;
 	}
 
 	/**
-	 * sends the collected measurements to the platform
+	 * appends the new measurements to the journal (if any), the measurements are only kept in memory if that fails
+	 */
+	private void writeToJournal(int fromIndex) {
+		if (Objects.isNull(journal) || fromIndex == measurements.size()) {
+			return;
+		}
+
+		try {
+			journal.append(measurements, fromIndex);
+			keptPosition = journal.getPosition();
+		} catch (AbstractAgentException exception) {
+			LOGGER.error("Couldn't write measurement to journal", exception);
+		}
+	}
+
+	/**
+	 * sends the collected measurements to the platform, failed measurements are kept in front of the measurements
+	 * collected later and are retried after the backoff of the circuit breaker, the measurements created before a
+	 * failure aren't sent again
 	 */
 	private void sendMeasurements() {
 		if (measurements.isEmpty()) {
@@ -130,25 +545,119 @@ public class MeasurementServiceImpl extends AbstractAgentService implements Meas
 			return;
 		}
 
+		if (!circuitBreaker.tryAcquire()) {
+			LOGGER.debug("circuit is open, keep {} measurements", measurements.size());
+			scheduleRetry();
+			return;
+		}
+
+		if (measurements.size() >= catchUpThreshold) {
+			catchUp();
+			return;
+		}
+
 		try {
 			LOGGER.debug("Send {} measurements", measurements.size());
 			platformService.createMeasurements(measurements);
-		} catch (AbstractAgentException exception) {
+		} catch (MeasurementsNotCreatedException exception) {
+			LOGGER.error("Couldn't send measurements", exception);
+			measurements.removeFirst(exception.getCreatedCount());
+			estimatedBytes = 0;
+			addEstimatedBytes(0);
+			if (!measurements.isEmpty()) {
+				circuitBreaker.onFailure();
+				scheduleRetry();
+				return;
+			}
+		} catch (AbstractAgentException | RuntimeException exception) {
+			// any failure is recorded, a probe of the half open circuit mustn't remain pending
 			LOGGER.error("Couldn't send measurements", exception);
-			deviceService.getQueueChannel().add(measurements);
+			circuitBreaker.onFailure();
+			scheduleRetry();
+			return;
 		}
-		measurements.clear();
+
+		circuitBreaker.onSuccess();
+		retryPending = false;
+		measurementsSent();
 	}
 
 	/**
-	 * sleeps for a given interval
+	 * schedules the next attempt to send the kept measurements
 	 */
-	private void sleep() {
+	private void scheduleRetry() {
+		retryPending = true;
+		flushDeadline = System.nanoTime() + circuitBreaker.getRetryDelay();
+		backlogSize = measurements.size() + journaledCount;
+	}
+
+	/**
+	 * uploads the collected backlog in parallel per series, the measurements not sent remain in their order and are
+	 * retried after the backoff
+	 */
+	private void catchUp() {
+		if (!catchingUp) {
+			LOGGER.info("start catch-up of {} measurements", measurements.size());
+			catchingUp = true;
+		}
+
 		try {
-			Thread.sleep(sendInterval * MILLISECONDS_PER_SECOND);
-		} catch (InterruptedException e) {
+			catchUpUploader.upload(measurements);
+		} catch (InterruptedException exception) {
+			LOGGER.warn("catch-up upload has been interrupted");
 			Thread.currentThread().interrupt();
-			LOGGER.info("Thread was interrupted, failed to send measurements");
+		} catch (RuntimeException exception) {
+			LOGGER.error("Couldn't upload the backlog", exception);
+		}
+
+		if (!measurements.isEmpty()) {
+			LOGGER.error("Couldn't send {} measurements of the backlog", measurements.size());
+			circuitBreaker.onFailure();
+			estimatedBytes = 0;
+			addEstimatedBytes(0);
+			scheduleRetry();
+			return;
+		}
+
+		circuitBreaker.onSuccess();
+		retryPending = false;
+		measurementsSent();
+		catchingUp = false;
+		LOGGER.info("backlog uploaded, leave catch-up mode (rate = {} measurements/s)", catchUpUploader.getRate());
+	}
+
+	/**
+	 * acknowledges the sent measurements in the journal (if any) and clears them, the measurements journaled while the
+	 * retry was pending are taken over and sent next
+	 */
+	private void measurementsSent() {
+		measurements.clear();
+		estimatedBytes = 0;
+		if (Objects.nonNull(journal)) {
+			try {
+				journal.acknowledge(keptPosition);
+			} catch (AbstractAgentException exception) {
+				LOGGER.error("Couldn't acknowledge sent measurements in journal", exception);
+			}
+			if (journaledCount > 0) {
+				replayJournaled();
+			}
+		}
+		journaledCount = 0;
+		backlogSize = measurements.size();
+	}
+
+	/**
+	 * adds the measurements journaled while the retry was pending to the measurements to send, they're due at once
+	 */
+	private void replayJournaled() {
+		try {
+			LOGGER.info("take over {} measurements journaled during the outage", journal.replay(measurements));
+		} catch (AbstractAgentException exception) {
+			LOGGER.error("Couldn't replay the measurements journaled during the outage", exception);
 		}
+		keptPosition = journal.getPosition();
+		addEstimatedBytes(0);
+		flushDeadline = System.nanoTime();
 	}
 }
@@ -0,0 +1,139 @@
+package com.telekom.cot.device.agent.measurement;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.telekom.cot.device.agent.common.exc.PlatformServiceException;
+import com.telekom.cot.device.agent.measurement.MeasurementServiceConfiguration.CatchUpConfiguration;
+import com.telekom.cot.device.agent.platform.PlatformService;
+import com.telekom.cot.device.agent.platform.objects.MeasurementBatch;
+import com.telekom.cot.device.agent.platform.objects.MeasurementSymbols;
+
+public class CatchUpUploaderTest {
+
+	private static final int TYPE_A = MeasurementSymbols.intern("c8y_A");
+	private static final int TYPE_B = MeasurementSymbols.intern("c8y_B");
+
+	private PlatformService mockPlatformService = mock(PlatformService.class);
+	private CatchUpConfiguration configuration = new CatchUpConfiguration();
+	private List<String> sent = Collections.synchronizedList(new ArrayList<>());
+	private MeasurementBatch measurements = new MeasurementBatch(8);
+	private CatchUpUploader uploader;
+
+	@Before
+	public void setUp() throws Exception {
+		configuration.setChunkSize(1);
+		doAnswer(invocation -> {
+			MeasurementBatch chunk = invocation.getArgument(0);
+			for (int index = 0; index < chunk.size(); index++) {
+				if (chunk.getValue(index) < 0) {
+					throw new PlatformServiceException("test");
+				}
+				sent.add(chunk.getType(index) + chunk.getValue(index));
+			}
+			return null;
+		}).when(mockPlatformService).createMeasurements(any(MeasurementBatch.class));
+
+		measurements.add(1000L, TYPE_A, 1f, MeasurementSymbols.NONE);
+		measurements.add(2000L, TYPE_B, 1f, MeasurementSymbols.NONE);
+		measurements.add(3000L, TYPE_A, 2f, MeasurementSymbols.NONE);
+		measurements.add(4000L, TYPE_B, 2f, MeasurementSymbols.NONE);
+		measurements.add(5000L, TYPE_A, 3f, MeasurementSymbols.NONE);
+	}
+
+	@After
+	public void tearDown() {
+		if (uploader != null) {
+			uploader.stop();
+		}
+	}
+
+	/**
+	 * test method upload, all measurements are sent in the order of their series
+	 */
+	@Test
+	public void testUpload() throws Exception {
+		uploader = createUploader();
+
+		assertEquals(5, uploader.upload(measurements));
+
+		assertTrue(measurements.isEmpty());
+		assertEquals(Arrays.asList("c8y_A1.0", "c8y_A2.0", "c8y_A3.0"), filter("c8y_A"));
+		assertEquals(Arrays.asList("c8y_B1.0", "c8y_B2.0"), filter("c8y_B"));
+		assertTrue(uploader.getRate() > 0);
+	}
+
+	/**
+	 * test method upload with a failed chunk, the series stops at the failed chunk and the measurements not sent
+	 * remain in their order
+	 */
+	@Test
+	public void testUploadFailure() throws Exception {
+		MeasurementBatch backlog = new MeasurementBatch(8);
+		backlog.add(1000L, TYPE_A, 1f, MeasurementSymbols.NONE);
+		backlog.add(2000L, TYPE_B, -1f, MeasurementSymbols.NONE);
+		backlog.add(3000L, TYPE_A, 2f, MeasurementSymbols.NONE);
+		backlog.add(4000L, TYPE_B, 2f, MeasurementSymbols.NONE);
+		uploader = createUploader();
+
+		assertEquals(2, uploader.upload(backlog));
+
+		assertEquals(Arrays.asList("c8y_A1.0", "c8y_A2.0"), filter("c8y_A"));
+		assertTrue(filter("c8y_B").isEmpty());
+		assertEquals(2, backlog.size());
+		assertEquals(2000L, backlog.getTime(0));
+		assertEquals(4000L, backlog.getTime(1));
+	}
+
+	/**
+	 * test the in-flight limit, not more requests than the limit are sent concurrently
+	 */
+	@Test
+	public void testInFlightLimit() throws Exception {
+		configuration.setWorkers(4);
+		configuration.setMaxInFlight(1);
+		AtomicInteger inFlight = new AtomicInteger();
+		AtomicInteger maxInFlight = new AtomicInteger();
+		doAnswer(invocation -> {
+			maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			TimeUnit.MILLISECONDS.sleep(20);
+			inFlight.decrementAndGet();
+			return null;
+		}).when(mockPlatformService).createMeasurements(any(MeasurementBatch.class));
+		uploader = createUploader();
+
+		assertEquals(5, uploader.upload(measurements));
+
+		assertEquals(1, maxInFlight.get());
+	}
+
+	private CatchUpUploader createUploader() {
+		CatchUpUploader catchUpUploader = new CatchUpUploader(mockPlatformService, configuration);
+		catchUpUploader.start();
+		return catchUpUploader;
+	}
+
+	private List<String> filter(String type) {
+		List<String> result = new ArrayList<>();
+		for (String value : sent) {
+			if (value.startsWith(type)) {
+				result.add(value);
+			}
+		}
+		return result;
+	}
+}
@@ -0,0 +1,152 @@
+package com.telekom.cot.device.agent.measurement;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.telekom.cot.device.agent.measurement.MeasurementServiceConfiguration.AggregationConfiguration;
+import com.telekom.cot.device.agent.measurement.MeasurementServiceConfiguration.AggregationConfiguration.Function;
+import com.telekom.cot.device.agent.measurement.MeasurementServiceConfiguration.AggregationConfiguration.WindowType;
+import com.telekom.cot.device.agent.platform.objects.MeasurementBatch;
+import com.telekom.cot.device.agent.platform.objects.MeasurementSymbols;
+
+public class MeasurementAggregatorTest {
+
+	private static final int TYPE = MeasurementSymbols.intern("c8y_Temperature");
+	private static final int UNIT = MeasurementSymbols.intern("C");
+
+	private AggregationConfiguration configuration;
+	private MeasurementBatch samples = new MeasurementBatch(8);
+	private MeasurementBatch aggregates = new MeasurementBatch(8);
+
+	@Before
+	public void setUp() {
+		configuration = new AggregationConfiguration();
+		configuration.setWindowSize(60);
+		configuration.setFunctions(Arrays.asList(Function.MIN, Function.MAX, Function.AVG, Function.COUNT, Function.LAST));
+	}
+
+	/**
+	 * test a tumbling window, the window is emitted by the first sample of the next window
+	 */
+	@Test
+	public void testTumblingWindow() {
+		MeasurementAggregator aggregator = new MeasurementAggregator(configuration);
+		samples.add(60000L, TYPE, 20f, UNIT);
+		samples.add(70000L, TYPE, 24f, UNIT);
+		samples.add(80000L, TYPE, 22f, UNIT);
+		aggregator.add(samples, aggregates);
+		assertTrue(aggregates.isEmpty());
+
+		samples.clear();
+		samples.add(120000L, TYPE, 30f, UNIT);
+		aggregator.add(samples, aggregates);
+
+		assertEquals(5, aggregates.size());
+		assertAggregate(0, "c8y_Temperature_min", 120000L, 20f);
+		assertAggregate(1, "c8y_Temperature_max", 120000L, 24f);
+		assertAggregate(2, "c8y_Temperature", 120000L, 22f);
+		assertAggregate(3, "c8y_Temperature_count", 120000L, 3f);
+		assertAggregate(4, "c8y_Temperature_last", 120000L, 22f);
+		assertEquals("C", aggregates.getUnit(0));
+		assertEquals("", aggregates.getUnit(3));
+	}
+
+	/**
+	 * test a sliding window, each completed pane emits the window of the last panes
+	 */
+	@Test
+	public void testSlidingWindow() {
+		configuration.setWindowType(WindowType.SLIDING);
+		configuration.setSlide(30);
+		configuration.setFunctions(Arrays.asList(Function.AVG));
+		MeasurementAggregator aggregator = new MeasurementAggregator(configuration);
+
+		samples.add(0L, TYPE, 10f, UNIT);
+		samples.add(30000L, TYPE, 20f, UNIT);
+		samples.add(60000L, TYPE, 30f, UNIT);
+		aggregator.add(samples, aggregates);
+
+		assertEquals(2, aggregates.size());
+		assertAggregate(0, "c8y_Temperature", 30000L, 10f);
+		assertAggregate(1, "c8y_Temperature", 60000L, 15f);
+
+		aggregator.advance(90000L, aggregates);
+		assertEquals(3, aggregates.size());
+		assertAggregate(2, "c8y_Temperature", 90000L, 25f);
+	}
+
+	/**
+	 * test method advance, completed windows are emitted by the clock and empty windows are skipped
+	 */
+	@Test
+	public void testAdvance() {
+		configuration.setFunctions(Arrays.asList(Function.COUNT));
+		MeasurementAggregator aggregator = new MeasurementAggregator(configuration);
+		samples.add(60000L, TYPE, 20f, UNIT);
+		aggregator.add(samples, aggregates);
+		assertEquals(120000L, aggregator.getNextWindowEnd());
+
+		aggregator.advance(119999L, aggregates);
+		assertTrue(aggregates.isEmpty());
+
+		aggregator.advance(3600000L, aggregates);
+		assertEquals(1, aggregates.size());
+		assertAggregate(0, "c8y_Temperature_count", 120000L, 1f);
+	}
+
+	/**
+	 * test method flush, the incomplete window is emitted at the time of its last sample
+	 */
+	@Test
+	public void testFlush() {
+		configuration.setFunctions(Arrays.asList(Function.AVG));
+		MeasurementAggregator aggregator = new MeasurementAggregator(configuration);
+		samples.add(60000L, TYPE, 20f, UNIT);
+		samples.add(65000L, TYPE, 30f, UNIT);
+		aggregator.add(samples, aggregates);
+
+		aggregator.flush(aggregates);
+
+		assertEquals(1, aggregates.size());
+		assertAggregate(0, "c8y_Temperature", 65000L, 25f);
+		assertEquals(Long.MAX_VALUE, aggregator.getNextWindowEnd());
+	}
+
+	/**
+	 * test a sample without type, it's skipped
+	 */
+	@Test
+	public void testSampleWithoutType() {
+		configuration.setFunctions(Arrays.asList(Function.COUNT));
+		MeasurementAggregator aggregator = new MeasurementAggregator(configuration);
+		samples.add(60000L, MeasurementSymbols.NONE, 10f, UNIT);
+		samples.add(65000L, TYPE, 20f, UNIT);
+		aggregator.add(samples, aggregates);
+
+		aggregator.flush(aggregates);
+
+		assertEquals(1, aggregates.size());
+		assertAggregate(0, "c8y_Temperature_count", 65000L, 1f);
+	}
+
+	/**
+	 * test a window size that isn't a multiple of the slide
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidSlide() {
+		configuration.setWindowType(WindowType.SLIDING);
+		configuration.setSlide(25);
+		new MeasurementAggregator(configuration);
+	}
+
+	private void assertAggregate(int index, String type, long time, float value) {
+		assertEquals(type, aggregates.getType(index));
+		assertEquals(time, aggregates.getTime(index));
+		assertEquals(value, aggregates.getValue(index), 0.001f);
+	}
+}
@@ -0,0 +1,164 @@
+package com.telekom.cot.device.agent.measurement;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.telekom.cot.device.agent.common.exc.MeasurementServiceException;
+import com.telekom.cot.device.agent.platform.objects.MeasurementBatch;
+import com.telekom.cot.device.agent.platform.objects.SensorMeasurement;
+
+public class MeasurementJournalTest {
+
+	private static final int SEGMENT_SIZE = 1024;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Path directory;
+	private MeasurementJournal journal;
+
+	@Before
+	public void setUp() throws Exception {
+		directory = folder.getRoot().toPath().resolve("journal");
+		journal = new MeasurementJournal(directory, SEGMENT_SIZE, 0);
+		journal.open();
+	}
+
+	@After
+	public void tearDown() {
+		journal.close();
+	}
+
+	/**
+	 * test methods append and replay after reopening the journal
+	 */
+	@Test
+	public void testAppendAndReplay() throws Exception {
+		SensorMeasurement measurement = new SensorMeasurement("c8y_Temperature", 25.3f, "\u00b0C");
+		measurement.setTime(new Date(1234567890L));
+		journal.append(measurement);
+		journal.append(new SensorMeasurement("c8y_Humidity", 40f, null));
+		journal.close();
+
+		journal = new MeasurementJournal(directory, SEGMENT_SIZE, 0);
+		journal.open();
+		MeasurementBatch measurements = new MeasurementBatch(1);
+
+		assertEquals(2, journal.replay(measurements));
+		assertEquals("c8y_Temperature", measurements.getType(0));
+		assertEquals(25.3f, measurements.getValue(0), 0f);
+		assertEquals("\u00b0C", measurements.getUnit(0));
+		assertEquals(1234567890L, measurements.getTime(0));
+		assertEquals("c8y_Humidity", measurements.getType(1));
+		assertNull(measurements.getUnit(1));
+	}
+
+	/**
+	 * test method acknowledge, acknowledged measurements aren't replayed
+	 */
+	@Test
+	public void testAcknowledge() throws Exception {
+		journal.append(new SensorMeasurement("c8y_Temperature", 1f, "C"));
+		journal.acknowledge(journal.getPosition());
+		journal.append(new SensorMeasurement("c8y_Temperature", 2f, "C"));
+		journal.close();
+
+		journal = new MeasurementJournal(directory, SEGMENT_SIZE, 0);
+		journal.open();
+		MeasurementBatch measurements = new MeasurementBatch(1);
+
+		assertEquals(1, journal.replay(measurements));
+		assertEquals(2f, measurements.getValue(0), 0f);
+	}
+
+	/**
+	 * test segment roll over and reclaiming of acknowledged segments
+	 */
+	@Test
+	public void testSegmentReclaim() throws Exception {
+		for (int i = 0; i < 100; i++) {
+			journal.append(new SensorMeasurement("c8y_Temperature", i, "C"));
+		}
+		assertTrue(segmentFiles().size() > 1);
+		assertEquals(100, journal.replay(new MeasurementBatch(1)));
+
+		journal.acknowledge(journal.getPosition());
+
+		assertEquals(1, segmentFiles().size());
+		assertEquals(0, journal.replay(new MeasurementBatch(1)));
+	}
+
+	/**
+	 * test recovery of a journal with a torn record, the valid records are replayed
+	 */
+	@Test
+	public void testTornRecord() throws Exception {
+		journal.append(new SensorMeasurement("c8y_Temperature", 1f, "C"));
+		int offset = (int) journal.getPosition();
+		journal.append(new SensorMeasurement("c8y_Temperature", 2f, "C"));
+		journal.close();
+
+		// corrupt the second record
+		try (RandomAccessFile file = new RandomAccessFile(segmentFiles().get(0).toFile(), "rw")) {
+			file.seek(offset + 10);
+			file.write(0x7f);
+		}
+
+		journal = new MeasurementJournal(directory, SEGMENT_SIZE, 0);
+		journal.open();
+		assertEquals(offset, (int) journal.getPosition());
+		assertEquals(1, journal.replay(new MeasurementBatch(1)));
+
+		journal.append(new SensorMeasurement("c8y_Temperature", 3f, "C"));
+		MeasurementBatch measurements = new MeasurementBatch(1);
+		assertEquals(2, journal.replay(measurements));
+		assertEquals(3f, measurements.getValue(1), 0f);
+	}
+
+	/**
+	 * test method append, journal isn't open
+	 */
+	@Test(expected = MeasurementServiceException.class)
+	public void testAppendNotOpen() throws Exception {
+		journal.close();
+		journal.append(new SensorMeasurement("c8y_Temperature", 1f, "C"));
+	}
+
+	/**
+	 * test the sync timer, the pending writes of an idle journal are forced after the sync interval
+	 */
+	@Test
+	public void testSyncIdle() throws Exception {
+		journal.close();
+		journal = new MeasurementJournal(directory, SEGMENT_SIZE, 100);
+		journal.open();
+		journal.append(new SensorMeasurement("c8y_Temperature", 1f, "C"));
+		assertTrue(journal.isDirty());
+
+		for (int index = 0; index < 50 && journal.isDirty(); index++) {
+			TimeUnit.MILLISECONDS.sleep(20);
+		}
+		assertFalse(journal.isDirty());
+	}
+
+	private List<Path> segmentFiles() throws Exception {
+		return Files.list(directory).filter(path -> path.getFileName().toString().startsWith("segment-")).sorted()
+				.collect(Collectors.toList());
+	}
+}
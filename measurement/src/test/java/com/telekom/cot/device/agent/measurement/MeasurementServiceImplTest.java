@@ -2,15 +2,22 @@ package com.telekom.cot.device.agent.measurement;
 
 import com.telekom.cot.device.agent.common.exc.AbstractAgentException;
 import com.telekom.cot.device.agent.common.exc.MeasurementServiceException;
+import com.telekom.cot.device.agent.common.exc.MeasurementsNotCreatedException;
 import com.telekom.cot.device.agent.common.exc.PlatformServiceException;
 import com.telekom.cot.device.agent.common.injection.InjectionUtil;
+import com.telekom.cot.device.agent.device.CompressedMeasurementChannel;
 import com.telekom.cot.device.agent.device.DeviceService;
 import com.telekom.cot.device.agent.platform.PlatformService;
+import com.telekom.cot.device.agent.platform.objects.MeasurementBatch;
 import com.telekom.cot.device.agent.platform.objects.SensorMeasurement;
 import com.telekom.cot.device.agent.service.AgentServiceProvider;
 import com.telekom.cot.device.agent.service.channel.QueueChannel;
+import com.telekom.cot.device.agent.service.retry.CircuitState;
+import com.telekom.cot.device.agent.service.retry.RetryConfiguration;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
@@ -21,6 +28,7 @@ import java.util.Date;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -41,6 +49,9 @@ public class MeasurementServiceImplTest {
 
 	private MeasurementServiceConfiguration configuration;
 
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
 	private MeasurementServiceImpl measurementServiceImpl = new MeasurementServiceImpl();
 
 	@Before
@@ -63,6 +74,8 @@ public class MeasurementServiceImplTest {
 		// mock platform service
 		doNothing().when(mockPlatformService).createEvent(any(Date.class), any(String.class), any(String.class), any(String.class));
 		when(mockDeviceService.getQueueChannel()).thenReturn(queueChannel);
+		when(queueChannel.drainTo(any(), anyInt())).thenCallRealMethod();
+		when(queueChannel.take(any(), anyInt(), anyLong(), any())).thenCallRealMethod();
 
 		// mock sensor
 		List<SensorMeasurement> measurementList = new ArrayList<SensorMeasurement>();
@@ -140,7 +153,7 @@ public class MeasurementServiceImplTest {
 		//wait until measurements sent
 		TimeUnit.MILLISECONDS.sleep(1100);
 
-		verify(mockPlatformService, atLeastOnce()).createMeasurements(any());
+		verify(mockPlatformService, atLeastOnce()).createMeasurements(any(MeasurementBatch.class));
 	}
 
 	/**
@@ -154,7 +167,7 @@ public class MeasurementServiceImplTest {
 
 		when(queueChannel.getItem()).thenReturn(sensorMeasurement)	//first call
 				.thenReturn(null);				//second call
-		Mockito.doThrow(new PlatformServiceException("test")).when(mockPlatformService).createMeasurements(sensorMeasurements);
+		Mockito.doThrow(new PlatformServiceException("test")).when(mockPlatformService).createMeasurements(any(MeasurementBatch.class));
 
 
 
@@ -165,4 +178,348 @@ public class MeasurementServiceImplTest {
 
 		verify(mockLogger, atLeastOnce()).error(eq("Couldn't send measurements"), any(PlatformServiceException.class));
 	}
+
+	/**
+	 * test method start with journal, unacknowledged measurements of the journal are sent and acknowledged
+	 */
+	@Test
+	public void testStartReplaysJournal() throws Exception {
+		MeasurementServiceConfiguration.JournalConfiguration journalConfiguration = new MeasurementServiceConfiguration.JournalConfiguration();
+		journalConfiguration.setDirectory(folder.getRoot().getAbsolutePath());
+		configuration.setJournal(journalConfiguration);
+
+		MeasurementJournal journal = new MeasurementJournal(folder.getRoot().toPath(), 1024, 0);
+		journal.open();
+		journal.append(new SensorMeasurement("test", 9000f, "C"));
+		journal.close();
+
+		measurementServiceImpl.start();
+		measurementServiceImpl.stop();
+
+		verify(mockPlatformService).createMeasurements(any(MeasurementBatch.class));
+		journal.open();
+		assertEquals(0, journal.replay(new MeasurementBatch(1)));
+		journal.close();
+	}
+
+	/**
+	 * test the size trigger, measurements are sent before the send interval expires
+	 */
+	@Test
+	public void testFlushBySize() throws Exception {
+		configuration.setSendInterval(60);
+		configuration.setFlushSize(2);
+		when(queueChannel.getItem()).thenReturn(new SensorMeasurement("test", 1f, "C"))
+				.thenReturn(new SensorMeasurement("test", 2f, "C")).thenReturn(null);
+
+		measurementServiceImpl.start();
+
+		verify(mockPlatformService, timeout(1000)).createMeasurements(any(MeasurementBatch.class));
+		measurementServiceImpl.stop();
+	}
+
+	/**
+	 * test a compressed queue, the measurements stay compressed until the flush size is reached and are sent at once
+	 */
+	@Test
+	public void testCompressedQueueChannel() throws Exception {
+		configuration.setSendInterval(60);
+		configuration.setFlushSize(3);
+		CompressedMeasurementChannel compressedChannel = new CompressedMeasurementChannel(null);
+		when(mockDeviceService.getQueueChannel()).thenReturn(compressedChannel);
+		List<Float> sentValues = new ArrayList<>();
+		doAnswer(invocation -> {
+			MeasurementBatch batch = invocation.getArgument(0);
+			for (int index = 0; index < batch.size(); index++) {
+				sentValues.add(batch.getValue(index));
+			}
+			return null;
+		}).when(mockPlatformService).createMeasurements(any(MeasurementBatch.class));
+
+		measurementServiceImpl.start();
+		compressedChannel.add(new SensorMeasurement("test", 1f, "C"));
+		compressedChannel.add(new SensorMeasurement("test", 2f, "C"));
+		TimeUnit.MILLISECONDS.sleep(100);
+		assertEquals(2, compressedChannel.size());
+		verify(mockPlatformService, never()).createMeasurements(any(MeasurementBatch.class));
+
+		compressedChannel.add(new SensorMeasurement("test", 3f, "C"));
+		verify(mockPlatformService, timeout(1000)).createMeasurements(any(MeasurementBatch.class));
+		measurementServiceImpl.stop();
+
+		assertEquals(0, compressedChannel.size());
+		assertEquals(3, sentValues.size());
+		assertEquals(1f, sentValues.get(0), 0f);
+		assertEquals(3f, sentValues.get(2), 0f);
+	}
+
+	/**
+	 * test method stop, the waiting worker thread is woken up and the remaining measurements are sent
+	 */
+	@Test
+	public void testStopWakesUpWorker() throws Exception {
+		configuration.setSendInterval(60);
+		measurementServiceImpl.start();
+		TimeUnit.MILLISECONDS.sleep(100);
+		when(queueChannel.getItem()).thenReturn(new SensorMeasurement("test", 1f, "C")).thenReturn(null);
+
+		long start = System.currentTimeMillis();
+		measurementServiceImpl.stop();
+
+		assertTrue(System.currentTimeMillis() - start < 1000);
+		verify(mockPlatformService).createMeasurements(any(MeasurementBatch.class));
+	}
+
+	/**
+	 * test the aggregation stage, only the aggregate of the window is sent
+	 */
+	@Test
+	public void testAggregation() throws Exception {
+		configuration.setSendInterval(60);
+		configuration.setAggregation(new MeasurementServiceConfiguration.AggregationConfiguration());
+		SensorMeasurement first = new SensorMeasurement("test", 1f, "C");
+		first.setTime(new Date(60000L));
+		SensorMeasurement second = new SensorMeasurement("test", 3f, "C");
+		second.setTime(new Date(61000L));
+		when(queueChannel.getItem()).thenReturn(first).thenReturn(second).thenReturn(null);
+		List<Float> sentValues = new ArrayList<>();
+		doAnswer(invocation -> {
+			MeasurementBatch batch = invocation.getArgument(0);
+			for (int index = 0; index < batch.size(); index++) {
+				sentValues.add(batch.getValue(index));
+			}
+			return null;
+		}).when(mockPlatformService).createMeasurements(any(MeasurementBatch.class));
+
+		measurementServiceImpl.start();
+		TimeUnit.MILLISECONDS.sleep(100);
+		measurementServiceImpl.stop();
+
+		assertEquals(1, sentValues.size());
+		assertEquals(2f, sentValues.get(0), 0f);
+	}
+
+	/**
+	 * test the retry of a failed send, the failed measurements are kept and sent after the backoff, the later
+	 * measurements are sent after them
+	 */
+	@Test
+	public void testRetryKeepsFailedMeasurementsAtHead() throws Exception {
+		configuration.setSendInterval(60);
+		configuration.setFlushSize(1);
+		RetryConfiguration retryConfiguration = new RetryConfiguration();
+		retryConfiguration.setInitialBackoff(200L);
+		retryConfiguration.setJitter(0.0);
+		retryConfiguration.setFailureThreshold(1);
+		configuration.setRetry(retryConfiguration);
+		when(queueChannel.getItem()).thenReturn(new SensorMeasurement("test", 1f, "C")).thenReturn(null)
+				.thenReturn(new SensorMeasurement("test", 2f, "C")).thenReturn(null);
+		List<Float> sentValues = new ArrayList<>();
+		doThrow(new PlatformServiceException("test")).doAnswer(invocation -> {
+			MeasurementBatch batch = invocation.getArgument(0);
+			for (int index = 0; index < batch.size(); index++) {
+				sentValues.add(batch.getValue(index));
+			}
+			return null;
+		}).when(mockPlatformService).createMeasurements(any(MeasurementBatch.class));
+
+		measurementServiceImpl.start();
+		TimeUnit.MILLISECONDS.sleep(100);
+		assertEquals(CircuitState.OPEN, measurementServiceImpl.getCircuitState());
+		verify(mockPlatformService, times(1)).createMeasurements(any(MeasurementBatch.class));
+
+		verify(mockPlatformService, timeout(1000).times(3)).createMeasurements(any(MeasurementBatch.class));
+		measurementServiceImpl.stop();
+
+		assertEquals(2, sentValues.size());
+		assertEquals(1f, sentValues.get(0), 0f);
+		assertEquals(2f, sentValues.get(1), 0f);
+		assertEquals(CircuitState.CLOSED, measurementServiceImpl.getCircuitState());
+		verify(queueChannel, never()).add(any(List.class));
+	}
+
+	/**
+	 * test the retry after a runtime exception, the failure is recorded and the worker keeps sending
+	 */
+	@Test
+	public void testRetryAfterRuntimeException() throws Exception {
+		configuration.setSendInterval(60);
+		configuration.setFlushSize(1);
+		RetryConfiguration retryConfiguration = new RetryConfiguration();
+		retryConfiguration.setInitialBackoff(100L);
+		retryConfiguration.setJitter(0.0);
+		retryConfiguration.setFailureThreshold(1);
+		configuration.setRetry(retryConfiguration);
+		when(queueChannel.getItem()).thenReturn(new SensorMeasurement("test", 1f, "C")).thenReturn(null);
+		doThrow(new IllegalStateException("test")).doThrow(new IllegalStateException("test")).doNothing()
+				.when(mockPlatformService).createMeasurements(any(MeasurementBatch.class));
+
+		measurementServiceImpl.start();
+		verify(mockPlatformService, timeout(2000).times(3)).createMeasurements(any(MeasurementBatch.class));
+		TimeUnit.MILLISECONDS.sleep(100);
+
+		assertEquals(CircuitState.CLOSED, measurementServiceImpl.getCircuitState());
+		assertEquals(0, measurementServiceImpl.getBacklogSize());
+		measurementServiceImpl.stop();
+	}
+
+	/**
+	 * test the retry of partially created measurements, only the measurements not created are sent again
+	 */
+	@Test
+	public void testRetryMeasurementsNotCreated() throws Exception {
+		configuration.setSendInterval(60);
+		configuration.setFlushSize(2);
+		RetryConfiguration retryConfiguration = new RetryConfiguration();
+		retryConfiguration.setInitialBackoff(100L);
+		retryConfiguration.setJitter(0.0);
+		configuration.setRetry(retryConfiguration);
+		when(queueChannel.getItem()).thenReturn(new SensorMeasurement("test", 1f, "C"))
+				.thenReturn(new SensorMeasurement("test", 2f, "C")).thenReturn(null);
+		List<Float> sentValues = new ArrayList<>();
+		doThrow(new MeasurementsNotCreatedException("test", 1)).doAnswer(invocation -> {
+			MeasurementBatch batch = invocation.getArgument(0);
+			for (int index = 0; index < batch.size(); index++) {
+				sentValues.add(batch.getValue(index));
+			}
+			return null;
+		}).when(mockPlatformService).createMeasurements(any(MeasurementBatch.class));
+
+		measurementServiceImpl.start();
+		verify(mockPlatformService, timeout(1000).times(2)).createMeasurements(any(MeasurementBatch.class));
+		measurementServiceImpl.stop();
+
+		assertEquals(1, sentValues.size());
+		assertEquals(2f, sentValues.get(0), 0f);
+	}
+
+	/**
+	 * test a pending retry without journal, the queue isn't drained until the retry, so its capacity bounds the kept
+	 * measurements
+	 */
+	@Test
+	public void testRetryPendingDoesntDrainQueue() throws Exception {
+		configuration.setSendInterval(60);
+		configuration.setFlushSize(1);
+		RetryConfiguration retryConfiguration = new RetryConfiguration();
+		retryConfiguration.setInitialBackoff(10000L);
+		retryConfiguration.setJitter(0.0);
+		retryConfiguration.setFailureThreshold(1);
+		configuration.setRetry(retryConfiguration);
+		when(queueChannel.getItem()).thenReturn(new SensorMeasurement("test", 1f, "C")).thenReturn(null)
+				.thenReturn(new SensorMeasurement("test", 2f, "C")).thenReturn(null);
+		doThrow(new PlatformServiceException("test")).when(mockPlatformService)
+				.createMeasurements(any(MeasurementBatch.class));
+
+		measurementServiceImpl.start();
+		verify(mockPlatformService, timeout(1000).times(1)).createMeasurements(any(MeasurementBatch.class));
+		TimeUnit.MILLISECONDS.sleep(200);
+
+		verify(queueChannel, times(2)).getItem();
+		// the backlog includes the queued measurements
+		when(queueChannel.size()).thenReturn(1);
+		assertEquals(2, measurementServiceImpl.getBacklogSize());
+		measurementServiceImpl.stop();
+	}
+
+	/**
+	 * test a pending retry with journal, the measurements taken during the outage are journaled and survive a restart
+	 */
+	@Test
+	public void testRetryPendingJournalsQueue() throws Exception {
+		MeasurementServiceConfiguration.JournalConfiguration journalConfiguration = new MeasurementServiceConfiguration.JournalConfiguration();
+		journalConfiguration.setDirectory(folder.getRoot().getAbsolutePath());
+		configuration.setJournal(journalConfiguration);
+		configuration.setSendInterval(60);
+		configuration.setFlushSize(1);
+		RetryConfiguration retryConfiguration = new RetryConfiguration();
+		retryConfiguration.setInitialBackoff(10000L);
+		retryConfiguration.setJitter(0.0);
+		retryConfiguration.setFailureThreshold(1);
+		configuration.setRetry(retryConfiguration);
+		when(queueChannel.getItem()).thenReturn(new SensorMeasurement("test", 1f, "C")).thenReturn(null)
+				.thenReturn(new SensorMeasurement("test", 2f, "C")).thenReturn(null)
+				.thenReturn(new SensorMeasurement("test", 3f, "C")).thenReturn(null);
+		doThrow(new PlatformServiceException("test")).when(mockPlatformService)
+				.createMeasurements(any(MeasurementBatch.class));
+
+		measurementServiceImpl.start();
+		verify(mockPlatformService, timeout(1000).times(1)).createMeasurements(any(MeasurementBatch.class));
+		TimeUnit.MILLISECONDS.sleep(200);
+		assertEquals(3, measurementServiceImpl.getBacklogSize());
+		measurementServiceImpl.stop();
+
+		MeasurementJournal journal = new MeasurementJournal(folder.getRoot().toPath(), 1024, 0);
+		journal.open();
+		MeasurementBatch replayed = new MeasurementBatch(3);
+		assertEquals(3, journal.replay(replayed));
+		journal.close();
+		assertEquals(1f, replayed.getValue(0), 0f);
+		assertEquals(2f, replayed.getValue(1), 0f);
+		assertEquals(3f, replayed.getValue(2), 0f);
+	}
+
+	/**
+	 * test the retry with journal, the measurements journaled during the outage are sent after the kept measurements
+	 */
+	@Test
+	public void testRetrySendsJournaledMeasurements() throws Exception {
+		MeasurementServiceConfiguration.JournalConfiguration journalConfiguration = new MeasurementServiceConfiguration.JournalConfiguration();
+		journalConfiguration.setDirectory(folder.getRoot().getAbsolutePath());
+		configuration.setJournal(journalConfiguration);
+		configuration.setSendInterval(60);
+		configuration.setFlushSize(1);
+		RetryConfiguration retryConfiguration = new RetryConfiguration();
+		retryConfiguration.setInitialBackoff(200L);
+		retryConfiguration.setJitter(0.0);
+		retryConfiguration.setFailureThreshold(1);
+		configuration.setRetry(retryConfiguration);
+		when(queueChannel.getItem()).thenReturn(new SensorMeasurement("test", 1f, "C")).thenReturn(null)
+				.thenReturn(new SensorMeasurement("test", 2f, "C")).thenReturn(null);
+		List<Float> sentValues = new ArrayList<>();
+		doThrow(new PlatformServiceException("test")).doAnswer(invocation -> {
+			MeasurementBatch batch = invocation.getArgument(0);
+			for (int index = 0; index < batch.size(); index++) {
+				sentValues.add(batch.getValue(index));
+			}
+			return null;
+		}).when(mockPlatformService).createMeasurements(any(MeasurementBatch.class));
+
+		measurementServiceImpl.start();
+		verify(mockPlatformService, timeout(1000).times(3)).createMeasurements(any(MeasurementBatch.class));
+		measurementServiceImpl.stop();
+
+		assertEquals(2, sentValues.size());
+		assertEquals(1f, sentValues.get(0), 0f);
+		assertEquals(2f, sentValues.get(1), 0f);
+		assertEquals(0, measurementServiceImpl.getBacklogSize());
+		MeasurementJournal journal = new MeasurementJournal(folder.getRoot().toPath(), 1024, 0);
+		journal.open();
+		assertEquals(0, journal.replay(new MeasurementBatch(1)));
+		journal.close();
+	}
+
+	/**
+	 * test the catch-up mode, a backlog reaching the threshold is uploaded at once in chunks per series
+	 */
+	@Test
+	public void testCatchUp() throws Exception {
+		configuration.setSendInterval(60);
+		MeasurementServiceConfiguration.CatchUpConfiguration catchUpConfiguration = new MeasurementServiceConfiguration.CatchUpConfiguration();
+		catchUpConfiguration.setThreshold(3);
+		catchUpConfiguration.setChunkSize(1);
+		configuration.setCatchUp(catchUpConfiguration);
+		when(queueChannel.getItem()).thenReturn(new SensorMeasurement("a", 1f, "C"))
+				.thenReturn(new SensorMeasurement("b", 2f, "C")).thenReturn(new SensorMeasurement("a", 3f, "C"))
+				.thenReturn(null);
+
+		measurementServiceImpl.start();
+
+		verify(mockPlatformService, timeout(1000).times(3)).createMeasurements(any(MeasurementBatch.class));
+		TimeUnit.MILLISECONDS.sleep(100);
+		assertEquals(0, measurementServiceImpl.getBacklogSize());
+		assertFalse(measurementServiceImpl.isCatchingUp());
+		assertTrue(measurementServiceImpl.getCatchUpRate() > 0);
+		measurementServiceImpl.stop();
+	}
 }
@@ -0,0 +1,221 @@
+package com.telekom.cot.device.agent.platform.mqtt;
+
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.telekom.cot.device.agent.platform.mqtt.PlatformServiceMqttConfiguration.ReconnectConfiguration;
+import com.telekom.cot.device.agent.platform.mqtt.event.ConnectionStateAgentEvent;
+import com.telekom.cot.device.agent.platform.mqtt.event.ConnectionStateAgentEvent.ConnectionState;
+
+/**
+ * Supervises the MQTT connection. The MQTT client doesn't report a lost connection, so a disconnect is detected by a
+ * failed publish (see {@link #disconnected(String)}) or by the keepalive: if nothing was received for the keepalive
+ * interval, the probe publishes a request and waits for its response. A connection the client restored on its own
+ * doesn't restore the subscription, so the probe fails in this case, too.
+ * <p>
+ * After a disconnect the supervisor calls the reconnector until it succeeds, the delays between the attempts grow
+ * exponentially from the initial delay up to the max. delay and are shortened by a random jitter, so a fleet of agents
+ * doesn't reconnect at once. The state is {@link ConnectionState#RECONNECTING} while an attempt runs and
+ * {@link ConnectionState#DISCONNECTED} between the attempts. Each transition of the connection state is published as
+ * {@link ConnectionStateAgentEvent}.
+ * <p>
+ * The probe and the reconnector run on the single thread of the supervisor.
+ */
+public class ConnectionSupervisor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConnectionSupervisor.class);
+
+    private final ReconnectConfiguration configuration;
+    private final BooleanSupplier probe;
+    private final BooleanSupplier reconnector;
+    private final Consumer<ConnectionStateAgentEvent> listener;
+    private final ScheduledExecutorService scheduler;
+
+    private ConnectionState state = ConnectionState.CONNECTED;
+    /** The count of failed reconnect attempts since the connection was lost. */
+    private int attempts;
+    private volatile long lastActivity = System.nanoTime();
+    private volatile boolean closed;
+
+    /**
+     * Creates and starts the supervisor of an established connection.
+     *
+     * @param configuration
+     *            the backoff and the keepalive interval
+     * @param probe
+     *            checks the connection by a request, true if its response was received
+     * @param reconnector
+     *            connects and restores the subscription, true if it succeeded
+     * @param listener
+     *            gets the transitions of the connection state
+     */
+    public ConnectionSupervisor(ReconnectConfiguration configuration, BooleanSupplier probe,
+                    BooleanSupplier reconnector, Consumer<ConnectionStateAgentEvent> listener) {
+        this.configuration = configuration;
+        this.probe = probe;
+        this.reconnector = reconnector;
+        this.listener = listener;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mqtt-supervisor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long keepAliveInterval = configuration.getKeepAliveInterval();
+        if (keepAliveInterval > 0) {
+            scheduler.scheduleWithFixedDelay(this::keepAlive, keepAliveInterval, keepAliveInterval,
+                            TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Notes the receipt of a message, the connection is alive.
+     */
+    public void activity() {
+        lastActivity = System.nanoTime();
+    }
+
+    /**
+     * Notes a lost connection, a reconnect is scheduled if the connection wasn't known to be lost yet.
+     *
+     * @param reason
+     *            the reason for the log
+     */
+    public void disconnected(String reason) {
+        synchronized (this) {
+            if (closed || state != ConnectionState.CONNECTED) {
+                return;
+            }
+            LOGGER.warn("MQTT connection lost: {}", reason);
+            state = ConnectionState.DISCONNECTED;
+            attempts = 0;
+        }
+        notifyListener(ConnectionState.DISCONNECTED, 0);
+        scheduleReconnect(0);
+    }
+
+    public synchronized ConnectionState getState() {
+        return state;
+    }
+
+    public synchronized int getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * Stops the keepalive and the reconnect attempts.
+     */
+    public void close() {
+        closed = true;
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Gets the delay of a reconnect attempt, the exponential backoff reduced by a random part of the jitter.
+     *
+     * @param attempt
+     *            the count of failed attempts before
+     * @return the delay in milliseconds
+     */
+    long getDelay(int attempt) {
+        long delay = configuration.getInitialDelay();
+        long maxDelay = configuration.getMaxDelay();
+        for (int index = 0; index < attempt && delay < maxDelay; index++) {
+            delay *= configuration.getMultiplier();
+        }
+        delay = Math.min(delay, maxDelay);
+        long jitter = delay * configuration.getJitter() / 100;
+        return jitter > 0 ? delay - ThreadLocalRandom.current().nextLong(jitter + 1) : delay;
+    }
+
+    private void scheduleReconnect(int attempt) {
+        if (closed) {
+            return;
+        }
+        long delay = getDelay(attempt);
+        LOGGER.info("reconnect attempt {} in {} ms", attempt + 1, delay);
+        try {
+            scheduler.schedule(this::reconnect, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            LOGGER.debug("supervisor is closed, no reconnect");
+        }
+    }
+
+    private void reconnect() {
+        int failedAttempts;
+        synchronized (this) {
+            if (closed || state != ConnectionState.DISCONNECTED) {
+                return;
+            }
+            state = ConnectionState.RECONNECTING;
+            failedAttempts = attempts;
+        }
+        notifyListener(ConnectionState.RECONNECTING, failedAttempts);
+        boolean connected;
+        try {
+            connected = reconnector.getAsBoolean();
+        } catch (Exception e) {
+            LOGGER.error("can't reconnect", e);
+            connected = false;
+        }
+        synchronized (this) {
+            if (connected) {
+                attempts = 0;
+                state = ConnectionState.CONNECTED;
+                lastActivity = System.nanoTime();
+            } else {
+                failedAttempts = ++attempts;
+                state = ConnectionState.DISCONNECTED;
+            }
+        }
+        if (connected) {
+            LOGGER.info("MQTT connection restored after {} failed attempts", failedAttempts);
+            notifyListener(ConnectionState.CONNECTED, failedAttempts);
+        } else {
+            notifyListener(ConnectionState.DISCONNECTED, failedAttempts);
+            scheduleReconnect(failedAttempts);
+        }
+    }
+
+    private void keepAlive() {
+        if (getState() != ConnectionState.CONNECTED) {
+            return;
+        }
+        long idle = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - lastActivity);
+        if (idle < configuration.getKeepAliveInterval()) {
+            return;
+        }
+        LOGGER.debug("nothing received for {} s, probe the connection", idle);
+        boolean alive;
+        try {
+            alive = probe.getAsBoolean();
+        } catch (Exception e) {
+            LOGGER.error("can't probe the connection", e);
+            alive = false;
+        }
+        if (alive) {
+            activity();
+        } else {
+            disconnected("no response to the keepalive probe");
+        }
+    }
+
+    private void notifyListener(ConnectionState connectionState, int failedAttempts) {
+        if (Objects.isNull(listener)) {
+            return;
+        }
+        try {
+            listener.accept(new ConnectionStateAgentEvent(this, connectionState, failedAttempts));
+        } catch (Exception e) {
+            LOGGER.error("can't publish the connection state " + connectionState, e);
+        }
+    }
+}
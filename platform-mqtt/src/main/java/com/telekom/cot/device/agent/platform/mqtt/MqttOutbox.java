@@ -0,0 +1,557 @@
+package com.telekom.cot.device.agent.platform.mqtt;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.telekom.cot.device.agent.common.exc.AbstractAgentException;
+import com.telekom.cot.device.agent.common.exc.PlatformServiceException;
+import com.telekom.cot.device.agent.platform.mqtt.PlatformServiceMqttConfiguration.OutboxConfiguration;
+
+/**
+ * Durable outbox of the outbound SmartREST messages. A message is recorded in a journal file before it's handed to
+ * the MQTT client and removed when its publish is acknowledged. If a publish fails, the outbox is replaying: the
+ * messages not acknowledged yet are published again one by one in the sequence of their recording, new messages are
+ * only recorded until all older ones are acknowledged. A failed replay is retried after the retry interval, a replay
+ * is also started by {@link #replay()}, e.g. after a reconnect.
+ *
+ * The messages are recorded per lane (see {@link OutboundLane}): a lane's messages expire after the configured expiry
+ * (lanes with expiry 0 aren't recorded at all) and if the outbox is full, the oldest message of the lowest priority
+ * lane is dropped. The journal is appended by records and acknowledgements and compacted from time to time, a record
+ * is forced to the disk before the message is published, an acknowledgement isn't (a lost acknowledgement causes a
+ * duplicate publish at most). Each journal entry ends with its CRC32 and a payload is at most
+ * {@value #MAX_PAYLOAD_LENGTH} bytes, the journal is read up to the first entry that doesn't match.
+ */
+public class MqttOutbox {
+
+    /** The logger. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(MqttOutbox.class);
+
+    static final String JOURNAL_FILE = "mqtt-outbox.journal";
+
+    private static final byte RECORD = 'R';
+    private static final byte ACKNOWLEDGEMENT = 'A';
+    /** The max. length (in bytes) of a recorded payload, a longer message is published without recording it. */
+    static final int MAX_PAYLOAD_LENGTH = 1024 * 1024;
+    /** The min. count of obsolete journal entries before the journal is compacted. */
+    private static final int COMPACTION_THRESHOLD = 256;
+
+    private final Path journal;
+    private final int maxMessages;
+    private final long retryInterval;
+    private final long ackTimeout;
+    private final long[] expiries = new long[OutboundLane.values().length];
+    /** Publishes a message by the MQTT client, the callback gets its acknowledgement. */
+    private final BiConsumer<String, Consumer<Boolean>> publisher;
+    /** The replay thread, it also schedules the retries. */
+    private final ScheduledThreadPoolExecutor executor;
+
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    /** The messages not acknowledged yet, in the sequence of their recording. */
+    private final Map<Long, Message> pending = new LinkedHashMap<>();
+    private FileChannel channel;
+    private long sequence = 0;
+    /** The journal entries of messages not pending any more. */
+    private int obsoleteEntries = 0;
+    /** Whether the pending messages are to be replayed before new messages are published. */
+    private boolean replaying = false;
+    /** The scheduled or running replay. */
+    private ScheduledFuture<?> scheduledReplay;
+    private boolean closed = false;
+
+    /**
+     * Opens the outbox, the messages not acknowledged by the previous run are restored from the journal. They're
+     * replayed by {@link #replay()}.
+     *
+     * @param configuration
+     *            the outbox configuration
+     * @param ackTimeout
+     *            the max. time to wait for the acknowledgement of a replayed publish
+     * @param unit
+     *            the time unit of the acknowledgement timeout
+     * @param publisher
+     *            publishes a message by the MQTT client
+     * @throws AbstractAgentException
+     *             if the journal can't be opened
+     */
+    public MqttOutbox(OutboxConfiguration configuration, long ackTimeout, TimeUnit unit,
+                    BiConsumer<String, Consumer<Boolean>> publisher) throws AbstractAgentException {
+        this.journal = Paths.get(configuration.getDirectory(), JOURNAL_FILE);
+        this.maxMessages = configuration.getMaxMessages();
+        this.retryInterval = TimeUnit.SECONDS.toMillis(configuration.getRetryInterval());
+        this.ackTimeout = unit.toMillis(ackTimeout);
+        this.publisher = publisher;
+        for (OutboundLane lane : OutboundLane.values()) {
+            Integer expiry = Objects.nonNull(configuration.getExpiries()) ? configuration.getExpiries().get(lane)
+                            : null;
+            expiries[lane.ordinal()] = TimeUnit.SECONDS
+                            .toMillis(Objects.nonNull(expiry) ? expiry : lane.getDefaultOutboxExpiry());
+        }
+        executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "mqtt-outbox");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+
+        try {
+            Files.createDirectories(journal.getParent());
+            restore();
+            compact();
+        } catch (IOException exception) {
+            executor.shutdownNow();
+            throw new PlatformServiceException("can't open outbox journal " + journal, exception);
+        }
+        replaying = !pending.isEmpty();
+        LOGGER.info("opened outbox {} with {} messages to replay", journal, pending.size());
+    }
+
+    /**
+     * Whether the messages of the lane are recorded.
+     */
+    public boolean isRecorded(OutboundLane lane) {
+        return expiries[lane.ordinal()] > 0;
+    }
+
+    /**
+     * Records the message and publishes it, unless older messages are to be replayed. A message of a lane which
+     * isn't recorded is published at once. A recorded message is accepted by the outbox: its delivery is up to the
+     * replay, so a failed publish isn't reported to the caller (e.g. it mustn't open the circuit breaker of the alarm
+     * service, which would reject the following alarms).
+     *
+     * @param lane
+     *            the lane of the message
+     * @param message
+     *            the SmartREST message
+     * @param callback
+     *            gets whether the message was published and acknowledged or accepted by the outbox for the replay,
+     *            false if a message which isn't recorded couldn't be published
+     */
+    public void publish(OutboundLane lane, String message, Consumer<Boolean> callback) {
+        if (!isRecorded(lane)) {
+            publisher.accept(message, callback);
+            return;
+        }
+        Message recorded;
+        boolean queued;
+        synchronized (this) {
+            recorded = record(lane, message);
+            queued = replaying && Objects.nonNull(recorded);
+        }
+        if (queued) {
+            LOGGER.info("queued {} for the replay", recorded);
+            callback.accept(true);
+            return;
+        }
+        publisher.accept(message, result -> {
+            // a message which couldn't be recorded is just published
+            if (Objects.isNull(recorded)) {
+                callback.accept(result);
+                return;
+            }
+            if (Boolean.TRUE.equals(result)) {
+                acknowledge(recorded);
+            } else {
+                failed(recorded);
+            }
+            callback.accept(true);
+        });
+    }
+
+    /**
+     * Replays the messages not acknowledged yet, if there are any.
+     */
+    public synchronized void replay() {
+        if (!pending.isEmpty()) {
+            replaying = true;
+            scheduleReplay(0);
+        }
+    }
+
+    /**
+     * Gets the count of messages not acknowledged yet.
+     */
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Whether the pending messages are replayed before new messages are published.
+     */
+    public synchronized boolean isReplaying() {
+        return replaying;
+    }
+
+    /**
+     * Gets the count of messages dropped since they expired or the outbox was full.
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Stops the replay and closes the journal, the pending messages are kept for the next run.
+     */
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            closeChannel();
+        }
+        executor.shutdownNow();
+    }
+
+    /**
+     * records the message, null if it can't be recorded (lock held)
+     */
+    private Message record(OutboundLane lane, String message) {
+        if (closed) {
+            return null;
+        }
+        if (pending.size() >= maxMessages) {
+            dropExpired();
+        }
+        while (pending.size() >= maxMessages) {
+            drop(lowestPriorityMessage(), "the outbox is full");
+        }
+        long now = System.currentTimeMillis();
+        Message recorded = new Message(++sequence, lane, now + expiries[lane.ordinal()], message);
+        try {
+            write(toRecord(recorded), true);
+            pending.put(recorded.sequence, recorded);
+            return recorded;
+        } catch (IOException exception) {
+            LOGGER.error("can't record message, it isn't replayed", exception);
+            return null;
+        }
+    }
+
+    private synchronized void acknowledge(Message message) {
+        if (Objects.isNull(pending.remove(message.sequence))) {
+            return;
+        }
+        LOGGER.debug("acknowledged {}", message);
+        writeAcknowledgement(message);
+    }
+
+    /**
+     * a publish failed, the pending messages are replayed
+     */
+    private synchronized void failed(Message message) {
+        LOGGER.info("publish of {} failed, messages are replayed", message);
+        replaying = true;
+        scheduleReplay(retryInterval);
+    }
+
+    /**
+     * schedules the replay if it isn't scheduled yet, a replay without delay replaces a delayed one (lock held)
+     */
+    private void scheduleReplay(long delay) {
+        if (closed) {
+            return;
+        }
+        if (Objects.nonNull(scheduledReplay) && !scheduledReplay.isDone()
+                        && (delay > 0 || !scheduledReplay.cancel(false))) {
+            return;
+        }
+        scheduledReplay = executor.schedule(this::replayPending, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * publishes the pending messages one by one in their sequence, the replay is stopped and rescheduled by the first
+     * failed publish (run by the outbox thread)
+     */
+    private void replayPending() {
+        long lastSequence = 0;
+        while (true) {
+            Message message;
+            synchronized (this) {
+                dropExpired();
+                message = next(lastSequence);
+                if (Objects.isNull(message)) {
+                    replaying = false;
+                    LOGGER.info("replayed all messages of the outbox");
+                    return;
+                }
+            }
+            lastSequence = message.sequence;
+            if (!publishAndWait(message)) {
+                synchronized (this) {
+                    LOGGER.info("replay of {} failed, next replay in {} ms", message, retryInterval);
+                    scheduledReplay = null;
+                    scheduleReplay(retryInterval);
+                }
+                return;
+            }
+            acknowledge(message);
+        }
+    }
+
+    private boolean publishAndWait(Message message) {
+        CompletableFuture<Boolean> acknowledged = new CompletableFuture<>();
+        try {
+            publisher.accept(message.payload, acknowledged::complete);
+            return Boolean.TRUE.equals(acknowledged.get(ackTimeout, TimeUnit.MILLISECONDS));
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException | RuntimeException exception) {
+            LOGGER.debug("can't replay {}", message, exception);
+            return false;
+        }
+    }
+
+    /**
+     * gets the first pending message after the sequence (lock held)
+     */
+    private Message next(long lastSequence) {
+        for (Message message : pending.values()) {
+            if (message.sequence > lastSequence) {
+                return message;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * gets the oldest message of the lane with the lowest priority (lock held)
+     */
+    private Message lowestPriorityMessage() {
+        Message lowest = null;
+        for (Message message : pending.values()) {
+            if (Objects.isNull(lowest) || message.lane.ordinal() > lowest.lane.ordinal()) {
+                lowest = message;
+            }
+        }
+        return lowest;
+    }
+
+    /**
+     * drops the expired messages (lock held)
+     */
+    private void dropExpired() {
+        long now = System.currentTimeMillis();
+        List<Message> expired = new ArrayList<>();
+        for (Message message : pending.values()) {
+            if (message.expiresAt <= now) {
+                expired.add(message);
+            }
+        }
+        expired.forEach(message -> drop(message, "it expired"));
+    }
+
+    private void drop(Message message, String reason) {
+        pending.remove(message.sequence);
+        droppedCount.incrementAndGet();
+        LOGGER.warn("dropped {} since {}", message, reason);
+        writeAcknowledgement(message);
+    }
+
+    /**
+     * writes the acknowledgement of a message not pending any more and compacts the journal if it has too many
+     * obsolete entries (lock held)
+     */
+    private void writeAcknowledgement(Message message) {
+        if (closed) {
+            return;
+        }
+        obsoleteEntries += 2;
+        try {
+            ByteBuffer acknowledgement = ByteBuffer.allocate(13);
+            acknowledgement.put(ACKNOWLEDGEMENT).putLong(message.sequence);
+            acknowledgement.putInt(checksum(acknowledgement.array(), 9)).flip();
+            write(acknowledgement, false);
+            if (obsoleteEntries >= COMPACTION_THRESHOLD && obsoleteEntries > pending.size()) {
+                compact();
+            }
+        } catch (IOException exception) {
+            LOGGER.warn("can't write acknowledgement of {}", message, exception);
+        }
+    }
+
+    private void write(ByteBuffer buffer, boolean force) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        if (force) {
+            channel.force(false);
+        }
+    }
+
+    /**
+     * reads the journal, a record cut by a crash or not matching its checksum ends it
+     */
+    private void restore() throws IOException {
+        if (!Files.exists(journal)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        try (InputStream inputStream = Files.newInputStream(journal);
+                        CheckedInputStream checked = new CheckedInputStream(new BufferedInputStream(inputStream),
+                                        new CRC32());
+                        DataInputStream input = new DataInputStream(checked)) {
+            while (true) {
+                checked.getChecksum().reset();
+                byte type = input.readByte();
+                long messageSequence = input.readLong();
+                String laneName = null;
+                long expiresAt = 0;
+                byte[] payload = null;
+                if (type == RECORD) {
+                    laneName = input.readUTF();
+                    expiresAt = input.readLong();
+                    int length = input.readInt();
+                    if (length < 0 || length > MAX_PAYLOAD_LENGTH) {
+                        LOGGER.warn("outbox journal {} is corrupt, it's read up to sequence {}", journal, sequence);
+                        break;
+                    }
+                    payload = new byte[length];
+                    input.readFully(payload);
+                } else if (type != ACKNOWLEDGEMENT) {
+                    LOGGER.warn("outbox journal {} is corrupt, it's read up to sequence {}", journal, sequence);
+                    break;
+                }
+                int checksum = (int) checked.getChecksum().getValue();
+                if (input.readInt() != checksum) {
+                    LOGGER.warn("outbox journal {} has a wrong checksum, it's read up to sequence {}", journal,
+                                    sequence);
+                    break;
+                }
+                sequence = Math.max(sequence, messageSequence);
+                if (type == ACKNOWLEDGEMENT) {
+                    pending.remove(messageSequence);
+                } else {
+                    pending.put(messageSequence, new Message(messageSequence, OutboundLane.valueOf(laneName),
+                                    expiresAt, new String(payload, StandardCharsets.UTF_8)));
+                }
+            }
+        } catch (EOFException exception) {
+            LOGGER.debug("read outbox journal {}", journal);
+        } catch (IllegalArgumentException exception) {
+            LOGGER.warn("outbox journal {} has an unknown lane, it's read up to sequence {}", journal, sequence);
+        }
+        for (Iterator<Message> messages = pending.values().iterator(); messages.hasNext();) {
+            Message message = messages.next();
+            if (message.expiresAt <= now) {
+                messages.remove();
+                droppedCount.incrementAndGet();
+                LOGGER.warn("dropped {} since it expired", message);
+            }
+        }
+    }
+
+    /**
+     * rewrites the journal by the pending messages
+     */
+    private void compact() throws IOException {
+        closeChannel();
+        Path compacted = journal.resolveSibling(JOURNAL_FILE + ".tmp");
+        try (FileChannel output = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Message message : pending.values()) {
+                ByteBuffer record = toRecord(message);
+                while (record.hasRemaining()) {
+                    output.write(record);
+                }
+            }
+            output.force(false);
+        }
+        Files.move(compacted, journal, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(journal, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.APPEND);
+        obsoleteEntries = 0;
+    }
+
+    private void closeChannel() {
+        if (Objects.nonNull(channel)) {
+            try {
+                channel.close();
+            } catch (IOException exception) {
+                LOGGER.warn("can't close outbox journal {}", journal, exception);
+            }
+            channel = null;
+        }
+    }
+
+    private static ByteBuffer toRecord(Message message) throws IOException {
+        byte[] payload = message.payload.getBytes(StandardCharsets.UTF_8);
+        if (payload.length > MAX_PAYLOAD_LENGTH) {
+            throw new IOException("the payload exceeds " + MAX_PAYLOAD_LENGTH + " bytes");
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(payload.length + 64);
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeByte(RECORD);
+            output.writeLong(message.sequence);
+            output.writeUTF(message.lane.name());
+            output.writeLong(message.expiresAt);
+            output.writeInt(payload.length);
+            output.write(payload);
+            output.writeInt(checksum(bytes.toByteArray(), bytes.size()));
+        }
+        return ByteBuffer.wrap(bytes.toByteArray());
+    }
+
+    /**
+     * gets the CRC32 of the first bytes
+     */
+    private static int checksum(byte[] bytes, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, length);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * A recorded message.
+     */
+    private static class Message {
+
+        private final long sequence;
+        private final OutboundLane lane;
+        private final long expiresAt;
+        private final String payload;
+
+        private Message(long sequence, OutboundLane lane, long expiresAt, String payload) {
+            this.sequence = sequence;
+            this.lane = lane;
+            this.expiresAt = expiresAt;
+            this.payload = payload;
+        }
+
+        @Override
+        public String toString() {
+            return "message " + sequence + " of lane " + lane;
+        }
+    }
+}
@@ -41,7 +41,7 @@ public interface MqttPlatform {
     public void unsubscribeFromTopic(final Consumer<Boolean> unsubscriptionCallback);
 
     /**
-     * Close the Vertx deployed Verticle's.
+     * Close the Vertx deployed Verticle's, a closed platform isn't closed again.
      * 
      * @param completionHandler
      */
@@ -2,6 +2,8 @@ package com.telekom.cot.device.agent.platform.mqtt;
 
 import java.util.Objects;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 
 import org.slf4j.Logger;
@@ -10,6 +12,7 @@ import org.slf4j.LoggerFactory;
 import de.tarent.telekom.cot.mqtt.MQTTHelper;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.VertxOptions;
@@ -25,6 +28,11 @@ public class MqttPlatformBuilder {
     private int vertxWorkerPoolSize;
     private int vertxInternalBlockingPoolSize;
     private int verticalWorkerPoolSize;
+    private Long blockedThreadCheckInterval;
+    private Long maxEventLoopExecuteTime;
+    private Long maxWorkerExecuteTime;
+    private Long warningExceptionTime;
+    private boolean preferNativeTransport;
     private Properties prop;
     private String iccId;
 
@@ -64,6 +72,47 @@ public class MqttPlatformBuilder {
         return this;
     }
 
+    /**
+     * @param blockedThreadCheckInterval
+     *            in milliseconds
+     */
+    public MqttPlatformBuilder setBlockedThreadCheckInterval(long blockedThreadCheckInterval) {
+        this.blockedThreadCheckInterval = blockedThreadCheckInterval;
+        return this;
+    }
+
+    /**
+     * @param maxEventLoopExecuteTime
+     *            in milliseconds
+     */
+    public MqttPlatformBuilder setMaxEventLoopExecuteTime(long maxEventLoopExecuteTime) {
+        this.maxEventLoopExecuteTime = maxEventLoopExecuteTime;
+        return this;
+    }
+
+    /**
+     * @param maxWorkerExecuteTime
+     *            in milliseconds
+     */
+    public MqttPlatformBuilder setMaxWorkerExecuteTime(long maxWorkerExecuteTime) {
+        this.maxWorkerExecuteTime = maxWorkerExecuteTime;
+        return this;
+    }
+
+    /**
+     * @param warningExceptionTime
+     *            in milliseconds
+     */
+    public MqttPlatformBuilder setWarningExceptionTime(long warningExceptionTime) {
+        this.warningExceptionTime = warningExceptionTime;
+        return this;
+    }
+
+    public MqttPlatformBuilder setPreferNativeTransport(boolean preferNativeTransport) {
+        this.preferNativeTransport = preferNativeTransport;
+        return this;
+    }
+
     /**
      * Deploy the MQTTHelper with the given configurations and return MqttPlatform interface.
      * 
@@ -81,11 +130,28 @@ public class MqttPlatformBuilder {
         if (Objects.nonNull(vertxInternalBlockingPoolSize)) {
             options.setInternalBlockingPoolSize(vertxInternalBlockingPoolSize);
         }
+        // the blocked thread checker measures the execute times in nanoseconds
+        if (Objects.nonNull(blockedThreadCheckInterval)) {
+            options.setBlockedThreadCheckInterval(blockedThreadCheckInterval);
+        }
+        if (Objects.nonNull(maxEventLoopExecuteTime)) {
+            options.setMaxEventLoopExecuteTime(TimeUnit.MILLISECONDS.toNanos(maxEventLoopExecuteTime));
+        }
+        if (Objects.nonNull(maxWorkerExecuteTime)) {
+            options.setMaxWorkerExecuteTime(TimeUnit.MILLISECONDS.toNanos(maxWorkerExecuteTime));
+        }
+        if (Objects.nonNull(warningExceptionTime)) {
+            options.setWarningExceptionTime(TimeUnit.MILLISECONDS.toNanos(warningExceptionTime));
+        }
+        options.setPreferNativeTransport(preferNativeTransport);
         DeploymentOptions deploymentOptions = new DeploymentOptions();
         if (Objects.nonNull(verticalWorkerPoolSize)) {
             deploymentOptions.setWorkerPoolSize(verticalWorkerPoolSize);
         }
         Vertx vertx = Vertx.vertx(options);
+        if (preferNativeTransport && !vertx.isNativeTransportEnabled()) {
+            LOGGER.warn("the native transport isn't available, the JDK transport is used");
+        }
         MQTTHelper mqttHelper = new MQTTHelper();
         vertx.deployVerticle(mqttHelper, deploymentOptions, h -> {
             if (h.failed()) {
@@ -107,6 +173,7 @@ public class MqttPlatformBuilder {
         private MQTTHelper mqttHelper;
         private Properties prop;
         private String iccId;
+        private final AtomicBoolean closed = new AtomicBoolean();
 
         private MqttPlatformWrapper(MQTTHelper mqttHelper, String iccId, Properties prop) {
             this.mqttHelper = mqttHelper;
@@ -160,7 +227,11 @@ public class MqttPlatformBuilder {
          */
         @Override
         public void close(Handler<AsyncResult<Void>> completionHandler) {
-            mqttHelper.getVertx().close(completionHandler);
+            if (closed.compareAndSet(false, true)) {
+                mqttHelper.getVertx().close(completionHandler);
+            } else {
+                completionHandler.handle(Future.succeededFuture());
+            }
         }
     }
 }
@@ -0,0 +1,222 @@
+package com.telekom.cot.device.agent.platform.mqtt;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.telekom.cot.device.agent.common.exc.AbstractAgentException;
+import com.telekom.cot.device.agent.common.exc.PlatformServiceException;
+import com.telekom.cot.device.agent.common.util.AssertionUtil;
+import com.telekom.cot.device.agent.platform.mqtt.PlatformServiceMqttConfiguration.OutboundConfiguration;
+
+/**
+ * Dispatches the outbound requests to the platform by priority lanes (see {@link OutboundLane}).
+ *
+ * Each lane has a bounded queue, a request is rejected if its lane is full. Critical alarms are always taken first,
+ * the other lanes are scheduled by smooth weighted round robin. The other lanes never occupy all workers, so a worker
+ * is always free for a critical alarm and its latency doesn't depend on the backlog of the other lanes.
+ */
+public class OutboundDispatcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OutboundDispatcher.class);
+
+    private static final OutboundLane[] LANES = OutboundLane.values();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    /** Signals the workers that a request may be taken. */
+    private final Condition available = lock.newCondition();
+
+    private final List<ArrayDeque<FutureTask<?>>> queues = new ArrayList<>();
+    private final int[] capacities = new int[LANES.length];
+    private final int[] weights = new int[LANES.length];
+    /** the current weights of the smooth weighted round robin */
+    private final int[] currentWeights = new int[LANES.length];
+    private final AtomicLong[] rejectedCounts = new AtomicLong[LANES.length];
+
+    private final List<Thread> workers = new ArrayList<>();
+    /** the max. count of workers busy with requests of the lanes other than critical alarms */
+    private final int maxSharedBusy;
+    private int sharedBusy = 0;
+    private boolean shutdown = false;
+
+    public OutboundDispatcher(OutboundConfiguration configuration) {
+        int workerCount = configuration.getWorkers();
+        if (workerCount < 2) {
+            throw new IllegalArgumentException("at least 2 workers required, one is reserved for critical alarms");
+        }
+        maxSharedBusy = workerCount - 1;
+        for (OutboundLane lane : LANES) {
+            queues.add(new ArrayDeque<>());
+            capacities[lane.ordinal()] = get(configuration.getCapacities(), lane, lane.getDefaultCapacity());
+            weights[lane.ordinal()] = get(configuration.getWeights(), lane, lane.getDefaultWeight());
+            rejectedCounts[lane.ordinal()] = new AtomicLong();
+        }
+
+        for (int index = 0; index < workerCount; index++) {
+            Thread worker = new Thread(this::work, "mqtt-outbound-" + (index + 1));
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    /**
+     * Queues a request in its lane.
+     *
+     * @param lane
+     *            the lane of the request
+     * @param request
+     *            the request
+     * @return the future of the request's result
+     * @throws AbstractAgentException
+     *             if the lane is full or the dispatcher is shut down
+     */
+    public <T> Future<T> submit(OutboundLane lane, Callable<T> request) throws AbstractAgentException {
+        FutureTask<T> task = new FutureTask<>(request);
+        lock.lock();
+        try {
+            ArrayDeque<FutureTask<?>> queue = queues.get(lane.ordinal());
+            if (shutdown || queue.size() >= capacities[lane.ordinal()]) {
+                rejectedCounts[lane.ordinal()].incrementAndGet();
+                throw AssertionUtil.createExceptionAndLog(PlatformServiceException.class, LOGGER,
+                                "can't dispatch request, lane " + lane + " is full or shut down");
+            }
+            queue.offerLast(task);
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+        return task;
+    }
+
+    /**
+     * Queues a request without result in its lane.
+     *
+     * @see #submit(OutboundLane, Callable)
+     */
+    public Future<Object> submit(OutboundLane lane, Runnable request) throws AbstractAgentException {
+        return submit(lane, Executors.callable(request));
+    }
+
+    /**
+     * Gets the count of queued requests of the lane.
+     */
+    public int getQueueSize(OutboundLane lane) {
+        lock.lock();
+        try {
+            return queues.get(lane.ordinal()).size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the count of requests rejected because their lane was full.
+     */
+    public long getRejectedCount(OutboundLane lane) {
+        return rejectedCounts[lane.ordinal()].get();
+    }
+
+    /**
+     * Stops the workers, queued requests are cancelled.
+     */
+    public void shutdown() {
+        lock.lock();
+        try {
+            shutdown = true;
+            for (ArrayDeque<FutureTask<?>> queue : queues) {
+                queue.forEach(task -> task.cancel(false));
+                queue.clear();
+            }
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * run method of the worker threads
+     */
+    private void work() {
+        while (true) {
+            FutureTask<?> task;
+            boolean shared;
+            lock.lock();
+            try {
+                while (true) {
+                    task = queues.get(OutboundLane.CRITICAL_ALARM.ordinal()).pollFirst();
+                    shared = Objects.isNull(task);
+                    if (shared) {
+                        task = takeShared();
+                    }
+                    if (Objects.nonNull(task)) {
+                        break;
+                    }
+                    if (shutdown) {
+                        return;
+                    }
+                    available.awaitUninterruptibly();
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            task.run();
+
+            if (shared) {
+                lock.lock();
+                try {
+                    sharedBusy--;
+                    available.signal();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * takes the next request of the other lanes by smooth weighted round robin (lock held)
+     */
+    private FutureTask<?> takeShared() {
+        if (sharedBusy >= maxSharedBusy) {
+            return null;
+        }
+
+        int totalWeight = 0;
+        int selected = -1;
+        for (int index = OutboundLane.CRITICAL_ALARM.ordinal() + 1; index < LANES.length; index++) {
+            if (!queues.get(index).isEmpty()) {
+                currentWeights[index] += weights[index];
+                totalWeight += weights[index];
+                if (selected < 0 || currentWeights[index] > currentWeights[selected]) {
+                    selected = index;
+                }
+            }
+        }
+        if (selected < 0) {
+            return null;
+        }
+
+        currentWeights[selected] -= totalWeight;
+        sharedBusy++;
+        return queues.get(selected).pollFirst();
+    }
+
+    private static int get(Map<OutboundLane, Integer> values, OutboundLane lane, int defaultValue) {
+        Integer value = Objects.nonNull(values) ? values.get(lane) : null;
+        return Objects.nonNull(value) ? value : defaultValue;
+    }
+}
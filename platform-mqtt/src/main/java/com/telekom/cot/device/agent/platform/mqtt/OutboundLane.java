@@ -0,0 +1,56 @@
+package com.telekom.cot.device.agent.platform.mqtt;
+
+import com.telekom.cot.device.agent.common.AlarmSeverity;
+
+/**
+ * The lanes of the outbound traffic to the platform in the order of their priority. Critical alarms are always
+ * dispatched first, the other lanes share the workers by their weights.
+ */
+public enum OutboundLane {
+
+    CRITICAL_ALARM(100, 0, 604800),
+    ALARM(100, 8, 86400),
+    EVENT(100, 4, 86400),
+    OPERATION_STATUS(100, 2, 0),
+    MEASUREMENT(10000, 1, 0);
+
+    private final int defaultCapacity;
+    private final int defaultWeight;
+    private final int defaultOutboxExpiry;
+
+    private OutboundLane(int defaultCapacity, int defaultWeight, int defaultOutboxExpiry) {
+        this.defaultCapacity = defaultCapacity;
+        this.defaultWeight = defaultWeight;
+        this.defaultOutboxExpiry = defaultOutboxExpiry;
+    }
+
+    /**
+     * Gets the default max. count of queued requests of the lane.
+     */
+    public int getDefaultCapacity() {
+        return defaultCapacity;
+    }
+
+    /**
+     * Gets the default share of the lane in the weighted fair scheduling (not used for critical alarms).
+     */
+    public int getDefaultWeight() {
+        return defaultWeight;
+    }
+
+    /**
+     * Gets the default time (in seconds) a message of the lane is kept in the {@link MqttOutbox}, 0 if it isn't
+     * recorded. The measurements aren't recorded, they're journaled and retried by the measurement service. The
+     * operation status updates aren't recorded, they're requests waiting for their response.
+     */
+    public int getDefaultOutboxExpiry() {
+        return defaultOutboxExpiry;
+    }
+
+    /**
+     * Gets the lane of an alarm by its severity.
+     */
+    public static OutboundLane ofAlarm(AlarmSeverity severity) {
+        return severity == AlarmSeverity.CRITICAL ? CRITICAL_ALARM : ALARM;
+    }
+}
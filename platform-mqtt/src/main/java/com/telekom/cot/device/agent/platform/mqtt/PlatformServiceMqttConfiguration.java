@@ -1,6 +1,9 @@
 package com.telekom.cot.device.agent.platform.mqtt;
 
+import java.util.Map;
+
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
@@ -42,9 +45,39 @@ public class PlatformServiceMqttConfiguration extends PlatformServiceConfigurati
 		@Min(1)
 		private Integer timeout;
 
+		/** not used anymore, the measurements are throttled by the publish window */
+		@Deprecated
+		@Min(0)
+		private Integer delaySendMeasurement;
+
+		/** the max. size (in bytes) of a payload packing several measurements, see {@link SmartRestBatcher} */
+		@NotNull
+		@Min(64)
+		private Integer maxPayloadSize = 16184;
+
+		@NotNull
+		@Valid
+		private PublishWindowConfiguration publishWindow = new PublishWindowConfiguration();
+
+		@Valid
+		private OutboundConfiguration outbound;
+
+		@NotNull
+		@Valid
+		private OutboxConfiguration outbox = new OutboxConfiguration();
+
+		@NotNull
+		@Valid
+		private ReconnectConfiguration reconnect = new ReconnectConfiguration();
+
+		/** the count of threads of the platform service, e.g. awaiting the stop of the MQTT client */
 		@NotNull
 		@Min(1)
-		private Integer delaySendMeasurement;
+		private Integer executorPoolSize = 10;
+
+		@NotNull
+		@Valid
+		private VertxConfiguration vertx = new VertxConfiguration();
 
 		public String getPort() {
 			return port;
@@ -70,18 +103,469 @@ public class PlatformServiceMqttConfiguration extends PlatformServiceConfigurati
 			this.timeout = timeout;
 		}
 
+		@Deprecated
 		public Integer getDelaySendMeasurement() {
 			return delaySendMeasurement;
 		}
 
+		@Deprecated
 		public void setDelaySendMeasurement(Integer delaySendMeasurement) {
 			this.delaySendMeasurement = delaySendMeasurement;
 		}
 
+		public Integer getMaxPayloadSize() {
+			return maxPayloadSize;
+		}
+
+		public void setMaxPayloadSize(Integer maxPayloadSize) {
+			this.maxPayloadSize = maxPayloadSize;
+		}
+
+		public PublishWindowConfiguration getPublishWindow() {
+			return publishWindow;
+		}
+
+		public void setPublishWindow(PublishWindowConfiguration publishWindow) {
+			this.publishWindow = publishWindow;
+		}
+
+		public OutboundConfiguration getOutbound() {
+			return outbound;
+		}
+
+		public void setOutbound(OutboundConfiguration outbound) {
+			this.outbound = outbound;
+		}
+
+		public OutboxConfiguration getOutbox() {
+			return outbox;
+		}
+
+		public void setOutbox(OutboxConfiguration outbox) {
+			this.outbox = outbox;
+		}
+
+		public ReconnectConfiguration getReconnect() {
+			return reconnect;
+		}
+
+		public void setReconnect(ReconnectConfiguration reconnect) {
+			this.reconnect = reconnect;
+		}
+
+		public Integer getExecutorPoolSize() {
+			return executorPoolSize;
+		}
+
+		public void setExecutorPoolSize(Integer executorPoolSize) {
+			this.executorPoolSize = executorPoolSize;
+		}
+
+		public VertxConfiguration getVertx() {
+			return vertx;
+		}
+
+		public void setVertx(VertxConfiguration vertx) {
+			this.vertx = vertx;
+		}
+
 		@Override
 		public String toString() {
 			return MqttConfiguration.class.getSimpleName() + " [port=" + port + ", xId=" + xId + ", timeout=" + timeout
-					+ ", delaySendMeasurement=" + delaySendMeasurement + "]";
+					+ ", maxPayloadSize=" + maxPayloadSize + ", publishWindow=" + publishWindow + ", outbound="
+					+ outbound + ", outbox=" + outbox + ", reconnect=" + reconnect + ", executorPoolSize="
+					+ executorPoolSize + ", vertx=" + vertx + "]";
+		}
+	}
+
+	/**
+	 * Configuration of the window of measurement publishes waiting for their acknowledgement (see
+	 * {@link PublishWindow}). The acknowledgement timeout is the MQTT timeout.
+	 */
+	public static class PublishWindowConfiguration {
+
+		@NotNull
+		@Min(1)
+		private Integer initialSize = 4;
+
+		@NotNull
+		@Min(1)
+		private Integer maxSize = 64;
+
+		/** milliseconds */
+		@NotNull
+		@Min(1)
+		private Integer latencyThreshold = 2000;
+
+		public Integer getInitialSize() {
+			return initialSize;
+		}
+
+		public void setInitialSize(Integer initialSize) {
+			this.initialSize = initialSize;
+		}
+
+		public Integer getMaxSize() {
+			return maxSize;
+		}
+
+		public void setMaxSize(Integer maxSize) {
+			this.maxSize = maxSize;
+		}
+
+		public Integer getLatencyThreshold() {
+			return latencyThreshold;
+		}
+
+		public void setLatencyThreshold(Integer latencyThreshold) {
+			this.latencyThreshold = latencyThreshold;
+		}
+
+		@Override
+		public String toString() {
+			return PublishWindowConfiguration.class.getSimpleName() + " [initialSize=" + initialSize + ", maxSize="
+					+ maxSize + ", latencyThreshold=" + latencyThreshold + "]";
+		}
+	}
+
+	/**
+	 * Configuration of the durable outbox of the outbound messages (see {@link MqttOutbox}). Lanes without configured
+	 * expiry get the default of the lane, an expiry of 0 disables the recording of the lane's messages.
+	 */
+	public static class OutboxConfiguration {
+
+		@NotNull
+		private Boolean enabled = false;
+
+		@NotNull
+		@NotEmpty
+		private String directory = "outbox";
+
+		@NotNull
+		@Min(1)
+		private Integer maxMessages = 1000;
+
+		/** seconds */
+		@NotNull
+		@Min(1)
+		private Integer retryInterval = 30;
+
+		/** seconds */
+		private Map<OutboundLane, Integer> expiries;
+
+		public Boolean getEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(Boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public String getDirectory() {
+			return directory;
+		}
+
+		public void setDirectory(String directory) {
+			this.directory = directory;
+		}
+
+		public Integer getMaxMessages() {
+			return maxMessages;
+		}
+
+		public void setMaxMessages(Integer maxMessages) {
+			this.maxMessages = maxMessages;
+		}
+
+		public Integer getRetryInterval() {
+			return retryInterval;
+		}
+
+		public void setRetryInterval(Integer retryInterval) {
+			this.retryInterval = retryInterval;
+		}
+
+		public Map<OutboundLane, Integer> getExpiries() {
+			return expiries;
+		}
+
+		public void setExpiries(Map<OutboundLane, Integer> expiries) {
+			this.expiries = expiries;
+		}
+
+		@Override
+		public String toString() {
+			return OutboxConfiguration.class.getSimpleName() + " [enabled=" + enabled + ", directory=" + directory
+					+ ", maxMessages=" + maxMessages + ", retryInterval=" + retryInterval + ", expiries=" + expiries
+					+ "]";
+		}
+	}
+
+	/**
+	 * Configuration of the Vert.x instance of the MQTT client (see {@link MqttPlatformBuilder}). The blocked thread
+	 * checker logs a warning if an event loop or a worker thread executes longer than its max. execute time, with the
+	 * stack trace if it's blocked longer than the warning exception time. The native transport is used only if it's
+	 * found on the class path (netty-transport-native-epoll), otherwise the JDK transport is used.
+	 */
+	public static class VertxConfiguration {
+
+		@NotNull
+		@Min(1)
+		private Integer eventLoopPoolSize = 1;
+
+		@NotNull
+		@Min(1)
+		private Integer workerPoolSize = 1;
+
+		@NotNull
+		@Min(1)
+		private Integer internalBlockingPoolSize = 2;
+
+		/** the worker pool size of the deployed MQTT verticle */
+		@NotNull
+		@Min(1)
+		private Integer verticleWorkerPoolSize = 2;
+
+		/** milliseconds */
+		@NotNull
+		@Min(1)
+		private Integer blockedThreadCheckInterval = 1000;
+
+		/** milliseconds */
+		@NotNull
+		@Min(1)
+		private Integer maxEventLoopExecuteTime = 2000;
+
+		/** milliseconds */
+		@NotNull
+		@Min(1)
+		private Integer maxWorkerExecuteTime = 60000;
+
+		/** milliseconds */
+		@NotNull
+		@Min(1)
+		private Integer warningExceptionTime = 5000;
+
+		@NotNull
+		private Boolean preferNativeTransport = false;
+
+		public Integer getEventLoopPoolSize() {
+			return eventLoopPoolSize;
+		}
+
+		public void setEventLoopPoolSize(Integer eventLoopPoolSize) {
+			this.eventLoopPoolSize = eventLoopPoolSize;
+		}
+
+		public Integer getWorkerPoolSize() {
+			return workerPoolSize;
+		}
+
+		public void setWorkerPoolSize(Integer workerPoolSize) {
+			this.workerPoolSize = workerPoolSize;
+		}
+
+		public Integer getInternalBlockingPoolSize() {
+			return internalBlockingPoolSize;
+		}
+
+		public void setInternalBlockingPoolSize(Integer internalBlockingPoolSize) {
+			this.internalBlockingPoolSize = internalBlockingPoolSize;
+		}
+
+		public Integer getVerticleWorkerPoolSize() {
+			return verticleWorkerPoolSize;
+		}
+
+		public void setVerticleWorkerPoolSize(Integer verticleWorkerPoolSize) {
+			this.verticleWorkerPoolSize = verticleWorkerPoolSize;
+		}
+
+		public Integer getBlockedThreadCheckInterval() {
+			return blockedThreadCheckInterval;
+		}
+
+		public void setBlockedThreadCheckInterval(Integer blockedThreadCheckInterval) {
+			this.blockedThreadCheckInterval = blockedThreadCheckInterval;
+		}
+
+		public Integer getMaxEventLoopExecuteTime() {
+			return maxEventLoopExecuteTime;
+		}
+
+		public void setMaxEventLoopExecuteTime(Integer maxEventLoopExecuteTime) {
+			this.maxEventLoopExecuteTime = maxEventLoopExecuteTime;
+		}
+
+		public Integer getMaxWorkerExecuteTime() {
+			return maxWorkerExecuteTime;
+		}
+
+		public void setMaxWorkerExecuteTime(Integer maxWorkerExecuteTime) {
+			this.maxWorkerExecuteTime = maxWorkerExecuteTime;
+		}
+
+		public Integer getWarningExceptionTime() {
+			return warningExceptionTime;
+		}
+
+		public void setWarningExceptionTime(Integer warningExceptionTime) {
+			this.warningExceptionTime = warningExceptionTime;
+		}
+
+		public Boolean getPreferNativeTransport() {
+			return preferNativeTransport;
+		}
+
+		public void setPreferNativeTransport(Boolean preferNativeTransport) {
+			this.preferNativeTransport = preferNativeTransport;
+		}
+
+		@Override
+		public String toString() {
+			return VertxConfiguration.class.getSimpleName() + " [eventLoopPoolSize=" + eventLoopPoolSize
+					+ ", workerPoolSize=" + workerPoolSize + ", internalBlockingPoolSize=" + internalBlockingPoolSize
+					+ ", verticleWorkerPoolSize=" + verticleWorkerPoolSize + ", blockedThreadCheckInterval="
+					+ blockedThreadCheckInterval + ", maxEventLoopExecuteTime=" + maxEventLoopExecuteTime
+					+ ", maxWorkerExecuteTime=" + maxWorkerExecuteTime + ", warningExceptionTime="
+					+ warningExceptionTime + ", preferNativeTransport=" + preferNativeTransport + "]";
+		}
+	}
+
+	/**
+	 * Configuration of the supervision of the MQTT connection (see {@link ConnectionSupervisor}). The delay between the
+	 * reconnect attempts starts with the initial delay and is multiplied after each failed attempt up to the max.
+	 * delay, the jitter is the max. part (in percent) of the delay that is randomly cut off.
+	 */
+	public static class ReconnectConfiguration {
+
+		@NotNull
+		private Boolean enabled = true;
+
+		/** milliseconds */
+		@NotNull
+		@Min(1)
+		private Integer initialDelay = 1000;
+
+		/** milliseconds */
+		@NotNull
+		@Min(1)
+		private Integer maxDelay = 300000;
+
+		@NotNull
+		@Min(1)
+		private Integer multiplier = 2;
+
+		/** percent */
+		@NotNull
+		@Min(0)
+		@Max(100)
+		private Integer jitter = 50;
+
+		/** seconds without any received message until the connection is probed, 0 disables the keepalive */
+		@NotNull
+		@Min(0)
+		private Integer keepAliveInterval = 300;
+
+		public Boolean getEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(Boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public Integer getInitialDelay() {
+			return initialDelay;
+		}
+
+		public void setInitialDelay(Integer initialDelay) {
+			this.initialDelay = initialDelay;
+		}
+
+		public Integer getMaxDelay() {
+			return maxDelay;
+		}
+
+		public void setMaxDelay(Integer maxDelay) {
+			this.maxDelay = maxDelay;
+		}
+
+		public Integer getMultiplier() {
+			return multiplier;
+		}
+
+		public void setMultiplier(Integer multiplier) {
+			this.multiplier = multiplier;
+		}
+
+		public Integer getJitter() {
+			return jitter;
+		}
+
+		public void setJitter(Integer jitter) {
+			this.jitter = jitter;
+		}
+
+		public Integer getKeepAliveInterval() {
+			return keepAliveInterval;
+		}
+
+		public void setKeepAliveInterval(Integer keepAliveInterval) {
+			this.keepAliveInterval = keepAliveInterval;
+		}
+
+		@Override
+		public String toString() {
+			return ReconnectConfiguration.class.getSimpleName() + " [enabled=" + enabled + ", initialDelay="
+					+ initialDelay + ", maxDelay=" + maxDelay + ", multiplier=" + multiplier + ", jitter=" + jitter
+					+ ", keepAliveInterval=" + keepAliveInterval + "]";
+		}
+	}
+
+	/**
+	 * Configuration of the prioritized outbound lanes (see {@link OutboundLane}). Lanes without configured capacity or
+	 * weight get the defaults of the lane.
+	 */
+	public static class OutboundConfiguration {
+
+		/** the count of publishing threads, one is reserved for critical alarms */
+		@NotNull
+		@Min(2)
+		private Integer workers = 10;
+
+		private Map<OutboundLane, Integer> capacities;
+
+		private Map<OutboundLane, Integer> weights;
+
+		public Integer getWorkers() {
+			return workers;
+		}
+
+		public void setWorkers(Integer workers) {
+			this.workers = workers;
+		}
+
+		public Map<OutboundLane, Integer> getCapacities() {
+			return capacities;
+		}
+
+		public void setCapacities(Map<OutboundLane, Integer> capacities) {
+			this.capacities = capacities;
+		}
+
+		public Map<OutboundLane, Integer> getWeights() {
+			return weights;
+		}
+
+		public void setWeights(Map<OutboundLane, Integer> weights) {
+			this.weights = weights;
+		}
+
+		@Override
+		public String toString() {
+			return OutboundConfiguration.class.getSimpleName() + " [workers=" + workers + ", capacities=" + capacities
+					+ ", weights=" + weights + "]";
 		}
 	}
 }
@@ -9,13 +9,19 @@ import java.util.Date;
 import java.util.List;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -28,14 +34,22 @@ import com.telekom.cot.device.agent.common.AlarmSeverity;
 import com.telekom.cot.device.agent.common.configuration.AgentCredentials;
 import com.telekom.cot.device.agent.common.configuration.AgentCredentialsManager;
 import com.telekom.cot.device.agent.common.exc.AbstractAgentException;
+import com.telekom.cot.device.agent.common.exc.MeasurementsNotCreatedException;
 import com.telekom.cot.device.agent.common.exc.PlatformServiceException;
 import com.telekom.cot.device.agent.common.injection.Inject;
 import com.telekom.cot.device.agent.common.util.AssertionUtil;
 import com.telekom.cot.device.agent.platform.PlatformService;
+import com.telekom.cot.device.agent.platform.mqtt.PlatformServiceMqttConfiguration.MqttConfiguration;
+import com.telekom.cot.device.agent.platform.mqtt.PlatformServiceMqttConfiguration.OutboundConfiguration;
+import com.telekom.cot.device.agent.platform.mqtt.PlatformServiceMqttConfiguration.OutboxConfiguration;
+import com.telekom.cot.device.agent.platform.mqtt.PlatformServiceMqttConfiguration.PublishWindowConfiguration;
+import com.telekom.cot.device.agent.platform.mqtt.PlatformServiceMqttConfiguration.ReconnectConfiguration;
+import com.telekom.cot.device.agent.platform.mqtt.PlatformServiceMqttConfiguration.VertxConfiguration;
 import com.telekom.cot.device.agent.platform.mqtt.event.AlarmAgentEventListener;
+import com.telekom.cot.device.agent.platform.mqtt.event.ConnectionStateAgentEvent;
+import com.telekom.cot.device.agent.platform.mqtt.event.ConnectionStateAgentEvent.ConnectionState;
 import com.telekom.cot.device.agent.platform.mqtt.event.GetOperationStatus;
 import com.telekom.cot.device.agent.platform.mqtt.event.GetOperationStatusAgentEventListener;
-import com.telekom.cot.device.agent.platform.mqtt.event.LifecycleResponseAgentEventListener;
 import com.telekom.cot.device.agent.platform.mqtt.event.ManagedObjectAgentEventListener;
 import com.telekom.cot.device.agent.platform.mqtt.event.OperationConfigUpdateAgentEventListener;
 import com.telekom.cot.device.agent.platform.mqtt.event.OperationRestartAgentEventListener;
@@ -54,8 +68,10 @@ import com.telekom.cot.device.agent.platform.objects.operation.Operation;
 import com.telekom.cot.device.agent.platform.objects.operation.Operation.OperationStatus;
 import com.telekom.cot.device.agent.platform.objects.operation.OperationFactory;
 import com.telekom.cot.device.agent.platform.objects.ManagedObject;
+import com.telekom.cot.device.agent.platform.objects.MeasurementBatch;
 import com.telekom.cot.device.agent.platform.objects.SensorMeasurement;
 import com.telekom.cot.device.agent.service.AbstractAgentService;
+import com.telekom.cot.device.agent.service.event.AgentContextImpl.Execution;
 import com.telekom.cot.device.agent.system.SystemService;
 import com.telekom.cot.device.agent.system.properties.MobileProperties;
 
@@ -72,20 +88,29 @@ public class PlatformServiceMqttImpl extends AbstractAgentService implements Pla
     private SystemService systemService;
     @Inject
     private AgentCredentialsManager credentialsManager;
-    private MqttPlatform mqttPlatform;
+    private volatile MqttPlatform mqttPlatform;
     private String iccId;
     private String managedObjectId;
     private PublishCallback publishCallback;
     
-    public static final int VERTICAL_WORKER_POOL_SIZE = 2;
-    public static final int VERTX_EVENT_LOOP_POOL_SIZE = 1;
-    public static final int VERTX_INTERNAL_BLOCKING_POOL_SIZE = 2;
-    public static final int VERTX_WORKER_POOL_SIZE = 1;
     private int timeout = 0;
-    private int delaySendMeasurement = 0;
     
     private final ConcurrentLinkedQueue<Operation> pendingOperations = new ConcurrentLinkedQueue<>();
-    private final ExecutorService executorService = Executors.newFixedThreadPool(10);
+    private ExecutorService executorService;
+    /** handles the callbacks of the MQTT client in their order, off the event loop of the client */
+    private ExecutorService callbackExecutor;
+    /** dispatches alarms, events, operation status and measurements by priority */
+    private OutboundDispatcher outboundDispatcher;
+    /** limits the measurement publishes waiting for their acknowledgement */
+    private PublishWindow publishWindow;
+    /** records the outbound messages until they're acknowledged, null if it isn't enabled */
+    private volatile MqttOutbox outbox;
+
+    private volatile ConnectionSupervisor connectionSupervisor;
+    /** the requests waiting for their response */
+    private final ResponseRegistry responseRegistry = new ResponseRegistry();
+    /** serializes the registration and the publishing of the requests */
+    private final ReentrantLock publishLock = new ReentrantLock();
     
     private final ManagedObjectAgentEventListener managedObjectAEL = new ManagedObjectAgentEventListener();
     private final UpdateFragmentAgentEventListener updateFragmentAEL = new UpdateFragmentAgentEventListener();
@@ -96,7 +121,6 @@ public class PlatformServiceMqttImpl extends AbstractAgentService implements Pla
     private final OperationConfigUpdateAgentEventListener operationConfigUpdateAEL = new OperationConfigUpdateAgentEventListener(pendingOperations);
     private final OperationTestOperationAgentEventListener operationTestOperationAEL = new OperationTestOperationAgentEventListener(pendingOperations);
     private final OperationRestartAgentEventListener operationRestartAEL = new OperationRestartAgentEventListener(pendingOperations);
-    private final LifecycleResponseAgentEventListener lifecycleResponseAEL = new LifecycleResponseAgentEventListener();
     
     private final Consumer<String> loggingEvent = new Consumer<String>() {
         
@@ -127,9 +151,15 @@ public class PlatformServiceMqttImpl extends AbstractAgentService implements Pla
     public void start() throws AbstractAgentException {
         this.iccId = systemService.getProperties(MobileProperties.class).getIccid();
         this.timeout = platformServiceMqttConfiguration.getMqttConfiguration().getTimeout();
-        this.delaySendMeasurement = platformServiceMqttConfiguration.getMqttConfiguration().getDelaySendMeasurement();
+        // start the workers of the outbound lanes
+        getOutboundDispatcher();
+        // open the outbox, its messages are replayed after the subscription
+        OutboxConfiguration outboxConfiguration = platformServiceMqttConfiguration.getMqttConfiguration().getOutbox();
+        if (Objects.nonNull(outboxConfiguration) && Boolean.TRUE.equals(outboxConfiguration.getEnabled())) {
+            outbox = new MqttOutbox(outboxConfiguration, timeout, TimeUnit.SECONDS, this::publishToPlatform);
+        }
         // publishCallback
-        publishCallback = PublishCallback.getInstance(getAgentContext());
+        publishCallback = PublishCallback.getInstance(getAgentContext(), responseRegistry);
         // get managed object by ICCID
         publishCallback.monitorResponse(TemplateId.GET_MANAGED_OBJECT_ID_RES, managedObjectAEL);
         // response of startup event
@@ -155,10 +185,6 @@ public class PlatformServiceMqttImpl extends AbstractAgentService implements Pla
         publishCallback.monitorResponse(TemplateId.OPERATION_CONFIGURATION_RES, operationConfigUpdateAEL);
         publishCallback.monitorResponse(TemplateId.OPERATION_TEST_RES, operationTestOperationAEL);
         publishCallback.monitorResponse(TemplateId.OPERATION_RESTART_RES, operationRestartAEL);
-        // finished operation
-        getAgentContext().addAgentEventListener(lifecycleResponseAEL);
-        lifecycleResponseAEL.addFinishedListener(operationStatusAEL);
-        lifecycleResponseAEL.addStartupListener(operationStatusAEL);
         // manage ignores
         publishCallback.reverseIgnoredResponses(TemplateId.OPERATION_CONFIGURATION_RES, //
                         TemplateId.UPDATE_OPERATION_EXECUTING_STATUS_RES,
@@ -185,14 +211,42 @@ public class PlatformServiceMqttImpl extends AbstractAgentService implements Pla
     @Override
     @SuppressWarnings({ "rawtypes", "unchecked" })
     public void stop() throws AbstractAgentException {
+        // no reconnect while stopping
+        if (Objects.nonNull(connectionSupervisor)) {
+            connectionSupervisor.close();
+            connectionSupervisor = null;
+        }
         AtomicBoolean finished = unsubscribeAndClose();
-        PublishFuture<Void> publishFuture = new PublishFuture(executorService.submit(() -> {
+        PublishFuture<Void> publishFuture = new PublishFuture(getExecutorService().submit(() -> {
             while (!finished.get()) {
                 TimeUnit.MILLISECONDS.sleep(500);
             }
             return Void.TYPE;
         }));
         publishFuture.get(timeout, TimeUnit.SECONDS);
+        synchronized (this) {
+            if (Objects.nonNull(outboundDispatcher)) {
+                outboundDispatcher.shutdown();
+                outboundDispatcher = null;
+            }
+            if (Objects.nonNull(publishWindow)) {
+                publishWindow.shutdown();
+                publishWindow = null;
+            }
+            if (Objects.nonNull(outbox)) {
+                outbox.close();
+                outbox = null;
+            }
+            if (Objects.nonNull(callbackExecutor)) {
+                callbackExecutor.shutdown();
+                callbackExecutor = null;
+            }
+            if (Objects.nonNull(executorService)) {
+                executorService.shutdown();
+                executorService = null;
+            }
+        }
+        responseRegistry.shutdown();
         super.stop();
     }
 
@@ -212,10 +266,7 @@ public class PlatformServiceMqttImpl extends AbstractAgentService implements Pla
         // create new event object
         String xid = platformServiceMqttConfiguration.getMqttConfiguration().getxId();
         String template = SmartRestUtil.getPayloadCreateEvent(xid, time, type, text, managedObjectId, condition, "");
-        executorService.submit(() -> {
-            mqttPlatform.publishMessage(template, (r) -> LOGGER.info("create event {}", r));
-            startupAEL.provideEvent(loggingEvent);
-        });
+        publishAndWait(OutboundLane.EVENT, template, () -> startupAEL.provideEvent(loggingEvent));
     }
 
     @Override
@@ -232,10 +283,7 @@ public class PlatformServiceMqttImpl extends AbstractAgentService implements Pla
         // create new alarm object
         String xid = platformServiceMqttConfiguration.getMqttConfiguration().getxId();
         String template = SmartRestUtil.getPayloadCreateAlarm(xid, time, type, severity, text, status, managedObjectId);
-        executorService.submit(() -> {
-            mqttPlatform.publishMessage(template, (r) -> LOGGER.info("create alarm {}", r));
-            alarmAEL.provideEvent(loggingAlarm);
-        });
+        publishAndWait(OutboundLane.ofAlarm(severity), template, () -> alarmAEL.provideEvent(loggingAlarm));
     }
 
     @Override
@@ -248,15 +296,22 @@ public class PlatformServiceMqttImpl extends AbstractAgentService implements Pla
         LOGGER.info("create measurement (time={}, type={}, value={}, unit={})", measurementTime, type, value, unit);
         // smart rest template
         String xid = platformServiceMqttConfiguration.getMqttConfiguration().getxId();
-        String template = SmartRestUtil.getPayloadCreateMeasurement(xid, type, value, unit, time, managedObjectId);
-        executorService.submit(() -> {
-            mqttPlatform.publishMessage(template, (r) -> LOGGER.info("create measurement {}", r));
-            temperatureAEL.provideEvent(loggingMeasurements);
-        });
+        String template = SmartRestUtil.getPayloadCreateMeasurement(xid, type, value, unit, measurementTime,
+                        managedObjectId);
+        // waits while the window of unacknowledged publishes is full
+        PublishWindow.Permit permit = getPublishWindow().acquire(timeout, TimeUnit.SECONDS);
         try {
-            TimeUnit.MILLISECONDS.sleep(delaySendMeasurement);
-        } catch (InterruptedException e) {
-            LOGGER.warn("InterruptedException by delay of send measurement");
+            getOutboundDispatcher().submit(OutboundLane.MEASUREMENT, () -> {
+                permit.published();
+                publish(OutboundLane.MEASUREMENT, template, (r) -> {
+                    LOGGER.info("create measurement {}", r);
+                    permit.complete(Boolean.TRUE.equals(r));
+                });
+                temperatureAEL.provideEvent(loggingMeasurements);
+            });
+        } catch (AbstractAgentException agentException) {
+            permit.cancel();
+            throw agentException;
         }
     }
 
@@ -267,20 +322,54 @@ public class PlatformServiceMqttImpl extends AbstractAgentService implements Pla
             LOGGER.info("no measurements are created");
             return;
         }
-        // send measurements
+        // send measurements, several rows by one message
         LOGGER.info("create measurements size={}", measurements.size());
-        int errorCount = 0;
-        for (SensorMeasurement m : measurements) {
+        SmartRestBatcher batcher = createMeasurementBatcher();
+        // the index of the measurement of each row
+        int[] rowIndexes = new int[measurements.size()];
+        int rowCount = 0;
+        for (int index = 0; index < measurements.size(); index++) {
+            SensorMeasurement m = measurements.get(index);
             try {
-                createMeasurement(m.getTime(), m.getType(), m.getValue(), m.getUnit());
+                checkMeasurement(m.getType(), m.getUnit());
+                long time = Objects.nonNull(m.getTime()) ? m.getTime().getTime() : System.currentTimeMillis();
+                SmartRestUtil.writeRowCreateMeasurement(batcher.beginRow(), m.getType(), m.getValue(), m.getUnit(),
+                                time, managedObjectId);
+                batcher.endRow();
+                rowIndexes[rowCount++] = index;
             } catch (AbstractAgentException agentException) {
-                errorCount++;
                 LOGGER.error("can't create measurement", agentException);
             }
         }
-        // check error count
-        Class<PlatformServiceException> excClass = PlatformServiceException.class;
-        AssertionUtil.assertIsTrue(errorCount == 0, excClass, LOGGER, "error count should be zero");
+        publishMeasurements(batcher.getBatches(), rowIndexes, rowCount, measurements.size());
+    }
+
+    @Override
+    public void createMeasurements(MeasurementBatch measurements) throws AbstractAgentException {
+        assertNotNull(measurements, "can't create measurements, measurements is null");
+        if (measurements.isEmpty()) {
+            LOGGER.info("no measurements are created");
+            return;
+        }
+        // send measurements, several rows by one message
+        LOGGER.info("create measurements size={}", measurements.size());
+        SmartRestBatcher batcher = createMeasurementBatcher();
+        // the index of the measurement of each row
+        int[] rowIndexes = new int[measurements.size()];
+        int rowCount = 0;
+        for (int index = 0; index < measurements.size(); index++) {
+            try {
+                checkMeasurement(measurements.getType(index), measurements.getUnit(index));
+                SmartRestUtil.writeRowCreateMeasurement(batcher.beginRow(), measurements.getType(index),
+                                measurements.getValue(index), measurements.getUnit(index),
+                                measurements.getTime(index), managedObjectId);
+                batcher.endRow();
+                rowIndexes[rowCount++] = index;
+            } catch (AbstractAgentException agentException) {
+                LOGGER.error("can't create measurement", agentException);
+            }
+        }
+        publishMeasurements(batcher.getBatches(), rowIndexes, rowCount, measurements.size());
     }
 
     @Override
@@ -361,6 +450,7 @@ public class PlatformServiceMqttImpl extends AbstractAgentService implements Pla
         JsonElement fragmentJsonElement = (JsonElement) fragmentObject;
         Gson gson = new Gson();
         String template = "";
+        TemplateId responseId = TemplateId.NOT_AVAILABLE;
         boolean isFragmentEmpty = (fragmentJsonElement.isJsonObject()
                         && fragmentJsonElement.getAsJsonObject().entrySet().isEmpty());
         switch (agentFragmentIdentifier) {
@@ -368,16 +458,19 @@ public class PlatformServiceMqttImpl extends AbstractAgentService implements Pla
                 AgentHardware agentHardware = isFragmentEmpty ? null
                                 : gson.fromJson(fragmentJsonElement, AgentHardware.class);
                 template = SmartRestUtil.getPayloadUpdateHardware(xid, managedObjectId, agentHardware, isFragmentEmpty);
+                responseId = TemplateId.UPDATE_HARDWARE_RES;
                 break;
             case FIRMWARE:
                 AgentFirmware agentFirmware = isFragmentEmpty ? null
                                 : gson.fromJson(fragmentJsonElement, AgentFirmware.class);
                 template = SmartRestUtil.getPayloadUpdateFirmware(xid, managedObjectId, agentFirmware, isFragmentEmpty);
+                responseId = TemplateId.UPDATE_FIRMWARE_RES;
                 break;
             case MOBILE:
                 AgentMobile agentMobile = isFragmentEmpty ? null
                                 : gson.fromJson(fragmentJsonElement, AgentMobile.class);
                 template = SmartRestUtil.getPayloadUpdateMobile(xid, managedObjectId, agentMobile, isFragmentEmpty);
+                responseId = TemplateId.UPDATE_MOBILE_RES;
                 break;
             case SOFTWARE_LIST:
                 Software software = null;
@@ -387,24 +480,22 @@ public class PlatformServiceMqttImpl extends AbstractAgentService implements Pla
                     software = softwareList.get(0);
                 }
                 template = SmartRestUtil.getPayloadUpdateSoftwareList(xid, managedObjectId, software, isFragmentEmpty);
+                responseId = TemplateId.UPDATE_SOFTWARE_LIST_RES;
                 break;
             case CONFIGURATION:
                 AgentConfiguration agentConfiguration = isFragmentEmpty ? null
                                 : gson.fromJson(fragmentJsonElement, AgentConfiguration.class);
                 template = SmartRestUtil
                                 .getPayloadUpdateConfiguration(xid, managedObjectId, agentConfiguration, isFragmentEmpty);
+                responseId = TemplateId.UPDATE_CONFIGURATION_RES;
                 break;
             default:
                 break;
         }
         if (!template.isEmpty()) {
-            String message = template;
-            PublishFuture<String> publishFuture = new PublishFuture<String>(executorService.submit(() -> {
-                mqttPlatform.publishMessage(message, (result) -> LOGGER
-                                .info("published message={} result={}", message, result));
-                return updateFragmentAEL.waitOnAgentEventAndCreate();
-            }));
-            String id = publishFuture.get(timeout, TimeUnit.SECONDS);
+            PublishFuture<String> publishFuture = new PublishFuture<String>(
+                            publishRequest(template, updateFragmentAEL::create, responseId));
+            String id = publishFuture.get();
             LOGGER.debug("updated fragment {} for managed object id {} ", agentFragmentIdentifier.getId(), id);
         }
     }
@@ -418,11 +509,9 @@ public class PlatformServiceMqttImpl extends AbstractAgentService implements Pla
         String xid = platformServiceMqttConfiguration.getMqttConfiguration().getxId();
         String template = SmartRestUtil
                         .getPayloadUpdateSupportedOperations(xid, managedObjectId, supportedOperationNames);
-        PublishFuture<String> publishFuture = new PublishFuture<String>(executorService.submit(() -> {
-            mqttPlatform.publishMessage(template, (r) -> LOGGER.info("create supported operations {}", r));
-            return updateFragmentAEL.waitOnAgentEventAndCreate();
-        }));
-        String id = publishFuture.get(timeout, TimeUnit.SECONDS);
+        PublishFuture<String> publishFuture = new PublishFuture<String>(publishRequest(template,
+                        updateFragmentAEL::create, TemplateId.UPDATE_SUPPORTED_OPERATIONS_RES));
+        String id = publishFuture.get();
         LOGGER.debug("got supported operation response by id {}", id);
     }
 
@@ -442,12 +531,13 @@ public class PlatformServiceMqttImpl extends AbstractAgentService implements Pla
         LOGGER.info("updating operation {} by status {}", operationId, newStatus);
         String xId = platformServiceMqttConfiguration.getMqttConfiguration().getxId();
         String message = getPayloadPutOperationStatus(xId, operationId, String.valueOf(newStatus));
-        PublishFuture<String> publishFuture = new PublishFuture<String>(executorService.submit(() -> {
-            mqttPlatform.publishMessage(message, (result) -> LOGGER
-                            .info("published message={} result={}", message, result));
-            return updateFragmentAEL.waitOnAgentEventAndCreate();
-        }));
-        String id = publishFuture.get(timeout, TimeUnit.SECONDS);
+        TemplateId[] responseIds = getUpdateOperationStatusResponseIds(newStatus);
+        // the outbound lane of the operation status publishes the request, the response is awaited by the caller
+        CompletableFuture<String> response = new PublishFuture<CompletableFuture<String>>(getOutboundDispatcher()
+                        .submit(OutboundLane.OPERATION_STATUS,
+                                        () -> publishRequest(message, updateFragmentAEL::create, responseIds)))
+                                                        .get(timeout, TimeUnit.SECONDS);
+        String id = new PublishFuture<String>(response).get();
         LOGGER.debug("got update operation response by id {}", id);
     }
 
@@ -456,6 +546,314 @@ public class PlatformServiceMqttImpl extends AbstractAgentService implements Pla
         throw new PlatformServiceException("not supported in MQTT");
     }
 
+    /**
+     * Gets the count of queued requests of the outbound lane.
+     */
+    public int getOutboundQueueSize(OutboundLane lane) {
+        return getOutboundDispatcher().getQueueSize(lane);
+    }
+
+    /**
+     * Gets the count of requests rejected because their outbound lane was full.
+     */
+    public long getOutboundRejectedCount(OutboundLane lane) {
+        return getOutboundDispatcher().getRejectedCount(lane);
+    }
+
+    private SmartRestBatcher createMeasurementBatcher() {
+        MqttConfiguration mqttConfiguration = platformServiceMqttConfiguration.getMqttConfiguration();
+        return new SmartRestBatcher(mqttConfiguration.getxId(), mqttConfiguration.getMaxPayloadSize());
+    }
+
+    private void checkMeasurement(String type, String unit) throws AbstractAgentException {
+        assertNotEmpty(type, "can't create measurement, type is null or empty");
+        assertNotEmpty(unit, "can't create measurement, unit is null or empty");
+    }
+
+    /**
+     * publishes the batches of the measurement rows and throws a {@link MeasurementsNotCreatedException} by the count
+     * of the first measurements that were published or dropped as invalid, if not all measurements were published
+     * 
+     * @param rowIndexes
+     *            the index of the measurement of each row
+     * @param rowCount
+     *            the count of rows, the measurements without a row are invalid
+     * @param size
+     *            the count of measurements
+     */
+    private void publishMeasurements(List<SmartRestBatcher.Batch> batches, int[] rowIndexes, int rowCount, int size)
+                    throws AbstractAgentException {
+        int publishedRows = 0;
+        int published = publishMeasurementBatches(batches);
+        for (int index = 0; index < published; index++) {
+            publishedRows += batches.get(index).getRowCount();
+        }
+        if (publishedRows == size) {
+            return;
+        }
+        // the invalid measurements in front of the first row not published are dropped, too
+        int createdCount = publishedRows < rowCount ? rowIndexes[publishedRows] : size;
+        String message = "can't create " + (size - publishedRows) + " of " + size + " measurements";
+        LOGGER.error(message);
+        throw new MeasurementsNotCreatedException(message, createdCount);
+    }
+
+    /**
+     * publishes the batches by the measurement lane as the publish window permits, a batch is handed to the MQTT
+     * client after the previous one, so the platform gets the measurements in order. The batches are pipelined: the
+     * acknowledgements aren't awaited before the next batch is published, the window bounds the batches in flight.
+     * No batch is published after a failed one.
+     * 
+     * @return the count of the first batches that were published and acknowledged
+     */
+    private int publishMeasurementBatches(List<SmartRestBatcher.Batch> batches) {
+        List<CompletableFuture<Boolean>> acknowledgements = new ArrayList<>(batches.size());
+        AtomicBoolean failed = new AtomicBoolean(false);
+        for (SmartRestBatcher.Batch batch : batches) {
+            if (failed.get() || !handOverMeasurementBatch(batch, acknowledgements, failed)) {
+                break;
+            }
+        }
+
+        for (int index = 0; index < acknowledgements.size(); index++) {
+            try {
+                if (!Boolean.TRUE.equals(new PublishFuture<>(acknowledgements.get(index)).get(timeout,
+                                TimeUnit.SECONDS))) {
+                    LOGGER.error("can't publish measurements {}", batches.get(index));
+                    return index;
+                }
+            } catch (AbstractAgentException agentException) {
+                LOGGER.error("can't create measurements", agentException);
+                return index;
+            }
+        }
+        return acknowledgements.size();
+    }
+
+    /**
+     * acquires a permit of the publish window and waits until the batch is handed to the MQTT client by the
+     * measurement lane, its acknowledgement is added to the given ones
+     * 
+     * @return false if the batch couldn't be handed over
+     */
+    private boolean handOverMeasurementBatch(SmartRestBatcher.Batch batch,
+                    List<CompletableFuture<Boolean>> acknowledgements, AtomicBoolean failed) {
+        PublishWindow.Permit permit = null;
+        Future<CompletableFuture<Boolean>> dispatched;
+        try {
+            permit = getPublishWindow().acquire(timeout, TimeUnit.SECONDS);
+            PublishWindow.Permit batchPermit = permit;
+            dispatched = getOutboundDispatcher().submit(OutboundLane.MEASUREMENT, () -> {
+                CompletableFuture<Boolean> acknowledged = new CompletableFuture<>();
+                batchPermit.published();
+                publish(OutboundLane.MEASUREMENT, batch.getPayload(), result -> {
+                    LOGGER.info("create measurements rows={} result={}", batch.getRowCount(), result);
+                    batchPermit.complete(Boolean.TRUE.equals(result));
+                    if (!Boolean.TRUE.equals(result)) {
+                        failed.set(true);
+                    }
+                    acknowledged.complete(result);
+                });
+                temperatureAEL.provideEvent(loggingMeasurements);
+                return acknowledged;
+            });
+        } catch (AbstractAgentException agentException) {
+            if (Objects.nonNull(permit)) {
+                permit.cancel();
+            }
+            LOGGER.error("can't create measurements", agentException);
+            return false;
+        }
+        try {
+            acknowledgements.add(new PublishFuture<>(dispatched).get(timeout, TimeUnit.SECONDS));
+            return true;
+        } catch (AbstractAgentException agentException) {
+            LOGGER.error("can't create measurements", agentException);
+            return false;
+        }
+    }
+
+    /**
+     * dispatches the message by its lane and waits until it's published, a failed publish is thrown, so the caller
+     * (e.g. the circuit breaker of the alarm service) notes it
+     */
+    private void publishAndWait(OutboundLane lane, String message, Runnable published) throws AbstractAgentException {
+        Future<CompletableFuture<Boolean>> dispatched = getOutboundDispatcher().submit(lane, () -> {
+            CompletableFuture<Boolean> result = new CompletableFuture<>();
+            publish(lane, message, publishResult -> {
+                LOGGER.debug("published message={} result={}", message, publishResult);
+                result.complete(publishResult);
+            });
+            published.run();
+            return result;
+        });
+        CompletableFuture<Boolean> result = new PublishFuture<>(dispatched).get(timeout, TimeUnit.SECONDS);
+        if (!Boolean.TRUE.equals(new PublishFuture<>(result).get(timeout, TimeUnit.SECONDS))) {
+            throw AssertionUtil.createExceptionAndLog(PlatformServiceException.class, LOGGER,
+                            "can't publish message " + message);
+        }
+    }
+
+    /**
+     * registers the request by the template ids of its expected response and publishes its message, the registration
+     * and the publishing are serialized, so the requests are registered in the sequence of their responses. A request
+     * isn't recorded by the outbox, a replayed message wouldn't have a registered request and its response would
+     * complete another request.
+     */
+    private <T> CompletableFuture<T> publishRequest(String message, Function<PublishedValues, T> factory,
+                    TemplateId... responseIds) {
+        publishLock.lock();
+        try {
+            CompletableFuture<T> response = responseRegistry
+                            .register(factory, timeout, TimeUnit.SECONDS, responseIds);
+            publishMessage(message, response);
+            return response;
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    /**
+     * registers the request collecting all values of its expected response and publishes its message
+     */
+    private CompletableFuture<List<PublishedValues>> publishCollectingRequest(String message,
+                    TemplateId... responseIds) {
+        publishLock.lock();
+        try {
+            CompletableFuture<List<PublishedValues>> response = responseRegistry
+                            .registerAll(timeout, TimeUnit.SECONDS, responseIds);
+            publishMessage(message, response);
+            return response;
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    /**
+     * publishes the message of a request, the request fails at once if the message isn't published
+     */
+    private void publishMessage(String message, CompletableFuture<?> response) {
+        publishToPlatform(message, result -> {
+            LOGGER.debug("published message={} result={}", message, result);
+            if (Boolean.FALSE.equals(result)) {
+                responseRegistry.fail(response, new PlatformServiceException("can't publish message " + message));
+            }
+        });
+    }
+
+    /**
+     * publishes the message by the outbox, if it's enabled and the message has a lane, otherwise by the MQTT client
+     */
+    private void publish(OutboundLane lane, String message, Consumer<Boolean> callback) {
+        MqttOutbox currentOutbox = outbox;
+        if (Objects.nonNull(lane) && Objects.nonNull(currentOutbox)) {
+            currentOutbox.publish(lane, message, callback);
+        } else {
+            publishToPlatform(message, callback);
+        }
+    }
+
+    /**
+     * publishes the message by the MQTT client, a failed publish is reported to the connection supervisor. While the
+     * connection is lost the message fails at once, the MQTT client would connect again without the subscription.
+     */
+    private void publishToPlatform(String message, Consumer<Boolean> callback) {
+        ConnectionSupervisor supervisor = connectionSupervisor;
+        if (Objects.isNull(supervisor)) {
+            mqttPlatform.publishMessage(message, offEventLoop(callback));
+            return;
+        }
+        if (supervisor.getState() == ConnectionState.DISCONNECTED) {
+            callback.accept(false);
+            return;
+        }
+        mqttPlatform.publishMessage(message, offEventLoop(result -> {
+            if (!Boolean.TRUE.equals(result)) {
+                supervisor.disconnected("can't publish message");
+            }
+            callback.accept(result);
+        }));
+    }
+
+    /**
+     * hands a callback of the MQTT client over to the callback thread, the handling (e.g. writing the journal of the
+     * outbox or completing the requests) doesn't block the event loop of the client
+     */
+    private <T> Consumer<T> offEventLoop(Consumer<T> callback) {
+        ExecutorService executor = getCallbackExecutor();
+        return value -> {
+            try {
+                executor.execute(() -> callback.accept(value));
+            } catch (RejectedExecutionException e) {
+                LOGGER.debug("service is stopped, callback isn't handled");
+            }
+        };
+    }
+
+    private static TemplateId[] getUpdateOperationStatusResponseIds(OperationStatus status) {
+        if (Objects.isNull(status)) {
+            return new TemplateId[] { TemplateId.UPDATE_OPERATION_EXECUTING_STATUS_RES };
+        }
+        switch (status) {
+            case SUCCESSFUL:
+                return new TemplateId[] { TemplateId.UPDATE_OPERATION_SUCCESSFUL_STATUS_RES };
+            case FAILED:
+                return new TemplateId[] { TemplateId.UPDATE_OPERATION_FAILED_STATUS_RES };
+            case EXECUTING:
+                return new TemplateId[] { TemplateId.UPDATE_OPERATION_EXECUTING_STATUS_RES };
+            default:
+                return new TemplateId[] { TemplateId.UPDATE_OPERATION_SUCCESSFUL_STATUS_RES,
+                                TemplateId.UPDATE_OPERATION_FAILED_STATUS_RES,
+                                TemplateId.UPDATE_OPERATION_EXECUTING_STATUS_RES };
+        }
+    }
+
+    /**
+     * gets the window of the measurement publishes waiting for their acknowledgement, it's created by the
+     * configuration on first use
+     */
+    private synchronized PublishWindow getPublishWindow() {
+        if (Objects.isNull(publishWindow)) {
+            PublishWindowConfiguration configuration = platformServiceMqttConfiguration.getMqttConfiguration()
+                            .getPublishWindow();
+            // the acknowledgement timeout is the MQTT timeout
+            publishWindow = new PublishWindow(configuration.getInitialSize(),
+                            Math.max(configuration.getInitialSize(), configuration.getMaxSize()),
+                            configuration.getLatencyThreshold(), TimeUnit.SECONDS.toMillis(timeout),
+                            TimeUnit.MILLISECONDS);
+        }
+        return publishWindow;
+    }
+
+    private synchronized ExecutorService getExecutorService() {
+        if (Objects.isNull(executorService)) {
+            executorService = Executors.newFixedThreadPool(
+                            platformServiceMqttConfiguration.getMqttConfiguration().getExecutorPoolSize());
+        }
+        return executorService;
+    }
+
+    private synchronized ExecutorService getCallbackExecutor() {
+        if (Objects.isNull(callbackExecutor)) {
+            callbackExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "mqtt-callback");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return callbackExecutor;
+    }
+
+    private synchronized OutboundDispatcher getOutboundDispatcher() {
+        if (Objects.isNull(outboundDispatcher)) {
+            OutboundConfiguration outboundConfiguration = platformServiceMqttConfiguration.getMqttConfiguration()
+                            .getOutbound();
+            outboundDispatcher = new OutboundDispatcher(Objects.nonNull(outboundConfiguration)
+                            ? outboundConfiguration : new OutboundConfiguration());
+        }
+        return outboundDispatcher;
+    }
+
     private void assertNotNull(Object value, String errorMessage) throws AbstractAgentException {
         AssertionUtil.assertNotNull(value, PlatformServiceException.class, LOGGER, errorMessage);
     }
@@ -465,6 +863,114 @@ public class PlatformServiceMqttImpl extends AbstractAgentService implements Pla
     }
 
     private void subscribeToTopicAndGetManagedObjectId() throws AbstractAgentException {
+        subscribeToTopic();
+        // create rest template
+        LOGGER.info("publish message get managedObjectId");
+        // template
+        String xId = platformServiceMqttConfiguration.getMqttConfiguration().getxId();
+        String template = SmartRestUtil.getPayloadManagedObjectId(xId, iccId);
+        // request
+        PublishFuture<ManagedObject> publishFuture = new PublishFuture<ManagedObject>(
+                        publishRequest(template, managedObjectAEL::create, TemplateId.GET_MANAGED_OBJECT_ID_RES));
+        managedObjectId = publishFuture.get().getId();
+        // is never used any more
+        getAgentContext().removeAgentEventListener(managedObjectAEL);
+        LOGGER.info("got managedObjectId = {}", managedObjectId);
+        // supervise the connection from now on
+        ReconnectConfiguration reconnectConfiguration = platformServiceMqttConfiguration.getMqttConfiguration()
+                        .getReconnect();
+        if (Objects.isNull(connectionSupervisor) && Objects.nonNull(reconnectConfiguration)
+                        && Boolean.TRUE.equals(reconnectConfiguration.getEnabled())) {
+            connectionSupervisor = new ConnectionSupervisor(reconnectConfiguration, this::probeConnection,
+                            this::reconnect, this::connectionStateChanged);
+        }
+        // replay the messages not acknowledged before
+        if (Objects.nonNull(outbox)) {
+            outbox.replay();
+        }
+    }
+
+    /**
+     * connects by a new MQTT client and restores the subscription, the lost client is closed, so is the new client if
+     * the attempt fails
+     * 
+     * @return true if the connection is restored and a request is answered
+     */
+    private boolean reconnect() {
+        MqttPlatform lostPlatform = mqttPlatform;
+        lostPlatform.close(result -> LOGGER.debug("closed the lost MQTT client {}", result.succeeded()));
+        try {
+            AgentCredentials credentials = credentialsManager.getCredentials();
+            mqttPlatform = createMqttPlatform(false, iccId, credentials.getUsername(), credentials.getPassword());
+            subscribeToTopic();
+        } catch (AbstractAgentException e) {
+            LOGGER.warn("can't reconnect: {}", e.getMessage());
+            closeFailedPlatform(lostPlatform);
+            return false;
+        }
+        if (!probeConnection()) {
+            closeFailedPlatform(lostPlatform);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * closes the MQTT client of a failed reconnect attempt, unless it's still the lost one (the new client couldn't be
+     * created)
+     */
+    private void closeFailedPlatform(MqttPlatform lostPlatform) {
+        MqttPlatform failedPlatform = mqttPlatform;
+        if (failedPlatform != lostPlatform) {
+            failedPlatform.close(result -> LOGGER.debug("closed the MQTT client of the failed reconnect {}",
+                            result.succeeded()));
+        }
+    }
+
+    /**
+     * probes the connection by the request of the managed object id
+     * 
+     * @return true if the response is received
+     */
+    private boolean probeConnection() {
+        String xId = platformServiceMqttConfiguration.getMqttConfiguration().getxId();
+        String template = SmartRestUtil.getPayloadManagedObjectId(xId, iccId);
+        try {
+            new PublishFuture<>(publishRequest(template, managedObjectAEL::create,
+                            TemplateId.GET_MANAGED_OBJECT_ID_RES)).get(timeout, TimeUnit.SECONDS);
+            return true;
+        } catch (AbstractAgentException e) {
+            LOGGER.warn("no response to the probe: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * publishes the state of the connection, the messages of the outbox are replayed when it's restored
+     */
+    private void connectionStateChanged(ConnectionStateAgentEvent event) {
+        try {
+            getAgentContext().getAgentEventPublisher(Execution.ASYNC).publishEvent(event);
+        } catch (AbstractAgentException e) {
+            LOGGER.error("can't publish " + event, e);
+        }
+        if (event.getConnectionState() == ConnectionState.CONNECTED && Objects.nonNull(outbox)) {
+            outbox.replay();
+        }
+    }
+
+    /**
+     * receives the messages of the subscribed topic
+     */
+    private void received(String response) {
+        ConnectionSupervisor supervisor = connectionSupervisor;
+        if (Objects.nonNull(supervisor)) {
+            supervisor.activity();
+        }
+        publishCallback.accept(response);
+    }
+
+    private void subscribeToTopic() throws AbstractAgentException {
         LOGGER.info("subscribing to topic");
         // create subscribe callback
         final AtomicBoolean successfulSubscribe = new AtomicBoolean(false);
@@ -478,32 +984,18 @@ public class PlatformServiceMqttImpl extends AbstractAgentService implements Pla
             }
         };
         // create managed object callback
-        mqttPlatform.subscribeToTopic(callbackSubscribe, publishCallback);
+        mqttPlatform.subscribeToTopic(callbackSubscribe, offEventLoop(this::received));
         // wait
         wait(finishedSubscribe, 500, true);
         // check callback
         if (!successfulSubscribe.get()) {
             throw new PlatformServiceException("unable subscribe to topic");
         }
-        // create rest template
-        LOGGER.info("publish message get managedObjectId");
-        // template
-        String xId = platformServiceMqttConfiguration.getMqttConfiguration().getxId();
-        String template = SmartRestUtil.getPayloadManagedObjectId(xId, iccId);
-        // executor
-        PublishFuture<ManagedObject> publishFuture = new PublishFuture<ManagedObject>(executorService.submit(() -> {
-            mqttPlatform.publishMessage(template, (result) -> LOGGER
-                            .info("published message={} resulte={}", template, result));
-            return managedObjectAEL.waitOnAgentEventAndCreate();
-        }));
-        managedObjectId = publishFuture.get(timeout, TimeUnit.SECONDS).getId();
-        // is never used any more
-        getAgentContext().removeAgentEventListener(managedObjectAEL);
-        LOGGER.info("got managedObjectId = {}", managedObjectId);
     }
 
     private AtomicBoolean unsubscribeAndClose() {
         final AtomicBoolean finished = new AtomicBoolean(false);
+        final MqttPlatform mqttPlatform = this.mqttPlatform;
         mqttPlatform.unsubscribeFromTopic(successful -> {
             LOGGER.info("successful unsubscribe from topic {}", successful);
             Handler<AsyncResult<Void>> completionHandler = new Handler<AsyncResult<Void>>() {
@@ -538,13 +1030,25 @@ public class PlatformServiceMqttImpl extends AbstractAgentService implements Pla
             props.setProperty(JsonHelper.PASSWORD_KEY, password);
         }
         AtomicBoolean successfulDeploy = new AtomicBoolean(false);
+        VertxConfiguration vertx = platformServiceMqttConfiguration.getMqttConfiguration().getVertx();
         MqttPlatform platform = MqttPlatformBuilder.create(iccId, props)
-                        .setVerticalWorkerPoolSize(VERTICAL_WORKER_POOL_SIZE)
-                        .setVertxEventLoopPoolSize(VERTX_EVENT_LOOP_POOL_SIZE)
-                        .setVertxInternalBlockingPoolSize(VERTX_INTERNAL_BLOCKING_POOL_SIZE)
-                        .setVertxWorkerPoolSize(VERTX_WORKER_POOL_SIZE)
+                        .setVerticalWorkerPoolSize(vertx.getVerticleWorkerPoolSize())
+                        .setVertxEventLoopPoolSize(vertx.getEventLoopPoolSize())
+                        .setVertxInternalBlockingPoolSize(vertx.getInternalBlockingPoolSize())
+                        .setVertxWorkerPoolSize(vertx.getWorkerPoolSize())
+                        .setBlockedThreadCheckInterval(vertx.getBlockedThreadCheckInterval())
+                        .setMaxEventLoopExecuteTime(vertx.getMaxEventLoopExecuteTime())
+                        .setMaxWorkerExecuteTime(vertx.getMaxWorkerExecuteTime())
+                        .setWarningExceptionTime(vertx.getWarningExceptionTime())
+                        .setPreferNativeTransport(Boolean.TRUE.equals(vertx.getPreferNativeTransport()))
                         .build(successful -> successfulDeploy.set(successful));
-        wait(successfulDeploy, 500, true);
+        try {
+            wait(successfulDeploy, 500, true);
+        } catch (AbstractAgentException e) {
+            // the client isn't used, its Vert.x instance is closed
+            platform.close(result -> LOGGER.debug("closed the MQTT client not deployed {}", result.succeeded()));
+            throw e;
+        }
         return platform;
     }
 
@@ -561,14 +1065,13 @@ public class PlatformServiceMqttImpl extends AbstractAgentService implements Pla
         String xId = platformServiceMqttConfiguration.getMqttConfiguration().getxId();
         String template = getPayloadGetOperationStatus(xId, managedObjectId, String.valueOf(status), operationName);
 
-        // executorService
-        PublishFuture<List<GetOperationStatus>> publishFuture = new PublishFuture<>(
-                        executorService.submit(() -> {
-                            mqttPlatform.publishMessage(template, (result) -> LOGGER
-                                            .info("published message={} resulte={}", template, result));
-                            return operationStatusAEL.waitOnAllAgentEvents();
-                        }));
-        List<GetOperationStatus> values = publishFuture.get(timeout, TimeUnit.SECONDS);
+        // outbound lane of the operation status, the response is awaited by the caller
+        CompletableFuture<List<PublishedValues>> response = new PublishFuture<>(getOutboundDispatcher()
+                        .submit(OutboundLane.OPERATION_STATUS, () -> publishCollectingRequest(template,
+                                        TemplateId.STATUS_OF_OPERATION_RESTART_RES,
+                                        TemplateId.STATUS_OF_OPERATION_TEST_RES))).get(timeout, TimeUnit.SECONDS);
+        List<GetOperationStatus> values = new PublishFuture<>(response).get().stream()
+                        .map(operationStatusAEL::create).collect(Collectors.toList());
         LOGGER.debug("got operations response {}", values);
 
         // check result
@@ -2,8 +2,6 @@ package com.telekom.cot.device.agent.platform.mqtt;
 
 import com.telekom.cot.device.agent.common.exc.AbstractAgentException;
 import com.telekom.cot.device.agent.common.exc.PlatformServiceException;
-import com.telekom.cot.device.agent.platform.mqtt.event.LifecycleResponseAgentEvent;
-import com.telekom.cot.device.agent.platform.mqtt.event.LifecycleResponseAgentEvent.Lifecycle;
 import com.telekom.cot.device.agent.platform.mqtt.event.PublishedValuesAgentEvent;
 import com.telekom.cot.device.agent.platform.mqtt.event.PublishedValuesAgentEventListener;
 import com.telekom.cot.device.agent.service.event.AgentContext;
@@ -19,7 +17,6 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.*;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
 
 import static com.telekom.cot.device.agent.platform.mqtt.event.PublishedValuesAgentEvent.createEvent;
 
@@ -41,34 +38,60 @@ public class PublishCallback implements Consumer<String> {
     private Map<TemplateId, List<TemplateId>> ignoredTemplates = new HashedMap<>();
     /** */
     private AgentContext agentContext;
+    /** The requests waiting for their response. */
+    private ResponseRegistry responseRegistry;
 
     /** The private constructor. */
-    private PublishCallback(AgentEventPublisher publisher, AgentContext agentContext, TemplateResponseReader reader) {
+    private PublishCallback(AgentEventPublisher publisher, AgentContext agentContext, TemplateResponseReader reader,
+                    ResponseRegistry responseRegistry) {
         this.reader = reader;
         this.publisher = publisher;
         this.agentContext = agentContext;
+        this.responseRegistry = responseRegistry;
     }
 
     /**
-     * Create the PublishCallback instance.
+     * Create the PublishCallback instance with its own response registry.
      * 
-     * @param publisher
-     *            the event publisher
+     * @param agentContext
+     *            the agent context
      * @return the instance
      * @throws AbstractAgentException
      */
     public static PublishCallback getInstance(AgentContext agentContext) throws AbstractAgentException {
+        return getInstance(agentContext, new ResponseRegistry());
+    }
+
+    /**
+     * Create the PublishCallback instance.
+     * 
+     * @param agentContext
+     *            the agent context
+     * @param responseRegistry
+     *            the registry of the requests waiting for their response
+     * @return the instance
+     * @throws AbstractAgentException
+     */
+    public static PublishCallback getInstance(AgentContext agentContext, ResponseRegistry responseRegistry)
+                    throws AbstractAgentException {
         try {
             AgentEventPublisher publisher = agentContext.getAgentEventPublisher(Execution.ASYNC);
             URI templateResource = PublishCallback.class.getResource("/templates/mqtt.response.templates").toURI();
             TemplateResponseReader reader = TemplateResponseReaderBuilder.getInstance()
                             .setTemplateResource(templateResource).build();
-            return new PublishCallback(publisher, agentContext, reader);
+            return new PublishCallback(publisher, agentContext, reader, responseRegistry);
         } catch (IOException | URISyntaxException e) {
             throw new PlatformServiceException("can't create publish callback", e);
         }
     }
 
+    /**
+     * Get the registry of the requests waiting for their response.
+     */
+    public ResponseRegistry getResponseRegistry() {
+        return responseRegistry;
+    }
+
     /**
      * Which event is created by which template response.
      * 
@@ -128,161 +151,95 @@ public class PublishCallback implements Consumer<String> {
      */
     @Override
     public void accept(String response) {
-        publisher.publishEvent(new LifecycleResponseAgentEvent(this, Lifecycle.STARTUP));
-        LOGGER.debug("response: \n{}", idsToEnums(response));
-        // check error codes
-        String[] error = readErrorValues(response);
-        if (error.length > 0) {
-            LOGGER.warn("errors in responses {}", Arrays.asList(error));
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("response: \n{}", SmartRestResponseParser.toReadable(response));
         }
-        // check valid codes
-        String[] lines = readValidValues(response);
-        if (lines.length == 0) {
-           LOGGER.debug("could not find valid responses");
-        } else if (!isValidResponse(lines[0])) {
-            LOGGER.debug("valid responses {}", Arrays.asList(lines));
-            // read values from response
-            Map<TemplateId, List<PublishedValues>> allValues = toMappedPublishedValues(lines);
-            for (PublishedValues values : filterIgnoredTemplates(allValues)) {
-                TemplateId templateId = values.getTemplateId();
-                if (monitoredTemplates.containsKey(templateId)) {
-                    Class<? extends PublishedValuesAgentEvent> eventClass = monitoredTemplates.get(templateId);
-                    LOGGER.debug("handle response as AgentEvent {} by event {}", templateId, eventClass);
-                    AgentEvent event = createEvent(eventClass, this, values);
-                    LOGGER.debug("publish event {}", event);
-                    publisher.publishEvent(event);
-                }
+        for (PublishedValues values : filterIgnoredTemplates(toPublishedValues(response))) {
+            TemplateId templateId = values.getTemplateId();
+            // complete the request waiting for the response
+            responseRegistry.complete(values);
+            if (monitoredTemplates.containsKey(templateId)) {
+                Class<? extends PublishedValuesAgentEvent> eventClass = monitoredTemplates.get(templateId);
+                LOGGER.debug("handle response as AgentEvent {} by event {}", templateId, eventClass);
+                AgentEvent event = createEvent(eventClass, this, values);
+                LOGGER.debug("publish event {}", event);
+                publisher.publishEvent(event);
             }
         }
-        publisher.publishEvent(new LifecycleResponseAgentEvent(this, Lifecycle.FINISHED));
+        responseRegistry.completeResponse();
     }
 
     /**
-     * replace ID's to GET_MANAGED_OBJECT_ID_RES(601)
+     * Read the response values by a single pass over the response. The valid lines following the first valid line
+     * are read only if the first one is the used template (87), the error lines are logged.
      * 
      * @param response
-     * @return
+     *            the complete template response
+     * @return the published values in the order of their lines
      */
-    private static String idsToEnums(String response) {
-        String copy = String.valueOf(response);
-        for (TemplateId id : TemplateId.values()) {
-            copy = copy.replaceAll(id.getId() + ",", id + "(" + id.getId() + "),");
+    private List<PublishedValues> toPublishedValues(String response) {
+        List<PublishedValues> result = new ArrayList<>();
+        List<String> errors = null;
+        int validLines = 0;
+        boolean usedTemplate = false;
+        SmartRestResponseParser parser = new SmartRestResponseParser(response);
+        while (parser.nextLine()) {
+            // a template id without values is neither a valid nor an error line
+            if (parser.getFieldCount() < 2) {
+                continue;
+            }
+            TemplateId.TYPE type = parser.getTemplateId().getType();
+            if (type == TemplateId.TYPE.ERROR) {
+                errors = Objects.nonNull(errors) ? errors : new ArrayList<>();
+                errors.add(parser.getLine());
+            } else if (type == TemplateId.TYPE.RES && ++validLines == 1) {
+                usedTemplate = parser.getTemplateId() == TemplateId.USED_TEMPLATE;
+            } else if (type == TemplateId.TYPE.RES && usedTemplate) {
+                PublishedValues publishedValues = reader.read(parser);
+                if (publishedValues.isValid()) {
+                    LOGGER.debug("VALID response={} publishedValues={}", parser.getLine(), publishedValues);
+                } else {
+                    LOGGER.warn("INVALID response={} publishedValues={}", parser.getLine(), publishedValues);
+                }
+                result.add(publishedValues);
+            }
         }
-        return copy;
-    }
-
-    private String[] readValidValues(String response) {
-        return Arrays.asList(split(response)).stream()
-                        // filter all identified responses
-                        .filter(l -> TemplateId.isValidRes(l))
-                        // collect they
-                        .collect(Collectors.toList())
-                        // to array
-                        .toArray(new String[] {});
-    }
-
-    private String[] readErrorValues(String response) {
-        return Arrays.asList(split(response)).stream()
-                        // filter all identified responses
-                        .filter(l -> TemplateId.isErrorRes(l))
-                        // collect they
-                        .collect(Collectors.toList())
-                        // to array
-                        .toArray(new String[] {});
+        if (Objects.nonNull(errors)) {
+            LOGGER.warn("errors in responses {}", errors);
+        }
+        if (validLines == 0) {
+            LOGGER.debug("could not find valid responses");
+        } else if (usedTemplate && validLines < 2) {
+            LOGGER.warn("MQTT response has no content");
+        }
+        return result;
     }
 
     /**
-     * Removes all the values ​​listed in the ignore templates.
+     * Removes all the values listed in the ignore templates of the templates contained in the response.
      * 
      * @param allValues
      * @return
      */
-    private List<PublishedValues> filterIgnoredTemplates(Map<TemplateId, List<PublishedValues>> allValues) {
-        List<TemplateId> allValuesKeys = new ArrayList<>(allValues.keySet());
-        for (TemplateId templateId : allValuesKeys) {
-            if (ignoredTemplates.containsKey(templateId)) {
-                for (TemplateId ignoredTemplate : ignoredTemplates.get(templateId)) {
-                    Object pv = allValues.remove(ignoredTemplate);
-                    if (Objects.nonNull(pv)) {
-                        LOGGER.debug("remove response {} by ignored templates", ignoredTemplate);
-                    }
-                }
+    private List<PublishedValues> filterIgnoredTemplates(List<PublishedValues> allValues) {
+        Set<TemplateId> ignored = EnumSet.noneOf(TemplateId.class);
+        for (PublishedValues values : allValues) {
+            List<TemplateId> ignoredByTemplate = ignoredTemplates.get(values.getTemplateId());
+            if (Objects.nonNull(ignoredByTemplate)) {
+                ignored.addAll(ignoredByTemplate);
             }
         }
-        return allValues.entrySet().stream().map(e -> e.getValue()).flatMap(l -> l.stream())
-                        .collect(Collectors.toList());
-    }
-
-    /**
-     * Is this an empty response.
-     * 
-     * @param response
-     *            the complete template response
-     * @return
-     */
-    private boolean isValidResponse(String response) {
-        return !(Objects.nonNull(response) && response.startsWith("87"));
-    }
-
-    /**
-     * Read the response values by the TemplateResponseReader.
-     * 
-     * @param response
-     *            the complete template response
-     * @return a list of published values
-     */
-    private Map<TemplateId, List<PublishedValues>> toMappedPublishedValues(String[] content) {
-        // check content
-        if (content.length < 2) {
-            LOGGER.warn("MQTT response has no content");
-            return new HashMap<>();
+        if (ignored.isEmpty()) {
+            return allValues;
         }
-        // check all values
-        Map<TemplateId, List<PublishedValues>> result = new HashMap<>();
-        for (int index = 1; index < content.length; index++) {
-            String templateContent = content[index];
-            PublishedValues publishedValues = reader.read(templateContent);
-            if (publishedValues.isValid()) {
-                LOGGER.debug("VALID response={} publishedValues={}", templateContent, publishedValues);
+        List<PublishedValues> result = new ArrayList<>(allValues.size());
+        for (PublishedValues values : allValues) {
+            if (ignored.contains(values.getTemplateId())) {
+                LOGGER.debug("remove response {} by ignored templates", values.getTemplateId());
             } else {
-                LOGGER.warn("INVALID response={} publishedValues={}", templateContent, publishedValues);
+                result.add(values);
             }
-            if (!result.containsKey(publishedValues.getTemplateId())) {
-                result.put(publishedValues.getTemplateId(), new ArrayList<>());
-            }
-            result.get(publishedValues.getTemplateId()).add(publishedValues);
         }
         return result;
     }
-
-    /**
-     * Split the response by a CR and ignore the comma in a double quote area.
-     * 
-     * @param response
-     * @return the template content
-     */
-    private String[] split(String response) {
-        List<String> content = new ArrayList<>();
-        StringBuilder sb = new StringBuilder();
-        int doubleQuote = 0;
-        for (char value : response.toCharArray()) {
-            if (doubleQuote == 0 && value == '\n') {
-                content.add(sb.toString());
-                sb = new StringBuilder();
-            } else if (doubleQuote % 2 == 0 && value == '"') {
-                sb.append(value);
-                doubleQuote++;
-            } else if (doubleQuote % 2 != 0 && value == '"') {
-                sb.append(value);
-                doubleQuote--;
-            } else {
-                sb.append(value);
-            }
-        }
-        String value = sb.toString();
-        if (Objects.nonNull(value) && value.length() > 0) {
-            content.add(value);
-        }
-        return content.toArray(new String[] {});
-    }
 }
@@ -0,0 +1,262 @@
+package com.telekom.cot.device.agent.platform.mqtt;
+
+import java.util.Objects;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.telekom.cot.device.agent.common.exc.AbstractAgentException;
+import com.telekom.cot.device.agent.common.exc.PlatformServiceException;
+import com.telekom.cot.device.agent.common.util.AssertionUtil;
+
+/**
+ * Sliding window of the publishes waiting for their acknowledgement. A publish takes a {@link Permit} before its
+ * message is published and completes it by the publish callback, so up to the window size publishes are in flight.
+ * The acknowledgement latency is measured from {@link Permit#published()}, so the time a message waits for its
+ * outbound lane doesn't count.
+ *
+ * The window size is adapted AIMD-style like the TCP congestion window: each acknowledgement increases the size by
+ * {@code 1/size} (about one per round trip), a failed or expired publish or a smoothed acknowledgement latency above
+ * the threshold halves it. The size is halved at most once per window, i.e. the permits taken before a decrease
+ * don't decrease it again.
+ */
+public class PublishWindow {
+
+    /** The logger. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(PublishWindow.class);
+
+    /** The weight of a new latency sample in the smoothed latency (like the TCP SRTT). */
+    private static final double LATENCY_WEIGHT = 0.125;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    /** Signals a waiting publish that a permit was released. */
+    private final Condition notFull = lock.newCondition();
+    private final int maxSize;
+    private final long latencyThresholdNanos;
+    private final long ackTimeoutNanos;
+    /** The shared timer of the acknowledgement timeouts. */
+    private final ScheduledThreadPoolExecutor timer;
+
+    private final AtomicLong acknowledgedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+
+    /** The current window size, fractional for the additive increase. */
+    private double size;
+    private int inFlight = 0;
+    /** The sequence of the last permit taken. */
+    private long sequence = 0;
+    /** The permits up to this sequence were taken before the last decrease. */
+    private long recoverySequence = 0;
+    /** The smoothed acknowledgement latency in nanoseconds, 0 if there's no sample yet. */
+    private double smoothedLatency = 0;
+
+    /**
+     * @param initialSize
+     *            the initial count of publishes in flight
+     * @param maxSize
+     *            the max. count of publishes in flight
+     * @param latencyThreshold
+     *            the smoothed acknowledgement latency above which the window is decreased
+     * @param ackTimeout
+     *            the max. time to wait for the acknowledgement of a publish, the publish fails after it
+     * @param unit
+     *            the time unit of the latency threshold and the acknowledgement timeout
+     */
+    public PublishWindow(int initialSize, int maxSize, long latencyThreshold, long ackTimeout, TimeUnit unit) {
+        if (initialSize < 1 || maxSize < initialSize) {
+            throw new IllegalArgumentException("window sizes must be positive, max. size at least the initial size");
+        }
+        this.size = initialSize;
+        this.maxSize = maxSize;
+        this.latencyThresholdNanos = unit.toNanos(latencyThreshold);
+        this.ackTimeoutNanos = unit.toNanos(ackTimeout);
+        timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "mqtt-publish-window");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Waits until the window has room for a publish and takes a permit.
+     *
+     * @param timeout
+     *            the max. time to wait
+     * @param unit
+     *            the time unit of the timeout
+     * @return the permit, it has to be completed by the acknowledgement of the publish
+     * @throws AbstractAgentException
+     *             if the window is still full after the timeout or the thread is interrupted
+     */
+    public Permit acquire(long timeout, TimeUnit unit) throws AbstractAgentException {
+        long nanos = unit.toNanos(timeout);
+        long permitSequence;
+        try {
+            lock.lockInterruptibly();
+            try {
+                while (inFlight >= (int) size) {
+                    AssertionUtil.assertIsTrue(nanos > 0, PlatformServiceException.class, LOGGER,
+                                    "no publish acknowledged within " + timeout + " " + unit + ", window is full");
+                    nanos = notFull.awaitNanos(nanos);
+                }
+                inFlight++;
+                permitSequence = ++sequence;
+            } finally {
+                lock.unlock();
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new PlatformServiceException("interrupted while waiting for the publish window", exception);
+        }
+
+        Permit permit = new Permit(permitSequence);
+        permit.timeout = timer.schedule(() -> permit.complete(false), ackTimeoutNanos, TimeUnit.NANOSECONDS);
+        return permit;
+    }
+
+    /**
+     * Gets the current window size.
+     */
+    public int getSize() {
+        lock.lock();
+        try {
+            return (int) size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the count of publishes in flight.
+     */
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the smoothed acknowledgement latency.
+     */
+    public long getSmoothedLatency(TimeUnit unit) {
+        lock.lock();
+        try {
+            return unit.convert((long) smoothedLatency, TimeUnit.NANOSECONDS);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getAcknowledgedCount() {
+        return acknowledgedCount.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    /**
+     * Stops the timer of the acknowledgement timeouts.
+     */
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    private void release(Permit permit, Boolean acknowledged, long latency) {
+        lock.lock();
+        try {
+            inFlight--;
+            if (Boolean.TRUE.equals(acknowledged)) {
+                acknowledgedCount.incrementAndGet();
+                smoothedLatency = smoothedLatency == 0 ? latency
+                                : smoothedLatency + LATENCY_WEIGHT * (latency - smoothedLatency);
+                if (smoothedLatency <= latencyThresholdNanos) {
+                    size = Math.min(maxSize, size + 1 / size);
+                } else {
+                    decrease(permit, "smoothed latency " + TimeUnit.NANOSECONDS.toMillis((long) smoothedLatency)
+                                    + " ms");
+                }
+            } else if (Boolean.FALSE.equals(acknowledged)) {
+                failedCount.incrementAndGet();
+                decrease(permit, "failed publish");
+            }
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * halves the window, once per window (lock held)
+     */
+    private void decrease(Permit permit, String reason) {
+        if (permit.sequence <= recoverySequence) {
+            return;
+        }
+        size = Math.max(1, size / 2);
+        recoverySequence = sequence;
+        LOGGER.debug("decreased publish window to {} by {}", (int) size, reason);
+    }
+
+    /**
+     * A publish in flight.
+     */
+    public class Permit {
+
+        private final long sequence;
+        /** The time the message was published, the time of the acquire until it's published. */
+        private volatile long published = System.nanoTime();
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        private ScheduledFuture<?> timeout;
+
+        private Permit(long sequence) {
+            this.sequence = sequence;
+        }
+
+        /**
+         * Notes that the message is published now, the acknowledgement latency is measured from now on.
+         */
+        public void published() {
+            published = System.nanoTime();
+        }
+
+        /**
+         * Completes the publish, the first completion counts.
+         *
+         * @param acknowledged
+         *            whether the message was acknowledged
+         */
+        public void complete(boolean acknowledged) {
+            complete(Boolean.valueOf(acknowledged));
+        }
+
+        /**
+         * Releases the permit without adapting the window, e.g. if the message wasn't published at all.
+         */
+        public void cancel() {
+            complete((Boolean) null);
+        }
+
+        private void complete(Boolean acknowledged) {
+            if (!completed.compareAndSet(false, true)) {
+                return;
+            }
+            if (Objects.nonNull(timeout)) {
+                timeout.cancel(false);
+            }
+            release(this, acknowledged, System.nanoTime() - published);
+        }
+    }
+}
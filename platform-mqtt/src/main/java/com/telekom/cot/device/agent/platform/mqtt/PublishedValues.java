@@ -1,7 +1,6 @@
 package com.telekom.cot.device.agent.platform.mqtt;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 import java.util.Objects;
 
 import org.slf4j.Logger;
@@ -16,14 +15,17 @@ public class PublishedValues {
     private static final Logger LOGGER = LoggerFactory.getLogger(PublishedValues.class);
     /** The values belongs to the template. */
     private TemplateId templateId;
-    /** The mapped values. */
-    private Map<String, String> values;
+    /** The attributes (JSON paths) of the values, shared with the template if it assigns all values. */
+    private String[] attributes;
+    /** The values in the order of the template attributes. */
+    private String[] values;
     /** The error state. */
     private boolean error = false;
 
     public PublishedValues(TemplateId templateId, String[] attributes, String[] values) {
         this.templateId = templateId;
-        this.values = joinToMap(attributes, values);
+        this.attributes = join(attributes, values);
+        this.values = values;
     }
 
     /**
@@ -43,8 +45,9 @@ public class PublishedValues {
      * @return the response value
      */
     public String getValue(String attribute) {
-        if (contains(attribute)) {
-            return values.get(attribute);
+        int index = indexOf(attribute);
+        if (index >= 0) {
+            return values[index];
         }
         throw new IllegalArgumentException("attribute doesn't exist " + attribute);
     }
@@ -56,7 +59,7 @@ public class PublishedValues {
      * @return
      */
     public boolean contains(String attribute) {
-        return values.containsKey(attribute);
+        return indexOf(attribute) >= 0;
     }
 
     /**
@@ -65,7 +68,7 @@ public class PublishedValues {
      * @return
      */
     public Object size() {
-        return values.size();
+        return (int) Arrays.stream(attributes, 0, values.length).distinct().count();
     }
 
     /**
@@ -77,9 +80,24 @@ public class PublishedValues {
         return templateId != TemplateId.NOT_AVAILABLE && !error;
     }
 
-    private Map<String, String> joinToMap(String[] attributes, String[] values) {
+    /**
+     * Gets the index of the attribute, the last one if the attribute is assigned twice.
+     */
+    private int indexOf(String attribute) {
+        for (int index = values.length - 1; index >= 0; index--) {
+            if (Objects.equals(attributes[index], attribute)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private String[] join(String[] attributes, String[] values) {
         LOGGER.debug("join values {} by {}", attributes, values);
-        Map<String, String> result = new HashMap<>();
+        if (Objects.nonNull(attributes) && values.length <= attributes.length) {
+            return attributes;
+        }
+        String[] result = new String[values.length];
         for (int index = 0; index < values.length; index++) {
             String attr = "unknown" + index;
             if (Objects.nonNull(attributes) && index < attributes.length) {
@@ -87,13 +105,18 @@ public class PublishedValues {
             } else if (!error) {
                 error = true;
             }
-            result.put(attr, values[index]);
+            result[index] = attr;
         }
         return result;
     }
 
     @Override
     public String toString() {
-        return "PublishedValues [templateId=" + templateId + ", values=" + values + "]";
+        StringBuilder builder = new StringBuilder("PublishedValues [templateId=").append(templateId)
+                        .append(", values={");
+        for (int index = 0; index < values.length; index++) {
+            builder.append(index > 0 ? ", " : "").append(attributes[index]).append('=').append(values[index]);
+        }
+        return builder.append("}]").toString();
     }
 }
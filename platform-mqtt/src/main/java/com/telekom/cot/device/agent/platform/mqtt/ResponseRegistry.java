@@ -0,0 +1,279 @@
+package com.telekom.cot.device.agent.platform.mqtt;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Correlates the SmartREST responses with the requests waiting for them. Each request registers a
+ * {@link CompletableFuture} by the template ids of its expected response, the {@link PublishCallback} completes it by
+ * the published values of the response. The requests waiting for the same template id are completed in the sequence
+ * of their registration, so a request has to be registered right before its message is published.
+ *
+ * A request either takes the first matching values or collects all matching values of one response, see
+ * {@link #registerAll(long, TimeUnit, TemplateId...)}. The timeouts of all requests are scheduled by one shared timer.
+ * The timer is stopped by {@link #shutdown()} and started again by the next registration, so the registry can be used
+ * by a restarted service.
+ */
+public class ResponseRegistry {
+
+    /** The logger. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResponseRegistry.class);
+
+    /** The pending requests by the template ids of their expected response, in the sequence of registration. */
+    private final Map<TemplateId, Deque<PendingResponse<?>>> pendingResponses = new EnumMap<>(TemplateId.class);
+    /** The collecting requests which got values of the current response. */
+    private final Set<PendingResponse<?>> collectedResponses = new LinkedHashSet<>();
+    /** The shared timer of the timeouts, null until the first registration and after the shutdown. */
+    private ScheduledThreadPoolExecutor timer;
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Registers a request which is completed by the first values of one of the given template ids.
+     *
+     * @param factory
+     *            creates the result of the request by the published values
+     * @param timeout
+     *            the max. time to wait for the response
+     * @param unit
+     *            the time unit of the timeout
+     * @param templateIds
+     *            the template ids of the expected response
+     * @return the future of the result, it's completed exceptionally by a {@link TimeoutException} if the timeout
+     *         expires
+     */
+    public <T> CompletableFuture<T> register(Function<PublishedValues, T> factory, long timeout, TimeUnit unit,
+                    TemplateId... templateIds) {
+        return register(new PendingResponse<>(sequence.incrementAndGet(), templateIds, false,
+                        values -> factory.apply(values.get(0))), timeout, unit);
+    }
+
+    /**
+     * Registers a request which collects all values of the given template ids contained in one response. It's
+     * completed at the end of the first response containing such values, or by an empty list if the timeout expires.
+     * A response without any values doesn't complete it, such a response can't be told apart from the (empty)
+     * response of another request.
+     *
+     * @param timeout
+     *            the max. time to wait for the response
+     * @param unit
+     *            the time unit of the timeout
+     * @param templateIds
+     *            the template ids of the expected response
+     * @return the future of the collected values
+     */
+    public CompletableFuture<List<PublishedValues>> registerAll(long timeout, TimeUnit unit,
+                    TemplateId... templateIds) {
+        return register(new PendingResponse<>(sequence.incrementAndGet(), templateIds, true,
+                        values -> Collections.unmodifiableList(new ArrayList<>(values))), timeout, unit);
+    }
+
+    /**
+     * Completes the oldest pending request expecting the template id of the values.
+     *
+     * @param values
+     *            the published values of a response
+     * @return true, if a pending request took the values
+     */
+    public boolean complete(PublishedValues values) {
+        PendingResponse<?> response;
+        synchronized (this) {
+            Deque<PendingResponse<?>> queue = pendingResponses.get(values.getTemplateId());
+            if (Objects.isNull(queue) || queue.isEmpty()) {
+                return false;
+            }
+            response = queue.peekFirst();
+            response.values.add(values);
+            if (response.collecting) {
+                collectedResponses.add(response);
+                return true;
+            }
+            remove(response);
+        }
+        LOGGER.debug("complete request {} by {}", response, values);
+        response.complete();
+        return true;
+    }
+
+    /**
+     * Completes the collecting requests which got values of the response at its end.
+     */
+    public void completeResponse() {
+        List<PendingResponse<?>> completed;
+        synchronized (this) {
+            completed = new ArrayList<>(collectedResponses);
+            collectedResponses.clear();
+            completed.forEach(this::remove);
+        }
+        for (PendingResponse<?> response : completed) {
+            LOGGER.debug("complete request {} by {} values", response, response.values.size());
+            response.complete();
+        }
+    }
+
+    /**
+     * Completes a pending request exceptionally, e.g. if its message couldn't be published.
+     *
+     * @param future
+     *            the future of the request
+     * @param cause
+     *            the cause
+     */
+    public void fail(CompletableFuture<?> future, Throwable cause) {
+        synchronized (this) {
+            pendingResponses.values().stream().flatMap(Deque::stream).filter(response -> response.future == future)
+                            .findFirst().ifPresent(this::remove);
+        }
+        future.completeExceptionally(cause);
+    }
+
+    /**
+     * Gets the count of pending requests.
+     */
+    public synchronized int getPendingCount() {
+        return (int) pendingResponses.values().stream().flatMap(Deque::stream).distinct().count();
+    }
+
+    /**
+     * Stops the timer and cancels all pending requests.
+     */
+    public void shutdown() {
+        List<PendingResponse<?>> cancelled;
+        ScheduledThreadPoolExecutor stopped;
+        synchronized (this) {
+            cancelled = new ArrayList<>(new LinkedHashSet<>(getPendingResponses()));
+            cancelled.forEach(this::remove);
+            stopped = timer;
+            timer = null;
+        }
+        if (Objects.nonNull(stopped)) {
+            stopped.shutdownNow();
+        }
+        cancelled.forEach(response -> response.future.cancel(false));
+    }
+
+    private <T> CompletableFuture<T> register(PendingResponse<T> response, long timeout, TimeUnit unit) {
+        synchronized (this) {
+            for (TemplateId templateId : response.templateIds) {
+                pendingResponses.computeIfAbsent(templateId, id -> new ArrayDeque<>()).addLast(response);
+            }
+            response.timeout = getTimer().schedule(() -> expire(response, timeout, unit), timeout, unit);
+        }
+        LOGGER.debug("registered request {}", response);
+        return response.future;
+    }
+
+    /**
+     * gets the timer, it's started if it isn't running (lock held)
+     */
+    private ScheduledThreadPoolExecutor getTimer() {
+        if (Objects.isNull(timer)) {
+            timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "mqtt-response-timeout");
+                thread.setDaemon(true);
+                return thread;
+            });
+            timer.setRemoveOnCancelPolicy(true);
+        }
+        return timer;
+    }
+
+    /**
+     * completes the request exceptionally by a timeout, a collecting request without values by an empty list
+     */
+    private void expire(PendingResponse<?> response, long timeout, TimeUnit unit) {
+        synchronized (this) {
+            if (!remove(response)) {
+                return;
+            }
+        }
+        if (response.collecting) {
+            LOGGER.debug("no values for request {} within {} {}", response, timeout, unit);
+            response.complete();
+            return;
+        }
+        LOGGER.warn("no response to request {} within {} {}", response, timeout, unit);
+        response.future.completeExceptionally(
+                        new TimeoutException("no response within " + timeout + " " + unit + " to " + response));
+    }
+
+    /**
+     * removes the request from the queues of all its template ids and cancels its timeout (lock held)
+     */
+    private boolean remove(PendingResponse<?> response) {
+        boolean removed = false;
+        for (TemplateId templateId : response.templateIds) {
+            Deque<PendingResponse<?>> queue = pendingResponses.get(templateId);
+            if (Objects.nonNull(queue) && queue.remove(response)) {
+                removed = true;
+            }
+        }
+        collectedResponses.remove(response);
+        if (removed && Objects.nonNull(response.timeout)) {
+            response.timeout.cancel(false);
+        }
+        return removed;
+    }
+
+    private List<PendingResponse<?>> getPendingResponses() {
+        List<PendingResponse<?>> responses = new ArrayList<>();
+        pendingResponses.values().forEach(responses::addAll);
+        return responses;
+    }
+
+    /**
+     * A request waiting for its response.
+     */
+    private static class PendingResponse<T> {
+
+        private final long sequence;
+        private final TemplateId[] templateIds;
+        /** whether all values of one response are collected */
+        private final boolean collecting;
+        private final Function<List<PublishedValues>, T> factory;
+        private final List<PublishedValues> values = new ArrayList<>();
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        private ScheduledFuture<?> timeout;
+
+        private PendingResponse(long sequence, TemplateId[] templateIds, boolean collecting,
+                        Function<List<PublishedValues>, T> factory) {
+            this.sequence = sequence;
+            this.templateIds = templateIds;
+            this.collecting = collecting;
+            this.factory = factory;
+        }
+
+        private void complete() {
+            try {
+                future.complete(factory.apply(values));
+            } catch (RuntimeException exception) {
+                future.completeExceptionally(exception);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return PendingResponse.class.getSimpleName() + " [sequence=" + sequence + ", templateIds="
+                            + Arrays.toString(templateIds) + "]";
+        }
+    }
+}
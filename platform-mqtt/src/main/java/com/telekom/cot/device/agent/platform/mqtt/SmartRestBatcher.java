@@ -0,0 +1,128 @@
+package com.telekom.cot.device.agent.platform.mqtt;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Packs SmartREST rows into as few payloads as possible. Each payload starts with the header selecting the template
+ * collection (see {@link SmartRestUtil#writeHeader(SmartRestEncoder, String)}), followed by as many rows as fit into
+ * the max. payload size (in UTF-8 bytes). A row exceeding the max. size on its own is sent by a payload of its own.
+ *
+ * The rows are written straight into the payload by a {@link SmartRestEncoder}:
+ *
+ * <pre>
+ * SmartRestUtil.writeRowCreateMeasurement(batcher.beginRow(), ...);
+ * batcher.endRow();
+ * </pre>
+ *
+ * A batcher isn't thread safe.
+ */
+public class SmartRestBatcher {
+
+    private final String xId;
+    private final int maxPayloadSize;
+    private final SmartRestEncoder encoder = new SmartRestEncoder();
+    private final List<Batch> batches = new ArrayList<>();
+
+    /** The payload offset of the current row. */
+    private int rowStart;
+    private int rowCount;
+
+    /**
+     * @param xId
+     *            the template collection id
+     * @param maxPayloadSize
+     *            the max. size of a payload in bytes
+     */
+    public SmartRestBatcher(String xId, int maxPayloadSize) {
+        this.xId = Objects.requireNonNull(xId, "no xId given");
+        if (maxPayloadSize < 1) {
+            throw new IllegalArgumentException("max. payload size must be positive");
+        }
+        this.maxPayloadSize = maxPayloadSize;
+    }
+
+    /**
+     * Starts a row, it's written by the returned encoder and completed by {@link #endRow()}.
+     *
+     * @return the encoder of the current payload
+     */
+    public SmartRestEncoder beginRow() {
+        if (rowCount == 0) {
+            SmartRestUtil.writeHeader(encoder.clear(), xId);
+        }
+        rowStart = encoder.size();
+        return encoder;
+    }
+
+    /**
+     * Completes the row, it's moved to a new payload if it doesn't fit into the current one.
+     */
+    public void endRow() {
+        if (rowCount > 0 && encoder.size() > maxPayloadSize) {
+            byte[] row = encoder.toByteArray(rowStart);
+            encoder.truncate(rowStart);
+            flush();
+            SmartRestUtil.writeHeader(encoder.clear(), xId).append(row);
+        }
+        rowCount++;
+    }
+
+    /**
+     * Gets the batches of all rows added, the batcher is reset.
+     *
+     * @return the batches in the sequence of their rows
+     */
+    public List<Batch> getBatches() {
+        flush();
+        List<Batch> result = Collections.unmodifiableList(new ArrayList<>(batches));
+        batches.clear();
+        return result;
+    }
+
+    private void flush() {
+        if (rowCount > 0) {
+            batches.add(new Batch(encoder.toString(), rowCount, encoder.size()));
+        }
+        encoder.clear();
+        rowCount = 0;
+    }
+
+    /**
+     * A payload and the count of rows it contains.
+     */
+    public static class Batch {
+
+        private final String payload;
+        private final int rowCount;
+        private final int size;
+
+        private Batch(String payload, int rowCount, int size) {
+            this.payload = payload;
+            this.rowCount = rowCount;
+            this.size = size;
+        }
+
+        public String getPayload() {
+            return payload;
+        }
+
+        public int getRowCount() {
+            return rowCount;
+        }
+
+        /**
+         * Gets the size of the payload in UTF-8 bytes.
+         */
+        public int getSize() {
+            return size;
+        }
+
+        @Override
+        public String toString() {
+            return Batch.class.getSimpleName() + " [rowCount=" + rowCount + ", payload=" + payload + "]";
+        }
+    }
+}
@@ -0,0 +1,376 @@
+package com.telekom.cot.device.agent.platform.mqtt;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * Encodes SmartREST payloads straight into a reusable byte buffer (UTF-8), without building intermediate strings. A
+ * payload consists of rows, each row of the template id and its comma separated fields:
+ *
+ * <pre>
+ * encoder.row(15).field(xId).row(TemplateId.CREATE_MEASUREMENT_REQ).field(type)...
+ * </pre>
+ *
+ * The output is the same as by string concatenation: {@code null} is written as "null", the times are formatted like
+ * {@code yyyy-MM-dd'T'HH:mm:ss.SSSZ} in the zone of the encoder and the floats like {@link Float#toString(float)}. A
+ * field is quoted only if it contains a comma, a quote or a line break, the quotes are doubled.
+ *
+ * The date, hour and minute of a time are cached and the common floats (up to 3 decimals) are written by digits,
+ * other floats fall back to {@link Float#toString(float)}. An encoder isn't thread safe, {@link #get()} gets the
+ * encoder of the current thread.
+ */
+public class SmartRestEncoder {
+
+    private static final int INITIAL_CAPACITY = 256;
+    private static final ThreadLocal<SmartRestEncoder> ENCODERS = ThreadLocal.withInitial(SmartRestEncoder::new);
+
+    private static final DateTimeFormatter MINUTE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:");
+    private static final DateTimeFormatter OFFSET_FORMATTER = DateTimeFormatter.ofPattern("Z");
+    private static final long MINUTE_MILLIS = 60_000L;
+    private static final long[] POWERS_OF_TEN = { 1L, 10L, 100L, 1000L };
+    /** The range of floats written as plain decimal by {@link Float#toString(float)}. */
+    private static final float MIN_DECIMAL = 1e-3f;
+    private static final float MAX_DECIMAL = 1e7f;
+
+    private final ZoneId zone;
+
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+    private int size = 0;
+
+    /** The first and the last (exclusive) epoch millisecond of the cached minute. */
+    private long minuteStart = 0;
+    private long minuteEnd = 0;
+    /** The zone offset of the cached minute. */
+    private long offsetMillis;
+    /** The cached date, hour and minute, e.g. "2018-01-31T12:34:". */
+    private byte[] minutePrefix;
+    /** The cached zone offset, e.g. "+0100". */
+    private byte[] offset;
+
+    /**
+     * Creates an encoder formatting the times in the system default zone.
+     */
+    public SmartRestEncoder() {
+        this(ZoneId.systemDefault());
+    }
+
+    /**
+     * @param zone
+     *            the zone of the formatted times
+     */
+    public SmartRestEncoder(ZoneId zone) {
+        this.zone = Objects.requireNonNull(zone, "no zone given");
+    }
+
+    /**
+     * Gets the cleared encoder of the current thread, it formats the times in the system default zone at the time of
+     * its creation.
+     */
+    public static SmartRestEncoder get() {
+        return ENCODERS.get().clear();
+    }
+
+    /**
+     * Starts a row, separated by a line break from the previous row.
+     *
+     * @param templateId
+     *            the template id of the row
+     */
+    public SmartRestEncoder row(int templateId) {
+        if (size > 0) {
+            write('\n');
+        }
+        writeLong(templateId);
+        return this;
+    }
+
+    /**
+     * @see #row(int)
+     */
+    public SmartRestEncoder row(TemplateId templateId) {
+        return row(templateId.getId());
+    }
+
+    /**
+     * Writes a field, quoted if it contains a comma, a quote or a line break.
+     */
+    public SmartRestEncoder field(String value) {
+        write(',');
+        if (Objects.isNull(value)) {
+            writeAscii("null");
+        } else if (needsQuotes(value)) {
+            write('"');
+            writeUtf8(value, true);
+            write('"');
+        } else {
+            writeUtf8(value, false);
+        }
+        return this;
+    }
+
+    public SmartRestEncoder field(long value) {
+        write(',');
+        writeLong(value);
+        return this;
+    }
+
+    /**
+     * Writes a float like {@link Float#toString(float)}.
+     */
+    public SmartRestEncoder field(float value) {
+        write(',');
+        if (!writeDecimal(value)) {
+            writeAscii(Float.toString(value));
+        }
+        return this;
+    }
+
+    /**
+     * Writes a time like {@code yyyy-MM-dd'T'HH:mm:ss.SSSZ}.
+     */
+    public SmartRestEncoder field(Date time) {
+        if (Objects.isNull(time)) {
+            return field((String) null);
+        }
+        return timeField(time.getTime());
+    }
+
+    /**
+     * Writes a time given in epoch milliseconds like {@code yyyy-MM-dd'T'HH:mm:ss.SSSZ}.
+     */
+    public SmartRestEncoder timeField(long time) {
+        write(',');
+        writeTime(time);
+        return this;
+    }
+
+    /**
+     * Writes a row (or a part of it) as is, without quoting.
+     */
+    public SmartRestEncoder raw(String value) {
+        writeUtf8(value, false);
+        return this;
+    }
+
+    /**
+     * Gets the size of the payload in bytes.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Cuts the payload to the given size, e.g. to remove the last row.
+     */
+    public SmartRestEncoder truncate(int newSize) {
+        if (newSize < 0 || newSize > size) {
+            throw new IndexOutOfBoundsException("size " + newSize + " out of [0, " + size + "]");
+        }
+        size = newSize;
+        return this;
+    }
+
+    public SmartRestEncoder clear() {
+        size = 0;
+        return this;
+    }
+
+    /**
+     * Gets a read only view of the payload, it's valid until the encoder is changed.
+     */
+    public ByteBuffer toByteBuffer() {
+        return ByteBuffer.wrap(buffer, 0, size).asReadOnlyBuffer();
+    }
+
+    /**
+     * Gets a copy of the payload bytes from the given offset.
+     */
+    public byte[] toByteArray(int from) {
+        return Arrays.copyOfRange(buffer, from, size);
+    }
+
+    /**
+     * Appends bytes, e.g. a row copied by {@link #toByteArray(int)}.
+     */
+    public SmartRestEncoder append(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+        return this;
+    }
+
+    /**
+     * Gets the payload.
+     */
+    @Override
+    public String toString() {
+        return new String(buffer, 0, size, StandardCharsets.UTF_8);
+    }
+
+    private void writeTime(long time) {
+        if (time < minuteStart || time >= minuteEnd) {
+            cacheMinute(time);
+        }
+        int millisOfMinute = (int) Math.floorMod(time + offsetMillis, MINUTE_MILLIS);
+        append(minutePrefix);
+        writeDigits(millisOfMinute / 1000, 2);
+        write('.');
+        writeDigits(millisOfMinute % 1000, 3);
+        append(offset);
+    }
+
+    /**
+     * caches the prefix and the offset of the local minute of the time, the cached minute ends at an offset
+     * transition
+     */
+    private void cacheMinute(long time) {
+        Instant instant = Instant.ofEpochMilli(time);
+        ZoneRules rules = zone.getRules();
+        ZoneOffset zoneOffset = rules.getOffset(instant);
+        offsetMillis = zoneOffset.getTotalSeconds() * 1000L;
+        minuteStart = time - Math.floorMod(time + offsetMillis, MINUTE_MILLIS);
+        minuteEnd = minuteStart + MINUTE_MILLIS;
+        ZoneOffsetTransition previous = rules.previousTransition(instant.plusMillis(1));
+        if (Objects.nonNull(previous)) {
+            minuteStart = Math.max(minuteStart, previous.toEpochSecond() * 1000L);
+        }
+        ZoneOffsetTransition next = rules.nextTransition(instant);
+        if (Objects.nonNull(next)) {
+            minuteEnd = Math.min(minuteEnd, next.toEpochSecond() * 1000L);
+        }
+        OffsetDateTime dateTime = OffsetDateTime.ofInstant(instant, zoneOffset);
+        minutePrefix = MINUTE_FORMATTER.format(dateTime).getBytes(StandardCharsets.UTF_8);
+        offset = OFFSET_FORMATTER.format(dateTime).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * writes the float by its digits if it has up to 3 decimals and is written as plain decimal by
+     * {@link Float#toString(float)}, the shortest decimal (rounded half even) which is parsed to the float is the one
+     * written by {@link Float#toString(float)}
+     */
+    private boolean writeDecimal(float value) {
+        float abs = Math.abs(value);
+        if (abs == 0.0f) {
+            writeAscii(Float.floatToRawIntBits(value) < 0 ? "-0.0" : "0.0");
+            return true;
+        }
+        if (!(abs >= MIN_DECIMAL && abs < MAX_DECIMAL)) {
+            return false;
+        }
+        for (int decimals = 1; decimals < POWERS_OF_TEN.length; decimals++) {
+            long power = POWERS_OF_TEN[decimals];
+            long scaled = (long) Math.rint((double) abs * power);
+            if ((float) ((double) scaled / power) == abs) {
+                if (value < 0) {
+                    write('-');
+                }
+                writeLong(scaled / power);
+                write('.');
+                writeDigits(scaled % power, decimals);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void writeLong(long value) {
+        if (value < 0) {
+            if (value == Long.MIN_VALUE) {
+                writeAscii(Long.toString(value));
+                return;
+            }
+            write('-');
+            value = -value;
+        }
+        int digits = 1;
+        for (long limit = 10; digits < 19 && value >= limit; limit *= 10) {
+            digits++;
+        }
+        writeDigits(value, digits);
+    }
+
+    /**
+     * writes the lowest digits of the non-negative value, padded by zeros
+     */
+    private void writeDigits(long value, int digits) {
+        ensureCapacity(digits);
+        for (int index = size + digits - 1; index >= size; index--) {
+            buffer[index] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        size += digits;
+    }
+
+    private void writeAscii(String value) {
+        ensureCapacity(value.length());
+        for (int index = 0; index < value.length(); index++) {
+            buffer[size++] = (byte) value.charAt(index);
+        }
+    }
+
+    /**
+     * writes the value UTF-8 encoded like {@link String#getBytes(java.nio.charset.Charset)}, an unpaired surrogate is
+     * replaced by '?'
+     */
+    private void writeUtf8(String value, boolean escapeQuotes) {
+        ensureCapacity(value.length());
+        for (int index = 0; index < value.length(); index++) {
+            char c = value.charAt(index);
+            if (c < 0x80) {
+                if (escapeQuotes && c == '"') {
+                    write('"');
+                }
+                write(c);
+            } else if (c < 0x800) {
+                write(0xc0 | (c >> 6));
+                write(0x80 | (c & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && index + 1 < value.length()
+                                && Character.isLowSurrogate(value.charAt(index + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++index));
+                    write(0xf0 | (codePoint >> 18));
+                    write(0x80 | ((codePoint >> 12) & 0x3f));
+                    write(0x80 | ((codePoint >> 6) & 0x3f));
+                    write(0x80 | (codePoint & 0x3f));
+                } else {
+                    write('?');
+                }
+            } else {
+                write(0xe0 | (c >> 12));
+                write(0x80 | ((c >> 6) & 0x3f));
+                write(0x80 | (c & 0x3f));
+            }
+        }
+    }
+
+    private void write(int b) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) b;
+    }
+
+    private void ensureCapacity(int length) {
+        if (size + length > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + length));
+        }
+    }
+
+    private static boolean needsQuotes(String value) {
+        for (int index = 0; index < value.length(); index++) {
+            char c = value.charAt(index);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,173 @@
+package com.telekom.cot.device.agent.platform.mqtt;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Single pass parser of a SmartREST response. It walks the response line by line and records the template id and the
+ * offsets of the fields of the current line, without creating any strings. A line break or a comma within double
+ * quotes doesn't separate lines or fields. The fields are created only when they are read, the enclosing double quotes
+ * are removed.
+ *
+ * <pre>
+ * SmartRestResponseParser parser = new SmartRestResponseParser(response);
+ * while (parser.nextLine()) {
+ *     parser.getTemplateId() ... parser.getField(2)
+ * }
+ * </pre>
+ *
+ * A parser isn't thread safe.
+ */
+public class SmartRestResponseParser {
+
+    private static final int INITIAL_FIELDS = 16;
+
+    private final String response;
+    /** The start of the next line. */
+    private int position = 0;
+
+    private int lineStart;
+    private int lineEnd;
+    /** The template id of the line, {@link TemplateId#NOT_AVAILABLE} if it's unknown. */
+    private TemplateId templateId;
+    /** The start and end offsets of the fields of the line. */
+    private int[] fieldStarts = new int[INITIAL_FIELDS];
+    private int[] fieldEnds = new int[INITIAL_FIELDS];
+    private int fieldCount;
+
+    /**
+     * @param response
+     *            the SmartREST response, {@code null} is handled like an empty response without any line
+     */
+    public SmartRestResponseParser(String response) {
+        this.response = Objects.nonNull(response) ? response : "";
+    }
+
+    /**
+     * Moves to the next line, a line break at the end of the response doesn't start another line.
+     *
+     * @return false if there's no more line
+     */
+    public boolean nextLine() {
+        int length = response.length();
+        if (position >= length) {
+            return false;
+        }
+
+        lineStart = position;
+        fieldCount = 0;
+        int fieldStart = position;
+        int id = 0;
+        boolean idValid = true;
+        boolean inQuotes = false;
+        int index = position;
+        for (; index < length; index++) {
+            char c = response.charAt(index);
+            if (c == '"') {
+                inQuotes = !inQuotes;
+            } else if (!inQuotes && c == '\n') {
+                break;
+            } else if (!inQuotes && c == ',') {
+                addField(fieldStart, index);
+                fieldStart = index + 1;
+                continue;
+            }
+            // the template id is parsed from the first field
+            if (fieldCount == 0 && idValid) {
+                if (c >= '0' && c <= '9' && id < 100_000) {
+                    id = id * 10 + (c - '0');
+                } else {
+                    idValid = false;
+                }
+            }
+        }
+        addField(fieldStart, index);
+        lineEnd = index;
+        position = index + 1;
+        templateId = idValid && fieldEnds[0] > fieldStarts[0] ? TemplateId.findById(id) : TemplateId.NOT_AVAILABLE;
+        return true;
+    }
+
+    /**
+     * Gets the template id of the line, {@link TemplateId#NOT_AVAILABLE} if the line doesn't start with a known id.
+     */
+    public TemplateId getTemplateId() {
+        return templateId;
+    }
+
+    /**
+     * Gets the count of fields of the line, including the template id.
+     */
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Gets a field of the line without the enclosing double quotes, the doubled quotes within a quoted field are
+     * unescaped.
+     *
+     * @param index
+     *            the index of the field, the template id is the first field
+     * @return the field
+     */
+    public String getField(int index) {
+        if (index < 0 || index >= fieldCount) {
+            throw new IndexOutOfBoundsException("field " + index + " of " + fieldCount);
+        }
+        int start = fieldStarts[index];
+        int end = fieldEnds[index];
+        boolean quoted = false;
+        if (start < end && response.charAt(start) == '"') {
+            start++;
+            quoted = true;
+        }
+        if (start < end && response.charAt(end - 1) == '"') {
+            end--;
+        }
+        String field = response.substring(start, end);
+        return quoted && field.indexOf('"') >= 0 ? field.replace("\"\"", "\"") : field;
+    }
+
+    /**
+     * Gets the line.
+     */
+    public String getLine() {
+        return response.substring(lineStart, lineEnd);
+    }
+
+    /**
+     * Gets the response with the template id of each line followed by its name, e.g. "GET_MANAGED_OBJECT_ID_RES(601)"
+     * instead of "601".
+     *
+     * @param response
+     *            the response
+     * @return the readable response
+     */
+    public static String toReadable(String response) {
+        StringBuilder readable = new StringBuilder(Objects.nonNull(response) ? response.length() + 64 : 4);
+        SmartRestResponseParser parser = new SmartRestResponseParser(response);
+        while (parser.nextLine()) {
+            if (readable.length() > 0) {
+                readable.append('\n');
+            }
+            if (parser.templateId != TemplateId.NOT_AVAILABLE) {
+                readable.append(parser.templateId).append('(');
+                readable.append(parser.response, parser.fieldStarts[0], parser.fieldEnds[0]).append(')');
+                readable.append(parser.response, parser.fieldEnds[0], parser.lineEnd);
+            } else {
+                readable.append(parser.response, parser.lineStart, parser.lineEnd);
+            }
+        }
+        return readable.toString();
+    }
+
+    private void addField(int start, int end) {
+        if (fieldCount == fieldStarts.length) {
+            fieldStarts = Arrays.copyOf(fieldStarts, fieldCount * 2);
+            fieldEnds = Arrays.copyOf(fieldEnds, fieldCount * 2);
+        }
+        fieldStarts[fieldCount] = start;
+        fieldEnds[fieldCount] = end;
+        fieldCount++;
+    }
+}
@@ -13,7 +13,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
@@ -26,7 +25,8 @@ public class SmartRestUtil {
 
 	private static final String REGEX_VALID_ID = "(\\$)(\\{)([A-Z]|_){1,50}(\\})";
 	private static final String REGEX_INVALID_ID = "(\\$)(\\{)(.*)(\\})";
-	private static final String COT_TIME_PATTERN = "yyyy-MM-dd'T'HH:mm:ss.SSSZ";
+	/** the template id of the header selecting the template collection */
+	private static final int TEMPLATE_COLLECTION_ID = 15;
 	private static final Logger LOGGER = LoggerFactory.getLogger(SmartRestUtil.class);
 
 	/**
@@ -39,7 +39,8 @@ public class SmartRestUtil {
 	 * @return payload
 	 */
 	public static String getPayloadManagedObjectId(final String xID, final String iccId) {
-		String payload = "15," + xID + "\n" + TemplateId.GET_MANAGED_OBJECT_ID_REQ.getId() + "," + iccId;
+		String payload = writeHeader(SmartRestEncoder.get(), xID).row(TemplateId.GET_MANAGED_OBJECT_ID_REQ)
+				.field(iccId).toString();
 		LOGGER.debug("request {} to get managed id: {}", TemplateId.GET_MANAGED_OBJECT_ID_REQ, payload);
 		return payload;
 	}
@@ -62,15 +63,58 @@ public class SmartRestUtil {
 	 */
 	public static String getPayloadCreateMeasurement(final String xID, final String type, final float value,
 			final String unit, final Date time, final String managedObjectId) {
-		String valueString = String.valueOf(value);
-		SimpleDateFormat simpleDateFormat = new SimpleDateFormat(COT_TIME_PATTERN);
-		String dateString = simpleDateFormat.format(time);
-		String payload = "15," + xID + "\n" + TemplateId.CREATE_MEASUREMENT_REQ.getId() + "," + type + ",0,"
-				+ valueString + "," + unit + "," + dateString + "," + managedObjectId + "," + type;
+		String payload = writeRowCreateMeasurement(writeHeader(SmartRestEncoder.get(), xID), type, value, unit,
+				time, managedObjectId).toString();
 		LOGGER.debug("request {} to create measurement: {}", TemplateId.CREATE_MEASUREMENT_REQ, payload);
 		return payload;
 	}
 
+	/**
+	 * writes the row to create a measurement, several rows can be sent by one payload (see
+	 * {@link SmartRestBatcher})
+	 * 
+	 * @param encoder
+	 *            encoder of the payload
+	 * @param type
+	 *            type
+	 * @param value
+	 *            value
+	 * @param unit
+	 *            unit
+	 * @param time
+	 *            time
+	 * @param managedObjectId
+	 * @return the encoder
+	 */
+	public static SmartRestEncoder writeRowCreateMeasurement(final SmartRestEncoder encoder, final String type,
+			final float value, final String unit, final Date time, final String managedObjectId) {
+		return encoder.row(TemplateId.CREATE_MEASUREMENT_REQ).field(type).field(0).field(value).field(unit)
+				.field(time).field(managedObjectId).field(type);
+	}
+
+	/**
+	 * writes the row to create a measurement with the time in epoch milliseconds, see
+	 * {@link #writeRowCreateMeasurement(SmartRestEncoder, String, float, String, Date, String)}
+	 */
+	public static SmartRestEncoder writeRowCreateMeasurement(final SmartRestEncoder encoder, final String type,
+			final float value, final String unit, final long time, final String managedObjectId) {
+		return encoder.row(TemplateId.CREATE_MEASUREMENT_REQ).field(type).field(0).field(value).field(unit)
+				.timeField(time).field(managedObjectId).field(type);
+	}
+
+	/**
+	 * writes the header of a payload, it selects the template collection of the rows
+	 * 
+	 * @param encoder
+	 *            encoder of the payload
+	 * @param xID
+	 *            template collection id
+	 * @return the encoder
+	 */
+	public static SmartRestEncoder writeHeader(final SmartRestEncoder encoder, final String xID) {
+		return encoder.row(TEMPLATE_COLLECTION_ID).field(xID);
+	}
+
 	/**
 	 * gets payload to create an event
 	 * 
@@ -92,10 +136,8 @@ public class SmartRestUtil {
 	 */
 	public static String getPayloadCreateEvent(String xId, Date time, String type, String text, String managedObjectId,
 			String condition, String conditionValue) {
-		SimpleDateFormat simpleDateFormat = new SimpleDateFormat(COT_TIME_PATTERN);
-		String dateString = simpleDateFormat.format(time);
-		String payload = "15," + xId + "\n" + TemplateId.CREATE_EVENT_REQ.getId() + "," + condition + ","
-				+ conditionValue + "," + managedObjectId + "," + dateString + "," + type + "," + text;
+		String payload = writeHeader(SmartRestEncoder.get(), xId).row(TemplateId.CREATE_EVENT_REQ).field(condition)
+				.field(conditionValue).field(managedObjectId).field(time).field(type).field(text).toString();
 		LOGGER.debug("request {} to create event: {}", TemplateId.CREATE_EVENT_REQ, payload);
 		return payload;
 	}
@@ -121,10 +163,8 @@ public class SmartRestUtil {
 	 */
 	public static String getPayloadCreateAlarm(String xId, Date time, String type, AlarmSeverity severity, String text,
 			String status, String managedObjectId) {
-		SimpleDateFormat simpleDateFormat = new SimpleDateFormat(COT_TIME_PATTERN);
-		String dateString = simpleDateFormat.format(time);
-		String payload = "15," + xId + "\n" + TemplateId.CREATE_ALARM_REQ.getId() + "," + type + "," + dateString + ","
-				+ text + "," + status + "," + severity.getValue() + "," + managedObjectId;
+		String payload = writeHeader(SmartRestEncoder.get(), xId).row(TemplateId.CREATE_ALARM_REQ).field(type)
+				.field(time).field(text).field(status).field(severity.getValue()).field(managedObjectId).toString();
 		LOGGER.debug("request {} to create alarm: {}", TemplateId.CREATE_ALARM_REQ, payload);
 		return payload;
 	}
@@ -145,8 +185,8 @@ public class SmartRestUtil {
 	 */
 	public static String getPayloadGetOperationStatus(String xId, String managedObjectId, String status,
 			String fragmentType) {
-		String payload = "15," + xId + "\n" + TemplateId.GET_STATUS_OF_OPERATION_REQ.getId() + "," + managedObjectId
-				+ "," + status + "," + fragmentType;
+		String payload = writeHeader(SmartRestEncoder.get(), xId).row(TemplateId.GET_STATUS_OF_OPERATION_REQ)
+				.field(managedObjectId).field(status).field(fragmentType).toString();
 		LOGGER.debug("request {} to get list of operations: {}", TemplateId.GET_STATUS_OF_OPERATION_REQ, payload);
 		return payload;
 	}
@@ -163,10 +203,8 @@ public class SmartRestUtil {
 	 * @return payload
 	 */
 	public static String getPayloadPutOperationStatus(String xId, String operationId, String status) {
-        SimpleDateFormat simpleDateFormat = new SimpleDateFormat(COT_TIME_PATTERN);
-        String dateString = simpleDateFormat.format(new Date());
-		String payload = "15," + xId + "\n" + TemplateId.UPDATE_STATUS_OF_OPERATION_REQ.getId() + "," + operationId + ","
-				+ status + "," + status + "," + dateString;
+		String payload = writeHeader(SmartRestEncoder.get(), xId).row(TemplateId.UPDATE_STATUS_OF_OPERATION_REQ)
+				.field(operationId).field(status).field(status).field(new Date()).toString();
 		LOGGER.debug("request {} to update the operation status: {}", TemplateId.UPDATE_STATUS_OF_OPERATION_REQ, payload);
 		return payload;
 	}
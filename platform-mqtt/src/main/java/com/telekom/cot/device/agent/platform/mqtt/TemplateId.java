@@ -1,6 +1,9 @@
 package com.telekom.cot.device.agent.platform.mqtt;
 
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * The MQTT template ID's.
@@ -198,6 +201,29 @@ public enum TemplateId {
         NA, REQ, RES, ERROR;
     }
 
+    /** The template ids by id, a dense table since the ids are small numbers. */
+    private static final TemplateId[] BY_ID;
+    /** The response templates by name. */
+    private static final Map<String, TemplateId> RES_BY_NAME = new HashMap<>();
+
+    static {
+        TemplateId[] templateIds = values();
+        int maxId = 0;
+        for (TemplateId templateId : templateIds) {
+            maxId = Math.max(maxId, templateId.getId());
+        }
+        BY_ID = new TemplateId[maxId + 1];
+        Arrays.fill(BY_ID, NOT_AVAILABLE);
+        for (TemplateId templateId : templateIds) {
+            if (templateId.getId() >= 0) {
+                BY_ID[templateId.getId()] = templateId;
+            }
+            if (templateId.getType() == TYPE.RES) {
+                RES_BY_NAME.put(templateId.name(), templateId);
+            }
+        }
+    }
+
     /** The template id. */
     private int id;
     /** The template type */
@@ -216,6 +242,17 @@ public enum TemplateId {
         return type;
     }
 
+    /**
+     * Find template by id.
+     * 
+     * @param id
+     *            the template id
+     * @return the suitable TemplateId, NOT_AVAILABLE if there's none
+     */
+    public static TemplateId findById(int id) {
+        return id >= 0 && id < BY_ID.length ? BY_ID[id] : NOT_AVAILABLE;
+    }
+
     /**
      * Find response template by id.
      * 
@@ -224,10 +261,10 @@ public enum TemplateId {
      * @return the suitable TemplateId
      */
     public static TemplateId findByResId(String id) {
-        return Arrays.asList(values()).stream()
-                        .filter(templateId -> templateId.getType() == TYPE.RES
-                                        && String.valueOf(templateId.getId()).equals(id))
-                        .findFirst().orElse(NOT_AVAILABLE);
+        if (Objects.isNull(id)) {
+            return NOT_AVAILABLE;
+        }
+        return findByType(parseId(id, id.length()), TYPE.RES);
     }
 
     /**
@@ -238,10 +275,8 @@ public enum TemplateId {
      * @return the suitable TemplateId
      */
     public static TemplateId findByResName(String name) {
-        return Arrays.asList(values()).stream()
-                        .filter(templateId -> templateId.getType() == TYPE.RES
-                                        && String.valueOf(templateId.toString()).equals(name))
-                        .findFirst().orElse(NOT_AVAILABLE);
+        TemplateId templateId = Objects.nonNull(name) ? RES_BY_NAME.get(name) : null;
+        return Objects.nonNull(templateId) ? templateId : NOT_AVAILABLE;
     }
 
     /**
@@ -251,14 +286,9 @@ public enum TemplateId {
      * @return
      */
     public static boolean isValidRes(String line) {
-        return Arrays.asList(values()).stream()
-                        // filter only response
-                        .filter(templateId -> templateId.getType() == TYPE.RES
-                                        && line.startsWith(String.valueOf(templateId.getId()+",")))
-                        // find
-                        .findFirst().isPresent();
+        return findByType(parseId(line, line.indexOf(',')), TYPE.RES) != NOT_AVAILABLE;
     }
-    
+
     /**
      * Find error responses.
      * 
@@ -266,11 +296,29 @@ public enum TemplateId {
      * @return
      */
     public static boolean isErrorRes(String line) {
-        return Arrays.asList(values()).stream()
-                        // filter only response
-                        .filter(templateId -> templateId.getType() == TYPE.ERROR
-                                        && line.startsWith(String.valueOf(templateId.getId()+",")))
-                        // find
-                        .findFirst().isPresent();
+        return findByType(parseId(line, line.indexOf(',')), TYPE.ERROR) != NOT_AVAILABLE;
+    }
+
+    private static TemplateId findByType(int id, TYPE type) {
+        TemplateId templateId = findById(id);
+        return templateId.getType() == type ? templateId : NOT_AVAILABLE;
+    }
+
+    /**
+     * parses the id written as by String.valueOf(int) in front of the end index, -1 if it isn't an id
+     */
+    private static int parseId(String value, int end) {
+        if (end < 1 || end > 9 || (end > 1 && value.charAt(0) == '0')) {
+            return -1;
+        }
+        int id = 0;
+        for (int index = 0; index < end; index++) {
+            char c = value.charAt(index);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            id = id * 10 + (c - '0');
+        }
+        return id;
     }
 }
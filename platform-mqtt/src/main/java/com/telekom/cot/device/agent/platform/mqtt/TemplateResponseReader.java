@@ -1,7 +1,5 @@
 package com.telekom.cot.device.agent.platform.mqtt;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
@@ -17,12 +15,14 @@ public class TemplateResponseReader {
 
     /** The logger. */
     private static final Logger LOGGER = LoggerFactory.getLogger(TemplateResponseReader.class);
-    /** The assigned attributes to the TemplateId. */
-    private Map<TemplateId, String[]> templateAttributes;
+    /** The assigned attributes by the ordinal of the TemplateId. */
+    private final String[][] templateAttributes = new String[TemplateId.values().length][];
 
-    private TemplateResponseReader(Map<TemplateId, String[]> templateAttributes) {
-        this.templateAttributes = templateAttributes;
-        this.templateAttributes.put(TemplateId.NOT_AVAILABLE, new String[] {});
+    private TemplateResponseReader(Map<TemplateId, String[]> attributes) {
+        for (Map.Entry<TemplateId, String[]> entry : attributes.entrySet()) {
+            templateAttributes[entry.getKey().ordinal()] = entry.getValue();
+        }
+        this.templateAttributes[TemplateId.NOT_AVAILABLE.ordinal()] = new String[] {};
     }
 
     /**
@@ -46,62 +46,31 @@ public class TemplateResponseReader {
             LOGGER.warn("resonse is null");
             return new PublishedValues(TemplateId.NOT_AVAILABLE, new String[] {}, new String[] {});
         }
-        String[] allValues = split(response);
-        if (allValues.length < 2) {
+        SmartRestResponseParser parser = new SmartRestResponseParser(response);
+        if (!parser.nextLine()) {
             return new PublishedValues(TemplateId.NOT_AVAILABLE, new String[] {}, new String[] {});
         }
-        TemplateId templateId = TemplateId.findByResId(allValues[0]);
-        String[] values = new String[allValues.length - 2];
-        String[] attributes = templateAttributes.get(templateId);
-        // read the value from the second index
-        System.arraycopy(allValues, 2, values, 0, values.length);
-        return new PublishedValues(templateId, attributes, values);
+        return read(parser);
     }
 
     /**
-     * Split the response by a comma and ignore the comma in a double quote area.
+     * Read the values of the current line of the parser to a PublishedValues instance.
      * 
-     * @param response
-     * @return the template content
+     * @param parser
+     *            the parser positioned at the line to read
+     * @return the published values
      */
-    private static String[] split(String response) {
-        List<String> contents = new ArrayList<>();
-        StringBuilder sb = new StringBuilder();
-        int doubleQuote = 0;
-        for (char value : response.toCharArray()) {
-            if (doubleQuote == 0 && value == ',') {
-                add(contents, sb);
-                sb = new StringBuilder();
-            } else if (doubleQuote % 2 == 0 && value == '"') {
-                sb.append(value);
-                doubleQuote++;
-            } else if (doubleQuote % 2 != 0 && value == '"') {
-                sb.append(value);
-                doubleQuote--;
-            } else {
-                sb.append(value);
-            }
+    public PublishedValues read(SmartRestResponseParser parser) {
+        if (parser.getFieldCount() < 2) {
+            return new PublishedValues(TemplateId.NOT_AVAILABLE, new String[] {}, new String[] {});
         }
-        add(contents, sb);
-        return contents.toArray(new String[] {});
-    }
-
-    /**
-     * Add the content to the list.
-     * 
-     * @param contents
-     * @param sb
-     */
-    private static void add(List<String> contents, StringBuilder sb) {
-        String content = sb.toString();
-        if (Objects.nonNull(content) && content.length() > 0) {
-            if (content.indexOf("\"") == 0) {
-                content = content.substring(1);
-            }
-            if (content.lastIndexOf("\"") == content.length() - 1) {
-                content = content.substring(0, content.length() - 1);
-            }
+        TemplateId templateId = parser.getTemplateId().getType() == TemplateId.TYPE.RES ? parser.getTemplateId()
+                        : TemplateId.NOT_AVAILABLE;
+        // read the value from the second index
+        String[] values = new String[parser.getFieldCount() - 2];
+        for (int index = 0; index < values.length; index++) {
+            values[index] = parser.getField(index + 2);
         }
-        contents.add(content);
+        return new PublishedValues(templateId, templateAttributes[templateId.ordinal()], values);
     }
 }
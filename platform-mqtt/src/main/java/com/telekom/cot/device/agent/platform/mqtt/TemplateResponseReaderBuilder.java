@@ -2,15 +2,12 @@ package com.telekom.cot.device.agent.platform.mqtt;
 
 import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.net.URI;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.Objects;
 
 /**
  * The builder create {@code TemplateResponseReader} based on the template resource.
@@ -18,6 +15,13 @@ import java.util.stream.Collectors;
  */
 public class TemplateResponseReaderBuilder {
 
+    /** The fixed id of the template lines. */
+    private static final String TEMPLATE_PREFIX = "11,";
+    private static final char[] NAME_STARTS = new char[] { '$', '{' };
+    private static final char[] NAME_ENDS = new char[] { '}' };
+    private static final char[] ATTRIBUTE_STARTS = new char[] { '"', '$', '@', '{', '.' };
+    private static final char[] ATTRIBUTE_ENDS = new char[] { '"', '}' };
+
     private URI templateResource;
 
     private TemplateResponseReaderBuilder() {
@@ -37,96 +41,67 @@ public class TemplateResponseReaderBuilder {
     }
 
     /**
-     * Parse the MQTT response templates and map the attributes to TemplateId.
+     * Parse the MQTT response templates and map the attributes to TemplateId. The attributes are resolved once, the
+     * reader looks them up by the TemplateId only.
      * 
      * @return
      * @throws IOException
      */
     private Map<TemplateId, String[]> read() throws IOException {
-        InputStream inputStream = templateResource.toURL().openStream();
-        return new BufferedReader(new InputStreamReader(inputStream))
-                        /** read all lines */
-                        .lines()
-                        /** */
-                        .filter(line -> line.startsWith("11"))
-                        /** map this to a Template */
-                        .map(line -> new Template(line))
-                        /** create a map of TemplateId and */
-                        .collect(Collectors.toMap(
-                                        /** */
-                                        Template::getTemplateId,
-                                        /** */
-                                        Template::getAttributes));
+        Map<TemplateId, String[]> templates = new EnumMap<>(TemplateId.class);
+        try (BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(templateResource.toURL().openStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while (Objects.nonNull(line = reader.readLine())) {
+                if (line.startsWith(TEMPLATE_PREFIX)) {
+                    readTemplate(line, templates);
+                }
+            }
+        }
+        return templates;
     }
 
     /**
-     * Represents the relation between the Template and the attributes. 
+     * Read a template line, e.g. {@code 11,${STATUS_OF_OPERATION_TEST_RES},$.operations,"$.c8y_TestOperation","$.id"},
+     * the attributes are the JSON paths from the fifth field.
      */
-    private static class Template {
-
-        private static final String REGEX_VALID_ID = "(\\$)(\\{)([A-Z]|_){1,50}(\\})";
-        private static final Pattern PATTERN = Pattern.compile(REGEX_VALID_ID);
-        private TemplateId templateId;
-        private String[] attributes;
-
-        private Template(String line) {
-            Matcher matcher = PATTERN.matcher(line);
-            String templateName = "";
-            if (matcher.find()) {
-                templateName = line.substring(matcher.start(), matcher.end());
-                templateName = clear(templateName, new char[] { '$', '{' }, new char[] { '}' });
-            }
-            templateId = TemplateId.findByResName(templateName);
-            String[] content = split(line);
-            if (content.length > 4) {
-                attributes = new String[content.length - 4];
-                System.arraycopy(content, 4, attributes, 0, content.length - 4);
+    private static void readTemplate(String line, Map<TemplateId, String[]> templates) {
+        SmartRestResponseParser parser = new SmartRestResponseParser(line);
+        if (!parser.nextLine() || parser.getFieldCount() < 2) {
+            return;
+        }
+        TemplateId templateId = TemplateId.findByResName(clear(parser.getField(1), NAME_STARTS, NAME_ENDS));
+        String[] attributes = null;
+        if (parser.getFieldCount() > 4) {
+            attributes = new String[parser.getFieldCount() - 4];
+            for (int index = 0; index < attributes.length; index++) {
+                attributes[index] = clear(parser.getField(index + 4), ATTRIBUTE_STARTS, ATTRIBUTE_ENDS);
             }
         }
-
-        private TemplateId getTemplateId() {
-            return templateId;
+        if (templates.containsKey(templateId)) {
+            throw new IllegalStateException("duplicate template " + templateId + " in " + line);
         }
+        templates.put(templateId, attributes);
+    }
 
-        private String[] getAttributes() {
-            return attributes;
+    /**
+     * Remove each of the start chars (in sequence) and each of the end chars once.
+     */
+    private static String clear(String value, char[] starts, char[] ends) {
+        int start = 0;
+        int end = value.length();
+        while (start < end && Character.isWhitespace(value.charAt(start))) {
+            start++;
         }
-
-        private String[] split(String line) {
-            List<String> result = new ArrayList<>();
-            StringBuilder sb = new StringBuilder();
-            int comma = 0;
-            int doubleQuotes = 0;
-            char[] starts = new char[] { '"', '$', '@', '{', '.' };
-            char[] ends = new char[] { '"', '}' };
-            for (Character c : line.toCharArray()) {
-                if (((doubleQuotes % 2) == 0) && c == ',') {
-                    comma++;
-                } else if (c == '"') {
-                    doubleQuotes++;
-                }
-                if (comma == 1) {
-                    result.add(clear(sb.toString(), starts, ends));
-                    sb = new StringBuilder();
-                    comma = 0;
-                    doubleQuotes = 0;
-                } else {
-                    sb.append(c);
-                }
-            }
-            result.add(clear(sb.toString(), starts, ends));
-            return result.toArray(new String[] {});
+        while (end > start && Character.isWhitespace(value.charAt(end - 1))) {
+            end--;
         }
-
-        private String clear(String value, char[] starts, char[] ends) {
-            value = value.trim();
-            for (char remove : starts) {
-                value = value.startsWith(String.valueOf(remove)) ? value.substring(1) : value;
-            }
-            for (char remove : ends) {
-                value = value.endsWith(String.valueOf(remove)) ? value.substring(0, value.length() - 1) : value;
-            }
-            return value;
+        for (char remove : starts) {
+            start += start < end && value.charAt(start) == remove ? 1 : 0;
+        }
+        for (char remove : ends) {
+            end -= end > start && value.charAt(end - 1) == remove ? 1 : 0;
         }
+        return value.substring(start, end);
     }
 }
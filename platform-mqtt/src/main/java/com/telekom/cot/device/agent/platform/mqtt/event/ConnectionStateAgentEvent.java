@@ -0,0 +1,47 @@
+package com.telekom.cot.device.agent.platform.mqtt.event;
+
+import com.telekom.cot.device.agent.platform.mqtt.ConnectionSupervisor;
+import com.telekom.cot.device.agent.service.event.AgentEvent;
+
+/**
+ * Published by the {@link ConnectionSupervisor} on each transition of the MQTT connection state.
+ */
+public class ConnectionStateAgentEvent extends AgentEvent {
+
+    private ConnectionSupervisor connectionSupervisor;
+    private ConnectionState connectionState;
+    private int attempts;
+
+    public enum ConnectionState {
+        CONNECTED, DISCONNECTED, RECONNECTING
+    }
+
+    public ConnectionStateAgentEvent(ConnectionSupervisor connectionSupervisor, ConnectionState connectionState,
+                    int attempts) {
+        this.connectionSupervisor = connectionSupervisor;
+        this.connectionState = connectionState;
+        this.attempts = attempts;
+    }
+
+    public ConnectionState getConnectionState() {
+        return connectionState;
+    }
+
+    /**
+     * Gets the count of failed reconnect attempts since the connection was lost.
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    @Override
+    public Object getSource() {
+        return connectionSupervisor;
+    }
+
+    @Override
+    public String toString() {
+        return ConnectionStateAgentEvent.class.getSimpleName() + " [connectionState=" + connectionState
+                        + ", attempts=" + attempts + "]";
+    }
+}
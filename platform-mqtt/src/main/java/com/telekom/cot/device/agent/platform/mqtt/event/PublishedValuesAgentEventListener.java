@@ -1,15 +1,15 @@
 package com.telekom.cot.device.agent.platform.mqtt.event;
 
 import java.util.Objects;
-import java.util.Optional;
-import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 import com.telekom.cot.device.agent.platform.mqtt.PublishedValues;
 import com.telekom.cot.device.agent.service.event.AgentEventListener;
 
 /**
- * Each listener who is listen of a template response must be subclassed from this class.
+ * Each listener who is listen of a template response must be subclassed from this class. A request waiting for its
+ * response is completed by the {@link com.telekom.cot.device.agent.platform.mqtt.ResponseRegistry}, the listener
+ * creates the business object of each event by itself.
  * 
  * @param <T>
  *            the instance which is created from the PublishedValues
@@ -19,24 +19,17 @@ import com.telekom.cot.device.agent.service.event.AgentEventListener;
 public abstract class PublishedValuesAgentEventListener<T, E extends PublishedValuesAgentEvent>
                 implements AgentEventListener<E> {
 
-    /** Hold the published values in a eventBusinessObject. */
-    private Optional<E> optionalEvent = Optional.empty();
-    private T businessObject;
-    private Consumer<T> callback;
+    private volatile Consumer<T> callback;
 
-    /** Create an optional of the event */
+    /** Create and handle the business object of the event */
     @Override
     public void onAgentEvent(E event) {
-        synchronized (optionalEvent) {
-            optionalEvent = Optional.of(event);
-            if (optionalEvent.isPresent()) {
-                businessObject = create(optionalEvent.get().getPublishedValues());
-                if (Objects.nonNull(businessObject)) {
-                    handle(businessObject);
-                    if (Objects.nonNull(callback)) {
-                        callback.accept(businessObject);
-                    }
-                }
+        T businessObject = create(event.getPublishedValues());
+        if (Objects.nonNull(businessObject)) {
+            handle(businessObject);
+            Consumer<T> currentCallback = callback;
+            if (Objects.nonNull(currentCallback)) {
+                currentCallback.accept(businessObject);
             }
         }
     }
@@ -53,22 +46,6 @@ public abstract class PublishedValuesAgentEventListener<T, E extends PublishedVa
         this.callback = callback;
     }
 
-    /**
-     * Wait on an event and create the suitable business object based on the PublishedValues.
-     */
-    public T waitOnAgentEventAndCreate() throws InterruptedException {
-        optionalEvent = Optional.empty();
-        while (true) {
-            synchronized (optionalEvent) {
-                if (optionalEvent.isPresent()) {
-                    break;
-                }
-            }
-            TimeUnit.MILLISECONDS.sleep(500);
-        }
-        return businessObject;
-    }
-
     /**
      * Create the business object.
      *
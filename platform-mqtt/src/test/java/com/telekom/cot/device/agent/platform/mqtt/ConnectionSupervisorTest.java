@@ -0,0 +1,161 @@
+package com.telekom.cot.device.agent.platform.mqtt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.telekom.cot.device.agent.platform.mqtt.PlatformServiceMqttConfiguration.ReconnectConfiguration;
+import com.telekom.cot.device.agent.platform.mqtt.event.ConnectionStateAgentEvent;
+import com.telekom.cot.device.agent.platform.mqtt.event.ConnectionStateAgentEvent.ConnectionState;
+
+public class ConnectionSupervisorTest {
+
+	private ReconnectConfiguration configuration;
+	private final List<ConnectionStateAgentEvent> events = Collections.synchronizedList(new ArrayList<>());
+	/** the count of reconnect attempts failing before the reconnect succeeds */
+	private volatile int failingAttempts;
+	private final AtomicInteger reconnects = new AtomicInteger();
+	private volatile boolean alive = true;
+	private ConnectionSupervisor supervisor;
+
+	@Before
+	public void setUp() {
+		configuration = new ReconnectConfiguration();
+		configuration.setInitialDelay(10);
+		configuration.setMaxDelay(40);
+		configuration.setJitter(0);
+		configuration.setKeepAliveInterval(0);
+	}
+
+	@After
+	public void tearDown() {
+		if (supervisor != null) {
+			supervisor.close();
+		}
+	}
+
+	/**
+	 * test the reconnect attempts until the connection is restored and the published transitions
+	 */
+	@Test
+	public void testReconnect() throws Exception {
+		failingAttempts = 2;
+		supervisor = createSupervisor();
+
+		supervisor.disconnected("test");
+		awaitConnected();
+
+		assertEquals(3, reconnects.get());
+		assertEquals(Arrays.asList(ConnectionState.DISCONNECTED, ConnectionState.RECONNECTING,
+				ConnectionState.DISCONNECTED, ConnectionState.RECONNECTING, ConnectionState.DISCONNECTED,
+				ConnectionState.RECONNECTING, ConnectionState.CONNECTED), getStates());
+		assertEquals(2, events.get(events.size() - 1).getAttempts());
+		assertEquals(supervisor, events.get(0).getSource());
+		assertEquals(0, supervisor.getAttempts());
+	}
+
+	/**
+	 * test several failures of a lost connection, it's reconnected once
+	 */
+	@Test
+	public void testDisconnectedOnce() throws Exception {
+		configuration.setInitialDelay(200);
+		configuration.setMaxDelay(200);
+		supervisor = createSupervisor();
+
+		supervisor.disconnected("test");
+		supervisor.disconnected("test");
+		assertEquals(ConnectionState.DISCONNECTED, supervisor.getState());
+		awaitConnected();
+
+		assertEquals(1, reconnects.get());
+		assertEquals(Arrays.asList(ConnectionState.DISCONNECTED, ConnectionState.RECONNECTING,
+				ConnectionState.CONNECTED), getStates());
+	}
+
+	/**
+	 * test the exponential backoff up to the max. delay and the jitter
+	 */
+	@Test
+	public void testGetDelay() {
+		configuration.setInitialDelay(1000);
+		configuration.setMaxDelay(5000);
+		supervisor = createSupervisor();
+
+		assertEquals(1000, supervisor.getDelay(0));
+		assertEquals(2000, supervisor.getDelay(1));
+		assertEquals(4000, supervisor.getDelay(2));
+		assertEquals(5000, supervisor.getDelay(3));
+		assertEquals(5000, supervisor.getDelay(Integer.MAX_VALUE));
+
+		configuration.setJitter(50);
+		for (int index = 0; index < 100; index++) {
+			long delay = supervisor.getDelay(1);
+			assertTrue(String.valueOf(delay), delay >= 1000 && delay <= 2000);
+		}
+	}
+
+	/**
+	 * test the keepalive, a failed probe is handled like a lost connection
+	 */
+	@Test
+	public void testKeepAlive() throws Exception {
+		configuration.setKeepAliveInterval(1);
+		alive = false;
+		supervisor = createSupervisor();
+
+		for (int index = 0; index < 150 && reconnects.get() == 0; index++) {
+			TimeUnit.MILLISECONDS.sleep(20);
+		}
+		awaitConnected();
+		assertEquals(1, reconnects.get());
+		assertEquals(ConnectionState.DISCONNECTED, events.get(0).getConnectionState());
+	}
+
+	/**
+	 * test a closed supervisor, it doesn't reconnect
+	 */
+	@Test
+	public void testClose() throws Exception {
+		supervisor = createSupervisor();
+		supervisor.close();
+
+		supervisor.disconnected("test");
+		TimeUnit.MILLISECONDS.sleep(50);
+		assertEquals(0, reconnects.get());
+		assertTrue(events.isEmpty());
+	}
+
+	private ConnectionSupervisor createSupervisor() {
+		return new ConnectionSupervisor(configuration, () -> alive, () -> {
+			return reconnects.incrementAndGet() > failingAttempts;
+		}, events::add);
+	}
+
+	private List<ConnectionState> getStates() {
+		synchronized (events) {
+			return events.stream().map(ConnectionStateAgentEvent::getConnectionState).collect(Collectors.toList());
+		}
+	}
+
+	/**
+	 * awaits the event of the restored connection, it's published after the state is changed
+	 */
+	private void awaitConnected() throws InterruptedException {
+		for (int index = 0; index < 100 && !getStates().contains(ConnectionState.CONNECTED); index++) {
+			TimeUnit.MILLISECONDS.sleep(20);
+		}
+		assertEquals(ConnectionState.CONNECTED, supervisor.getState());
+	}
+}
@@ -0,0 +1,237 @@
+package com.telekom.cot.device.agent.platform.mqtt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.telekom.cot.device.agent.platform.mqtt.PlatformServiceMqttConfiguration.OutboxConfiguration;
+
+public class MqttOutboxTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private OutboxConfiguration configuration;
+	/** the messages published by the MQTT client */
+	private final List<String> published = Collections.synchronizedList(new ArrayList<>());
+	/** whether the MQTT client acknowledges the publishes */
+	private volatile boolean connected = true;
+	private final BiConsumer<String, Consumer<Boolean>> publisher = (message, callback) -> {
+		published.add(message);
+		callback.accept(connected);
+	};
+	private final List<Boolean> results = Collections.synchronizedList(new ArrayList<>());
+	private MqttOutbox outbox;
+
+	@Before
+	public void setUp() throws Exception {
+		configuration = new OutboxConfiguration();
+		configuration.setEnabled(true);
+		configuration.setDirectory(folder.getRoot().toPath().resolve("outbox").toString());
+		configuration.setRetryInterval(60);
+		outbox = new MqttOutbox(configuration, 1, TimeUnit.SECONDS, publisher);
+	}
+
+	@After
+	public void tearDown() {
+		outbox.close();
+	}
+
+	/**
+	 * test an acknowledged message, it isn't restored
+	 */
+	@Test
+	public void testPublishAcknowledged() throws Exception {
+		outbox.publish(OutboundLane.EVENT, "event1", results::add);
+
+		assertEquals(Arrays.asList("event1"), published);
+		assertEquals(Arrays.asList(true), results);
+		assertEquals(0, outbox.getPendingCount());
+		assertFalse(outbox.isReplaying());
+
+		reopen();
+		assertEquals(0, outbox.getPendingCount());
+	}
+
+	/**
+	 * test the messages of a lane which isn't recorded
+	 */
+	@Test
+	public void testPublishNotRecorded() {
+		connected = false;
+		outbox.publish(OutboundLane.MEASUREMENT, "measurement1", results::add);
+
+		assertFalse(outbox.isRecorded(OutboundLane.MEASUREMENT));
+		assertFalse(outbox.isRecorded(OutboundLane.OPERATION_STATUS));
+		assertEquals(Arrays.asList("measurement1"), published);
+		assertEquals(Arrays.asList(false), results);
+		assertEquals(0, outbox.getPendingCount());
+		assertFalse(outbox.isReplaying());
+	}
+
+	/**
+	 * test a failed publish, the following messages are queued and all are replayed in their sequence, the outbox
+	 * accepts all of them
+	 */
+	@Test
+	public void testReplay() throws Exception {
+		connected = false;
+		outbox.publish(OutboundLane.ALARM, "alarm1", results::add);
+		outbox.publish(OutboundLane.EVENT, "event1", results::add);
+		outbox.publish(OutboundLane.CRITICAL_ALARM, "critical1", results::add);
+
+		// only the first message is handed to the client
+		assertEquals(Arrays.asList("alarm1"), published);
+		assertEquals(Arrays.asList(true, true, true), results);
+		assertEquals(3, outbox.getPendingCount());
+		assertTrue(outbox.isReplaying());
+
+		connected = true;
+		outbox.replay();
+		awaitReplayed();
+		assertEquals(Arrays.asList("alarm1", "alarm1", "event1", "critical1"), published);
+		assertEquals(0, outbox.getPendingCount());
+
+		outbox.publish(OutboundLane.EVENT, "event2", results::add);
+		assertEquals("event2", published.get(4));
+	}
+
+	/**
+	 * test the messages not acknowledged by the previous run, they're replayed after reopening the outbox
+	 */
+	@Test
+	public void testReplayRestored() throws Exception {
+		connected = false;
+		outbox.publish(OutboundLane.EVENT, "event1", results::add);
+		outbox.publish(OutboundLane.EVENT, "event2\nwith a second row", results::add);
+
+		reopen();
+		assertEquals(2, outbox.getPendingCount());
+		assertTrue(outbox.isReplaying());
+
+		connected = true;
+		published.clear();
+		outbox.replay();
+		awaitReplayed();
+		assertEquals(Arrays.asList("event1", "event2\nwith a second row"), published);
+
+		reopen();
+		assertEquals(0, outbox.getPendingCount());
+	}
+
+	/**
+	 * test the size cap, the oldest message of the lowest priority lane is dropped
+	 */
+	@Test
+	public void testMaxMessages() throws Exception {
+		outbox.close();
+		configuration.setMaxMessages(2);
+		outbox = new MqttOutbox(configuration, 1, TimeUnit.SECONDS, publisher);
+
+		connected = false;
+		outbox.publish(OutboundLane.CRITICAL_ALARM, "alarm1", results::add);
+		outbox.publish(OutboundLane.EVENT, "event1", results::add);
+		outbox.publish(OutboundLane.ALARM, "alarm2", results::add);
+
+		assertEquals(2, outbox.getPendingCount());
+		assertEquals(1, outbox.getDroppedCount());
+
+		connected = true;
+		published.clear();
+		outbox.replay();
+		awaitReplayed();
+		assertEquals(Arrays.asList("alarm1", "alarm2"), published);
+	}
+
+	/**
+	 * test the expiry per lane, expired messages aren't replayed
+	 */
+	@Test
+	public void testExpiry() throws Exception {
+		outbox.close();
+		Map<OutboundLane, Integer> expiries = new EnumMap<>(OutboundLane.class);
+		expiries.put(OutboundLane.EVENT, 1);
+		configuration.setExpiries(expiries);
+		outbox = new MqttOutbox(configuration, 1, TimeUnit.SECONDS, publisher);
+
+		connected = false;
+		outbox.publish(OutboundLane.EVENT, "event1", results::add);
+		outbox.publish(OutboundLane.ALARM, "alarm1", results::add);
+		TimeUnit.MILLISECONDS.sleep(1100);
+
+		connected = true;
+		published.clear();
+		outbox.replay();
+		awaitReplayed();
+		assertEquals(Arrays.asList("alarm1"), published);
+		assertEquals(1, outbox.getDroppedCount());
+	}
+
+	/**
+	 * test a journal cut by a crash, it's read up to the last complete record
+	 */
+	@Test
+	public void testRestoreCutJournal() throws Exception {
+		connected = false;
+		outbox.publish(OutboundLane.EVENT, "event1", results::add);
+		outbox.publish(OutboundLane.EVENT, "event2", results::add);
+		outbox.close();
+
+		Path journal = folder.getRoot().toPath().resolve("outbox").resolve(MqttOutbox.JOURNAL_FILE);
+		byte[] bytes = Files.readAllBytes(journal);
+		Files.write(journal, Arrays.copyOf(bytes, bytes.length - 3));
+
+		outbox = new MqttOutbox(configuration, 1, TimeUnit.SECONDS, publisher);
+		assertEquals(1, outbox.getPendingCount());
+	}
+
+	/**
+	 * test a journal with a corrupt record, it's read up to the last record matching its checksum
+	 */
+	@Test
+	public void testRestoreCorruptJournal() throws Exception {
+		connected = false;
+		outbox.publish(OutboundLane.EVENT, "event1", results::add);
+		outbox.publish(OutboundLane.EVENT, "event2", results::add);
+		outbox.close();
+
+		Path journal = folder.getRoot().toPath().resolve("outbox").resolve(MqttOutbox.JOURNAL_FILE);
+		byte[] bytes = Files.readAllBytes(journal);
+		// a bit flip in the payload of the second record
+		bytes[bytes.length - 6] ^= 1;
+		Files.write(journal, bytes);
+
+		outbox = new MqttOutbox(configuration, 1, TimeUnit.SECONDS, publisher);
+		assertEquals(1, outbox.getPendingCount());
+	}
+
+	private void reopen() throws Exception {
+		outbox.close();
+		outbox = new MqttOutbox(configuration, 1, TimeUnit.SECONDS, publisher);
+	}
+
+	private void awaitReplayed() throws InterruptedException {
+		for (int index = 0; index < 100 && outbox.isReplaying(); index++) {
+			TimeUnit.MILLISECONDS.sleep(20);
+		}
+		assertFalse(outbox.isReplaying());
+	}
+}
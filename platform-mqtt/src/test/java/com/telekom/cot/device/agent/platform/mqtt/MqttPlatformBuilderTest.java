@@ -13,6 +13,8 @@ public class MqttPlatformBuilderTest {
         MqttPlatform mqttPlatform = MqttPlatformBuilder
                         .create("iccid", new Properties())
                         .setVerticalWorkerPoolSize(1).setVertxEventLoopPoolSize(1).setVertxInternalBlockingPoolSize(1)
-                        .setVertxWorkerPoolSize(1).build(s -> System.out.println(new Date() + " " + s));
+                        .setVertxWorkerPoolSize(1).setBlockedThreadCheckInterval(1000).setMaxEventLoopExecuteTime(2000)
+                        .setMaxWorkerExecuteTime(60000).setWarningExceptionTime(5000).setPreferNativeTransport(true)
+                        .build(s -> System.out.println(new Date() + " " + s));
     }
 }
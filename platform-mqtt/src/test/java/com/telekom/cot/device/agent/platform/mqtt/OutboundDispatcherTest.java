@@ -0,0 +1,112 @@
+package com.telekom.cot.device.agent.platform.mqtt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.telekom.cot.device.agent.common.AlarmSeverity;
+import com.telekom.cot.device.agent.common.exc.PlatformServiceException;
+import com.telekom.cot.device.agent.platform.mqtt.PlatformServiceMqttConfiguration.OutboundConfiguration;
+
+public class OutboundDispatcherTest {
+
+	private OutboundConfiguration configuration = new OutboundConfiguration();
+	private CountDownLatch blocker = new CountDownLatch(1);
+	private OutboundDispatcher dispatcher;
+
+	@After
+	public void tearDown() {
+		blocker.countDown();
+		if (dispatcher != null) {
+			dispatcher.shutdown();
+		}
+	}
+
+	/**
+	 * test a critical alarm, it's dispatched by the reserved worker while all other workers are busy with
+	 * measurements
+	 */
+	@Test
+	public void testCriticalAlarmNotBlockedByMeasurements() throws Exception {
+		configuration.setWorkers(2);
+		dispatcher = new OutboundDispatcher(configuration);
+		for (int index = 0; index < 100; index++) {
+			dispatcher.submit(OutboundLane.MEASUREMENT, () -> blocker.await(5, TimeUnit.SECONDS));
+		}
+
+		Future<String> alarm = dispatcher.submit(OutboundLane.ofAlarm(AlarmSeverity.CRITICAL), () -> "alarm");
+
+		assertEquals("alarm", alarm.get(1, TimeUnit.SECONDS));
+		assertEquals(99, dispatcher.getQueueSize(OutboundLane.MEASUREMENT));
+	}
+
+	/**
+	 * test a single worker, it's rejected because no worker would be reserved for critical alarms
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testSingleWorker() {
+		configuration.setWorkers(1);
+		dispatcher = new OutboundDispatcher(configuration);
+	}
+
+	/**
+	 * test the weighted fair scheduling of the lanes
+	 */
+	@Test
+	public void testWeightedFairScheduling() throws Exception {
+		configuration.setWorkers(2);
+		dispatcher = new OutboundDispatcher(configuration);
+		dispatcher.submit(OutboundLane.MEASUREMENT, () -> blocker.await(5, TimeUnit.SECONDS));
+		TimeUnit.MILLISECONDS.sleep(100);
+
+		List<OutboundLane> order = Collections.synchronizedList(new ArrayList<>());
+		List<Future<Object>> futures = new ArrayList<>();
+		for (int index = 0; index < 9; index++) {
+			futures.add(dispatcher.submit(OutboundLane.MEASUREMENT, () -> order.add(OutboundLane.MEASUREMENT)));
+			futures.add(dispatcher.submit(OutboundLane.ALARM, () -> order.add(OutboundLane.ALARM)));
+		}
+		blocker.countDown();
+		for (Future<Object> future : futures) {
+			future.get(1, TimeUnit.SECONDS);
+		}
+
+		assertEquals(8, Collections.frequency(order.subList(0, 9), OutboundLane.ALARM));
+		assertEquals(1, Collections.frequency(order.subList(0, 9), OutboundLane.MEASUREMENT));
+	}
+
+	/**
+	 * test method submit with a full lane, the request is rejected and counted
+	 */
+	@Test
+	public void testLaneFull() throws Exception {
+		Map<OutboundLane, Integer> capacities = new EnumMap<>(OutboundLane.class);
+		capacities.put(OutboundLane.EVENT, 1);
+		configuration.setWorkers(2);
+		configuration.setCapacities(capacities);
+		dispatcher = new OutboundDispatcher(configuration);
+		dispatcher.submit(OutboundLane.MEASUREMENT, () -> blocker.await(5, TimeUnit.SECONDS));
+		TimeUnit.MILLISECONDS.sleep(100);
+
+		dispatcher.submit(OutboundLane.EVENT, () -> {});
+		try {
+			dispatcher.submit(OutboundLane.EVENT, () -> {});
+			fail();
+		} catch (PlatformServiceException e) {
+			assertEquals(1, dispatcher.getRejectedCount(OutboundLane.EVENT));
+			assertEquals(0, dispatcher.getRejectedCount(OutboundLane.MEASUREMENT));
+		}
+		assertTrue(dispatcher.getQueueSize(OutboundLane.EVENT) == 1);
+	}
+}
@@ -15,7 +15,6 @@ public class PlatformServiceMqttConfigurationTest {
 	private static final String XID = "mqttXID";
 	private static final String PORT = "12345";
 	private static final Integer TIMEOUT = 1;
-	private static final Integer DELAY_SEND_MEASUREMENT = 100;
 	private static final String HOSTNAME = "host";
 	private static final String EXTERNAL_ID_TYPE = "externalIdType";
 	private static final String EXTERNAL_ID_VALUE = "externalIdValue";
@@ -34,7 +33,6 @@ public class PlatformServiceMqttConfigurationTest {
 		mqttConfiguration.setPort(PORT);
 		mqttConfiguration.setxId(XID);
 		mqttConfiguration.setTimeout(TIMEOUT);
-		mqttConfiguration.setDelaySendMeasurement(DELAY_SEND_MEASUREMENT);
 
 		platformServiceMqttConfig = new PlatformServiceMqttConfiguration();
 		platformServiceMqttConfig.setHostName(HOSTNAME);
@@ -59,7 +57,17 @@ public class PlatformServiceMqttConfigurationTest {
 				+ ", externalId=" + PlatformServiceConfiguration.ExternalIdConfig.class.getSimpleName() + " [type="
 				+ EXTERNAL_ID_TYPE + ", value=" + EXTERNAL_ID_VALUE + "]" + ", mqttConfiguration="
 				+ PlatformServiceMqttConfiguration.MqttConfiguration.class.getSimpleName() + " [port=" + PORT + ", xId="
-				+ XID + ", timeout=" + TIMEOUT + ", delaySendMeasurement=" + DELAY_SEND_MEASUREMENT + "]" + "]";
+				+ XID + ", timeout=" + TIMEOUT + ", maxPayloadSize=16184, publishWindow="
+				+ PlatformServiceMqttConfiguration.PublishWindowConfiguration.class.getSimpleName()
+				+ " [initialSize=4, maxSize=64, latencyThreshold=2000], outbound=null, outbox="
+				+ PlatformServiceMqttConfiguration.OutboxConfiguration.class.getSimpleName()
+				+ " [enabled=false, directory=outbox, maxMessages=1000, retryInterval=30, expiries=null], reconnect="
+				+ PlatformServiceMqttConfiguration.ReconnectConfiguration.class.getSimpleName()
+				+ " [enabled=true, initialDelay=1000, maxDelay=300000, multiplier=2, jitter=50, keepAliveInterval=300]"
+				+ ", executorPoolSize=10, vertx=" + PlatformServiceMqttConfiguration.VertxConfiguration.class.getSimpleName()
+				+ " [eventLoopPoolSize=1, workerPoolSize=1, internalBlockingPoolSize=2, verticleWorkerPoolSize=2,"
+				+ " blockedThreadCheckInterval=1000, maxEventLoopExecuteTime=2000, maxWorkerExecuteTime=60000,"
+				+ " warningExceptionTime=5000, preferNativeTransport=false]]" + "]";
 
 		assertEquals(expected, platformServiceMqttConfig.toString());
 	}
@@ -84,6 +92,12 @@ public class PlatformServiceMqttConfigurationTest {
 		mqttConfiguration.setxId(null);
 		assertFalse(ValidationUtil.isValid(platformServiceMqttConfig));
 
+		// configuration without publish window is invalid
+		mqttConfiguration.setPort(PORT);
+		mqttConfiguration.setxId(XID);
+		mqttConfiguration.setPublishWindow(null);
+		assertFalse(ValidationUtil.isValid(platformServiceMqttConfig));
+
 		// configuration with no mqtt configuration is invalid
 		platformServiceMqttConfig.setMqttConfiguration(null);
 		assertFalse(ValidationUtil.isValid(platformServiceMqttConfig));
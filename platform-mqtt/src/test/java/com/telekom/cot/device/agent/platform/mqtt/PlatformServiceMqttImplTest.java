@@ -12,20 +12,25 @@ import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Properties;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 import org.hamcrest.Matchers;
 import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
@@ -42,9 +47,12 @@ import com.telekom.cot.device.agent.common.AlarmSeverity;
 import com.telekom.cot.device.agent.common.configuration.AgentCredentials;
 import com.telekom.cot.device.agent.common.configuration.AgentCredentialsManager;
 import com.telekom.cot.device.agent.common.exc.AbstractAgentException;
+import com.telekom.cot.device.agent.common.exc.MeasurementsNotCreatedException;
 import com.telekom.cot.device.agent.common.exc.PlatformServiceException;
 import com.telekom.cot.device.agent.common.injection.InjectionUtil;
 import com.telekom.cot.device.agent.platform.mqtt.PlatformServiceMqttConfiguration.MqttConfiguration;
+import com.telekom.cot.device.agent.platform.mqtt.PlatformServiceMqttConfiguration.OutboxConfiguration;
+import com.telekom.cot.device.agent.platform.mqtt.PlatformServiceMqttConfiguration.VertxConfiguration;
 import com.telekom.cot.device.agent.platform.mqtt.event.AlarmAgentEventListener;
 import com.telekom.cot.device.agent.platform.mqtt.event.ManagedObjectAgentEventListener;
 import com.telekom.cot.device.agent.platform.mqtt.event.StartupAgentEventListener;
@@ -57,12 +65,16 @@ import com.telekom.cot.device.agent.platform.objects.AgentManagedObject;
 import com.telekom.cot.device.agent.platform.objects.AgentMobile;
 import com.telekom.cot.device.agent.platform.objects.AgentSoftwareList;
 import com.telekom.cot.device.agent.platform.objects.ManagedObject;
+import com.telekom.cot.device.agent.platform.objects.MeasurementBatch;
 import com.telekom.cot.device.agent.platform.objects.SensorMeasurement;
 import com.telekom.cot.device.agent.platform.objects.operation.Operation;
 import com.telekom.cot.device.agent.platform.objects.operation.Operation.OperationStatus;
 import com.telekom.cot.device.agent.service.event.AgentContext;
 import com.telekom.cot.device.agent.service.event.AgentEvent;
 import com.telekom.cot.device.agent.service.event.AgentEventPublisher;
+import com.telekom.cot.device.agent.service.retry.CircuitBreaker;
+import com.telekom.cot.device.agent.service.retry.CircuitState;
+import com.telekom.cot.device.agent.service.retry.RetryConfiguration;
 import com.telekom.cot.device.agent.system.SystemService;
 import com.telekom.cot.device.agent.system.properties.MobileProperties;
 
@@ -109,9 +121,13 @@ public class PlatformServiceMqttImplTest {
 	@Captor
 	private ArgumentCaptor<Operation> captor;
 
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
 	private PlatformServiceMqttImpl platformServiceMqtt = new PlatformServiceMqttImpl();
 	private PlatformServiceMqttConfiguration platformServiceMqttConfiguration = new PlatformServiceMqttConfiguration();
 	private AgentCredentials agentCredentials = new AgentCredentials();
+	private ResponseRegistry responseRegistry = new ResponseRegistry();
 
 	@Before
 	public void setUp() throws Exception {
@@ -119,14 +135,25 @@ public class PlatformServiceMqttImplTest {
 		PowerMockito.mockStatic(MqttPlatformBuilder.class);
 		PowerMockito.when(MqttPlatformBuilder.create(any(), any())).thenReturn(mockMqttPlatformBuilder);
 
-		when(mockMqttPlatformBuilder.setVerticalWorkerPoolSize(PlatformServiceMqttImpl.VERTICAL_WORKER_POOL_SIZE))
+		// the builder is configured by the default Vert.x configuration
+		VertxConfiguration vertx = new VertxConfiguration();
+		when(mockMqttPlatformBuilder.setVerticalWorkerPoolSize(vertx.getVerticleWorkerPoolSize()))
+				.thenReturn(mockMqttPlatformBuilder);
+		when(mockMqttPlatformBuilder.setVertxEventLoopPoolSize(vertx.getEventLoopPoolSize()))
+				.thenReturn(mockMqttPlatformBuilder);
+		when(mockMqttPlatformBuilder.setVertxInternalBlockingPoolSize(vertx.getInternalBlockingPoolSize()))
+				.thenReturn(mockMqttPlatformBuilder);
+		when(mockMqttPlatformBuilder.setVertxWorkerPoolSize(vertx.getWorkerPoolSize()))
 				.thenReturn(mockMqttPlatformBuilder);
-		when(mockMqttPlatformBuilder.setVertxEventLoopPoolSize(PlatformServiceMqttImpl.VERTX_EVENT_LOOP_POOL_SIZE))
+		when(mockMqttPlatformBuilder.setBlockedThreadCheckInterval(vertx.getBlockedThreadCheckInterval()))
 				.thenReturn(mockMqttPlatformBuilder);
-		when(mockMqttPlatformBuilder
-				.setVertxInternalBlockingPoolSize(PlatformServiceMqttImpl.VERTX_INTERNAL_BLOCKING_POOL_SIZE))
-						.thenReturn(mockMqttPlatformBuilder);
-		when(mockMqttPlatformBuilder.setVertxWorkerPoolSize(PlatformServiceMqttImpl.VERTX_WORKER_POOL_SIZE))
+		when(mockMqttPlatformBuilder.setMaxEventLoopExecuteTime(vertx.getMaxEventLoopExecuteTime()))
+				.thenReturn(mockMqttPlatformBuilder);
+		when(mockMqttPlatformBuilder.setMaxWorkerExecuteTime(vertx.getMaxWorkerExecuteTime()))
+				.thenReturn(mockMqttPlatformBuilder);
+		when(mockMqttPlatformBuilder.setWarningExceptionTime(vertx.getWarningExceptionTime()))
+				.thenReturn(mockMqttPlatformBuilder);
+		when(mockMqttPlatformBuilder.setPreferNativeTransport(vertx.getPreferNativeTransport()))
 				.thenReturn(mockMqttPlatformBuilder);
 		doAnswer(new Answer<MqttPlatform>() {
 
@@ -152,12 +179,10 @@ public class PlatformServiceMqttImplTest {
 
 		// platformServiceMqttConfiguration
 		MqttConfiguration mqttConfiguration = new MqttConfiguration();
-		mqttConfiguration.setDelaySendMeasurement(100);
 		platformServiceMqttConfiguration.setMqttConfiguration(mqttConfiguration);
 		platformServiceMqttConfiguration.getMqttConfiguration().setxId(X_ID);
 		platformServiceMqttConfiguration.getMqttConfiguration().setPort("1234");
 		platformServiceMqttConfiguration.getMqttConfiguration().setTimeout(5);
-		platformServiceMqttConfiguration.getMqttConfiguration().setDelaySendMeasurement(100);
 		platformServiceMqttConfiguration.setHostName("localhost");
 
 		// inject other mocks
@@ -172,6 +197,7 @@ public class PlatformServiceMqttImplTest {
 		InjectionUtil.inject(platformServiceMqtt, mockTemperatureAgentEventListener);
 		InjectionUtil.inject(platformServiceMqtt, mockStartupAgentEventListener);
 		InjectionUtil.inject(platformServiceMqtt, mockAlarmAgentEventListener);
+		InjectionUtil.inject(platformServiceMqtt, responseRegistry);
 	}
 
 	/**
@@ -191,6 +217,30 @@ public class PlatformServiceMqttImplTest {
 		Assert.assertThat(platformServiceMqtt.isStarted(), Matchers.equalTo(true));
 	}
 
+	/**
+	 * test method start, the MQTT client isn't deployed within the timeout, it's closed
+	 **/
+	@Test
+	public void testStartAgentMqttNotDeployed() throws AbstractAgentException {
+		// configure agentCredentials
+		agentCredentials.setBootstrappingMode(true);
+		agentCredentials.setUsername("test");
+		agentCredentials.setPassword("test");
+		agentCredentials.setTenant("management");
+		when(mockAgentCredentialsManager.getCredentials()).thenReturn(agentCredentials);
+		platformServiceMqttConfiguration.getMqttConfiguration().setTimeout(1);
+		when(mockMqttPlatformBuilder.build(any())).thenReturn(mockMqttPlatform);
+		// behavior
+		try {
+			platformServiceMqtt.start();
+			Assert.fail("exception expected");
+		} catch (PlatformServiceException e) {
+			// assert
+			verify(mockMqttPlatform).close(any());
+			Assert.assertThat(platformServiceMqtt.isStarted(), Matchers.equalTo(false));
+		}
+	}
+
 	/**
 	 * 
 	 * test method start
@@ -206,7 +256,7 @@ public class PlatformServiceMqttImplTest {
 		agentCredentials.setPassword("test");
 		agentCredentials.setTenant("MQTT");
 		when(mockAgentCredentialsManager.getCredentials()).thenReturn(agentCredentials);
-		when(mockManagedObjectAgentEventListener.waitOnAgentEventAndCreate()).thenReturn(new ManagedObject("1"));
+		when(mockManagedObjectAgentEventListener.create(any())).thenReturn(new ManagedObject("1"));
 		// setup callback
 		doAnswer(new Answer() {
 
@@ -222,6 +272,7 @@ public class PlatformServiceMqttImplTest {
 			public Object answer(InvocationOnMock invocationOnMock) throws Throwable {
 				Consumer<Boolean> callback = (Consumer<Boolean>) invocationOnMock.getArguments()[1];
 				callback.accept(true);
+				respond(TemplateId.GET_MANAGED_OBJECT_ID_RES);
 				return null;
 			}
 		}).when(mockMqttPlatform).publishMessage(any(), any());
@@ -321,7 +372,6 @@ public class PlatformServiceMqttImplTest {
 		agentCredentials.setPassword("test");
 		agentCredentials.setTenant("MQTT");
 		when(mockAgentCredentialsManager.getCredentials()).thenReturn(agentCredentials);
-		when(mockManagedObjectAgentEventListener.waitOnAgentEventAndCreate()).thenThrow(ExecutionException.class);
 		// setup callback
 		doAnswer(new Answer<Void>() {
 
@@ -362,7 +412,7 @@ public class PlatformServiceMqttImplTest {
 		when(mockAgentCredentialsManager.getCredentials()).thenReturn(agentCredentials);
 		Properties props = new Properties();
 		when(mockMqttPlatform.getProperties()).thenReturn(props);
-		when(mockManagedObjectAgentEventListener.waitOnAgentEventAndCreate()).thenReturn(new ManagedObject("1"));
+		when(mockManagedObjectAgentEventListener.create(any())).thenReturn(new ManagedObject("1"));
 		// setup callback
 		doAnswer(new Answer<Void>() {
 
@@ -379,6 +429,7 @@ public class PlatformServiceMqttImplTest {
 			@Override
 			public Void answer(InvocationOnMock invocationOnMock) throws Throwable {
 				((Consumer<Object>) invocationOnMock.getArguments()[1]).accept(true);
+				respond(TemplateId.GET_MANAGED_OBJECT_ID_RES);
 				return null;
 			}
 		}).when(mockMqttPlatform).publishMessage(any(), any());
@@ -423,8 +474,40 @@ public class PlatformServiceMqttImplTest {
 		// behavior
 		platformServiceMqtt.start();
 		platformServiceMqtt.createMeasurement(new Date(), "test", (float) 1.0, "°C");
+		// assert, the measurement is published asynchronously
+		verify(mockMqttPlatform, Mockito.timeout(1000)).publishMessage(any(), any());
+	}
+
+	/**
+	 * test method createMeasurement, the acknowledgement of a publish makes room in the publish window
+	 **/
+	@Test(timeout = 4000)
+	public void testCreateMeasurementsByPublishWindow() throws AbstractAgentException {
+		platformServiceMqttConfiguration.getMqttConfiguration().getPublishWindow().setInitialSize(1);
+		platformServiceMqttConfiguration.getMqttConfiguration().getPublishWindow().setMaxSize(1);
+		// configure agentCredentials
+		agentCredentials.setBootstrappingMode(true);
+		agentCredentials.setUsername("test");
+		agentCredentials.setPassword("test");
+		agentCredentials.setTenant("MQTT");
+		when(mockAgentCredentialsManager.getCredentials()).thenReturn(agentCredentials);
+		// setup callback
+		doAnswer(new Answer<Void>() {
+
+			@SuppressWarnings("unchecked")
+			@Override
+			public Void answer(InvocationOnMock invocationOnMock) throws Throwable {
+				((Consumer<Object>) invocationOnMock.getArguments()[1]).accept(true);
+				return null;
+			}
+		}).when(mockMqttPlatform).publishMessage(any(), any());
+		// behavior
+		platformServiceMqtt.start();
+		for (int i = 0; i < 3; i++) {
+			platformServiceMqtt.createMeasurement(new Date(), "test", (float) i, "C");
+		}
 		// assert
-		verify(mockMqttPlatform).publishMessage(any(), any());
+		verify(mockMqttPlatform, Mockito.timeout(1000).times(3)).publishMessage(any(), any());
 	}
 
 	/**
@@ -485,10 +568,205 @@ public class PlatformServiceMqttImplTest {
 		// behavior
 		platformServiceMqtt.start();
 		platformServiceMqtt.createMeasurements(measurements);
+		// assert, both measurements are sent by one message
+		ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+		verify(mockMqttPlatform, times(1)).publishMessage(payload.capture(), any());
+		String[] rows = payload.getValue().split("\n");
+		Assert.assertThat(rows.length, Matchers.equalTo(3));
+		Assert.assertThat(rows[0], Matchers.equalTo("15," + X_ID));
+		Assert.assertThat(rows[1], Matchers.startsWith("100,test2,0,1.0,"));
+		Assert.assertThat(rows[2], Matchers.startsWith("100,test2,0,1.0,"));
+	}
+
+	/**
+	 * test method createMeasurements with a measurement batch
+	 **/
+	@Test
+	public void testCreateMeasurementBatchSuccessfully() throws AbstractAgentException {
+		// setup measurements
+		MeasurementBatch measurements = new MeasurementBatch(1);
+		measurements.add(new SensorMeasurement("test", (float) 1.0, "C"));
+		measurements.add(new SensorMeasurement("test2", (float) 2.0, "C"));
+		// configure agentCredentials
+		agentCredentials.setBootstrappingMode(true);
+		agentCredentials.setUsername("test");
+		agentCredentials.setPassword("test");
+		agentCredentials.setTenant("MQTT");
+		when(mockAgentCredentialsManager.getCredentials()).thenReturn(agentCredentials);
+		// setup callback
+		doAnswer(new Answer<Void>() {
+
+			@SuppressWarnings("unchecked")
+			@Override
+			public Void answer(InvocationOnMock invocationOnMock) throws Throwable {
+				((Consumer<Object>) invocationOnMock.getArguments()[1]).accept(true);
+				return null;
+			}
+		}).when(mockMqttPlatform).publishMessage(any(), any());
+		// behavior
+		platformServiceMqtt.start();
+		platformServiceMqtt.createMeasurements(measurements);
+		// assert
+		verify(mockMqttPlatform, times(1)).publishMessage(any(), any());
+	}
+
+	/**
+	 * test method createMeasurements, the measurements exceeding the max. payload size are sent by the next message
+	 **/
+	@Test
+	public void testCreateMeasurementsByMaxPayloadSize() throws AbstractAgentException {
+		// setup measurements, the header has 20 bytes and a row about 56 bytes
+		MeasurementBatch measurements = new MeasurementBatch(3);
+		measurements.add(new SensorMeasurement("test", (float) 1.0, "C"));
+		measurements.add(new SensorMeasurement("test2", (float) 2.0, "C"));
+		measurements.add(new SensorMeasurement("test3", (float) 3.0, "C"));
+		platformServiceMqttConfiguration.getMqttConfiguration().setMaxPayloadSize(160);
+		// configure agentCredentials
+		agentCredentials.setBootstrappingMode(true);
+		agentCredentials.setUsername("test");
+		agentCredentials.setPassword("test");
+		agentCredentials.setTenant("MQTT");
+		when(mockAgentCredentialsManager.getCredentials()).thenReturn(agentCredentials);
+		// setup callback
+		doAnswer(new Answer<Void>() {
+
+			@SuppressWarnings("unchecked")
+			@Override
+			public Void answer(InvocationOnMock invocationOnMock) throws Throwable {
+				((Consumer<Object>) invocationOnMock.getArguments()[1]).accept(true);
+				return null;
+			}
+		}).when(mockMqttPlatform).publishMessage(any(), any());
+		// behavior
+		platformServiceMqtt.start();
+		platformServiceMqtt.createMeasurements(measurements);
+		// assert
+		ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+		verify(mockMqttPlatform, times(2)).publishMessage(payload.capture(), any());
+		Assert.assertThat(payload.getAllValues().get(0).split("\n").length, Matchers.equalTo(3));
+		Assert.assertThat(payload.getAllValues().get(1).split("\n").length, Matchers.equalTo(2));
+	}
+
+	/**
+	 * test method createMeasurements, the messages are published in order without awaiting the acknowledgement of the
+	 * previous one
+	 **/
+	@Test
+	public void testCreateMeasurementsPipelined() throws Exception {
+		// setup measurements, each one is sent by its own message
+		MeasurementBatch measurements = new MeasurementBatch(3);
+		measurements.add(new SensorMeasurement("test", (float) 1.0, "C"));
+		measurements.add(new SensorMeasurement("test2", (float) 2.0, "C"));
+		measurements.add(new SensorMeasurement("test3", (float) 3.0, "C"));
+		platformServiceMqttConfiguration.getMqttConfiguration().setMaxPayloadSize(100);
+		// configure agentCredentials
+		agentCredentials.setBootstrappingMode(true);
+		agentCredentials.setUsername("test");
+		agentCredentials.setPassword("test");
+		agentCredentials.setTenant("MQTT");
+		when(mockAgentCredentialsManager.getCredentials()).thenReturn(agentCredentials);
+		// setup callback, the publishes are acknowledged by the test
+		List<Consumer<Object>> acknowledgements = Collections.synchronizedList(new ArrayList<>());
+		doAnswer(new Answer<Void>() {
+
+			@SuppressWarnings("unchecked")
+			@Override
+			public Void answer(InvocationOnMock invocationOnMock) throws Throwable {
+				acknowledgements.add((Consumer<Object>) invocationOnMock.getArguments()[1]);
+				return null;
+			}
+		}).when(mockMqttPlatform).publishMessage(any(), any());
+		// behavior
+		platformServiceMqtt.start();
+		CompletableFuture<Void> created = CompletableFuture.runAsync(() -> {
+			try {
+				platformServiceMqtt.createMeasurements(measurements);
+			} catch (AbstractAgentException exception) {
+				throw new IllegalStateException(exception);
+			}
+		});
+		// assert, all messages are in flight before the first is acknowledged
+		ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+		verify(mockMqttPlatform, Mockito.timeout(5000).times(3)).publishMessage(payload.capture(), any());
+		Assert.assertFalse(created.isDone());
+		Assert.assertThat(payload.getAllValues().get(0), Matchers.containsString("test,"));
+		Assert.assertThat(payload.getAllValues().get(1), Matchers.containsString("test2"));
+		Assert.assertThat(payload.getAllValues().get(2), Matchers.containsString("test3"));
+
+		acknowledgements.forEach(acknowledgement -> acknowledgement.accept(true));
+		created.get(5, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * test method createMeasurements, the second message isn't published, only the measurements of the first message
+	 * are created
+	 **/
+	@Test
+	public void testCreateMeasurementsPartiallyPublished() throws AbstractAgentException {
+		// setup measurements, the first two are sent by the first message
+		MeasurementBatch measurements = new MeasurementBatch(3);
+		measurements.add(new SensorMeasurement("test", (float) 1.0, "C"));
+		measurements.add(new SensorMeasurement("test2", (float) 2.0, "C"));
+		measurements.add(new SensorMeasurement("test3", (float) 3.0, "C"));
+		platformServiceMqttConfiguration.getMqttConfiguration().setMaxPayloadSize(160);
+		// configure agentCredentials
+		agentCredentials.setBootstrappingMode(true);
+		agentCredentials.setUsername("test");
+		agentCredentials.setPassword("test");
+		agentCredentials.setTenant("MQTT");
+		when(mockAgentCredentialsManager.getCredentials()).thenReturn(agentCredentials);
+		// setup callback, only the first message is published
+		AtomicInteger publishCount = new AtomicInteger();
+		doAnswer(new Answer<Void>() {
+
+			@SuppressWarnings("unchecked")
+			@Override
+			public Void answer(InvocationOnMock invocationOnMock) throws Throwable {
+				((Consumer<Object>) invocationOnMock.getArguments()[1]).accept(publishCount.incrementAndGet() == 1);
+				return null;
+			}
+		}).when(mockMqttPlatform).publishMessage(any(), any());
+		// behavior
+		platformServiceMqtt.start();
+		try {
+			platformServiceMqtt.createMeasurements(measurements);
+			Assert.fail("exception expected");
+		} catch (MeasurementsNotCreatedException exception) {
+			Assert.assertThat(exception.getCreatedCount(), Matchers.equalTo(2));
+		}
 		// assert
 		verify(mockMqttPlatform, times(2)).publishMessage(any(), any());
 	}
 
+	/**
+	 * test method createMeasurements, the message isn't published
+	 **/
+	@Test(expected = PlatformServiceException.class)
+	public void testCreateMeasurementsNotPublished() throws AbstractAgentException {
+		// setup measurements
+		MeasurementBatch measurements = new MeasurementBatch(1);
+		measurements.add(new SensorMeasurement("test", (float) 1.0, "C"));
+		// configure agentCredentials
+		agentCredentials.setBootstrappingMode(true);
+		agentCredentials.setUsername("test");
+		agentCredentials.setPassword("test");
+		agentCredentials.setTenant("MQTT");
+		when(mockAgentCredentialsManager.getCredentials()).thenReturn(agentCredentials);
+		// setup callback
+		doAnswer(new Answer<Void>() {
+
+			@SuppressWarnings("unchecked")
+			@Override
+			public Void answer(InvocationOnMock invocationOnMock) throws Throwable {
+				((Consumer<Object>) invocationOnMock.getArguments()[1]).accept(false);
+				return null;
+			}
+		}).when(mockMqttPlatform).publishMessage(any(), any());
+		// behavior
+		platformServiceMqtt.start();
+		platformServiceMqtt.createMeasurements(measurements);
+	}
+
 	/**
 	 * test method createMeasurements
 	 **/
@@ -600,6 +878,64 @@ public class PlatformServiceMqttImplTest {
 		verify(mockMqttPlatform).publishMessage(eq(template), any());
 	}
 
+	/**
+	 * test method createAlarm with outbox while the connection is lost, the outbox accepts the alarms, so the circuit
+	 * breaker of the alarm service doesn't open and the alarms are replayed when the connection is back
+	 **/
+	@Test
+	public void testCreateAlarmOutboxDisconnected() throws Exception {
+		// configure agentCredentials
+		agentCredentials.setBootstrappingMode(true);
+		agentCredentials.setUsername("test");
+		agentCredentials.setPassword("test");
+		agentCredentials.setTenant("MQTT");
+		when(mockAgentCredentialsManager.getCredentials()).thenReturn(agentCredentials);
+		OutboxConfiguration outboxConfiguration = new OutboxConfiguration();
+		outboxConfiguration.setEnabled(true);
+		outboxConfiguration.setDirectory(folder.getRoot().getAbsolutePath());
+		outboxConfiguration.setRetryInterval(1);
+		platformServiceMqttConfiguration.getMqttConfiguration().setOutbox(outboxConfiguration);
+		// the connection is lost, the publishes aren't acknowledged
+		AtomicBoolean connected = new AtomicBoolean(false);
+		List<String> published = Collections.synchronizedList(new ArrayList<>());
+		doAnswer(new Answer<Void>() {
+
+			@SuppressWarnings("unchecked")
+			@Override
+			public Void answer(InvocationOnMock invocationOnMock) throws Throwable {
+				published.add((String) invocationOnMock.getArguments()[0]);
+				((Consumer<Object>) invocationOnMock.getArguments()[1]).accept(connected.get());
+				return null;
+			}
+		}).when(mockMqttPlatform).publishMessage(any(), any());
+		// the alarm service creates its alarms by a circuit breaker
+		RetryConfiguration retryConfiguration = new RetryConfiguration();
+		retryConfiguration.setFailureThreshold(1);
+		CircuitBreaker circuitBreaker = new CircuitBreaker("alarmService", retryConfiguration);
+		Date time = new Date();
+		List<String> templates = new ArrayList<>();
+		for (int index = 0; index < 3; index++) {
+			templates.add(SmartRestUtil.getPayloadCreateAlarm(X_ID, time, "alarm" + index, AlarmSeverity.MAJOR,
+					"text", "ACTIVE", null));
+		}
+		// behavior
+		platformServiceMqtt.start();
+		for (int index = 0; index < 3; index++) {
+			String type = "alarm" + index;
+			circuitBreaker.execute(() -> platformServiceMqtt.createAlarm(time, type, AlarmSeverity.MAJOR, "text",
+					"ACTIVE"), PlatformServiceException.class);
+		}
+		// assert
+		Assert.assertEquals(CircuitState.CLOSED, circuitBreaker.getState());
+		Assert.assertEquals(Arrays.asList(templates.get(0)), published);
+
+		connected.set(true);
+		for (int index = 0; index < 100 && published.size() < 4; index++) {
+			TimeUnit.MILLISECONDS.sleep(50);
+		}
+		Assert.assertEquals(templates, published.subList(1, published.size()));
+	}
+
 	/**
 	 * test method stop
 	 **/
@@ -699,7 +1035,8 @@ public class PlatformServiceMqttImplTest {
 		when(mockAgentCredentialsManager.getCredentials()).thenReturn(agentCredentials);
 
 		// configure listener
-		when(mockUpdateInventoryAgentEventListener.waitOnAgentEventAndCreate()).thenReturn("1");
+		when(mockUpdateInventoryAgentEventListener.create(any())).thenReturn("1");
+		respondBy(TemplateId.UPDATE_SUPPORTED_OPERATIONS_RES);
 		// setup callback
 		AgentManagedObject agentManagedObject = new AgentManagedObject();
 		// get the expected template
@@ -731,7 +1068,8 @@ public class PlatformServiceMqttImplTest {
 		when(mockAgentCredentialsManager.getCredentials()).thenReturn(agentCredentials);
 
 		// configure listener
-		when(mockUpdateInventoryAgentEventListener.waitOnAgentEventAndCreate()).thenReturn("1");
+		when(mockUpdateInventoryAgentEventListener.create(any())).thenReturn("1");
+		respondBy(TemplateId.UPDATE_HARDWARE_RES);
 
 		// configure managed object with the fragment c8y_Hardware to update
 		AgentManagedObject agentManagedObject = new AgentManagedObject();
@@ -766,7 +1104,8 @@ public class PlatformServiceMqttImplTest {
 		when(mockAgentCredentialsManager.getCredentials()).thenReturn(agentCredentials);
 
 		// configure listener
-		when(mockUpdateInventoryAgentEventListener.waitOnAgentEventAndCreate()).thenReturn("1");
+		when(mockUpdateInventoryAgentEventListener.create(any())).thenReturn("1");
+		respondBy(TemplateId.UPDATE_FIRMWARE_RES);
 
 		// configure managed object with the fragment c8y_Firmware to update
 		AgentManagedObject agentManagedObject = new AgentManagedObject();
@@ -801,7 +1140,8 @@ public class PlatformServiceMqttImplTest {
 		when(mockAgentCredentialsManager.getCredentials()).thenReturn(agentCredentials);
 
 		// configure listener
-		when(mockUpdateInventoryAgentEventListener.waitOnAgentEventAndCreate()).thenReturn("1");
+		when(mockUpdateInventoryAgentEventListener.create(any())).thenReturn("1");
+		respondBy(TemplateId.UPDATE_MOBILE_RES);
 
 		// configure managed object with the fragment c8y_Mobile to update
 		AgentManagedObject agentManagedObject = new AgentManagedObject();
@@ -836,7 +1176,8 @@ public class PlatformServiceMqttImplTest {
 		when(mockAgentCredentialsManager.getCredentials()).thenReturn(agentCredentials);
 
 		// configure listener
-		when(mockUpdateInventoryAgentEventListener.waitOnAgentEventAndCreate()).thenReturn("1");
+		when(mockUpdateInventoryAgentEventListener.create(any())).thenReturn("1");
+		respondBy(TemplateId.UPDATE_SOFTWARE_LIST_RES);
 
 		// configure managed object with the fragment c8y_SoftwareList to update
 		AgentManagedObject agentManagedObject = new AgentManagedObject();
@@ -873,7 +1214,8 @@ public class PlatformServiceMqttImplTest {
 		when(mockAgentCredentialsManager.getCredentials()).thenReturn(agentCredentials);
 
 		// configure listener
-		when(mockUpdateInventoryAgentEventListener.waitOnAgentEventAndCreate()).thenReturn("1");
+		when(mockUpdateInventoryAgentEventListener.create(any())).thenReturn("1");
+		respondBy(TemplateId.UPDATE_CONFIGURATION_RES);
 
 		// configure managed object with the fragment c8y_Configuration to update
 		AgentManagedObject agentManagedObject = new AgentManagedObject();
@@ -934,7 +1276,7 @@ public class PlatformServiceMqttImplTest {
 		InjectionUtil.inject(platformServiceMqtt, mockListener);
 		InjectionUtil.inject(platformServiceMqtt, "timeout", 1);
 		// set behavior
-		when(mockListener.waitOnAgentEventAndCreate()).thenReturn("1");
+		when(mockListener.create(any())).thenReturn("1");
 		doAnswer(new Answer<Void>() {
 
 			@Override
@@ -942,6 +1284,7 @@ public class PlatformServiceMqttImplTest {
 				String message = invocation.getArgument(0);
 				// verify message
 				Assert.assertThat(message.indexOf("300,1,EXECUTING,EXECUTING") > 0, Matchers.equalTo(true));
+				respond(TemplateId.UPDATE_OPERATION_EXECUTING_STATUS_RES);
 				return null;
 			}
 		}).when(mockMqttPlatform).publishMessage(any(), any());
@@ -950,4 +1293,68 @@ public class PlatformServiceMqttImplTest {
 		// verify publishMessage
 		verify(mockMqttPlatform).publishMessage(any(), any());
 	}
+
+	/**
+	 * test method updateOperationStatus, the status of two operations is updated concurrently and each request gets
+	 * the response to its own message
+	 */
+	@Test
+	public void testUpdateOperationStatusConcurrently() throws Exception {
+		InjectionUtil.inject(platformServiceMqtt, "timeout", 5);
+		// the platform responds in reverse order of the published messages
+		List<TemplateId> published = new ArrayList<>();
+		doAnswer(new Answer<Void>() {
+
+			@Override
+			public Void answer(InvocationOnMock invocation) throws Throwable {
+				String message = invocation.getArgument(0);
+				synchronized (published) {
+					published.add(message.contains("SUCCESSFUL") ? TemplateId.UPDATE_OPERATION_SUCCESSFUL_STATUS_RES
+							: TemplateId.UPDATE_OPERATION_FAILED_STATUS_RES);
+					if (published.size() == 2) {
+						for (int index = published.size() - 1; index >= 0; index--) {
+							TemplateId responseId = published.get(index);
+							responseRegistry.complete(new PublishedValues(responseId, new String[] { "id" },
+									new String[] { responseId.name() }));
+						}
+					}
+				}
+				return null;
+			}
+		}).when(mockMqttPlatform).publishMessage(any(), any());
+		// execute the test
+		CompletableFuture<Void> successful = CompletableFuture.runAsync(() -> {
+			try {
+				platformServiceMqtt.updateOperationStatus("1", OperationStatus.SUCCESSFUL);
+			} catch (AbstractAgentException exception) {
+				throw new IllegalStateException(exception);
+			}
+		});
+		platformServiceMqtt.updateOperationStatus("2", OperationStatus.FAILED);
+		successful.get(5, TimeUnit.SECONDS);
+		// verify
+		verify(mockMqttPlatform, times(2)).publishMessage(any(), any());
+		Assert.assertThat(responseRegistry.getPendingCount(), Matchers.equalTo(0));
+	}
+
+	/**
+	 * completes the oldest request waiting for a response of the template id
+	 */
+	private void respond(TemplateId responseId) {
+		responseRegistry.complete(new PublishedValues(responseId, new String[] { "id" }, new String[] { "1" }));
+	}
+
+	/**
+	 * answers each published message by a response of the template id
+	 */
+	private void respondBy(TemplateId responseId) {
+		doAnswer(new Answer<Void>() {
+
+			@Override
+			public Void answer(InvocationOnMock invocationOnMock) throws Throwable {
+				respond(responseId);
+				return null;
+			}
+		}).when(mockMqttPlatform).publishMessage(any(), any());
+	}
 }
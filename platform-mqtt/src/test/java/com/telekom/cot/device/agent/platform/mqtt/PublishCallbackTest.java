@@ -3,15 +3,16 @@ package com.telekom.cot.device.agent.platform.mqtt;
 import static org.junit.Assert.*;
 
 import java.io.BufferedReader;
-import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import org.hamcrest.Matchers;
 import org.junit.Before;
@@ -19,14 +20,9 @@ import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
-import com.fasterxml.jackson.core.JsonParseException;
-import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
-import com.telekom.cot.device.agent.common.exc.AbstractAgentException;
-import com.telekom.cot.device.agent.common.injection.InjectionUtil;
 import com.telekom.cot.device.agent.platform.mqtt.event.GetOperationStatus;
 import com.telekom.cot.device.agent.platform.mqtt.event.GetOperationStatusAgentEventListener;
-import com.telekom.cot.device.agent.platform.mqtt.event.LifecycleResponseAgentEventListener;
 import com.telekom.cot.device.agent.platform.mqtt.event.OperationTestOperationAgentEventListener;
 import com.telekom.cot.device.agent.platform.mqtt.event.PublishedValuesAgentEvent;
 import com.telekom.cot.device.agent.platform.mqtt.event.PublishedValuesAgentEventListener;
@@ -47,8 +43,7 @@ public class PublishCallbackTest {
     }
 
     @Test
-    public void testMonitorResponseByListener() throws AbstractAgentException, InterruptedException, JsonParseException,
-                    JsonMappingException, IOException {
+    public void testMonitorResponseByListener() throws Exception {
         // create PublishCallback
         AgentContextImpl agentContext = new AgentContextImpl();
         PublishCallback callback = PublishCallback.getInstance(agentContext);
@@ -63,8 +58,7 @@ public class PublishCallbackTest {
     }
 
     @Test
-    public void testConfigurationByMonitorResponseAndListener() throws AbstractAgentException, InterruptedException,
-                    JsonParseException, JsonMappingException, IOException {
+    public void testConfigurationByMonitorResponseAndListener() throws Exception {
         // get config response content
         InputStream inputStream = PublishCallbackTest.class.getResourceAsStream("/configuration.response");
         String response = new BufferedReader(new InputStreamReader(inputStream)).lines()
@@ -75,6 +69,8 @@ public class PublishCallbackTest {
         // event
         OpConfUpdateListener listener = new OpConfUpdateListener();
         callback.monitorResponse(TemplateId.OPERATION_CONFIGURATION_RES, listener);
+        CompletableFuture<String> event = new CompletableFuture<>();
+        listener.provideEvent(event::complete);
         // execute functional interface after one second
         new Timer().schedule(new TimerTask() {
 
@@ -83,7 +79,7 @@ public class PublishCallbackTest {
                 callback.accept(response);
             }
         }, 1000);
-        String conf = listener.waitOnAgentEventAndCreate();
+        String conf = event.get(5, TimeUnit.SECONDS);
         // check
         assertThat(conf.length(), Matchers.equalTo(1559));
         YAMLMapper om = new YAMLMapper();
@@ -91,8 +87,7 @@ public class PublishCallbackTest {
     }
 
     @Test
-    public void testConfigurationByMonitorResponseAndEventClass() throws AbstractAgentException, InterruptedException,
-                    JsonParseException, JsonMappingException, IOException {
+    public void testConfigurationByMonitorResponseAndEventClass() throws Exception {
         // get config response content
         InputStream inputStream = PublishCallbackTest.class.getResourceAsStream("/configuration.response");
         String response = new BufferedReader(new InputStreamReader(inputStream)).lines()
@@ -104,6 +99,8 @@ public class PublishCallbackTest {
         OpConfUpdateListener listener = new OpConfUpdateListener();
         agentContext.addAgentEventListener(listener);
         callback.monitorResponse(TemplateId.OPERATION_CONFIGURATION_RES, OpConfUpdateEvent.class);
+        CompletableFuture<String> event = new CompletableFuture<>();
+        listener.provideEvent(event::complete);
         // execute functional interface  after one second
         new Timer().schedule(new TimerTask() {
 
@@ -112,7 +109,7 @@ public class PublishCallbackTest {
                 callback.accept(response);
             }
         }, 1000);
-        String conf = listener.waitOnAgentEventAndCreate();
+        String conf = event.get(5, TimeUnit.SECONDS);
         // check
         assertThat(conf.length(), Matchers.equalTo(1559));
         YAMLMapper om = new YAMLMapper();
@@ -120,8 +117,7 @@ public class PublishCallbackTest {
     }
 
     @Test
-    public void testConfigurationEmpty() throws AbstractAgentException, InterruptedException, JsonParseException,
-                    JsonMappingException, IOException {
+    public void testConfigurationEmpty() throws Exception {
         // create PublishCallback
         AgentContextImpl agentContext = new AgentContextImpl();
         PublishCallback callback = PublishCallback.getInstance(agentContext);
@@ -129,6 +125,8 @@ public class PublishCallbackTest {
         callback.monitorResponse(TemplateId.OPERATION_CONFIGURATION_RES, OpConfUpdateEvent.class);
         OpConfUpdateListener listener = new OpConfUpdateListener();
         agentContext.addAgentEventListener(listener);
+        CompletableFuture<String> event = new CompletableFuture<>();
+        listener.provideEvent(event::complete);
         // execute functional interface
         new Timer().schedule(new TimerTask() {
 
@@ -137,13 +135,13 @@ public class PublishCallbackTest {
                 callback.accept("87,2,novaMqttTemplates04\n512,2,19794459,EXECUTING,");
             }
         }, 1000);
-        String conf = listener.waitOnAgentEventAndCreate();
+        String conf = event.get(5, TimeUnit.SECONDS);
         // check
         assertThat(conf.length(), Matchers.equalTo(0));
     }
 
     @Test
-    public void testOperationNotValid() throws AbstractAgentException, InterruptedException {
+    public void testOperationNotValid() throws Exception {
         String response = "87,1,novaMqttTemplatesOps04\n" + //
                         "511,2,19330625,EXECUTING,SUCCESSFUL,notexist\n";
         // prepare callback
@@ -155,6 +153,8 @@ public class PublishCallbackTest {
                         pendingOperations);
         // add listener to template
         callback.monitorResponse(TemplateId.OPERATION_TEST_RES, listener);
+        CompletableFuture<Operation> created = callback.getResponseRegistry().register(listener::create, 5,
+                        TimeUnit.SECONDS, TemplateId.OPERATION_TEST_RES);
         // execute test
         new Timer().schedule(new TimerTask() {
 
@@ -163,13 +163,13 @@ public class PublishCallbackTest {
                 callback.accept(response);
             }
         }, 1000);
-        Operation operation = listener.waitOnAgentEventAndCreate();
+        Operation operation = created.get(5, TimeUnit.SECONDS);
         // check operation equals null
         assertThat(operation, Matchers.nullValue());
     }
 
     @Test
-    public void testOperationValid() throws AbstractAgentException, InterruptedException {
+    public void testOperationValid() throws Exception {
         // prepare response
         String response = "87,1,novaMqttTemplatesOps04\n" + //
                         "511,2,19330625,EXECUTING,SUCCESSFUL\n";
@@ -181,6 +181,8 @@ public class PublishCallbackTest {
         OperationTestOperationAgentEventListener listener = new OperationTestOperationAgentEventListener(
                         pendingOperations);
         callback.monitorResponse(TemplateId.OPERATION_TEST_RES, listener);
+        CompletableFuture<Operation> event = new CompletableFuture<>();
+        listener.provideEvent(event::complete);
         // execute test
         new Timer().schedule(new TimerTask() {
 
@@ -189,7 +191,7 @@ public class PublishCallbackTest {
                 callback.accept(response);
             }
         }, 1000);
-        Operation operation = listener.waitOnAgentEventAndCreate();
+        Operation operation = event.get(5, TimeUnit.SECONDS);
         // check business object
         assertThat(operation.getId(), Matchers.equalTo("19330625"));
         assertThat(operation.getProperty("status", OperationStatus.class),
@@ -201,26 +203,19 @@ public class PublishCallbackTest {
     }
 
     @Test
-    public void testGetOperationsStatusByNotEmpty() throws AbstractAgentException, InterruptedException {
+    public void testGetOperationsStatusByNotEmpty() throws Exception {
         // empty response
         String response = "87,1,novaMqttTemplatesOps04\n" + //
                         "210,2,19330625,EXECUTING\n" + "210,2,19330626,SUCCESSFUL\n";
         // prepare callback
         AgentContextImpl agentContext = new AgentContextImpl();
         PublishCallback callback = PublishCallback.getInstance(agentContext);
-        // prepare lifecycle
-        LifecycleResponseAgentEventListener lifecycle = new LifecycleResponseAgentEventListener();
-        agentContext.addAgentEventListener(lifecycle);
         // prepare listener
         GetOperationStatusAgentEventListener listener = new GetOperationStatusAgentEventListener();
-        // could be previous result (must be removed by lifecycle)
-        List<GetOperationStatus> businessObjects = new ArrayList<>();
-        businessObjects.add(new GetOperationStatus("1", "status"));
-        InjectionUtil.inject(listener, businessObjects);
-        // add lifecycle listener
-        lifecycle.addFinishedListener(listener);
-        lifecycle.addStartupListener(listener);
         callback.monitorResponse(TemplateId.STATUS_OF_OPERATION_RESTART_RES, listener);
+        // the request collects all operations of the response
+        CompletableFuture<List<PublishedValues>> collected = callback.getResponseRegistry().registerAll(5,
+                        TimeUnit.SECONDS, TemplateId.STATUS_OF_OPERATION_RESTART_RES);
         // execute test
         new Timer().schedule(new TimerTask() {
 
@@ -229,7 +224,8 @@ public class PublishCallbackTest {
                 callback.accept(response);
             }
         }, 1000);
-        List<GetOperationStatus> ops = listener.waitOnAllAgentEvents();
+        List<GetOperationStatus> ops = collected.get(5, TimeUnit.SECONDS).stream().map(listener::create)
+                        .collect(Collectors.toList());
         // check
         assertEquals(2, ops.size());
         assertThat(ops.get(0).getId(), Matchers.equalTo("19330625"));
@@ -239,46 +235,37 @@ public class PublishCallbackTest {
     }
 
     @Test
-    public void testGetOperationStatusByEmpty() throws AbstractAgentException, InterruptedException {
+    public void testGetOperationStatusByEmpty() throws Exception {
         // empty response
         String response = "";
         // prepare callback
         AgentContextImpl agentContext = new AgentContextImpl();
         PublishCallback callback = PublishCallback.getInstance(agentContext);
-        // prepare lifecycle
-        LifecycleResponseAgentEventListener lifecycle = new LifecycleResponseAgentEventListener();
-        agentContext.addAgentEventListener(lifecycle);
         // prepare listener
         GetOperationStatusAgentEventListener listener = new GetOperationStatusAgentEventListener();
-        // could be previous result (must be removed by lifecycle)
-        List<GetOperationStatus> businessObjects = new ArrayList<>();
-        businessObjects.add(new GetOperationStatus("1", "status"));
-        InjectionUtil.inject(listener, businessObjects);
-        // add lifecycle listener
-        lifecycle.addFinishedListener(listener);
-        lifecycle.addStartupListener(listener);
         callback.monitorResponse(TemplateId.STATUS_OF_OPERATION_RESTART_RES, listener);
-        // execute test
-        new Timer().schedule(new TimerTask() {
-
-            @Override
-            public void run() {
-                callback.accept(response);
-            }
-        }, 1000);
-        List<GetOperationStatus> ops = listener.waitOnAllAgentEvents();
+        // the request collects all operations of the response
+        CompletableFuture<List<PublishedValues>> collected = callback.getResponseRegistry().registerAll(2,
+                        TimeUnit.SECONDS, TemplateId.STATUS_OF_OPERATION_RESTART_RES);
+        // execute test, the empty response can't be told apart from another one, the request is completed by its timeout
+        callback.accept(response);
+        assertFalse(collected.isDone());
+        List<GetOperationStatus> ops = collected.get(5, TimeUnit.SECONDS).stream().map(listener::create)
+                        .collect(Collectors.toList());
         // check
         assertEquals(0, ops.size());
     }
 
     @Test
-    public void testEvent_EVENT_STARTUP_RES() throws AbstractAgentException, InterruptedException {
+    public void testEvent_EVENT_STARTUP_RES() throws Exception {
         // prepare callback
         AgentContextImpl agentContext = new AgentContextImpl();
         PublishCallback callback = PublishCallback.getInstance(agentContext);
         // listener
         StartupAgentEventListener startupAEL = new StartupAgentEventListener();
         callback.monitorResponse(TemplateId.EVENT_STARTUP_RES, startupAEL);
+        CompletableFuture<String> response = callback.getResponseRegistry().register(startupAEL::create, 5,
+                        TimeUnit.SECONDS, TemplateId.EVENT_STARTUP_RES);
         // execute test
         new Timer().schedule(new TimerTask() {
 
@@ -287,18 +274,20 @@ public class PublishCallbackTest {
                 callback.accept("87,1,novaMqttTemplatesOps04\n401,1,18106509");
             }
         }, 1000);
-        String id = startupAEL.waitOnAgentEventAndCreate();
+        String id = response.get(5, TimeUnit.SECONDS);
         assertThat(id, Matchers.equalTo("18106509"));
     }
     
     @Test
-    public void testErrorCodesBy_EVENT_STARTUP_RES() throws AbstractAgentException, InterruptedException {
+    public void testErrorCodesBy_EVENT_STARTUP_RES() throws Exception {
         // prepare callback
         AgentContextImpl agentContext = new AgentContextImpl();
         PublishCallback callback = PublishCallback.getInstance(agentContext);
         // listener
         StartupAgentEventListener startupAEL = new StartupAgentEventListener();
         callback.monitorResponse(TemplateId.EVENT_STARTUP_RES, startupAEL);
+        CompletableFuture<String> response = callback.getResponseRegistry().register(startupAEL::create, 5,
+                        TimeUnit.SECONDS, TemplateId.EVENT_STARTUP_RES);
         // execute test
         new Timer().schedule(new TimerTask() {
 
@@ -307,10 +296,31 @@ public class PublishCallbackTest {
                 callback.accept("42,4,Malformed request\n87,2,novaMqttTemplates04\n401,1,18106509");
             }
         }, 1000);
-        String id = startupAEL.waitOnAgentEventAndCreate();
+        String id = response.get(5, TimeUnit.SECONDS);
         assertThat(id, Matchers.equalTo("18106509"));
     }
 
+    @Test
+    public void testResponsesInSequence() throws Exception {
+        // prepare callback
+        AgentContextImpl agentContext = new AgentContextImpl();
+        PublishCallback callback = PublishCallback.getInstance(agentContext);
+        StartupAgentEventListener startupAEL = new StartupAgentEventListener();
+        // two requests wait for a response of the same template
+        ResponseRegistry responseRegistry = callback.getResponseRegistry();
+        CompletableFuture<String> first = responseRegistry.register(startupAEL::create, 5, TimeUnit.SECONDS,
+                        TemplateId.EVENT_STARTUP_RES);
+        CompletableFuture<String> second = responseRegistry.register(startupAEL::create, 5, TimeUnit.SECONDS,
+                        TemplateId.EVENT_STARTUP_RES);
+        // execute test
+        callback.accept("87,1,novaMqttTemplatesOps04\n401,1,18106509");
+        assertThat(first.get(5, TimeUnit.SECONDS), Matchers.equalTo("18106509"));
+        assertThat(second.isDone(), Matchers.equalTo(false));
+        callback.accept("87,1,novaMqttTemplatesOps04\n401,1,18106510");
+        assertThat(second.get(5, TimeUnit.SECONDS), Matchers.equalTo("18106510"));
+        assertThat(responseRegistry.getPendingCount(), Matchers.equalTo(0));
+    }
+
     public static class OpConfUpdateEvent extends PublishedValuesAgentEvent {
 
         public OpConfUpdateEvent(PublishCallback source, PublishedValues publishedValues) {
@@ -0,0 +1,120 @@
+package com.telekom.cot.device.agent.platform.mqtt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.telekom.cot.device.agent.common.exc.PlatformServiceException;
+import com.telekom.cot.device.agent.platform.mqtt.PublishWindow.Permit;
+
+public class PublishWindowTest {
+
+	private PublishWindow window = new PublishWindow(2, 4, 1000, 5000, TimeUnit.MILLISECONDS);
+
+	@After
+	public void tearDown() {
+		window.shutdown();
+	}
+
+	/**
+	 * test method acquire, no permit is taken while the window is full
+	 */
+	@Test
+	public void testAcquire() throws Exception {
+		window.acquire(1, TimeUnit.SECONDS);
+		Permit second = window.acquire(1, TimeUnit.SECONDS);
+		assertEquals(2, window.getInFlight());
+		try {
+			window.acquire(100, TimeUnit.MILLISECONDS);
+			fail();
+		} catch (PlatformServiceException exception) {
+			assertEquals(2, window.getInFlight());
+		}
+
+		second.cancel();
+		window.acquire(100, TimeUnit.MILLISECONDS);
+		assertEquals(2, window.getInFlight());
+		assertEquals(2, window.getSize());
+	}
+
+	/**
+	 * test the additive increase, about one per window of acknowledged publishes up to the max. size
+	 */
+	@Test
+	public void testIncrease() throws Exception {
+		for (int i = 0; i < 20; i++) {
+			window.acquire(1, TimeUnit.SECONDS).complete(true);
+		}
+		assertEquals(4, window.getSize());
+		assertEquals(20, window.getAcknowledgedCount());
+		assertEquals(0, window.getInFlight());
+	}
+
+	/**
+	 * test the multiplicative decrease, the failures of one window halve the size once
+	 */
+	@Test
+	public void testDecrease() throws Exception {
+		for (int i = 0; i < 20; i++) {
+			window.acquire(1, TimeUnit.SECONDS).complete(true);
+		}
+		Permit first = window.acquire(1, TimeUnit.SECONDS);
+		Permit second = window.acquire(1, TimeUnit.SECONDS);
+		first.complete(false);
+		second.complete(false);
+		assertEquals(2, window.getSize());
+		assertEquals(2, window.getFailedCount());
+
+		// a later failure halves again, the size doesn't fall below one
+		window.acquire(1, TimeUnit.SECONDS).complete(false);
+		window.acquire(1, TimeUnit.SECONDS).complete(false);
+		assertEquals(1, window.getSize());
+	}
+
+	/**
+	 * test the decrease by the smoothed acknowledgement latency
+	 */
+	@Test
+	public void testDecreaseByLatency() throws Exception {
+		window = new PublishWindow(2, 4, 10, 5000, TimeUnit.MILLISECONDS);
+		Permit permit = window.acquire(1, TimeUnit.SECONDS);
+		TimeUnit.MILLISECONDS.sleep(50);
+		permit.complete(true);
+		assertEquals(1, window.getSize());
+	}
+
+	/**
+	 * test the latency, it's measured from the publish, not from the acquire
+	 */
+	@Test
+	public void testLatencyFromPublished() throws Exception {
+		window = new PublishWindow(2, 4, 40, 5000, TimeUnit.MILLISECONDS);
+		Permit permit = window.acquire(1, TimeUnit.SECONDS);
+		TimeUnit.MILLISECONDS.sleep(100);
+		permit.published();
+		permit.complete(true);
+		assertEquals(2, window.getSize());
+		assertTrue(window.getSmoothedLatency(TimeUnit.MILLISECONDS) < 40);
+	}
+
+	/**
+	 * test the acknowledgement timeout, the expired publish releases its permit and fails
+	 */
+	@Test
+	public void testAckTimeout() throws Exception {
+		window = new PublishWindow(1, 1, 1000, 100, TimeUnit.MILLISECONDS);
+		Permit permit = window.acquire(1, TimeUnit.SECONDS);
+		window.acquire(2, TimeUnit.SECONDS);
+		assertEquals(1, window.getFailedCount());
+
+		// a late acknowledgement doesn't count
+		permit.complete(true);
+		assertEquals(0, window.getAcknowledgedCount());
+		assertEquals(1, window.getInFlight());
+	}
+}
@@ -0,0 +1,162 @@
+package com.telekom.cot.device.agent.platform.mqtt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.telekom.cot.device.agent.common.exc.PlatformServiceException;
+
+public class ResponseRegistryTest {
+
+	private ResponseRegistry registry = new ResponseRegistry();
+
+	@After
+	public void tearDown() {
+		registry.shutdown();
+	}
+
+	/**
+	 * test method complete, the requests are completed by their own template id and in the sequence of registration
+	 */
+	@Test
+	public void testComplete() throws Exception {
+		CompletableFuture<String> hardware = registry.register(this::getId, 5, TimeUnit.SECONDS,
+				TemplateId.UPDATE_HARDWARE_RES);
+		CompletableFuture<String> firstMobile = registry.register(this::getId, 5, TimeUnit.SECONDS,
+				TemplateId.UPDATE_MOBILE_RES);
+		CompletableFuture<String> secondMobile = registry.register(this::getId, 5, TimeUnit.SECONDS,
+				TemplateId.UPDATE_MOBILE_RES);
+		assertEquals(3, registry.getPendingCount());
+
+		assertTrue(registry.complete(values(TemplateId.UPDATE_MOBILE_RES, "1")));
+		assertTrue(registry.complete(values(TemplateId.UPDATE_HARDWARE_RES, "2")));
+		assertTrue(registry.complete(values(TemplateId.UPDATE_MOBILE_RES, "3")));
+		assertFalse(registry.complete(values(TemplateId.UPDATE_MOBILE_RES, "4")));
+
+		assertEquals("1", firstMobile.get());
+		assertEquals("2", hardware.get());
+		assertEquals("3", secondMobile.get());
+		assertEquals(0, registry.getPendingCount());
+	}
+
+	/**
+	 * test method registerAll, the request collects all values of one response
+	 */
+	@Test
+	public void testRegisterAll() throws Exception {
+		CompletableFuture<List<PublishedValues>> first = registry.registerAll(5, TimeUnit.SECONDS,
+				TemplateId.STATUS_OF_OPERATION_RESTART_RES, TemplateId.STATUS_OF_OPERATION_TEST_RES);
+		CompletableFuture<List<PublishedValues>> second = registry.registerAll(100, TimeUnit.MILLISECONDS,
+				TemplateId.STATUS_OF_OPERATION_RESTART_RES, TemplateId.STATUS_OF_OPERATION_TEST_RES);
+
+		registry.complete(values(TemplateId.STATUS_OF_OPERATION_RESTART_RES, "1"));
+		registry.complete(values(TemplateId.STATUS_OF_OPERATION_TEST_RES, "2"));
+		assertFalse(first.isDone());
+		registry.completeResponse();
+
+		assertEquals(2, first.get().size());
+		assertEquals("2", first.get().get(1).getValue("id"));
+		assertFalse(second.isDone());
+
+		// a request without values is completed by an empty list at its timeout
+		assertTrue(second.get(5, TimeUnit.SECONDS).isEmpty());
+		assertEquals(0, registry.getPendingCount());
+	}
+
+	/**
+	 * test an empty response while a collecting request is pending, it isn't completed by the unrelated response
+	 */
+	@Test
+	public void testRegisterAllUnrelatedEmptyResponse() throws Exception {
+		CompletableFuture<String> hardware = registry.register(this::getId, 5, TimeUnit.SECONDS,
+				TemplateId.UPDATE_HARDWARE_RES);
+		CompletableFuture<List<PublishedValues>> status = registry.registerAll(5, TimeUnit.SECONDS,
+				TemplateId.STATUS_OF_OPERATION_RESTART_RES);
+
+		// the empty response of another request
+		registry.completeResponse();
+		assertFalse(status.isDone());
+
+		registry.complete(values(TemplateId.UPDATE_HARDWARE_RES, "1"));
+		registry.completeResponse();
+		assertEquals("1", hardware.get());
+		assertFalse(status.isDone());
+
+		registry.complete(values(TemplateId.STATUS_OF_OPERATION_RESTART_RES, "2"));
+		registry.completeResponse();
+		assertEquals(1, status.get().size());
+		assertEquals("2", status.get().get(0).getValue("id"));
+	}
+
+	/**
+	 * test the timeout of a request
+	 */
+	@Test
+	public void testTimeout() throws Exception {
+		CompletableFuture<String> response = registry.register(this::getId, 100, TimeUnit.MILLISECONDS,
+				TemplateId.UPDATE_HARDWARE_RES);
+		try {
+			response.get(5, TimeUnit.SECONDS);
+			fail();
+		} catch (ExecutionException exception) {
+			assertTrue(exception.getCause() instanceof TimeoutException);
+		}
+		assertEquals(0, registry.getPendingCount());
+		assertFalse(registry.complete(values(TemplateId.UPDATE_HARDWARE_RES, "1")));
+	}
+
+	/**
+	 * test method fail, the failed request doesn't take a response
+	 */
+	@Test
+	public void testFail() throws Exception {
+		CompletableFuture<String> failed = registry.register(this::getId, 5, TimeUnit.SECONDS,
+				TemplateId.UPDATE_HARDWARE_RES);
+		CompletableFuture<String> next = registry.register(this::getId, 5, TimeUnit.SECONDS,
+				TemplateId.UPDATE_HARDWARE_RES);
+		registry.fail(failed, new PlatformServiceException("can't publish message"));
+
+		registry.complete(values(TemplateId.UPDATE_HARDWARE_RES, "1"));
+		assertTrue(failed.isCompletedExceptionally());
+		assertEquals("1", next.get());
+	}
+
+	/**
+	 * test method shutdown, the pending requests are cancelled and the registry is usable after it
+	 */
+	@Test
+	public void testShutdownRestart() throws Exception {
+		CompletableFuture<String> cancelled = registry.register(this::getId, 5, TimeUnit.SECONDS,
+				TemplateId.UPDATE_HARDWARE_RES);
+		registry.shutdown();
+		assertTrue(cancelled.isCancelled());
+		assertEquals(0, registry.getPendingCount());
+
+		CompletableFuture<String> expired = registry.register(this::getId, 50, TimeUnit.MILLISECONDS,
+				TemplateId.UPDATE_HARDWARE_RES);
+		try {
+			expired.get(5, TimeUnit.SECONDS);
+			fail("timeout expected");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof TimeoutException);
+		}
+	}
+
+	private String getId(PublishedValues publishedValues) {
+		return publishedValues.getValue("id");
+	}
+
+	private static PublishedValues values(TemplateId templateId, String id) {
+		return new PublishedValues(templateId, new String[] { "id" }, new String[] { id });
+	}
+}
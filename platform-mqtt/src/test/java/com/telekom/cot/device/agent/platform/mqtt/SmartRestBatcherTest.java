@@ -0,0 +1,100 @@
+package com.telekom.cot.device.agent.platform.mqtt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.telekom.cot.device.agent.platform.mqtt.SmartRestBatcher.Batch;
+
+public class SmartRestBatcherTest {
+
+	private static final String X_ID = "xId";
+
+	/**
+	 * test method add, the rows are packed into one payload
+	 */
+	@Test
+	public void testAdd() {
+		SmartRestBatcher batcher = new SmartRestBatcher(X_ID, 100);
+		add(batcher, "a");
+		add(batcher, "b");
+
+		List<Batch> batches = batcher.getBatches();
+		assertEquals(1, batches.size());
+		assertEquals("15,xId\n100,a\n100,b", batches.get(0).getPayload());
+		assertEquals(2, batches.get(0).getRowCount());
+		assertTrue(batcher.getBatches().isEmpty());
+	}
+
+	/**
+	 * test method add, a row exceeding the max. payload size starts the next payload
+	 */
+	@Test
+	public void testAddByMaxPayloadSize() {
+		// header (6 bytes) and two rows (6 bytes each) fit exactly
+		SmartRestBatcher batcher = new SmartRestBatcher(X_ID, 18);
+		add(batcher, "a");
+		add(batcher, "b");
+		add(batcher, "c");
+
+		List<Batch> batches = batcher.getBatches();
+		assertEquals(2, batches.size());
+		assertEquals("15,xId\n100,a\n100,b", batches.get(0).getPayload());
+		assertEquals(18, batches.get(0).getSize());
+		assertEquals("15,xId\n100,c", batches.get(1).getPayload());
+	}
+
+	/**
+	 * test method add, the size is counted in UTF-8 bytes
+	 */
+	@Test
+	public void testAddByUtf8Size() {
+		SmartRestBatcher batcher = new SmartRestBatcher(X_ID, 20);
+		add(batcher, "\u00b0C");
+		add(batcher, "\u00b0C");
+
+		List<Batch> batches = batcher.getBatches();
+		assertEquals(2, batches.size());
+		assertEquals(14, batches.get(0).getSize());
+	}
+
+	/**
+	 * test method add, a row exceeding the max. payload size on its own is sent by a payload of its own
+	 */
+	@Test
+	public void testAddOversizeRow() {
+		SmartRestBatcher batcher = new SmartRestBatcher(X_ID, 10);
+		add(batcher, "oversize");
+		add(batcher, "a");
+
+		List<Batch> batches = batcher.getBatches();
+		assertEquals(2, batches.size());
+		assertEquals("15,xId\n100,oversize", batches.get(0).getPayload());
+		assertEquals("15,xId\n100,a", batches.get(1).getPayload());
+	}
+
+	/**
+	 * test method endRow, the rows are written by the encoder
+	 */
+	@Test
+	public void testBeginRow() {
+		SmartRestBatcher batcher = new SmartRestBatcher(X_ID, 100);
+		batcher.beginRow().row(TemplateId.CREATE_MEASUREMENT_REQ).field("type").field(1.5f);
+		batcher.endRow();
+
+		assertEquals("15,xId\n100,type,1.5", batcher.getBatches().get(0).getPayload());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidMaxPayloadSize() {
+		new SmartRestBatcher(X_ID, 0);
+	}
+
+	private static void add(SmartRestBatcher batcher, String field) {
+		batcher.beginRow().row(100).field(field);
+		batcher.endRow();
+	}
+}
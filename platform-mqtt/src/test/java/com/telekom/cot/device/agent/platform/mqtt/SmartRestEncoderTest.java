@@ -0,0 +1,113 @@
+package com.telekom.cot.device.agent.platform.mqtt;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Random;
+import java.util.TimeZone;
+
+import org.junit.Test;
+
+public class SmartRestEncoderTest {
+
+	private static final String COT_TIME_PATTERN = "yyyy-MM-dd'T'HH:mm:ss.SSSZ";
+
+	/**
+	 * test the measurement row, it's the same as by string concatenation
+	 */
+	@Test
+	public void testRowCreateMeasurement() {
+		Random random = new Random(42);
+		SmartRestEncoder encoder = new SmartRestEncoder();
+		SimpleDateFormat simpleDateFormat = new SimpleDateFormat(COT_TIME_PATTERN);
+		for (int i = 0; i < 10000; i++) {
+			float value = i % 2 == 0 ? Math.round(random.nextGaussian() * 100000) / 100f : random.nextFloat() * 1e4f;
+			Date time = new Date(1500000000000L + random.nextInt(Integer.MAX_VALUE));
+			String expected = "15,xId\n" + TemplateId.CREATE_MEASUREMENT_REQ.getId() + ",temperature,0,"
+					+ String.valueOf(value) + ",\u00b0C," + simpleDateFormat.format(time) + ",12345,temperature";
+
+			encoder.clear().row(15).field("xId");
+			SmartRestUtil.writeRowCreateMeasurement(encoder, "temperature", value, "\u00b0C", time, "12345");
+			assertArrayEquals(expected, expected.getBytes(StandardCharsets.UTF_8), toBytes(encoder.toByteBuffer()));
+		}
+	}
+
+	/**
+	 * test the float fields, they are the same as by {@link Float#toString(float)}
+	 */
+	@Test
+	public void testFloatField() {
+		SmartRestEncoder encoder = new SmartRestEncoder();
+		float[] values = { 0.0f, -0.0f, 1.0f, -1.5f, 0.001f, 0.1f, 21.25f, 16384.0625f, 9999999.0f, 1e7f, 1e-4f,
+				Float.NaN, Float.NEGATIVE_INFINITY, Float.MAX_VALUE, Float.MIN_VALUE, 3.1415927f };
+		for (float value : values) {
+			assertEquals(String.valueOf(value), encoder.clear().field(value).toString().substring(1));
+		}
+		// every 1009th float of the range written by digits
+		for (int bits = Float.floatToIntBits(1e-3f); bits < Float.floatToIntBits(1e7f); bits += 1009) {
+			float value = Float.intBitsToFloat(bits);
+			assertEquals(String.valueOf(value), encoder.clear().field(value).toString().substring(1));
+			assertEquals(String.valueOf(-value), encoder.clear().field(-value).toString().substring(1));
+		}
+	}
+
+	/**
+	 * test the time fields across the offset transitions of zones with daylight saving time and non-hour offsets
+	 */
+	@Test
+	public void testTimeField() {
+		Random random = new Random(7);
+		for (String zone : new String[] { "UTC", "Europe/Berlin", "Asia/Kolkata", "Australia/Lord_Howe",
+				"America/St_Johns", "Europe/Amsterdam" }) {
+			SmartRestEncoder encoder = new SmartRestEncoder(ZoneId.of(zone));
+			SimpleDateFormat simpleDateFormat = new SimpleDateFormat(COT_TIME_PATTERN);
+			simpleDateFormat.setTimeZone(TimeZone.getTimeZone(zone));
+			// consecutive times around the clock change at the end of March and October 2018
+			long[] starts = { 1521939600000L - 7200000L, 1540688400000L - 7200000L, -1500000000000L };
+			for (long start : starts) {
+				for (long time = start; time < start + 4 * 3600000L; time += random.nextInt(90000)) {
+					assertEquals(zone, simpleDateFormat.format(new Date(time)),
+							encoder.clear().timeField(time).toString().substring(1));
+				}
+			}
+		}
+	}
+
+	/**
+	 * test the quoting of fields containing a comma, a quote or a line break
+	 */
+	@Test
+	public void testStringField() {
+		SmartRestEncoder encoder = new SmartRestEncoder();
+		String expected = "1,plain,\"a,b\",\"say \"\"hi\"\"\",\"two\nlines\",null,\u00fc\ud83d\ude00";
+		assertEquals(expected, encoder.row(1).field("plain").field("a,b").field("say \"hi\"").field("two\nlines")
+				.field((String) null).field("\u00fc\ud83d\ude00").toString());
+		assertEquals(expected.getBytes(StandardCharsets.UTF_8).length, encoder.size());
+	}
+
+	/**
+	 * test method truncate and append, a row is moved to another payload
+	 */
+	@Test
+	public void testTruncateAndAppend() {
+		SmartRestEncoder encoder = new SmartRestEncoder();
+		encoder.row(15).field("xId");
+		int rowStart = encoder.size();
+		encoder.row(100).field(42L);
+		byte[] row = encoder.toByteArray(rowStart);
+
+		assertEquals("15,xId", encoder.truncate(rowStart).toString());
+		assertEquals("15,other\n100,42", encoder.clear().row(15).field("other").append(row).toString());
+	}
+
+	private static byte[] toBytes(ByteBuffer buffer) {
+		byte[] bytes = new byte[buffer.remaining()];
+		buffer.get(bytes);
+		return bytes;
+	}
+}
@@ -0,0 +1,125 @@
+package com.telekom.cot.device.agent.platform.mqtt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class SmartRestResponseParserTest {
+
+	/**
+	 * test the lines, template ids and fields of a response
+	 */
+	@Test
+	public void testNextLine() {
+		SmartRestResponseParser parser = new SmartRestResponseParser(
+				"87,2,novaMqttTemplates04\n512,2,19794459,EXECUTING,\"a,\"\"b\"\"\nc\"\n42,4,Malformed request\n");
+
+		assertTrue(parser.nextLine());
+		assertEquals(TemplateId.USED_TEMPLATE, parser.getTemplateId());
+		assertEquals(3, parser.getFieldCount());
+		assertEquals("novaMqttTemplates04", parser.getField(2));
+
+		assertTrue(parser.nextLine());
+		assertEquals(TemplateId.OPERATION_CONFIGURATION_RES, parser.getTemplateId());
+		assertEquals(5, parser.getFieldCount());
+		assertEquals("512", parser.getField(0));
+		assertEquals("19794459", parser.getField(2));
+		assertEquals("EXECUTING", parser.getField(3));
+		assertEquals("a,\"b\"\nc", parser.getField(4));
+		assertEquals("512,2,19794459,EXECUTING,\"a,\"\"b\"\"\nc\"", parser.getLine());
+
+		assertTrue(parser.nextLine());
+		assertEquals(TemplateId.ERROR_MALFORMED_REQUEST_LINE, parser.getTemplateId());
+		assertEquals("Malformed request", parser.getField(2));
+
+		assertFalse(parser.nextLine());
+	}
+
+	/**
+	 * test the fields written by the encoder, they're read unchanged
+	 */
+	@Test
+	public void testEncodedFields() {
+		String[] values = { "plain", "a,b", "\"quoted\"", "say \"hi\", bye", "\"", "", "line\nbreak" };
+		SmartRestEncoder encoder = new SmartRestEncoder().row(TemplateId.OPERATION_CONFIGURATION_RES);
+		for (String value : values) {
+			encoder.field(value);
+		}
+		SmartRestResponseParser parser = new SmartRestResponseParser(encoder.toString());
+
+		assertTrue(parser.nextLine());
+		assertEquals(values.length + 1, parser.getFieldCount());
+		for (int index = 0; index < values.length; index++) {
+			assertEquals(values[index], parser.getField(index + 1));
+		}
+		assertFalse(parser.nextLine());
+	}
+
+	/**
+	 * test lines without a known template id and empty fields
+	 */
+	@Test
+	public void testNextLineNotAvailable() {
+		SmartRestResponseParser parser = new SmartRestResponseParser("999,1\nabc,1\n\n\"87\",1\n511,2,,");
+
+		assertTrue(parser.nextLine());
+		assertEquals(TemplateId.NOT_AVAILABLE, parser.getTemplateId());
+		assertTrue(parser.nextLine());
+		assertEquals(TemplateId.NOT_AVAILABLE, parser.getTemplateId());
+		assertTrue(parser.nextLine());
+		assertEquals(TemplateId.NOT_AVAILABLE, parser.getTemplateId());
+		assertEquals(1, parser.getFieldCount());
+		assertEquals("", parser.getField(0));
+		assertTrue(parser.nextLine());
+		assertEquals(TemplateId.NOT_AVAILABLE, parser.getTemplateId());
+		assertTrue(parser.nextLine());
+		assertEquals(TemplateId.OPERATION_TEST_RES, parser.getTemplateId());
+		assertEquals(4, parser.getFieldCount());
+		assertEquals("", parser.getField(3));
+		assertFalse(parser.nextLine());
+	}
+
+	/**
+	 * test an empty and a null response
+	 */
+	@Test
+	public void testNextLineEmpty() {
+		assertFalse(new SmartRestResponseParser("").nextLine());
+		assertFalse(new SmartRestResponseParser(null).nextLine());
+	}
+
+	/**
+	 * test a line of more fields than initially reserved
+	 */
+	@Test
+	public void testManyFields() {
+		StringBuilder line = new StringBuilder("511,2");
+		for (int index = 2; index < 40; index++) {
+			line.append(',').append(index);
+		}
+		SmartRestResponseParser parser = new SmartRestResponseParser(line.toString());
+
+		assertTrue(parser.nextLine());
+		assertEquals(40, parser.getFieldCount());
+		assertEquals("39", parser.getField(39));
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testGetFieldOutOfBounds() {
+		SmartRestResponseParser parser = new SmartRestResponseParser("511,2");
+		parser.nextLine();
+		parser.getField(2);
+	}
+
+	/**
+	 * test the readable response with the names of the template ids
+	 */
+	@Test
+	public void testToReadable() {
+		assertEquals("USED_TEMPLATE(87),2,novaMqttTemplates04\nEVENT_STARTUP_RES(401),1,18106509\nfoo,401",
+				SmartRestResponseParser.toReadable("87,2,novaMqttTemplates04\n401,1,18106509\nfoo,401"));
+		assertEquals("", SmartRestResponseParser.toReadable(null));
+	}
+}
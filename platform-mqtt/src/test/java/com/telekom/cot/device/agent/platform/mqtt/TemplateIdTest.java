@@ -0,0 +1,56 @@
+package com.telekom.cot.device.agent.platform.mqtt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class TemplateIdTest {
+
+	@Test
+	public void testFindById() {
+		for (TemplateId templateId : TemplateId.values()) {
+			assertEquals(templateId, TemplateId.findById(templateId.getId()));
+		}
+		assertEquals(TemplateId.NOT_AVAILABLE, TemplateId.findById(0));
+		assertEquals(TemplateId.NOT_AVAILABLE, TemplateId.findById(999));
+		assertEquals(TemplateId.NOT_AVAILABLE, TemplateId.findById(Integer.MAX_VALUE));
+		assertEquals(TemplateId.NOT_AVAILABLE, TemplateId.findById(-2));
+	}
+
+	@Test
+	public void testFindByResId() {
+		assertEquals(TemplateId.OPERATION_TEST_RES, TemplateId.findByResId("511"));
+		assertEquals(TemplateId.NOT_AVAILABLE, TemplateId.findByResId("0511"));
+		assertEquals(TemplateId.NOT_AVAILABLE, TemplateId.findByResId("511 "));
+		assertEquals(TemplateId.NOT_AVAILABLE, TemplateId.findByResId("-1"));
+		assertEquals(TemplateId.NOT_AVAILABLE, TemplateId.findByResId(""));
+		assertEquals(TemplateId.NOT_AVAILABLE, TemplateId.findByResId(null));
+		// not a response
+		assertEquals(TemplateId.NOT_AVAILABLE, TemplateId.findByResId("600"));
+		assertEquals(TemplateId.NOT_AVAILABLE, TemplateId.findByResId("42"));
+	}
+
+	@Test
+	public void testFindByResName() {
+		assertEquals(TemplateId.OPERATION_TEST_RES, TemplateId.findByResName("OPERATION_TEST_RES"));
+		assertEquals(TemplateId.NOT_AVAILABLE, TemplateId.findByResName("GET_MANAGED_OBJECT_ID_REQ"));
+		assertEquals(TemplateId.NOT_AVAILABLE, TemplateId.findByResName("unknown"));
+		assertEquals(TemplateId.NOT_AVAILABLE, TemplateId.findByResName(null));
+	}
+
+	@Test
+	public void testIsValidAndErrorRes() {
+		assertTrue(TemplateId.isValidRes("87,2,novaMqttTemplates04"));
+		assertTrue(TemplateId.isValidRes("511,2,19330625,EXECUTING"));
+		assertFalse(TemplateId.isValidRes("511"));
+		assertFalse(TemplateId.isValidRes("5110,2"));
+		assertFalse(TemplateId.isValidRes("42,4,Malformed request"));
+		assertFalse(TemplateId.isValidRes(""));
+
+		assertTrue(TemplateId.isErrorRes("42,4,Malformed request"));
+		assertFalse(TemplateId.isErrorRes("87,2,novaMqttTemplates04"));
+		assertFalse(TemplateId.isErrorRes("42"));
+	}
+}
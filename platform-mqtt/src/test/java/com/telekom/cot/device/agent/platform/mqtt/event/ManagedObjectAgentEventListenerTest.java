@@ -31,7 +31,7 @@ public class ManagedObjectAgentEventListenerTest {
         AgentEventListenerWrapper wrapper = new AgentEventListenerWrapper(listener);
         InjectionUtil.inject(wrapper, mockLogger);
         wrapper.onAgentEvent(event);
-        verify(mockLogger).info("is the event type equals listener type result={}", true);
+        verify(mockLogger).trace("is the event type equals listener type result={}", true);
         // check by AgentEventUtil
         assertThat(AgentEventUtil.getEventType(listener), Matchers.equalTo(ManagedObjectAgentEvent.class));
     }
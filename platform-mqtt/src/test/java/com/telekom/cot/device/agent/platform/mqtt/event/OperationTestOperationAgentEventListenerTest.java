@@ -2,8 +2,8 @@ package com.telekom.cot.device.agent.platform.mqtt.event;
 
 import static org.junit.Assert.assertThat;
 
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.hamcrest.Matchers;
@@ -16,7 +16,7 @@ import com.telekom.cot.device.agent.platform.objects.operation.Operation;
 public class OperationTestOperationAgentEventListenerTest {
 
     @Test
-    public void testWaitOnAgentEventAndCreate_EXECUTING() throws InterruptedException {
+    public void testOnAgentEvent_EXECUTING() {
         ConcurrentLinkedQueue<Operation> pendingOperations = new ConcurrentLinkedQueue<>();
         PublishedValues publishedValues = new PublishedValues(TemplateId.OPERATION_TEST_RES,
                         new String[] { "id", "status", "c8y_TestOperation.givenStatus" },
@@ -24,20 +24,16 @@ public class OperationTestOperationAgentEventListenerTest {
         OperationTestOperationAgentEvent event = new OperationTestOperationAgentEvent(null, publishedValues);
         OperationTestOperationAgentEventListener listener = new OperationTestOperationAgentEventListener(
                         pendingOperations);
-        new Timer().schedule(new TimerTask() {
-            
-            @Override
-            public void run() {
-                listener.onAgentEvent(event);
-            }
-        }, 100);
-        Operation operation = listener.waitOnAgentEventAndCreate();
+        List<Operation> created = new ArrayList<>();
+        listener.provideEvent(created::add);
+        listener.onAgentEvent(event);
+        Operation operation = created.get(0);
         assertThat(pendingOperations.size(), Matchers.equalTo(1));
         assertThat(pendingOperations.poll(), Matchers.equalTo(operation));
     }
     
     @Test
-    public void testWaitOnAgentEventAndCreate_SUCCESSFUL() throws InterruptedException {
+    public void testOnAgentEvent_SUCCESSFUL() {
         ConcurrentLinkedQueue<Operation> pendingOperations = new ConcurrentLinkedQueue<>();
         PublishedValues publishedValues = new PublishedValues(TemplateId.OPERATION_TEST_RES,
                         new String[] { "id", "status", "c8y_TestOperation.givenStatus" },
@@ -45,14 +41,8 @@ public class OperationTestOperationAgentEventListenerTest {
         OperationTestOperationAgentEvent event = new OperationTestOperationAgentEvent(null, publishedValues);
         OperationTestOperationAgentEventListener listener = new OperationTestOperationAgentEventListener(
                         pendingOperations);
-        new Timer().schedule(new TimerTask() {
-            
-            @Override
-            public void run() {
-                listener.onAgentEvent(event);
-            }
-        }, 100);
-        Operation operation = listener.waitOnAgentEventAndCreate();
+        listener.onAgentEvent(event);
+        Operation operation = listener.create(publishedValues);
         assertThat(pendingOperations.size(), Matchers.equalTo(0));
         assertThat(operation, Matchers.nullValue());
     }
@@ -2,9 +2,8 @@ package com.telekom.cot.device.agent.platform.mqtt.event;
 
 import static org.junit.Assert.assertThat;
 
-import java.util.Calendar;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 
@@ -35,21 +34,15 @@ public class PublishedValuesAgentEventListenerTest {
     }
 
     @Test
-    public void testWaitOnAgentEventAndCreate() throws InterruptedException {
+    public void testOnAgentEventPerEvent() {
+        List<String> values = new ArrayList<>();
         TestPublishedValuesAgentEventListener listener = new TestPublishedValuesAgentEventListener();
-        new Timer().schedule(new TimerTask() {
-
-            @Override
-            public void run() {
-                listener.onAgentEvent(new TestPublishedValuesAgentEvent(null, new PublishedValues(
-                                TemplateId.USED_TEMPLATE, new String[] { "id" }, new String[] { "1" })));
-            }
-        }, 2000);
-        long start = Calendar.getInstance().getTimeInMillis();
-        String value = listener.waitOnAgentEventAndCreate();
-        long finished = Calendar.getInstance().getTimeInMillis();
-        assertThat(value, Matchers.equalTo("1"));
-        assertThat((finished - start) > 1999, Matchers.equalTo(true));
+        listener.provideEvent(values::add);
+        listener.onAgentEvent(new TestPublishedValuesAgentEvent(null,
+                        new PublishedValues(TemplateId.USED_TEMPLATE, new String[] { "id" }, new String[] { "1" })));
+        listener.onAgentEvent(new TestPublishedValuesAgentEvent(null,
+                        new PublishedValues(TemplateId.USED_TEMPLATE, new String[] { "id" }, new String[] { "2" })));
+        assertThat(values, Matchers.contains("1", "2"));
     }
 
     static class TestPublishedValuesAgentEvent extends PublishedValuesAgentEvent {
@@ -2,6 +2,9 @@ package com.telekom.cot.device.agent.platform.mqtt.event;
 
 import static org.junit.Assert.assertThat;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
 import org.hamcrest.Matchers;
 import org.junit.Before;
 import org.junit.Test;
@@ -9,6 +12,7 @@ import org.junit.Test;
 import com.telekom.cot.device.agent.common.exc.AbstractAgentException;
 import com.telekom.cot.device.agent.platform.mqtt.PublishedValues;
 import com.telekom.cot.device.agent.platform.mqtt.TemplateId;
+import com.telekom.cot.device.agent.platform.objects.ManagedObject;
 import com.telekom.cot.device.agent.service.event.AgentEventListenerCollection;
 import com.telekom.cot.device.agent.service.event.AgentEventPublisher;
 import com.telekom.cot.device.agent.service.event.AgentEventPublisherAsync;
@@ -28,12 +32,14 @@ public class PublishedValuesAgentEventTest {
     }
 
     @Test
-    public void test() throws AbstractAgentException, InterruptedException {
+    public void test() throws Exception {
         PublishedValues publishedValues = new PublishedValues(TemplateId.GET_MANAGED_OBJECT_ID_RES, //
                         new String[] { "externalId", "managedObject.id" }, new String[] { "123", "456" });
         PublishedValuesAgentEvent agentEvent = PublishedValuesAgentEvent
                         .createEvent(ManagedObjectAgentEvent.class, null, publishedValues);
+        CompletableFuture<ManagedObject> managedObject = new CompletableFuture<>();
+        managedObjectAgentEventListener.provideEvent(managedObject::complete);
         agentEventPublisher.publishEvent(agentEvent);
-        assertThat(managedObjectAgentEventListener.waitOnAgentEventAndCreate().getId(), Matchers.equalTo("456"));
+        assertThat(managedObject.get(5, TimeUnit.SECONDS).getId(), Matchers.equalTo("456"));
     }
 }
@@ -27,6 +27,7 @@ import com.telekom.cot.device.agent.common.util.AssertionUtil;
 import com.telekom.cot.device.agent.platform.PlatformService;
 import com.telekom.cot.device.agent.platform.PlatformServiceConfiguration.ExternalIdConfig;
 import com.telekom.cot.device.agent.platform.objects.AgentManagedObject;
+import com.telekom.cot.device.agent.platform.objects.MeasurementBatch;
 import com.telekom.cot.device.agent.platform.objects.SensorMeasurement;
 import com.telekom.cot.device.agent.platform.objects.operation.Operation;
 import com.telekom.cot.device.agent.platform.objects.operation.OperationFactory;
@@ -265,6 +266,36 @@ public class PlatformServiceRestImpl extends AbstractAgentService implements Pla
 			measurement.setSource(managedObject);
 			return measurement;
 		}).collect(Collectors.toList());
+		sendMeasurements(platformMeasurements);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void createMeasurements(final MeasurementBatch measurements) throws AbstractAgentException {
+		assertNotNull(measurements, "can't create measurements, measurements is null");
+		LOGGER.info("create measurements size={}", measurements.size());
+		if (measurements.isEmpty()) {
+			LOGGER.info("no measurements are created");
+			return;
+		}
+		ManagedObject managedObject = getManagedObject();
+		List<Measurement> platformMeasurements = new ArrayList<>(measurements.size());
+		for (int index = 0; index < measurements.size(); index++) {
+			String type = measurements.getType(index);
+			Measurement measurement = new Measurement();
+			measurement.setTime(new Date(measurements.getTime(index)));
+			measurement.setType(type);
+			measurement.set(type,
+					new SensorMeasurementReading(measurements.getValue(index), measurements.getUnit(index)));
+			measurement.setSource(managedObject);
+			platformMeasurements.add(measurement);
+		}
+		sendMeasurements(platformMeasurements);
+	}
+
+	private void sendMeasurements(List<Measurement> platformMeasurements) throws AbstractAgentException {
 		try {
 			List<Measurement> sentMeasurements = cotPlatform.getMeasurementApi()
 					.createMeasurements(platformMeasurements);
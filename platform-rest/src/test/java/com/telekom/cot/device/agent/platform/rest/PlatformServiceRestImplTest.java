@@ -25,6 +25,7 @@ import com.telekom.cot.device.agent.common.exc.AbstractAgentException;
 import com.telekom.cot.device.agent.common.exc.AgentCredentialsNotFoundException;
 import com.telekom.cot.device.agent.common.exc.PlatformServiceException;
 import com.telekom.cot.device.agent.platform.objects.AgentManagedObject;
+import com.telekom.cot.device.agent.platform.objects.MeasurementBatch;
 import com.telekom.cot.device.agent.platform.objects.SensorMeasurement;
 import com.telekom.cot.device.agent.platform.objects.operation.Operation;
 import com.telekom.cot.device.agent.platform.objects.operation.Operation.OperationStatus;
@@ -207,7 +208,22 @@ public class PlatformServiceRestImplTest extends PlatformServiceRestImplTestBase
 
 	@Test(expected = PlatformServiceException.class)
 	public void testCreateMeasurementsNullMeasurements() throws AbstractAgentException {
-		platformServiceRestImpl.createMeasurements(null);
+		platformServiceRestImpl.createMeasurements((List<SensorMeasurement>) null);
+	}
+
+	@Test
+	public void testCreateMeasurementBatch() throws AbstractAgentException {
+		MeasurementBatch measurements = new MeasurementBatch(1);
+		measurements.add(new SensorMeasurement("c8y_Temperature", 20, "C"));
+
+		platformServiceRestImpl.createMeasurements(measurements);
+
+		verify(mockMeasurementApi).createMeasurements(any());
+	}
+
+	@Test(expected = PlatformServiceException.class)
+	public void testCreateMeasurementBatchNull() throws AbstractAgentException {
+		platformServiceRestImpl.createMeasurements((MeasurementBatch) null);
 	}
 
 	@Test(expected = PlatformServiceException.class)
@@ -8,8 +8,10 @@ import java.util.List;
 import com.telekom.cot.device.agent.common.AlarmSeverity;
 import com.telekom.cot.device.agent.common.configuration.AgentCredentials;
 import com.telekom.cot.device.agent.common.exc.AbstractAgentException;
+import com.telekom.cot.device.agent.common.exc.MeasurementsNotCreatedException;
 import com.telekom.cot.device.agent.common.exc.PlatformServiceException;
 import com.telekom.cot.device.agent.platform.objects.AgentManagedObject;
+import com.telekom.cot.device.agent.platform.objects.MeasurementBatch;
 import com.telekom.cot.device.agent.platform.objects.SensorMeasurement;
 import com.telekom.cot.device.agent.platform.objects.operation.Operation;
 import com.telekom.cot.device.agent.platform.objects.operation.Operation.OperationStatus;
@@ -84,6 +86,17 @@ public interface PlatformService extends AgentService {
 	 */
 	public void createMeasurements(final List<SensorMeasurement> measurements) throws AbstractAgentException;
 
+	/**
+	 * stores a batch of measurements, the batch isn't modified and may be reused by the caller afterwards
+	 * 
+	 * @param measurements
+	 *            batch of measurements to store
+	 * @throws MeasurementsNotCreatedException
+	 *             if only the first measurements of the batch were created
+	 * @throws AbstractAgentException
+	 */
+	public void createMeasurements(final MeasurementBatch measurements) throws AbstractAgentException;
+
 	/**
 	 * Retrieve the credentials of a certain device.
 	 * 
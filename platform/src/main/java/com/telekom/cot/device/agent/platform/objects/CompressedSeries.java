@@ -0,0 +1,290 @@
+package com.telekom.cot.device.agent.platform.objects;
+
+import java.util.Arrays;
+
+/**
+ * Compressed in-memory buffer of the readings of one series (measurement type and unit), encoded like the Gorilla
+ * time series store: the timestamps by their delta-of-delta and the values by the XOR with the previous value. Regular
+ * 1 Hz readings of a slowly changing value need about 2 to 3 bytes per reading instead of a {@link SensorMeasurement}
+ * object.
+ *
+ * The readings are decoded in the order they were added and only when they are taken, see
+ * {@link #decodeTo(MeasurementBatch, int)}. The buffer is reset as soon as all readings are taken. A series isn't
+ * thread safe.
+ */
+public class CompressedSeries {
+
+	private static final int INITIAL_WORDS = 16;
+
+	private final int typeId;
+	private final int unitId;
+
+	private long[] words = new long[INITIAL_WORDS];
+	private int count = 0;
+
+	private final Cursor writer = new Cursor();
+	private final Cursor reader = new Cursor();
+
+	/**
+	 * @param typeId
+	 *            the type id of the series, see {@link MeasurementSymbols#intern(String)}
+	 * @param unitId
+	 *            the unit id of the series, see {@link MeasurementSymbols#intern(String)}
+	 */
+	public CompressedSeries(int typeId, int unitId) {
+		this.typeId = typeId;
+		this.unitId = unitId;
+	}
+
+	/**
+	 * Appends a reading.
+	 *
+	 * @param time
+	 *            the time in epoch milliseconds
+	 * @param value
+	 *            the value
+	 */
+	public void add(long time, float value) {
+		int valueBits = Float.floatToRawIntBits(value);
+		if (count == 0) {
+			write(writer, time, 64);
+			write(writer, valueBits, 32);
+			writer.delta = 0;
+		} else {
+			long delta = time - writer.time;
+			writeDeltaOfDelta(delta - writer.delta);
+			writer.delta = delta;
+			writeValue(valueBits ^ writer.valueBits);
+		}
+		writer.time = time;
+		writer.valueBits = valueBits;
+		count++;
+	}
+
+	/**
+	 * Decodes readings and adds them to the batch, the decoded readings are removed from the series.
+	 *
+	 * @param batch
+	 *            the batch to add the readings to
+	 * @param maxItems
+	 *            the max. count of readings to decode
+	 * @return the count of decoded readings
+	 */
+	public int decodeTo(MeasurementBatch batch, int maxItems) {
+		int decoded = 0;
+		while (decoded < maxItems && reader.count < count) {
+			if (reader.count == 0) {
+				reader.time = read(reader, 64);
+				reader.valueBits = (int) read(reader, 32);
+				reader.delta = 0;
+			} else {
+				reader.delta += readDeltaOfDelta();
+				reader.time += reader.delta;
+				reader.valueBits ^= readValue();
+			}
+			reader.count++;
+			batch.add(reader.time, typeId, Float.intBitsToFloat(reader.valueBits), unitId);
+			decoded++;
+		}
+
+		if (reader.count == count) {
+			reset();
+		}
+		return decoded;
+	}
+
+	/**
+	 * Gets the count of readings not decoded yet.
+	 */
+	public int size() {
+		return count - reader.count;
+	}
+
+	/**
+	 * Gets the size (in bytes) of the encoded readings buffer.
+	 */
+	public long getSizeInBytes() {
+		return words.length * (long) Long.BYTES;
+	}
+
+	public int getTypeId() {
+		return typeId;
+	}
+
+	public int getUnitId() {
+		return unitId;
+	}
+
+	/**
+	 * writes the delta-of-delta of the timestamp by a prefix code: '0' for 0, '10' + 7 bits, '110' + 9 bits, '1110' +
+	 * 12 bits, '11110' + 32 bits, '11111' + 64 bits
+	 */
+	private void writeDeltaOfDelta(long deltaOfDelta) {
+		if (deltaOfDelta == 0) {
+			write(writer, 0b0, 1);
+		} else if (fits(deltaOfDelta, 7)) {
+			write(writer, 0b10, 2);
+			write(writer, deltaOfDelta, 7);
+		} else if (fits(deltaOfDelta, 9)) {
+			write(writer, 0b110, 3);
+			write(writer, deltaOfDelta, 9);
+		} else if (fits(deltaOfDelta, 12)) {
+			write(writer, 0b1110, 4);
+			write(writer, deltaOfDelta, 12);
+		} else if (fits(deltaOfDelta, 32)) {
+			write(writer, 0b11110, 5);
+			write(writer, deltaOfDelta, 32);
+		} else {
+			write(writer, 0b11111, 5);
+			write(writer, deltaOfDelta, 64);
+		}
+	}
+
+	private long readDeltaOfDelta() {
+		int prefix = 0;
+		while (prefix < 5 && read(reader, 1) == 1) {
+			prefix++;
+		}
+		switch (prefix) {
+			case 0:
+				return 0;
+			case 1:
+				return signed(read(reader, 7), 7);
+			case 2:
+				return signed(read(reader, 9), 9);
+			case 3:
+				return signed(read(reader, 12), 12);
+			case 4:
+				return signed(read(reader, 32), 32);
+			default:
+				return read(reader, 64);
+		}
+	}
+
+	/**
+	 * writes the XOR of the value with the previous value: '0' if equal, '10' + the meaningful bits if they fit into
+	 * the window of the previous value, else '11' + 5 bits leading zeros + 5 bits length - 1 + the meaningful bits
+	 */
+	private void writeValue(int xor) {
+		if (xor == 0) {
+			write(writer, 0b0, 1);
+			return;
+		}
+
+		int leading = Math.min(Integer.numberOfLeadingZeros(xor), 31);
+		int trailing = Integer.numberOfTrailingZeros(xor);
+		if (writer.leading >= 0 && leading >= writer.leading && trailing >= writer.trailing) {
+			write(writer, 0b10, 2);
+			write(writer, xor >>> writer.trailing, Integer.SIZE - writer.leading - writer.trailing);
+			return;
+		}
+
+		int length = Integer.SIZE - leading - trailing;
+		write(writer, 0b11, 2);
+		write(writer, leading, 5);
+		write(writer, length - 1, 5);
+		write(writer, xor >>> trailing, length);
+		writer.leading = leading;
+		writer.trailing = trailing;
+	}
+
+	private int readValue() {
+		if (read(reader, 1) == 0) {
+			return 0;
+		}
+		if (read(reader, 1) == 1) {
+			reader.leading = (int) read(reader, 5);
+			reader.trailing = Integer.SIZE - reader.leading - ((int) read(reader, 5) + 1);
+		}
+		int length = Integer.SIZE - reader.leading - reader.trailing;
+		return (int) read(reader, length) << reader.trailing;
+	}
+
+	/**
+	 * writes the lowest bits of the value, most significant bit first
+	 */
+	private void write(Cursor cursor, long value, int bits) {
+		if (cursor.position + bits > words.length * 64L) {
+			words = Arrays.copyOf(words, words.length * 2);
+		}
+		if (bits < 64) {
+			value &= (1L << bits) - 1;
+		}
+
+		int index = (int) (cursor.position >>> 6);
+		int free = 64 - (int) (cursor.position & 63);
+		if (bits <= free) {
+			words[index] |= value << (free - bits);
+		} else {
+			int rest = bits - free;
+			words[index] |= value >>> rest;
+			words[index + 1] |= value << (64 - rest);
+		}
+		cursor.position += bits;
+	}
+
+	private long read(Cursor cursor, int bits) {
+		int index = (int) (cursor.position >>> 6);
+		int free = 64 - (int) (cursor.position & 63);
+		long value;
+		if (bits <= free) {
+			value = words[index] >>> (free - bits);
+		} else {
+			int rest = bits - free;
+			value = (words[index] << rest) | (words[index + 1] >>> (64 - rest));
+		}
+		cursor.position += bits;
+		return bits < 64 ? value & ((1L << bits) - 1) : value;
+	}
+
+	private void reset() {
+		if (words.length > INITIAL_WORDS) {
+			words = new long[INITIAL_WORDS];
+		} else {
+			Arrays.fill(words, 0L);
+		}
+		count = 0;
+		writer.reset();
+		reader.reset();
+	}
+
+	private static boolean fits(long value, int bits) {
+		return value >= -(1L << (bits - 1)) && value < (1L << (bits - 1));
+	}
+
+	private static long signed(long value, int bits) {
+		return value >= (1L << (bits - 1)) ? value - (1L << bits) : value;
+	}
+
+	/**
+	 * The state of the encoder or the decoder.
+	 */
+	private static class Cursor {
+
+		/** the bit position in the buffer */
+		private long position;
+		/** the count of decoded readings (decoder only) */
+		private int count;
+		private long time;
+		private long delta;
+		private int valueBits;
+		/** the leading zeros of the current XOR window, -1 if there's none */
+		private int leading;
+		/** the trailing zeros of the current XOR window */
+		private int trailing;
+
+		private Cursor() {
+			reset();
+		}
+
+		private void reset() {
+			position = 0;
+			count = 0;
+			time = 0;
+			delta = 0;
+			valueBits = 0;
+			leading = -1;
+			trailing = 0;
+		}
+	}
+}
@@ -0,0 +1,157 @@
+package com.telekom.cot.device.agent.platform.objects;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Columnar batch of sensor measurements. The readings are stored in primitive arrays (time in epoch milliseconds,
+ * value, interned type and unit ids), so adding a reading doesn't allocate once the batch has grown to its working
+ * size. Batches are meant to be reused, see {@link MeasurementBatchPool}.
+ *
+ * A batch isn't thread safe.
+ */
+public class MeasurementBatch {
+
+	private long[] times;
+	private float[] values;
+	private int[] typeIds;
+	private int[] unitIds;
+	private int size = 0;
+
+	public MeasurementBatch(int initialCapacity) {
+		int capacity = Math.max(initialCapacity, 1);
+		times = new long[capacity];
+		values = new float[capacity];
+		typeIds = new int[capacity];
+		unitIds = new int[capacity];
+	}
+
+	/**
+	 * Adds a reading.
+	 *
+	 * @param time
+	 *            the time in epoch milliseconds
+	 * @param typeId
+	 *            the type id, see {@link MeasurementSymbols#intern(String)}
+	 * @param value
+	 *            the value
+	 * @param unitId
+	 *            the unit id, see {@link MeasurementSymbols#intern(String)}
+	 */
+	public void add(long time, int typeId, float value, int unitId) {
+		if (size == times.length) {
+			grow();
+		}
+		times[size] = time;
+		values[size] = value;
+		typeIds[size] = typeId;
+		unitIds[size] = unitId;
+		size++;
+	}
+
+	/**
+	 * Adds the reading of a sensor measurement.
+	 */
+	public void add(SensorMeasurement measurement) {
+		Date time = measurement.getTime();
+		add(Objects.nonNull(time) ? time.getTime() : System.currentTimeMillis(),
+				MeasurementSymbols.intern(measurement.getType()), measurement.getValue(),
+				MeasurementSymbols.intern(measurement.getUnit()));
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public long getTime(int index) {
+		checkIndex(index);
+		return times[index];
+	}
+
+	public float getValue(int index) {
+		checkIndex(index);
+		return values[index];
+	}
+
+	public int getTypeId(int index) {
+		checkIndex(index);
+		return typeIds[index];
+	}
+
+	public String getType(int index) {
+		return MeasurementSymbols.get(getTypeId(index));
+	}
+
+	public int getUnitId(int index) {
+		checkIndex(index);
+		return unitIds[index];
+	}
+
+	public String getUnit(int index) {
+		return MeasurementSymbols.get(getUnitId(index));
+	}
+
+	/**
+	 * Removes all readings, the arrays are kept for reuse.
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * Removes the first readings, the following readings are moved to the front.
+	 *
+	 * @param count
+	 *            the count of readings to remove, at most the size
+	 */
+	public void removeFirst(int count) {
+		if (count < 0 || count > size) {
+			throw new IndexOutOfBoundsException("count " + count + ", size " + size);
+		}
+		int remaining = size - count;
+		System.arraycopy(times, count, times, 0, remaining);
+		System.arraycopy(values, count, values, 0, remaining);
+		System.arraycopy(typeIds, count, typeIds, 0, remaining);
+		System.arraycopy(unitIds, count, unitIds, 0, remaining);
+		size = remaining;
+	}
+
+	/**
+	 * Creates sensor measurements of all readings (allocates, meant for the rare cases that need objects).
+	 */
+	public List<SensorMeasurement> toSensorMeasurements() {
+		List<SensorMeasurement> measurements = new ArrayList<>(size);
+		for (int index = 0; index < size; index++) {
+			SensorMeasurement measurement = new SensorMeasurement(getType(index), values[index], getUnit(index));
+			measurement.setTime(new Date(times[index]));
+			measurements.add(measurement);
+		}
+		return measurements;
+	}
+
+	private void grow() {
+		int capacity = times.length * 2;
+		times = Arrays.copyOf(times, capacity);
+		values = Arrays.copyOf(values, capacity);
+		typeIds = Arrays.copyOf(typeIds, capacity);
+		unitIds = Arrays.copyOf(unitIds, capacity);
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("index " + index + ", size " + size);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return MeasurementBatch.class.getSimpleName() + " [size=" + size + "]";
+	}
+}
@@ -0,0 +1,53 @@
+package com.telekom.cot.device.agent.platform.objects;
+
+import java.util.ArrayDeque;
+import java.util.Objects;
+
+/**
+ * Pool of reusable {@link MeasurementBatch} instances, the batches keep their grown arrays between send cycles.
+ */
+public class MeasurementBatchPool {
+
+	private final ArrayDeque<MeasurementBatch> batches = new ArrayDeque<>();
+	private final int batchCapacity;
+	private final int maxPooled;
+
+	/**
+	 * @param batchCapacity
+	 *            the initial capacity of a new batch
+	 * @param maxPooled
+	 *            the max. count of idle batches kept by the pool
+	 */
+	public MeasurementBatchPool(int batchCapacity, int maxPooled) {
+		this.batchCapacity = batchCapacity;
+		this.maxPooled = maxPooled;
+	}
+
+	/**
+	 * Gets an empty batch, a new batch is created if the pool is empty.
+	 */
+	public synchronized MeasurementBatch acquire() {
+		MeasurementBatch batch = batches.pollFirst();
+		return Objects.nonNull(batch) ? batch : new MeasurementBatch(batchCapacity);
+	}
+
+	/**
+	 * Clears the batch and returns it to the pool.
+	 */
+	public synchronized void release(MeasurementBatch batch) {
+		if (Objects.isNull(batch)) {
+			return;
+		}
+		batch.clear();
+		if (batches.size() < maxPooled) {
+			batches.offerFirst(batch);
+		}
+	}
+
+	/**
+	 * Gets the count of idle batches.
+	 */
+	public synchronized int size() {
+		return batches.size();
+	}
+}
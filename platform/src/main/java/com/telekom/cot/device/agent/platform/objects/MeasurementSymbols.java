@@ -0,0 +1,58 @@
+package com.telekom.cot.device.agent.platform.objects;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns the measurement types and units, so that a {@link MeasurementBatch} only has to store an int id per reading.
+ * The ids are valid for the lifetime of the agent, {@link #NONE} stands for {@code null}.
+ */
+public final class MeasurementSymbols {
+
+	/** the id of a {@code null} symbol */
+	public static final int NONE = -1;
+
+	private static final ConcurrentHashMap<String, Integer> IDS = new ConcurrentHashMap<>();
+	private static volatile String[] symbols = new String[16];
+	private static int count = 0;
+
+	private MeasurementSymbols() {
+	}
+
+	/**
+	 * Gets the id of a symbol, an unknown symbol is added.
+	 */
+	public static int intern(String symbol) {
+		if (Objects.isNull(symbol)) {
+			return NONE;
+		}
+
+		Integer id = IDS.get(symbol);
+		return Objects.nonNull(id) ? id : add(symbol);
+	}
+
+	/**
+	 * Gets the symbol of an id.
+	 */
+	public static String get(int id) {
+		return id == NONE ? null : symbols[id];
+	}
+
+	private static synchronized int add(String symbol) {
+		Integer id = IDS.get(symbol);
+		if (Objects.nonNull(id)) {
+			return id;
+		}
+
+		String[] current = symbols;
+		if (count == current.length) {
+			current = Arrays.copyOf(current, count * 2);
+		}
+		current[count] = symbol;
+		// publish the array before the id
+		symbols = current;
+		IDS.put(symbol, count);
+		return count++;
+	}
+}
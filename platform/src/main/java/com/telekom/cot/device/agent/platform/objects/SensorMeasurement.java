@@ -1,6 +1,5 @@
 package com.telekom.cot.device.agent.platform.objects;
 
-import java.time.Instant;
 import java.util.Date;
 
 public class SensorMeasurement {
@@ -11,7 +10,7 @@ public class SensorMeasurement {
 	private String unit;
 
 	public SensorMeasurement(String type, float value, String unit) {
-		this.time = Date.from(Instant.now());
+		this.time = new Date();
 		this.type = type;
 		this.value = value;
 		this.unit = unit;
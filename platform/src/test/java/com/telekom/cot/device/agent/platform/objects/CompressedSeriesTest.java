@@ -0,0 +1,89 @@
+package com.telekom.cot.device.agent.platform.objects;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class CompressedSeriesTest {
+
+	private static final int TYPE = MeasurementSymbols.intern("c8y_Temperature");
+	private static final int UNIT = MeasurementSymbols.intern("C");
+
+	/**
+	 * test the round trip of irregular timestamps (negative and huge gaps) and special values
+	 */
+	@Test
+	public void testRoundTrip() {
+		long[] times = { 1500000000000L, 1500000001000L, 1500000002000L, 1500000002001L, 1500000001000L,
+				1500000001000L, 1600000000000L, 1600000000100L, 0L, Long.MAX_VALUE / 2 };
+		float[] values = { 20.5f, 20.5f, 20.75f, -3.25f, Float.NaN, 0f, Float.MAX_VALUE, Float.MIN_VALUE, -0f, 1e-3f };
+
+		CompressedSeries series = new CompressedSeries(TYPE, UNIT);
+		for (int i = 0; i < times.length; i++) {
+			series.add(times[i], values[i]);
+		}
+		assertEquals(times.length, series.size());
+
+		MeasurementBatch batch = new MeasurementBatch(times.length);
+		assertEquals(times.length, series.decodeTo(batch, Integer.MAX_VALUE));
+		for (int i = 0; i < times.length; i++) {
+			assertEquals(times[i], batch.getTime(i));
+			assertEquals(Float.floatToRawIntBits(values[i]), Float.floatToRawIntBits(batch.getValue(i)));
+			assertEquals(TYPE, batch.getTypeId(i));
+			assertEquals(UNIT, batch.getUnitId(i));
+		}
+		assertEquals(0, series.size());
+	}
+
+	/**
+	 * test a partial decode, the series continues after the decoded readings and is reset when all are taken
+	 */
+	@Test
+	public void testPartialDecode() {
+		CompressedSeries series = new CompressedSeries(TYPE, UNIT);
+		for (int i = 0; i < 10; i++) {
+			series.add(1000L * i, i);
+		}
+
+		MeasurementBatch batch = new MeasurementBatch(10);
+		assertEquals(4, series.decodeTo(batch, 4));
+		assertEquals(6, series.size());
+		series.add(10000L, 10f);
+		assertEquals(7, series.decodeTo(batch, 10));
+		assertEquals(0, series.size());
+		for (int i = 0; i <= 10; i++) {
+			assertEquals(1000L * i, batch.getTime(i));
+			assertEquals(i, batch.getValue(i), 0f);
+		}
+
+		batch.clear();
+		series.add(5L, 1f);
+		assertEquals(1, series.decodeTo(batch, 10));
+		assertEquals(5L, batch.getTime(0));
+		assertEquals(1f, batch.getValue(0), 0f);
+	}
+
+	/**
+	 * test the size of regular 1 Hz readings of a slowly changing value
+	 */
+	@Test
+	public void testCompression() {
+		Random random = new Random(42);
+		CompressedSeries series = new CompressedSeries(TYPE, UNIT);
+		float value = 20f;
+		for (int i = 0; i < 10000; i++) {
+			value += (random.nextInt(3) - 1) * 0.25f;
+			series.add(1500000000000L + 1000L * i, value);
+		}
+
+		assertTrue(series.getSizeInBytes() < 4 * 10000);
+
+		MeasurementBatch batch = new MeasurementBatch(10000);
+		assertEquals(10000, series.decodeTo(batch, Integer.MAX_VALUE));
+		assertEquals(1500000000000L + 1000L * 9999, batch.getTime(9999));
+		assertEquals(value, batch.getValue(9999), 0f);
+	}
+}
@@ -0,0 +1,115 @@
+package com.telekom.cot.device.agent.platform.objects;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Test;
+
+public class MeasurementBatchTest {
+
+	/**
+	 * test add and getters, the batch grows beyond its initial capacity
+	 */
+	@Test
+	public void testAddAndGet() {
+		MeasurementBatch batch = new MeasurementBatch(1);
+		SensorMeasurement measurement = new SensorMeasurement("c8y_Temperature", 20.5f, "C");
+		measurement.setTime(new Date(1000L));
+		batch.add(measurement);
+		batch.add(2000L, MeasurementSymbols.intern("c8y_Humidity"), 40f, MeasurementSymbols.NONE);
+
+		assertEquals(2, batch.size());
+		assertEquals(1000L, batch.getTime(0));
+		assertEquals("c8y_Temperature", batch.getType(0));
+		assertEquals(20.5f, batch.getValue(0), 0f);
+		assertEquals("C", batch.getUnit(0));
+		assertEquals(2000L, batch.getTime(1));
+		assertEquals("c8y_Humidity", batch.getType(1));
+		assertNull(batch.getUnit(1));
+	}
+
+	/**
+	 * test method toSensorMeasurements
+	 */
+	@Test
+	public void testToSensorMeasurements() {
+		MeasurementBatch batch = new MeasurementBatch(4);
+		batch.add(1000L, MeasurementSymbols.intern("c8y_Temperature"), 20.5f, MeasurementSymbols.intern("C"));
+
+		List<SensorMeasurement> measurements = batch.toSensorMeasurements();
+
+		assertEquals(1, measurements.size());
+		assertEquals(new Date(1000L), measurements.get(0).getTime());
+		assertEquals("c8y_Temperature", measurements.get(0).getType());
+		assertEquals(20.5f, measurements.get(0).getValue(), 0f);
+		assertEquals("C", measurements.get(0).getUnit());
+	}
+
+	/**
+	 * test method removeFirst, the following readings are moved to the front
+	 */
+	@Test
+	public void testRemoveFirst() {
+		MeasurementBatch batch = new MeasurementBatch(4);
+		int typeId = MeasurementSymbols.intern("c8y_Temperature");
+		int unitId = MeasurementSymbols.intern("C");
+		for (int index = 0; index < 3; index++) {
+			batch.add(1000L + index, typeId, index, unitId);
+		}
+
+		batch.removeFirst(2);
+
+		assertEquals(1, batch.size());
+		assertEquals(1002L, batch.getTime(0));
+		assertEquals(2f, batch.getValue(0), 0f);
+		batch.removeFirst(1);
+		assertTrue(batch.isEmpty());
+	}
+
+	/**
+	 * test method getValue with an index behind the size
+	 */
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testGetInvalidIndex() {
+		MeasurementBatch batch = new MeasurementBatch(4);
+		batch.getValue(0);
+	}
+
+	/**
+	 * test interning, a symbol always gets the same id
+	 */
+	@Test
+	public void testSymbols() {
+		int id = MeasurementSymbols.intern("c8y_Pressure");
+
+		assertEquals(id, MeasurementSymbols.intern(new String("c8y_Pressure")));
+		assertEquals("c8y_Pressure", MeasurementSymbols.get(id));
+		assertEquals(MeasurementSymbols.NONE, MeasurementSymbols.intern(null));
+	}
+
+	/**
+	 * test the pool, released batches are cleared and reused
+	 */
+	@Test
+	public void testPool() {
+		MeasurementBatchPool pool = new MeasurementBatchPool(4, 1);
+		MeasurementBatch batch = pool.acquire();
+		batch.add(1000L, MeasurementSymbols.intern("c8y_Temperature"), 20.5f, MeasurementSymbols.intern("C"));
+		MeasurementBatch other = pool.acquire();
+		assertNotSame(batch, other);
+
+		pool.release(batch);
+		pool.release(other);
+
+		assertEquals(1, pool.size());
+		MeasurementBatch reused = pool.acquire();
+		assertSame(batch, reused);
+		assertTrue(reused.isEmpty());
+	}
+}
@@ -14,8 +14,8 @@ import com.telekom.cot.device.agent.common.configuration.AgentCredentialsManager
 import com.telekom.cot.device.agent.common.configuration.ConfigurationManager;
 import com.telekom.cot.device.agent.common.exc.AbstractAgentException;
 import com.telekom.cot.device.agent.common.exc.AgentServiceNotFoundException;
-import com.telekom.cot.device.agent.service.event.AgentContext;
 import com.telekom.cot.device.agent.service.event.AgentContextImpl;
+import com.telekom.cot.device.agent.service.event.AgentEventConfiguration;
 import com.telekom.cot.device.agent.service.injection.DependencyInjector;
 
 /**
@@ -28,7 +28,7 @@ public final class AgentServiceManagerImpl implements AgentServiceManager {
 	private static final AgentServiceManagerImpl INSTANCE;
 	private static final Logger LOGGER;
 	private static final ServiceLoader<AgentService> SERVICE_LOADER;
-	private final AgentContext agentContext;
+	private final AgentContextImpl agentContext;
 
 	private List<AgentServiceProxy> agentServiceProxies;
 
@@ -71,6 +71,9 @@ public final class AgentServiceManagerImpl implements AgentServiceManager {
 		agentServiceProxies.clear();
         List<AgentService> loadedServices = reloadServices();
 
+		// configure the agent event publisher before the services get it
+		agentContext.configure(getAgentEventConfiguration(configManager));
+
 		// get new dependency injector and inject configurations, configuration manager, agent service provider and agent services
 		DependencyInjector dependencyInjector = DependencyInjector.getInstance(this, configManager, credentialsManager); 
 		loadedServices = dependencyInjector.injectConfigurations(loadedServices);
@@ -133,6 +136,18 @@ public final class AgentServiceManagerImpl implements AgentServiceManager {
 		return foundServices;
 	}
 	
+    /**
+     * gets the agent event configuration, the default configuration if there's no configuration section
+     */
+    private AgentEventConfiguration getAgentEventConfiguration(ConfigurationManager configManager) throws AbstractAgentException {
+        if (Objects.isNull(configManager) || !configManager.existPath("agent", "events")) {
+            LOGGER.debug("use default agent event configuration");
+            return new AgentEventConfiguration();
+        }
+
+        return configManager.getConfiguration(AgentEventConfiguration.class);
+    }
+
     /**
      * clear list of service proxies, reload service loader and get all loaded agent services 
      */
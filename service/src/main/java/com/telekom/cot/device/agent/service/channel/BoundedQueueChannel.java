@@ -0,0 +1,286 @@
+package com.telekom.cot.device.agent.service.channel;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded, array backed queue channel. Any number of producers may add items, the items are retrieved by a single
+ * consumer. When the channel is full the configured {@link OverflowPolicy} decides what happens to the new item.
+ *
+ * @param <T>
+ *            the item type
+ */
+public class BoundedQueueChannel<T> implements QueueChannel<T> {
+
+    /** The Logger. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(BoundedQueueChannel.class);
+
+    /** The ring buffer holding the items. */
+    private final Object[] items;
+    /** The behaviour of a full channel. */
+    private final OverflowPolicy overflowPolicy;
+    /** The max. time (in milliseconds) a producer is blocked by policy BLOCK. */
+    private final long blockTimeout;
+    /** Guards the ring buffer. */
+    private final ReentrantLock lock = new ReentrantLock();
+    /** Signals waiting producers that an item was retrieved. */
+    private final Condition notFull = lock.newCondition();
+    /** Signals a waiting consumer that an item was added. */
+    private final Condition notEmpty = lock.newCondition();
+
+    private final AtomicLong acceptedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong spilledCount = new AtomicLong();
+
+    /** The optional hook of policy SPILL. */
+    private volatile SpillHandler<T> spillHandler;
+
+    /** The index of the next item to retrieve. */
+    private int head = 0;
+    /** The current count of items. */
+    private int count = 0;
+
+    public BoundedQueueChannel(int capacity, OverflowPolicy overflowPolicy, long blockTimeout) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.items = new Object[capacity];
+        this.overflowPolicy = Objects.requireNonNull(overflowPolicy, "no overflow policy given");
+        this.blockTimeout = blockTimeout;
+    }
+
+    @Override
+    public void add(T[] items) {
+        for (int i = 0; i < items.length; i++) {
+            add(items[i]);
+        }
+    }
+
+    @Override
+    public void add(List<T> items) {
+        for (T item : items) {
+            add(item);
+        }
+    }
+
+    @Override
+    public void add(T item) {
+        offer(item);
+    }
+
+    /**
+     * Adds an item to the channel by respecting the overflow policy.
+     *
+     * @param item
+     *            the item to add
+     * @return true, if the item was added to the channel or taken over by the spill handler
+     */
+    public boolean offer(T item) {
+        Objects.requireNonNull(item, "no item given");
+        boolean spill = false;
+
+        lock.lock();
+        try {
+            if (count == items.length) {
+                switch (overflowPolicy) {
+                    case DROP_OLDEST:
+                        dequeue();
+                        dropped();
+                        break;
+                    case BLOCK:
+                        if (!awaitNotFull()) {
+                            dropped();
+                            return false;
+                        }
+                        break;
+                    case SPILL:
+                        spill = true;
+                        break;
+                    case DROP_NEWEST:
+                    default:
+                        dropped();
+                        return false;
+                }
+            }
+
+            if (!spill) {
+                enqueue(item);
+                acceptedCount.incrementAndGet();
+                return true;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        // call the spill handler outside the lock, it may do I/O
+        return spill(item);
+    }
+
+    @Override
+    public T getItem() {
+        lock.lock();
+        try {
+            return count == 0 ? null : dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves the items with a single lock acquisition.
+     */
+    @Override
+    public int drainTo(Consumer<? super T> consumer, int maxItems) {
+        lock.lock();
+        try {
+            int count = 0;
+            while (count < maxItems && this.count > 0) {
+                consumer.accept(dequeue());
+                count++;
+            }
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits on a condition until an item is added or the timeout expires.
+     */
+    @Override
+    public int take(Consumer<? super T> consumer, int maxItems, long timeout, TimeUnit unit)
+                    throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                if (nanos <= 0) {
+                    return 0;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return drainTo(consumer, maxItems);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sets the hook which takes over the items that don't fit into the channel by policy SPILL.
+     *
+     * @param spillHandler
+     *            the spill handler, {@code null} to drop the items
+     */
+    public void setSpillHandler(SpillHandler<T> spillHandler) {
+        this.spillHandler = spillHandler;
+    }
+
+    /**
+     * Get the current count of items.
+     */
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the max. count of items.
+     */
+    public int getCapacity() {
+        return items.length;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Get the count of items added to the channel since creation.
+     */
+    public long getAcceptedCount() {
+        return acceptedCount.get();
+    }
+
+    /**
+     * Get the count of items lost because the channel was full.
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Get the count of items taken over by the spill handler.
+     */
+    public long getSpilledCount() {
+        return spilledCount.get();
+    }
+
+    private void enqueue(T item) {
+        items[(head + count) % items.length] = item;
+        count++;
+        notEmpty.signal();
+    }
+
+    @SuppressWarnings("unchecked")
+    private T dequeue() {
+        T item = (T) items[head];
+        items[head] = null;
+        head = (head + 1) % items.length;
+        count--;
+        notFull.signal();
+        return item;
+    }
+
+    /**
+     * Waits (lock is held) until the channel isn't full or the block timeout is expired.
+     */
+    private boolean awaitNotFull() {
+        long nanos = TimeUnit.MILLISECONDS.toNanos(blockTimeout);
+        try {
+            while (count == items.length) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private boolean spill(T item) {
+        SpillHandler<T> handler = spillHandler;
+        if (Objects.nonNull(handler)) {
+            try {
+                if (handler.spill(item)) {
+                    spilledCount.incrementAndGet();
+                    return true;
+                }
+            } catch (RuntimeException e) {
+                LOGGER.error("can't spill item", e);
+            }
+        }
+        dropped();
+        return false;
+    }
+
+    private void dropped() {
+        long dropped = droppedCount.incrementAndGet();
+        LOGGER.debug("channel is full, dropped {} items so far (policy={})", dropped, overflowPolicy);
+    }
+}
@@ -0,0 +1,19 @@
+package com.telekom.cot.device.agent.service.channel;
+
+/**
+ * Defines how a bounded channel behaves when an item is added while the channel is full.
+ */
+public enum OverflowPolicy {
+
+    /** removes the oldest item of the channel to make room for the new item */
+    DROP_OLDEST,
+
+    /** rejects the new item, the channel content stays untouched */
+    DROP_NEWEST,
+
+    /** blocks the producer until there is room or the block timeout expires (the item is dropped then) */
+    BLOCK,
+
+    /** hands the new item over to the {@link SpillHandler} of the channel (the item is dropped if there's none) */
+    SPILL
+}
@@ -1,9 +1,62 @@
 package com.telekom.cot.device.agent.service.channel;
 
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
 public interface QueueChannel<T> extends Channel<T> {
+
+	/** the interval (in milliseconds) at which the default take implementation polls the channel */
+	public static final long TAKE_POLL_INTERVAL = 10;
+
     /**
      * retrieves an item from the channel
      * @return
      */
 	public T getItem();
+
+	/**
+	 * gets the count of items in the channel
+	 * @return the count of items
+	 */
+	public int size();
+
+	/**
+	 * retrieves up to maxItems items from the channel and passes them to the consumer
+	 * @param consumer the consumer of the items (e.g. a batch to fill)
+	 * @param maxItems the max. count of items to retrieve
+	 * @return the count of retrieved items
+	 */
+	public default int drainTo(Consumer<? super T> consumer, int maxItems) {
+		int count = 0;
+		T item;
+		while (count < maxItems && (item = getItem()) != null) {
+			consumer.accept(item);
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * waits until the channel holds at least one item or the timeout expires, then retrieves up to maxItems items
+	 * and passes them to the consumer (the default implementation polls the channel)
+	 * @param consumer the consumer of the items (e.g. a batch to fill)
+	 * @param maxItems the max. count of items to retrieve
+	 * @param timeout the max. time to wait for an item
+	 * @param unit the unit of the timeout
+	 * @return the count of retrieved items, 0 if the timeout expired
+	 * @throws InterruptedException if the waiting thread is interrupted
+	 */
+	public default int take(Consumer<? super T> consumer, int maxItems, long timeout, TimeUnit unit)
+			throws InterruptedException {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		int count;
+		while ((count = drainTo(consumer, maxItems)) == 0) {
+			long remaining = deadline - System.nanoTime();
+			if (remaining <= 0) {
+				return 0;
+			}
+			TimeUnit.NANOSECONDS.sleep(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(TAKE_POLL_INTERVAL)));
+		}
+		return count;
+	}
 }
\ No newline at end of file
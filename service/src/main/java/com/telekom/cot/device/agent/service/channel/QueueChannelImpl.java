@@ -1,11 +1,13 @@
 package com.telekom.cot.device.agent.service.channel;
 
 import java.util.List;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 public class QueueChannelImpl<T> implements QueueChannel<T> {
 
-    private ConcurrentLinkedQueue<T> myQueue = new ConcurrentLinkedQueue<T>();
+    private LinkedBlockingQueue<T> myQueue = new LinkedBlockingQueue<T>();
     
     @Override
     public void add(T[] items) {
@@ -30,4 +32,23 @@ public class QueueChannelImpl<T> implements QueueChannel<T> {
     public T getItem() {
         return myQueue.poll();
     }
+
+    @Override
+    public int size() {
+        return myQueue.size();
+    }
+
+    @Override
+    public int take(Consumer<? super T> consumer, int maxItems, long timeout, TimeUnit unit)
+                    throws InterruptedException {
+        if (maxItems < 1) {
+            return 0;
+        }
+        T item = myQueue.poll(timeout, unit);
+        if (item == null) {
+            return 0;
+        }
+        consumer.accept(item);
+        return 1 + drainTo(consumer, maxItems - 1);
+    }
 }
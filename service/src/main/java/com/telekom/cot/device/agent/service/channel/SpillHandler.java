@@ -0,0 +1,20 @@
+package com.telekom.cot.device.agent.service.channel;
+
+/**
+ * Hook of a bounded channel to take over items that don't fit into the channel any more (e.g. to write them to disk).
+ *
+ * @param <T>
+ *            the item type
+ */
+@FunctionalInterface
+public interface SpillHandler<T> {
+
+    /**
+     * Takes over an item that couldn't be added to the channel.
+     *
+     * @param item
+     *            the item to spill
+     * @return true, if the item was taken over, false if it's lost
+     */
+    public boolean spill(T item);
+}
@@ -1,6 +1,7 @@
 package com.telekom.cot.device.agent.service.event;
 
 import java.util.List;
+import java.util.Objects;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,6 +16,8 @@ public abstract class AbstractAgentEventPublisher implements AgentEventPublisher
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractAgentEventPublisher.class);
     /** The handler collection. */
     private final AgentEventListenerCollection collection;
+    /** The metrics, null if the dispatch isn't measured. */
+    private AgentEventMetrics metrics;
 
     public AbstractAgentEventPublisher(AgentEventListenerCollection collection) {
         LOGGER.info("create publisher");
@@ -24,8 +27,66 @@ public abstract class AbstractAgentEventPublisher implements AgentEventPublisher
     /** Must be implemented. */
     public abstract void publishEvent(AgentEvent event);
 
+    /** Stops the threads of the publisher, if there are any. */
+    public void shutdown() {
+    }
+
+    /** Releases what the publisher holds for a removed listener, if there is anything. */
+    public void listenerRemoved(AgentEventListener<?> listener) {
+    }
+
+    /** Set the metrics the dispatch is measured by, must be set before the first event is published. */
+    public void setMetrics(AgentEventMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     /** Get the listener wrapped by the handler. */
     protected List<AgentEventListener<AgentEvent>> getListeners(AgentEvent agentEvent) {
         return collection.getListeners(agentEvent.getClass());
     }
+
+    /**
+     * Counts the published event if the dispatch is measured.
+     * 
+     * @return the publish time (see {@link System#nanoTime()}), 0 if the dispatch isn't measured
+     */
+    protected long published(AgentEvent event) {
+        if (Objects.isNull(metrics)) {
+            return 0;
+        }
+        metrics.published(event.getClass());
+        return System.nanoTime();
+    }
+
+    /**
+     * Delivers the event to the listener, measures the queue wait and the execution time if the dispatch is measured.
+     * An exception of the listener is logged.
+     * 
+     * @param publishTime
+     *            the publish time returned by {@link #published(AgentEvent)}
+     */
+    protected void deliver(AgentEventListener<AgentEvent> listener, AgentEvent event, long publishTime) {
+        if (Objects.isNull(metrics)) {
+            invoke(listener, event);
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        boolean handled = invoke(listener, event);
+        long endTime = System.nanoTime();
+        metrics.delivered(event.getClass(), listener, startTime - publishTime, endTime - startTime, !handled);
+    }
+
+    private boolean invoke(AgentEventListener<AgentEvent> listener, AgentEvent event) {
+        if (listener instanceof AgentEventListenerWrapper) {
+            return ((AgentEventListenerWrapper) listener).handle(event);
+        }
+        try {
+            listener.onAgentEvent(event);
+            return true;
+        } catch (RuntimeException e) {
+            LOGGER.error("listener {} failed to handle event {}", listener, event, e);
+            return false;
+        }
+    }
 }
@@ -42,4 +42,11 @@ public interface AgentContext {
     public void removeAgentEventListener(AgentEventListener<?> listener);
 
     public boolean containsAgentEventListener(AgentEventListener<?> listener);
+
+    /**
+     * Get the metrics of the event dispatch.
+     * 
+     * @return the metrics, null if the dispatch isn't measured (see agent.events.metrics)
+     */
+    public AgentEventMetrics getAgentEventMetrics();
 }
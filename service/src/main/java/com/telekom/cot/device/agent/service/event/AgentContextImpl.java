@@ -1,10 +1,17 @@
 package com.telekom.cot.device.agent.service.event;
 
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.telekom.cot.device.agent.common.exc.AbstractAgentException;
 import com.telekom.cot.device.agent.common.exc.AgentPublishEventException;
+import com.telekom.cot.device.agent.service.event.AgentEventConfiguration.AsyncPublisher;
+import com.telekom.cot.device.agent.service.event.AgentEventConfiguration.MetricsConfiguration;
 
 /**
  * The common application context in all services.
@@ -16,9 +23,13 @@ public class AgentContextImpl implements AgentContext {
     /** The agent listener collection. */
     private final AgentEventListenerCollection collection = new AgentEventListenerCollection();
     /** The async publisher. */
-    private final AbstractAgentEventPublisher agentEventPublisherAsync;
+    private AbstractAgentEventPublisher agentEventPublisherAsync;
     /** The sync publisher. */
     private final AbstractAgentEventPublisher agentEventPublisherSync;
+    /** The metrics of the event dispatch, null if it isn't measured. */
+    private AgentEventMetrics agentEventMetrics;
+    /** Logs the metrics periodically. */
+    private ScheduledExecutorService metricsLogger;
 
     /** The publisher execution. */
     public enum Execution {
@@ -27,8 +38,67 @@ public class AgentContextImpl implements AgentContext {
 
     /** The public constructor creates an sync and async publisher. */ 
     public AgentContextImpl() {
-        agentEventPublisherAsync = new AgentEventPublisherAsync(collection, 5);
+        this(new AgentEventConfiguration());
+    }
+
+    /** Creates an sync and an async publisher configured by the given configuration. */
+    public AgentContextImpl(AgentEventConfiguration configuration) {
+        agentEventPublisherAsync = createAgentEventPublisherAsync(configuration);
         agentEventPublisherSync = new AgentEventPublisherSync(collection);
+        configureMetrics(configuration.getMetrics());
+    }
+
+    /**
+     * Replace the async publisher by a publisher configured by the given configuration. Must be called before the
+     * services get the publisher.
+     * 
+     * @param configuration
+     *            the configuration of the async publisher
+     */
+    public void configure(AgentEventConfiguration configuration) {
+        LOGGER.info("configure publisher {}", configuration);
+        AbstractAgentEventPublisher previous = agentEventPublisherAsync;
+        agentEventPublisherAsync = createAgentEventPublisherAsync(configuration);
+        previous.shutdown();
+        configureMetrics(configuration.getMetrics());
+    }
+
+    /** Get the metrics of the event dispatch. */
+    @Override
+    public AgentEventMetrics getAgentEventMetrics() {
+        return agentEventMetrics;
+    }
+
+    /** Create the metrics (if enabled) and the periodic logging of the metrics. */
+    private void configureMetrics(MetricsConfiguration configuration) {
+        if (Objects.nonNull(metricsLogger)) {
+            metricsLogger.shutdownNow();
+            metricsLogger = null;
+        }
+
+        AgentEventMetrics metrics = Boolean.TRUE.equals(configuration.getEnabled()) ? new AgentEventMetrics() : null;
+        agentEventPublisherAsync.setMetrics(metrics);
+        agentEventPublisherSync.setMetrics(metrics);
+        agentEventMetrics = metrics;
+        if (Objects.isNull(metrics) || configuration.getLogInterval() == 0) {
+            return;
+        }
+
+        metricsLogger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "agent-event-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        metricsLogger.scheduleAtFixedRate(() -> metrics.log(configuration.getLogLevel()),
+                        configuration.getLogInterval(), configuration.getLogInterval(), TimeUnit.SECONDS);
+    }
+
+    /** Create the async publisher selected by the configuration. */
+    private AbstractAgentEventPublisher createAgentEventPublisherAsync(AgentEventConfiguration configuration) {
+        if (AsyncPublisher.RING_BUFFER == configuration.getAsyncPublisher()) {
+            return new AgentEventPublisherRingBuffer(collection, configuration);
+        }
+        return new AgentEventPublisherAsync(collection, configuration);
     }
 
     /** Add a listener. */
@@ -54,6 +124,7 @@ public class AgentContextImpl implements AgentContext {
     @Override
     public void removeAgentEventListener(AgentEventListener<?> listener) {
         collection.remove(listener);
+        agentEventPublisherAsync.listenerRemoved(listener);
     }
     
     @Override
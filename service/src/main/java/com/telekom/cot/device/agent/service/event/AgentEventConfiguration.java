@@ -0,0 +1,259 @@
+package com.telekom.cot.device.agent.service.event;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+
+import com.telekom.cot.device.agent.common.annotations.ConfigurationPath;
+import com.telekom.cot.device.agent.common.configuration.Configuration;
+
+/**
+ * Configuration of the asynchronous agent event publisher (see {@link AgentEventPublisherAsync} and
+ * {@link AgentEventPublisherRingBuffer}). The section is optional, the defaults are used without it.
+ */
+@ConfigurationPath("agent.events")
+public class AgentEventConfiguration implements Configuration {
+
+    /** The implementation of the asynchronous publisher. */
+    public enum AsyncPublisher {
+        /** a bounded mailbox per listener, executed by a thread pool (see {@link AgentEventPublisherAsync}) */
+        MAILBOX,
+        /** a preallocated ring buffer read by consumer groups (see {@link AgentEventPublisherRingBuffer}) */
+        RING_BUFFER
+    }
+
+    /** The way a consumer of the ring buffer waits for the next event. */
+    public enum WaitStrategy {
+        /** spins, the lowest latency at the cost of a busy core per consumer group */
+        BUSY_SPIN,
+        /** spins a while, then yields the thread */
+        YIELD,
+        /** parks the thread for a short time */
+        PARK
+    }
+
+    /** The level the metrics are logged at. */
+    public enum LogLevel {
+        TRACE, DEBUG, INFO, WARN
+    }
+
+    /** The behaviour of the publisher if the mailbox of a listener is full. */
+    public enum RejectionPolicy {
+        /** the publishing thread delivers the pending events of the listener itself (in order) */
+        CALLER_RUNS,
+        /** the new event is dropped */
+        DROP,
+        /** the publishing thread waits for room, at most the block timeout, then the new event is dropped */
+        BLOCK
+    }
+
+    @NotNull
+    private AsyncPublisher asyncPublisher = AsyncPublisher.MAILBOX;
+
+    /** the count of threads delivering the events */
+    @NotNull @Positive
+    private Integer threadPoolSize = 5;
+
+    /** the max. count of pending events of a listener */
+    @NotNull @Positive
+    private Integer queueCapacity = 1000;
+
+    /** the prefix of the thread names, followed by the thread number */
+    @NotNull
+    private String threadNamePrefix = "agent-event-";
+
+    /** the priority of the threads */
+    @NotNull @Min(Thread.MIN_PRIORITY) @Max(Thread.MAX_PRIORITY)
+    private Integer threadPriority = Thread.NORM_PRIORITY;
+
+    @NotNull
+    private RejectionPolicy rejectionPolicy = RejectionPolicy.DROP;
+
+    /** the max. time (in milliseconds) a publisher is blocked by rejection policy BLOCK or a full ring buffer */
+    @NotNull @PositiveOrZero
+    private Long blockTimeout = 1000L;
+
+    @NotNull @Valid
+    private RingBufferConfiguration ringBuffer = new RingBufferConfiguration();
+
+    @NotNull @Valid
+    private MetricsConfiguration metrics = new MetricsConfiguration();
+
+    public AsyncPublisher getAsyncPublisher() {
+        return asyncPublisher;
+    }
+
+    public void setAsyncPublisher(AsyncPublisher asyncPublisher) {
+        this.asyncPublisher = asyncPublisher;
+    }
+
+    public Integer getThreadPoolSize() {
+        return threadPoolSize;
+    }
+
+    public void setThreadPoolSize(Integer threadPoolSize) {
+        this.threadPoolSize = threadPoolSize;
+    }
+
+    public Integer getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(Integer queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public String getThreadNamePrefix() {
+        return threadNamePrefix;
+    }
+
+    public void setThreadNamePrefix(String threadNamePrefix) {
+        this.threadNamePrefix = threadNamePrefix;
+    }
+
+    public Integer getThreadPriority() {
+        return threadPriority;
+    }
+
+    public void setThreadPriority(Integer threadPriority) {
+        this.threadPriority = threadPriority;
+    }
+
+    public RejectionPolicy getRejectionPolicy() {
+        return rejectionPolicy;
+    }
+
+    public void setRejectionPolicy(RejectionPolicy rejectionPolicy) {
+        this.rejectionPolicy = rejectionPolicy;
+    }
+
+    public Long getBlockTimeout() {
+        return blockTimeout;
+    }
+
+    public void setBlockTimeout(Long blockTimeout) {
+        this.blockTimeout = blockTimeout;
+    }
+
+    public RingBufferConfiguration getRingBuffer() {
+        return ringBuffer;
+    }
+
+    public void setRingBuffer(RingBufferConfiguration ringBuffer) {
+        this.ringBuffer = ringBuffer;
+    }
+
+    public MetricsConfiguration getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(MetricsConfiguration metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public String toString() {
+        return AgentEventConfiguration.class.getSimpleName() + " [asyncPublisher=" + asyncPublisher
+                        + ", threadPoolSize=" + threadPoolSize + ", queueCapacity=" + queueCapacity
+                        + ", threadNamePrefix=" + threadNamePrefix + ", threadPriority=" + threadPriority
+                        + ", rejectionPolicy=" + rejectionPolicy + ", blockTimeout=" + blockTimeout
+                        + ", ringBuffer=" + ringBuffer + ", metrics=" + metrics + "]";
+    }
+
+    /**
+     * Configuration of the ring buffer publisher (asyncPublisher RING_BUFFER).
+     */
+    public static class RingBufferConfiguration {
+
+        /** the count of slots, a power of 2 */
+        @NotNull @Positive
+        private Integer bufferSize = 1024;
+
+        /** the count of consumer threads, the listeners are split among them */
+        @NotNull @Positive
+        private Integer consumerGroups = 2;
+
+        @NotNull
+        private WaitStrategy waitStrategy = WaitStrategy.PARK;
+
+        public Integer getBufferSize() {
+            return bufferSize;
+        }
+
+        public void setBufferSize(Integer bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+
+        public Integer getConsumerGroups() {
+            return consumerGroups;
+        }
+
+        public void setConsumerGroups(Integer consumerGroups) {
+            this.consumerGroups = consumerGroups;
+        }
+
+        public WaitStrategy getWaitStrategy() {
+            return waitStrategy;
+        }
+
+        public void setWaitStrategy(WaitStrategy waitStrategy) {
+            this.waitStrategy = waitStrategy;
+        }
+
+        @Override
+        public String toString() {
+            return RingBufferConfiguration.class.getSimpleName() + " [bufferSize=" + bufferSize + ", consumerGroups="
+                            + consumerGroups + ", waitStrategy=" + waitStrategy + "]";
+        }
+    }
+
+    /**
+     * Configuration of the metrics of the event dispatch (see {@link AgentEventMetrics}).
+     */
+    public static class MetricsConfiguration {
+
+        /** measure the dispatch */
+        @NotNull
+        private Boolean enabled = false;
+
+        /** the interval (in seconds) the metrics are logged at, 0 to never log them */
+        @NotNull @PositiveOrZero
+        private Long logInterval = 60L;
+
+        @NotNull
+        private LogLevel logLevel = LogLevel.INFO;
+
+        public Boolean getEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(Boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Long getLogInterval() {
+            return logInterval;
+        }
+
+        public void setLogInterval(Long logInterval) {
+            this.logInterval = logInterval;
+        }
+
+        public LogLevel getLogLevel() {
+            return logLevel;
+        }
+
+        public void setLogLevel(LogLevel logLevel) {
+            this.logLevel = logLevel;
+        }
+
+        @Override
+        public String toString() {
+            return MetricsConfiguration.class.getSimpleName() + " [enabled=" + enabled + ", logInterval="
+                            + logInterval + ", logLevel=" + logLevel + "]";
+        }
+    }
+}
@@ -1,79 +1,124 @@
-package com.telekom.cot.device.agent.service.event;
-
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.stream.Collectors;
-
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import com.telekom.cot.device.agent.common.exc.AbstractAgentException;
-import com.telekom.cot.device.agent.common.exc.AgentPublishEventException;
-import com.telekom.cot.device.agent.common.util.AssertionUtil;
-
-/**
- * Collects all listener.
- *
- */
-public class AgentEventListenerCollection {
-
-    /** The logger. */
-    private static final Logger LOGGER = LoggerFactory.getLogger(AgentEventListenerCollection.class);
-    /** The list of handlers. */
-    private final Map<Class<? extends AgentEvent>, List<AgentEventListener<AgentEvent>>> listeners = new HashMap<>();
-
-    /**
-     * Add a listener.
-     * 
-     * @param listener
-     * @throws AbstractAgentException
-     */
-    public void add(AgentEventListener<? extends AgentEvent> listener) throws AbstractAgentException {
-        LOGGER.info("add listener {}", listener);
-        AssertionUtil.assertNotNull(listener, AgentPublishEventException.class, LOGGER, "no listener added");
-        AgentEventListenerWrapper wrapper = new AgentEventListenerWrapper(listener);
-        if (!listeners.containsKey(wrapper.getEventClass())) {
-            listeners.put(wrapper.getEventClass(), new ArrayList<>());
-        }
-        listeners.get(wrapper.getEventClass()).add(wrapper);
-    }
-
-    /**
-     * Remove a listener.
-     * 
-     * @param listener
-     */
-    public void remove(AgentEventListener<? extends AgentEvent> listener) {
-        LOGGER.info("remove listener {}", listener);
-        for (Entry<Class<? extends AgentEvent>, List<AgentEventListener<AgentEvent>>> entry : listeners.entrySet()) {
-            for (AgentEventListener<AgentEvent> wrapper : entry.getValue()) {
-                if (wrapper.equals(listener)) {
-                    entry.getValue().remove(wrapper);
-                    return;
-                }
-            }
-        }
-    }
-
-    /**
-     * Get the list of handlers.
-     * 
-     * @return
-     */
-    public List<AgentEventListener<AgentEvent>> getListeners(Class<? extends AgentEvent> eventClass) {
-        if (!listeners.containsKey(eventClass)) {
-            listeners.put(eventClass, new ArrayList<>());
-        }
-        return listeners.get(eventClass);
-    }
-
-    public boolean contains(AgentEventListener<?> listener) {
-        return listeners.entrySet().stream().map((e) -> e.getValue()).flatMap((v) -> v.stream())
-                        .collect(Collectors.toList()).stream().map((w) -> ((AgentEventListenerWrapper) w).getListener())
-                        .collect(Collectors.toList()).contains(listener);
-    }
-
-}
+package com.telekom.cot.device.agent.service.event;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.telekom.cot.device.agent.common.exc.AbstractAgentException;
+import com.telekom.cot.device.agent.common.exc.AgentPublishEventException;
+import com.telekom.cot.device.agent.common.util.AssertionUtil;
+
+/**
+ * Collects all listener. The collection is copy-on-write: adding or removing a listener replaces the immutable
+ * snapshot of the listeners atomically, reading the listeners takes no lock. The listeners of an event class are
+ * the listeners of the class itself, of its superclasses and of its interfaces. They're computed once per snapshot
+ * and event class.
+ *
+ */
+public class AgentEventListenerCollection {
+
+    /** The logger. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(AgentEventListenerCollection.class);
+    /** The current snapshot of the listeners. */
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(
+                    new Snapshot(new AgentEventListenerWrapper[0]));
+
+    /**
+     * Add a listener.
+     * 
+     * @param listener
+     * @throws AbstractAgentException
+     */
+    public void add(AgentEventListener<? extends AgentEvent> listener) throws AbstractAgentException {
+        LOGGER.info("add listener {}", listener);
+        AssertionUtil.assertNotNull(listener, AgentPublishEventException.class, LOGGER, "no listener added");
+        AgentEventListenerWrapper wrapper = new AgentEventListenerWrapper(listener);
+        Snapshot current;
+        AgentEventListenerWrapper[] wrappers;
+        do {
+            current = snapshot.get();
+            wrappers = Arrays.copyOf(current.wrappers, current.wrappers.length + 1);
+            wrappers[current.wrappers.length] = wrapper;
+        } while (!snapshot.compareAndSet(current, new Snapshot(wrappers)));
+    }
+
+    /**
+     * Remove a listener.
+     * 
+     * @param listener
+     */
+    public void remove(AgentEventListener<? extends AgentEvent> listener) {
+        LOGGER.info("remove listener {}", listener);
+        Snapshot current;
+        AgentEventListenerWrapper[] wrappers;
+        do {
+            current = snapshot.get();
+            int index = indexOf(current.wrappers, listener);
+            if (index < 0) {
+                return;
+            }
+            wrappers = new AgentEventListenerWrapper[current.wrappers.length - 1];
+            System.arraycopy(current.wrappers, 0, wrappers, 0, index);
+            System.arraycopy(current.wrappers, index + 1, wrappers, index, wrappers.length - index);
+        } while (!snapshot.compareAndSet(current, new Snapshot(wrappers)));
+    }
+
+    /**
+     * Get the list of handlers of an event class (immutable).
+     * 
+     * @return
+     */
+    public List<AgentEventListener<AgentEvent>> getListeners(Class<? extends AgentEvent> eventClass) {
+        return snapshot.get().getListeners(eventClass);
+    }
+
+    public boolean contains(AgentEventListener<?> listener) {
+        return indexOf(snapshot.get().wrappers, listener) >= 0;
+    }
+
+    private static int indexOf(AgentEventListenerWrapper[] wrappers, AgentEventListener<?> listener) {
+        for (int index = 0; index < wrappers.length; index++) {
+            if (wrappers[index].getListener() == listener) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * An immutable snapshot of the listeners with the listeners per event class.
+     */
+    private static class Snapshot {
+
+        private final AgentEventListenerWrapper[] wrappers;
+        private final Map<Class<? extends AgentEvent>, List<AgentEventListener<AgentEvent>>> listeners =
+                        new ConcurrentHashMap<>();
+
+        private Snapshot(AgentEventListenerWrapper[] wrappers) {
+            this.wrappers = wrappers;
+        }
+
+        private List<AgentEventListener<AgentEvent>> getListeners(Class<? extends AgentEvent> eventClass) {
+            List<AgentEventListener<AgentEvent>> result = listeners.get(eventClass);
+            return Objects.nonNull(result) ? result : listeners.computeIfAbsent(eventClass, this::collect);
+        }
+
+        private List<AgentEventListener<AgentEvent>> collect(Class<? extends AgentEvent> eventClass) {
+            List<AgentEventListener<AgentEvent>> result = new ArrayList<>();
+            for (AgentEventListenerWrapper wrapper : wrappers) {
+                if (Objects.nonNull(wrapper.getEventClass()) && wrapper.getEventClass().isAssignableFrom(eventClass)) {
+                    result.add(wrapper);
+                }
+            }
+            return Collections.unmodifiableList(result);
+        }
+    }
+}
@@ -3,10 +3,11 @@ package com.telekom.cot.device.agent.service.event;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.invoke.MethodHandle;
 import java.util.Objects;
 
+import static com.telekom.cot.device.agent.service.event.AgentEventUtil.createInvoker;
 import static com.telekom.cot.device.agent.service.event.AgentEventUtil.getEventType;
-import static com.telekom.cot.device.agent.service.event.AgentEventUtil.invoke;
 
 /**
  * The handler of a listener.
@@ -20,9 +21,12 @@ public class AgentEventListenerWrapper implements AgentEventListener<AgentEvent>
     private AgentEventListener<? extends AgentEvent> listener;
     /** The class of the listener type. */
     private Class<? extends AgentEvent> eventClass;
+    /** The invoker of the listener method, type {@code (AgentEvent)void}. */
+    private final MethodHandle invoker;
 
     public AgentEventListenerWrapper(AgentEventListener<? extends AgentEvent> listener) {
         this.listener = listener;
+        this.invoker = createInvoker(listener);
         this.eventClass = getEventType(listener);
         if (Objects.isNull(this.eventClass)) {
             LOGGER.error("event type could not be found");
@@ -38,23 +42,37 @@ public class AgentEventListenerWrapper implements AgentEventListener<AgentEvent>
     }
 
     /**
-     * Invoke the event by reflection.
+     * Invoke the event by the invoker resolved when the listener was wrapped.
      * 
      * @param event
      *            the given event
-     * @return true, if the 'onAgentEvent' is called
      */
     public void onAgentEvent(AgentEvent event) {
+        handle(event);
+    }
+
+    /**
+     * Invoke the event by the invoker resolved when the listener was wrapped.
+     * 
+     * @param event
+     *            the given event
+     * @return true, if the listener handled the event without exception
+     */
+    boolean handle(AgentEvent event) {
         if (isEventType(event)) {
-            LOGGER.info("onAgentEvent event={}", event);
+            LOGGER.debug("onAgentEvent event={}", event);
             try {
-                invoke(listener, event);
-            } catch (ReflectiveOperationException e) {
+                invoker.invokeExact(event);
+                return true;
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
                 LOGGER.error("can't invoke event " + event, e);
             }
         } else {
             LOGGER.error("can't invoke event");
         }
+        return false;
     }
 
     @Override
@@ -75,17 +93,22 @@ public class AgentEventListenerWrapper implements AgentEventListener<AgentEvent>
         return super.hashCode();
     }
 
+    @Override
+    public String toString() {
+        return String.valueOf(listener);
+    }
+
     /**
-     * Is the event type equals the listener type.
+     * Is the event an instance of the listener type.
      * 
      * @param event
      *            the given event
-     * @return true, if the types are equal
+     * @return true, if the event is an instance of the listener type
      */
     private boolean isEventType(AgentEvent event) {
         boolean result = Objects.nonNull(event) && Objects.nonNull(this.eventClass);
-        result = result && eventClass == event.getClass();
-        LOGGER.info("is the event type equals listener type result={}", result);
+        result = result && eventClass.isInstance(event);
+        LOGGER.trace("is the event type equals listener type result={}", result);
         return result;
     }
 }
\ No newline at end of file
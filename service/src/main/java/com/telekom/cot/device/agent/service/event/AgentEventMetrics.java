@@ -0,0 +1,168 @@
+package com.telekom.cot.device.agent.service.event;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.telekom.cot.device.agent.service.event.AgentEventConfiguration.LogLevel;
+
+/**
+ * The metrics of the agent event dispatch: per event class the count of published events and per listener of the
+ * event class the time the events waited in the queue, the execution time of the listener and the count of
+ * exceptions thrown by the listener.
+ */
+public class AgentEventMetrics {
+
+    /** The Logger. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(AgentEventMetrics.class);
+
+    private final Map<Class<? extends AgentEvent>, EventTypeMetrics> eventTypes = new ConcurrentHashMap<>();
+
+    /**
+     * Get the metrics by event class.
+     */
+    public Map<Class<? extends AgentEvent>, EventTypeMetrics> getEventTypes() {
+        return Collections.unmodifiableMap(eventTypes);
+    }
+
+    /**
+     * Get the metrics of an event class.
+     * 
+     * @param eventClass
+     *            the event class
+     * @return the metrics, null if no event of the class was published
+     */
+    public EventTypeMetrics getEventType(Class<? extends AgentEvent> eventClass) {
+        return eventTypes.get(eventClass);
+    }
+
+    /**
+     * Writes the metrics to the log.
+     * 
+     * @param level
+     *            the log level
+     */
+    public void log(LogLevel level) {
+        for (Entry<Class<? extends AgentEvent>, EventTypeMetrics> eventType : eventTypes.entrySet()) {
+            log(level, "event {}: published={}", eventType.getKey().getSimpleName(),
+                            eventType.getValue().getPublishCount());
+            for (Entry<AgentEventListener<?>, ListenerMetrics> listener : eventType.getValue().getListeners()
+                            .entrySet()) {
+                log(level, "    listener {}: {}", listener.getKey(), listener.getValue());
+            }
+        }
+    }
+
+    void published(Class<? extends AgentEvent> eventClass) {
+        getOrCreate(eventClass).publishCount.increment();
+    }
+
+    void delivered(Class<? extends AgentEvent> eventClass, AgentEventListener<?> listener, long queueWait,
+                    long executionTime, boolean failed) {
+        EventTypeMetrics eventType = getOrCreate(eventClass);
+        ListenerMetrics metrics = eventType.listeners.get(listener);
+        if (Objects.isNull(metrics)) {
+            metrics = eventType.listeners.computeIfAbsent(listener, key -> new ListenerMetrics());
+        }
+        metrics.queueWait.record(queueWait);
+        metrics.executionTime.record(executionTime);
+        if (failed) {
+            metrics.exceptionCount.increment();
+        }
+    }
+
+    private EventTypeMetrics getOrCreate(Class<? extends AgentEvent> eventClass) {
+        EventTypeMetrics metrics = eventTypes.get(eventClass);
+        return Objects.nonNull(metrics) ? metrics
+                        : eventTypes.computeIfAbsent(eventClass, key -> new EventTypeMetrics());
+    }
+
+    private static void log(LogLevel level, String format, Object argument1, Object argument2) {
+        switch (level) {
+            case TRACE:
+                LOGGER.trace(format, argument1, argument2);
+                break;
+            case DEBUG:
+                LOGGER.debug(format, argument1, argument2);
+                break;
+            case WARN:
+                LOGGER.warn(format, argument1, argument2);
+                break;
+            default:
+                LOGGER.info(format, argument1, argument2);
+        }
+    }
+
+    /**
+     * The metrics of an event class.
+     */
+    public static class EventTypeMetrics {
+
+        private final LongAdder publishCount = new LongAdder();
+        private final Map<AgentEventListener<?>, ListenerMetrics> listeners = new ConcurrentHashMap<>();
+
+        /**
+         * Get the count of published events.
+         */
+        public long getPublishCount() {
+            return publishCount.sum();
+        }
+
+        /**
+         * Get the metrics by listener.
+         */
+        public Map<AgentEventListener<?>, ListenerMetrics> getListeners() {
+            return Collections.unmodifiableMap(listeners);
+        }
+    }
+
+    /**
+     * The metrics of a listener of an event class.
+     */
+    public static class ListenerMetrics {
+
+        private final LatencyHistogram queueWait = new LatencyHistogram();
+        private final LatencyHistogram executionTime = new LatencyHistogram();
+        private final LongAdder exceptionCount = new LongAdder();
+
+        /**
+         * Get the count of delivered events.
+         */
+        public long getDeliveredCount() {
+            return executionTime.getCount();
+        }
+
+        /**
+         * Get the histogram of the time between publishing and delivering the events.
+         */
+        public LatencyHistogram getQueueWait() {
+            return queueWait;
+        }
+
+        /**
+         * Get the histogram of the execution time of the listener.
+         */
+        public LatencyHistogram getExecutionTime() {
+            return executionTime;
+        }
+
+        /**
+         * Get the count of exceptions thrown by the listener.
+         */
+        public long getExceptionCount() {
+            return exceptionCount.sum();
+        }
+
+        @Override
+        public String toString() {
+            return "delivered=" + getDeliveredCount() + ", exceptions=" + getExceptionCount() + ", queueWait=["
+                            + queueWait + "], executionTime=[" + executionTime + "]";
+        }
+    }
+}
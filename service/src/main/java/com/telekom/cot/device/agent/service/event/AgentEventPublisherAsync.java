@@ -1,38 +1,336 @@
-package com.telekom.cot.device.agent.service.event;
-
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-/**
- * Asynchronous agent event publisher handles each listener implementation by an thread. These threads are queued in a
- * fixed thread pool.
- *
- */
-public class AgentEventPublisherAsync extends AbstractAgentEventPublisher {
-
-    /** The Logger. */
-    private static final Logger LOGGER = LoggerFactory.getLogger(AgentEventPublisherAsync.class);
-    /** The thread pool who handles the listener threads by a specified size. */
-    private ExecutorService executorService = null;
-
-    public AgentEventPublisherAsync(AgentEventListenerCollection collection, int threadPoolSize) {
-        super(collection);
-        executorService = Executors.newFixedThreadPool(threadPoolSize);
-    }
-
-    @Override
-    public void publishEvent(AgentEvent event) {
-        LOGGER.info("publish event by source {}", event.getSource());
-        // loop throw all handlers
-        for (AgentEventListener<AgentEvent> listener : getListeners(event)) {
-            LOGGER.info("submit event by listener {}", event);
-            // add a callable to the thread pool
-            executorService.submit(Executors.callable(() -> {
-                listener.onAgentEvent(event);
-            }));
-        }
-    }
-}
+package com.telekom.cot.device.agent.service.event;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.telekom.cot.device.agent.service.event.AgentEventConfiguration.RejectionPolicy;
+
+/**
+ * Asynchronous agent event publisher delivers the events of each listener by a mailbox. A listener gets its events
+ * one after another in the order they were published, different listeners are executed in parallel by a fixed
+ * thread pool. The mailbox of a listener is bounded, the rejection policy defines what happens if the mailbox of a
+ * listener is full (see {@link AgentEventConfiguration}).
+ *
+ * The work queue of the thread pool holds at most one entry per listener (its mailbox), so it's bounded by the count
+ * of listeners. The mailbox of a removed listener is discarded, its pending events aren't delivered anymore.
+ */
+public class AgentEventPublisherAsync extends AbstractAgentEventPublisher {
+
+    /** The Logger. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(AgentEventPublisherAsync.class);
+    /** The max. count of events a mailbox delivers before it yields its thread to the other mailboxes. */
+    private static final int MAILBOX_THROUGHPUT = 16;
+    /** The initial count of events a mailbox has room for, it grows on demand. */
+    private static final int INITIAL_MAILBOX_SIZE = 16;
+    /** The thread pool who handles the listener mailboxes by a specified size. */
+    private ExecutorService executorService = null;
+    /** The mailboxes by listener. */
+    private final Map<AgentEventListener<AgentEvent>, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    /** The max. count of pending events of a listener. */
+    private final int mailboxCapacity;
+    private final RejectionPolicy rejectionPolicy;
+    /** The max. time (in nanoseconds) a publishing thread is blocked by rejection policy BLOCK. */
+    private final long blockTimeout;
+    /** The count of events rejected by a full mailbox. */
+    private final AtomicLong rejectedCount = new AtomicLong();
+    /** The count of rejected events that are dropped. */
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    public AgentEventPublisherAsync(AgentEventListenerCollection collection, int threadPoolSize) {
+        this(collection, createConfiguration(threadPoolSize, null));
+    }
+
+    public AgentEventPublisherAsync(AgentEventListenerCollection collection, int threadPoolSize,
+                    int mailboxCapacity) {
+        this(collection, createConfiguration(threadPoolSize, mailboxCapacity));
+    }
+
+    public AgentEventPublisherAsync(AgentEventListenerCollection collection, AgentEventConfiguration configuration) {
+        super(collection);
+        LOGGER.info("create async publisher {}", configuration);
+        this.mailboxCapacity = configuration.getQueueCapacity();
+        this.rejectionPolicy = configuration.getRejectionPolicy();
+        this.blockTimeout = TimeUnit.MILLISECONDS.toNanos(configuration.getBlockTimeout());
+        AtomicInteger threadNumber = new AtomicInteger();
+        executorService = new ThreadPoolExecutor(configuration.getThreadPoolSize(),
+                        configuration.getThreadPoolSize(), 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                        runnable -> {
+                            Thread thread = new Thread(runnable,
+                                            configuration.getThreadNamePrefix() + threadNumber.incrementAndGet());
+                            thread.setPriority(configuration.getThreadPriority());
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+    }
+
+    @Override
+    public void publishEvent(AgentEvent event) {
+        LOGGER.debug("publish event by source {}", event.getSource());
+        long publishTime = published(event);
+        // loop throw all handlers
+        for (AgentEventListener<AgentEvent> listener : getListeners(event)) {
+            LOGGER.trace("submit event {} to listener {}", event, listener);
+            // add the event to the mailbox of the listener
+            Mailbox mailbox = mailboxes.get(listener);
+            if (Objects.isNull(mailbox)) {
+                mailbox = mailboxes.computeIfAbsent(listener, Mailbox::new);
+            }
+            if (!mailbox.offer(event, publishTime)) {
+                reject(mailbox, event, publishTime);
+            }
+        }
+    }
+
+    /**
+     * Get the count of pending events of all listeners.
+     */
+    public int getQueueSize() {
+        int size = 0;
+        for (Mailbox mailbox : mailboxes.values()) {
+            size += mailbox.size();
+        }
+        return size;
+    }
+
+    /**
+     * Get the count of events rejected because the mailbox of a listener was full.
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * Get the count of rejected events that were dropped.
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Discards the mailbox of the listener.
+     */
+    @Override
+    public void listenerRemoved(AgentEventListener<?> listener) {
+        mailboxes.entrySet().removeIf(entry -> {
+            AgentEventListener<AgentEvent> key = entry.getKey();
+            if (key != listener && (!(key instanceof AgentEventListenerWrapper)
+                            || ((AgentEventListenerWrapper) key).getListener() != listener)) {
+                return false;
+            }
+            entry.getValue().discard();
+            return true;
+        });
+    }
+
+    /**
+     * Stops the threads, pending events aren't delivered anymore.
+     */
+    @Override
+    public void shutdown() {
+        executorService.shutdownNow();
+    }
+
+    private void reject(Mailbox mailbox, AgentEvent event, long publishTime) {
+        rejectedCount.incrementAndGet();
+        if (RejectionPolicy.CALLER_RUNS == rejectionPolicy) {
+            mailbox.deliverByCaller(event, publishTime);
+        } else if (RejectionPolicy.DROP == rejectionPolicy || !mailbox.offer(event, publishTime, blockTimeout)) {
+            droppedCount.incrementAndGet();
+            LOGGER.warn("mailbox of listener {} is full, dropped event {}", mailbox.listener, event);
+        }
+    }
+
+    private static AgentEventConfiguration createConfiguration(int threadPoolSize, Integer mailboxCapacity) {
+        AgentEventConfiguration configuration = new AgentEventConfiguration();
+        configuration.setThreadPoolSize(threadPoolSize);
+        if (Objects.nonNull(mailboxCapacity)) {
+            configuration.setQueueCapacity(mailboxCapacity);
+        }
+        return configuration;
+    }
+
+    /**
+     * The pending events of a listener. A mailbox is scheduled at the thread pool as long as it holds events. The
+     * events are delivered under the delivery lock of the mailbox, so at most one thread executes the listener at
+     * any time, also if the publishing thread delivers the events (rejection policy CALLER_RUNS).
+     */
+    private class Mailbox implements Runnable {
+
+        private final AgentEventListener<AgentEvent> listener;
+        /** The pending events (a growing ring), guarded by the mailbox. */
+        private AgentEvent[] events = new AgentEvent[INITIAL_MAILBOX_SIZE];
+        /** The publish times of the pending events, guarded by the mailbox. */
+        private long[] publishTimes = new long[INITIAL_MAILBOX_SIZE];
+        private int head = 0;
+        private int size = 0;
+        /** Is the mailbox scheduled at the thread pool, guarded by the mailbox. */
+        private boolean scheduled = false;
+        private final ReentrantLock delivery = new ReentrantLock();
+        /** The publish time of the last polled event, guarded by the delivery lock. */
+        private long polledPublishTime;
+
+        private Mailbox(AgentEventListener<AgentEvent> listener) {
+            this.listener = listener;
+        }
+
+        private boolean offer(AgentEvent event, long publishTime) {
+            synchronized (this) {
+                if (size >= mailboxCapacity) {
+                    return false;
+                }
+                return add(event, publishTime);
+            }
+        }
+
+        /**
+         * waits at most the timeout (in nanoseconds) for room
+         */
+        private boolean offer(AgentEvent event, long publishTime, long timeout) {
+            long deadline = System.nanoTime() + timeout;
+            synchronized (this) {
+                try {
+                    while (size >= mailboxCapacity) {
+                        long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0) {
+                            return false;
+                        }
+                        TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+                return add(event, publishTime);
+            }
+        }
+
+        /**
+         * delivers the pending events and then the given event by the calling thread, the given event isn't added to
+         * the full mailbox
+         */
+        private void deliverByCaller(AgentEvent event, long publishTime) {
+            delivery.lock();
+            try {
+                for (int count = size(); count > 0; count--) {
+                    AgentEvent next = poll();
+                    if (Objects.isNull(next)) {
+                        break;
+                    }
+                    deliver(listener, next, polledPublishTime);
+                }
+                deliver(listener, event, publishTime);
+            } finally {
+                delivery.unlock();
+            }
+        }
+
+        /**
+         * removes the pending events of the removed listener
+         */
+        private synchronized void discard() {
+            Arrays.fill(events, null);
+            head = 0;
+            size = 0;
+            notifyAll();
+        }
+
+        @Override
+        public void run() {
+            for (int count = 0; count < MAILBOX_THROUGHPUT; count++) {
+                delivery.lock();
+                try {
+                    AgentEvent event;
+                    synchronized (this) {
+                        event = poll();
+                        if (Objects.isNull(event)) {
+                            scheduled = false;
+                            return;
+                        }
+                    }
+                    deliver(listener, event, polledPublishTime);
+                } finally {
+                    delivery.unlock();
+                }
+            }
+            // more events pending, let the other mailboxes run first
+            schedule();
+        }
+
+        private synchronized int size() {
+            return size;
+        }
+
+        /**
+         * adds the event and schedules the mailbox if it isn't yet, the caller holds the monitor of the mailbox
+         */
+        private boolean add(AgentEvent event, long publishTime) {
+            enqueue(event, publishTime);
+            if (!scheduled) {
+                scheduled = true;
+                schedule();
+            }
+            return true;
+        }
+
+        /**
+         * appends the event, the caller holds the monitor of the mailbox
+         */
+        private void enqueue(AgentEvent event, long publishTime) {
+            if (size == events.length) {
+                AgentEvent[] grownEvents = new AgentEvent[events.length * 2];
+                long[] grownPublishTimes = new long[events.length * 2];
+                for (int index = 0; index < size; index++) {
+                    grownEvents[index] = events[(head + index) % events.length];
+                    grownPublishTimes[index] = publishTimes[(head + index) % events.length];
+                }
+                events = grownEvents;
+                publishTimes = grownPublishTimes;
+                head = 0;
+            }
+            int tail = (head + size) % events.length;
+            events[tail] = event;
+            publishTimes[tail] = publishTime;
+            size++;
+        }
+
+        /**
+         * removes the oldest event, the caller holds the delivery lock
+         */
+        private synchronized AgentEvent poll() {
+            if (size == 0) {
+                return null;
+            }
+            AgentEvent event = events[head];
+            events[head] = null;
+            polledPublishTime = publishTimes[head];
+            head = (head + 1) % events.length;
+            size--;
+            notifyAll();
+            return event;
+        }
+
+        private void schedule() {
+            try {
+                executorService.execute(this);
+            } catch (RejectedExecutionException e) {
+                LOGGER.error("can't schedule the mailbox of listener {}", listener, e);
+                synchronized (this) {
+                    scheduled = false;
+                }
+            }
+        }
+    }
+}
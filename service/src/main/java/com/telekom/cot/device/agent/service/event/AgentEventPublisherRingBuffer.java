@@ -0,0 +1,236 @@
+package com.telekom.cot.device.agent.service.event;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.telekom.cot.device.agent.service.event.AgentEventConfiguration.RingBufferConfiguration;
+import com.telekom.cot.device.agent.service.event.AgentEventConfiguration.WaitStrategy;
+
+/**
+ * Asynchronous agent event publisher based on a single preallocated ring buffer. A publisher claims the next sequence,
+ * stores the event in the slot of the sequence and marks the slot as published, nothing is allocated per event.
+ *
+ * The listeners are split into consumer groups, each group is a thread that reads every published event in sequence
+ * order and delivers it to the listeners of the group. So a listener gets its events one after another in the
+ * published order, the listeners of different groups are executed in parallel. A consumer processes all events
+ * published meanwhile as a batch and releases their slots at once. The last group processing a slot clears its
+ * event, so a processed event isn't referenced by the ring buffer anymore. A failing listener doesn't stop the group.
+ *
+ * A publisher waits for a free slot while the ring buffer is full (the slowest group is a whole ring behind), at most
+ * the block timeout, then the event is dropped.
+ */
+public class AgentEventPublisherRingBuffer extends AbstractAgentEventPublisher {
+
+    /** The Logger. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(AgentEventPublisherRingBuffer.class);
+    /** The time (in nanoseconds) a thread parks by wait strategy PARK or while the ring buffer is full. */
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    /** The count of spins before a thread yields by wait strategy YIELD. */
+    private static final int SPIN_TRIES = 100;
+
+    private final Slot[] slots;
+    private final int mask;
+    private final WaitStrategy waitStrategy;
+    /** The max. time (in nanoseconds) a publisher waits for a free slot. */
+    private final long blockTimeout;
+    /** The highest claimed sequence. */
+    private final AtomicLong claimed = new AtomicLong(-1);
+    private final ConsumerGroup[] groups;
+    /** The count of events dropped because the ring buffer was full. */
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private volatile boolean running = true;
+
+    public AgentEventPublisherRingBuffer(AgentEventListenerCollection collection,
+                    AgentEventConfiguration configuration) {
+        super(collection);
+        LOGGER.info("create ring buffer publisher {}", configuration);
+        RingBufferConfiguration ringBuffer = configuration.getRingBuffer();
+        int bufferSize = ringBuffer.getBufferSize();
+        if (Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("buffer size must be a power of 2");
+        }
+
+        slots = new Slot[bufferSize];
+        for (int index = 0; index < bufferSize; index++) {
+            slots[index] = new Slot();
+        }
+        mask = bufferSize - 1;
+        waitStrategy = ringBuffer.getWaitStrategy();
+        blockTimeout = TimeUnit.MILLISECONDS.toNanos(configuration.getBlockTimeout());
+
+        groups = new ConsumerGroup[ringBuffer.getConsumerGroups()];
+        for (int index = 0; index < groups.length; index++) {
+            groups[index] = new ConsumerGroup(index);
+            Thread thread = new Thread(groups[index], configuration.getThreadNamePrefix() + (index + 1));
+            thread.setPriority(configuration.getThreadPriority());
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    @Override
+    public void publishEvent(AgentEvent event) {
+        LOGGER.debug("publish event by source {}", event.getSource());
+        long publishTime = published(event);
+        long sequence = claim();
+        if (sequence < 0) {
+            droppedCount.incrementAndGet();
+            LOGGER.warn("ring buffer is full, dropped event {}", event);
+            return;
+        }
+
+        Slot slot = slots[(int) sequence & mask];
+        slot.event = event;
+        slot.publishTime = publishTime;
+        slot.pending.set(groups.length);
+        slot.sequence = sequence;
+    }
+
+    /**
+     * Get the count of published events not processed by all consumer groups yet.
+     */
+    public int getQueueSize() {
+        return (int) (claimed.get() - getMinimumSequence());
+    }
+
+    /**
+     * Get the count of events dropped because the ring buffer was full.
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Stops the consumer threads, pending events aren't delivered anymore.
+     */
+    @Override
+    public void shutdown() {
+        running = false;
+    }
+
+    /**
+     * claims the next sequence, waits at most the block timeout for a free slot
+     * 
+     * @return the sequence, -1 if the ring buffer is full
+     */
+    private long claim() {
+        long deadline = 0;
+        while (true) {
+            long current = claimed.get();
+            long next = current + 1;
+            if (next - getMinimumSequence() > slots.length) {
+                // full, wait for the slowest consumer group
+                if (deadline == 0) {
+                    deadline = System.nanoTime() + blockTimeout;
+                } else if (System.nanoTime() - deadline >= 0) {
+                    return -1;
+                }
+                LockSupport.parkNanos(PARK_NANOS);
+            } else if (claimed.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    private long getMinimumSequence() {
+        long minimum = Long.MAX_VALUE;
+        for (ConsumerGroup group : groups) {
+            minimum = Math.min(minimum, group.sequence.get());
+        }
+        return minimum;
+    }
+
+    /**
+     * A slot of the ring buffer, the event is published by writing the sequence.
+     */
+    private static class Slot {
+
+        private AgentEvent event;
+        private long publishTime;
+        /** The count of consumer groups that didn't process the event yet. */
+        private final AtomicInteger pending = new AtomicInteger();
+        private volatile long sequence = -1;
+    }
+
+    /**
+     * A consumer thread and the listeners it delivers the events to.
+     */
+    private class ConsumerGroup implements Runnable {
+
+        private final int index;
+        /** The highest processed sequence. */
+        private final AtomicLong sequence = new AtomicLong(-1);
+
+        private ConsumerGroup(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public void run() {
+            long next = 0;
+            while (running) {
+                long available = waitFor(next);
+                if (available < next) {
+                    continue;
+                }
+                for (long current = next; current <= available; current++) {
+                    Slot slot = slots[(int) current & mask];
+                    deliver(slot.event, slot.publishTime);
+                    if (slot.pending.decrementAndGet() == 0) {
+                        slot.event = null;
+                    }
+                }
+                sequence.set(available);
+                next = available + 1;
+            }
+        }
+
+        /**
+         * waits by the wait strategy until the sequence is published
+         * 
+         * @return the highest sequence published in a row from the given one, less than the given one if stopped
+         */
+        private long waitFor(long next) {
+            int tries = 0;
+            while (slots[(int) next & mask].sequence != next) {
+                if (!running) {
+                    return next - 1;
+                }
+                if (WaitStrategy.PARK == waitStrategy) {
+                    LockSupport.parkNanos(PARK_NANOS);
+                } else if (WaitStrategy.YIELD == waitStrategy && ++tries > SPIN_TRIES) {
+                    Thread.yield();
+                }
+            }
+
+            long available = next;
+            long end = claimed.get();
+            while (available < end && slots[(int) (available + 1) & mask].sequence == available + 1) {
+                available++;
+            }
+            return available;
+        }
+
+        private void deliver(AgentEvent event, long publishTime) {
+            List<AgentEventListener<AgentEvent>> listeners = getListeners(event);
+            for (int position = 0; position < listeners.size(); position++) {
+                AgentEventListener<AgentEvent> listener = listeners.get(position);
+                if (Math.floorMod(System.identityHashCode(listener), groups.length) == index) {
+                    try {
+                        AgentEventPublisherRingBuffer.this.deliver(listener, event, publishTime);
+                    } catch (Throwable e) {
+                        // an error mustn't end the consumer, the ring buffer would fill up
+                        LOGGER.error("listener {} failed by event {}", listener, event, e);
+                    }
+                }
+            }
+        }
+    }
+}
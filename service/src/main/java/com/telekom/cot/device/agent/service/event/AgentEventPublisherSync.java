@@ -18,12 +18,12 @@ public class AgentEventPublisherSync extends AbstractAgentEventPublisher {
 
     @Override
     public void publishEvent(AgentEvent event) {
-        LOGGER.info("publish event by source {}", event.getSource());
+        LOGGER.debug("publish event by source {}", event.getSource());
+        long publishTime = published(event);
         // loop throw all handlers
         for (AgentEventListener<AgentEvent> listener : getListeners(event)) {
-            LOGGER.info("handle event by listener {}", event);
-            // add a callable to the thread pool
-            listener.onAgentEvent(event);
+            LOGGER.trace("handle event {} by listener {}", event, listener);
+            deliver(listener, event, publishTime);
         }
     }
 }
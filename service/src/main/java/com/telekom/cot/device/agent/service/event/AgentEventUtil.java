@@ -1,6 +1,8 @@
 package com.telekom.cot.device.agent.service.event;
 
-import java.lang.reflect.Method;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.Objects;
@@ -14,6 +16,8 @@ public class AgentEventUtil {
     private static final Logger LOGGER = LoggerFactory.getLogger(AgentEventUtil.class);
     /** The listener method (see {@code AgentEventListener}. */
     private static final String ON_AGENT_EVENT = "onAgentEvent";
+    /** The handle of the listener method, resolved once by the interface. */
+    private static final MethodHandle ON_AGENT_EVENT_HANDLE = findOnAgentEvent();
 
     /**
      * Get the event type from the listener.
@@ -31,20 +35,16 @@ public class AgentEventUtil {
     }
 
     /**
-     * Invoke the method onAgentEvent of the listener.
+     * Create the invoker of the method onAgentEvent of the listener. The invoker is bound to the listener and has the
+     * type {@code (AgentEvent)void}, so it's called by {@code invokeExact(event)} without any lookup.
      * 
      * @param listener
      *            the agent event listener
-     * @param event
-     *            the event
-     * @throws ReflectiveOperationException
+     * @return the invoker
      */
-    public static void invoke(AgentEventListener<? extends AgentEvent> listener, AgentEvent event)
-                    throws ReflectiveOperationException {
-        LOGGER.info("invoke event={}", event);
-        Class<?>[] params = new Class[] { AgentEvent.class };
-        Method method = listener.getClass().getMethod(ON_AGENT_EVENT, params);
-        method.invoke(listener, event);
+    public static MethodHandle createInvoker(AgentEventListener<? extends AgentEvent> listener) {
+        LOGGER.info("create invoker of listener {}", listener);
+        return ON_AGENT_EVENT_HANDLE.bindTo(listener);
     }
 
     /**
@@ -70,10 +70,8 @@ public class AgentEventUtil {
             }
             ParameterizedType parameterizedType = (ParameterizedType) genericSuperclassType;
             for (Type genericType : parameterizedType.getActualTypeArguments()) {
-                Class<?> clazz;
-                try {
-                    clazz = Class.forName(genericType.getTypeName());
-                } catch (ClassNotFoundException e) {
+                Class<?> clazz = toClass(genericType);
+                if (Objects.isNull(clazz)) {
                     continueSearch = false;
                     break;
                 }
@@ -83,6 +81,7 @@ public class AgentEventUtil {
                     break;
                 }
             }
+            genericSuperclass = genericSuperclass.getSuperclass();
         }
         return typeClass;
     }
@@ -100,7 +99,7 @@ public class AgentEventUtil {
         Class<?> genericInterfaces = listener.getClass();
         Class<? extends AgentEvent> typeClass = null;
         boolean continueSearch = true;
-        while (continueSearch) {
+        while (continueSearch && Objects.nonNull(genericInterfaces)) {
             Type[] genericInterfacesTypes = genericInterfaces.getGenericInterfaces();
             if (genericInterfacesTypes.length == 0) {
                 genericInterfaces = genericInterfaces.getSuperclass();
@@ -110,23 +109,15 @@ public class AgentEventUtil {
             for (Type genericInterface : genericInterfacesTypes) {
                 if (genericInterface instanceof ParameterizedType) {
                     ParameterizedType genericInterfaceType = (ParameterizedType) genericInterface;
-                    Class<?> agentEventListenerClass;
-                    try {
-                        agentEventListenerClass = Class.forName(genericInterfaceType.getRawType().getTypeName());
-                    } catch (ClassNotFoundException e1) {
-                        continueSearch = false;
-                        break;
-                    }
-                    if (!isType(agentEventListenerClass, AgentEventListener.class)) {
+                    Class<?> agentEventListenerClass = toClass(genericInterfaceType.getRawType());
+                    if (!AgentEventListener.class.equals(agentEventListenerClass)) {
                         continue;
                     }
                     // agentEventListenerClass is a AgentEventListener
                     Type[] types = genericInterfaceType.getActualTypeArguments();
                     if (Objects.nonNull(types) && types.length == 1) {
-                        Class<?> clazz;
-                        try {
-                            clazz = Class.forName(types[0].getTypeName());
-                        } catch (ClassNotFoundException e) {
+                        Class<?> clazz = toClass(types[0]);
+                        if (Objects.isNull(clazz)) {
                             continueSearch = false;
                             break;
                         }
@@ -150,6 +141,27 @@ public class AgentEventUtil {
         return typeClass;
     }
 
+    /**
+     * Get the class of a type argument, null if it's a type variable or a wildcard.
+     */
+    private static Class<?> toClass(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        } else if (type instanceof ParameterizedType) {
+            return toClass(((ParameterizedType) type).getRawType());
+        }
+        return null;
+    }
+
+    private static MethodHandle findOnAgentEvent() {
+        try {
+            return MethodHandles.publicLookup().findVirtual(AgentEventListener.class, ON_AGENT_EVENT,
+                            MethodType.methodType(void.class, AgentEvent.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     private static boolean isType(Class<?> subclass, Class<?> clazz) {
         while (Objects.nonNull(subclass) && !subclass.equals(Object.class)) {
             if (subclass.equals(clazz)) {
@@ -0,0 +1,183 @@
+package com.telekom.cot.device.agent.service.retry;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.telekom.cot.device.agent.common.exc.AbstractAgentException;
+import com.telekom.cot.device.agent.common.util.AssertionUtil;
+
+/**
+ * Retry scheduler and circuit breaker of the requests to the platform.
+ *
+ * Each failure schedules the next attempt after an exponential backoff with jitter. After the configured count of
+ * consecutive failures the circuit opens and all requests are rejected until the backoff expires. Then the circuit is
+ * half open and a single probe request is passed: a success closes the circuit, a failure opens it again with a
+ * longer backoff.
+ */
+public class CircuitBreaker {
+
+    /** The Logger. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    /**
+     * A request to the platform.
+     */
+    @FunctionalInterface
+    public interface Request {
+        void execute() throws AbstractAgentException;
+    }
+
+    private final String name;
+    private final long initialBackoff;
+    private final long maxBackoff;
+    private final double multiplier;
+    private final double jitter;
+    private final int failureThreshold;
+    /** the time source (in nanoseconds) */
+    private final LongSupplier clock;
+
+    private volatile CircuitState state = CircuitState.CLOSED;
+    private int consecutiveFailures = 0;
+    /** the time (clock) from which on the next attempt is allowed */
+    private long retryTime;
+
+    /**
+     * @param name
+     *            the name of the circuit (used for logging)
+     * @param configuration
+     *            the backoff and the failure threshold
+     */
+    public CircuitBreaker(String name, RetryConfiguration configuration) {
+        this(name, configuration, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, RetryConfiguration configuration, LongSupplier clock) {
+        this.name = name;
+        this.initialBackoff = TimeUnit.MILLISECONDS.toNanos(configuration.getInitialBackoff());
+        this.maxBackoff = TimeUnit.MILLISECONDS.toNanos(configuration.getMaxBackoff());
+        this.multiplier = configuration.getMultiplier();
+        this.jitter = configuration.getJitter();
+        this.failureThreshold = configuration.getFailureThreshold();
+        this.clock = clock;
+    }
+
+    /**
+     * Executes the request if the circuit allows it and records its result.
+     *
+     * @param request
+     *            the request to execute
+     * @param exceptionType
+     *            the type of the exception thrown if the circuit rejects the request
+     * @throws AbstractAgentException
+     *             if the circuit rejects the request or the request fails
+     */
+    public void execute(Request request, Class<? extends AbstractAgentException> exceptionType)
+                    throws AbstractAgentException {
+        if (!tryAcquire()) {
+            throw AssertionUtil.createExceptionAndLog(exceptionType, LOGGER,
+                            "circuit " + name + " is open, request rejected");
+        }
+
+        forceExecute(request);
+    }
+
+    /**
+     * Executes the request regardless of the circuit state (e.g. a request that mustn't be rejected) and records its
+     * result.
+     *
+     * @param request
+     *            the request to execute
+     * @throws AbstractAgentException
+     *             if the request fails
+     */
+    public void forceExecute(Request request) throws AbstractAgentException {
+        try {
+            request.execute();
+        } catch (AbstractAgentException | RuntimeException exception) {
+            onFailure();
+            throw exception;
+        }
+        onSuccess();
+    }
+
+    /**
+     * Checks whether a request may be sent now, an open circuit with expired backoff becomes half open and passes
+     * this request as probe.
+     *
+     * @return true, if the request may be sent
+     */
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (clock.getAsLong() - retryTime < 0) {
+                    return false;
+                }
+                LOGGER.info("circuit {} is half open, send probe request", name);
+                state = CircuitState.HALF_OPEN;
+                return true;
+            case HALF_OPEN:
+            default:
+                // the probe request is in progress
+                return false;
+        }
+    }
+
+    /**
+     * Records a successful request, the circuit is closed.
+     */
+    public synchronized void onSuccess() {
+        if (state != CircuitState.CLOSED) {
+            LOGGER.info("circuit {} is closed", name);
+        }
+        state = CircuitState.CLOSED;
+        consecutiveFailures = 0;
+        retryTime = clock.getAsLong();
+    }
+
+    /**
+     * Records a failed request and schedules the next attempt, the circuit is opened if the failure threshold is
+     * reached or the probe request failed.
+     */
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        long backoff = getBackoff(consecutiveFailures);
+        retryTime = clock.getAsLong() + backoff;
+
+        if (state == CircuitState.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            if (state != CircuitState.OPEN) {
+                LOGGER.warn("circuit {} is open after {} failures, retry in {} ms", name, consecutiveFailures,
+                                TimeUnit.NANOSECONDS.toMillis(backoff));
+            }
+            state = CircuitState.OPEN;
+        }
+    }
+
+    /**
+     * Gets the time (in nanoseconds) until the next attempt is allowed, 0 if it's allowed now.
+     */
+    public synchronized long getRetryDelay() {
+        if (consecutiveFailures == 0) {
+            return 0;
+        }
+        return Math.max(retryTime - clock.getAsLong(), 0);
+    }
+
+    public CircuitState getState() {
+        return state;
+    }
+
+    /**
+     * gets the jittered backoff after the given count of consecutive failures
+     */
+    private long getBackoff(int failures) {
+        double backoff = initialBackoff * Math.pow(multiplier, failures - 1);
+        backoff = Math.min(backoff, maxBackoff);
+        return (long) (backoff * (1 - jitter * ThreadLocalRandom.current().nextDouble()));
+    }
+}
@@ -0,0 +1,13 @@
+package com.telekom.cot.device.agent.service.retry;
+
+/**
+ * The states of a {@link CircuitBreaker}.
+ */
+public enum CircuitState {
+    /** requests are passed, failures are counted */
+    CLOSED,
+    /** requests are rejected until the backoff expires */
+    OPEN,
+    /** a single probe request is passed, its result closes or reopens the circuit */
+    HALF_OPEN
+}
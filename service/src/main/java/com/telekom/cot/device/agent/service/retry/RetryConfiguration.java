@@ -0,0 +1,79 @@
+package com.telekom.cot.device.agent.service.retry;
+
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+
+/**
+ * Configuration of the retries of failed platform requests (see {@link CircuitBreaker}).
+ */
+public class RetryConfiguration {
+
+    /** the backoff (in milliseconds) after the first failure */
+    @NotNull @Positive
+    private Long initialBackoff = 1000L;
+
+    /** the max. backoff (in milliseconds) */
+    @NotNull @Positive
+    private Long maxBackoff = 60000L;
+
+    /** the factor the backoff grows by with each further failure */
+    @NotNull @DecimalMin("1.0")
+    private Double multiplier = 2.0;
+
+    /** the max. fraction of the backoff that is randomly subtracted */
+    @NotNull @DecimalMin("0.0") @DecimalMax("1.0")
+    private Double jitter = 0.2;
+
+    /** the count of consecutive failures that opens the circuit */
+    @NotNull @Positive
+    private Integer failureThreshold = 3;
+
+    public Long getInitialBackoff() {
+        return initialBackoff;
+    }
+
+    public void setInitialBackoff(Long initialBackoff) {
+        this.initialBackoff = initialBackoff;
+    }
+
+    public Long getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    public void setMaxBackoff(Long maxBackoff) {
+        this.maxBackoff = maxBackoff;
+    }
+
+    public Double getMultiplier() {
+        return multiplier;
+    }
+
+    public void setMultiplier(Double multiplier) {
+        this.multiplier = multiplier;
+    }
+
+    public Double getJitter() {
+        return jitter;
+    }
+
+    public void setJitter(Double jitter) {
+        this.jitter = jitter;
+    }
+
+    public Integer getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    public void setFailureThreshold(Integer failureThreshold) {
+        this.failureThreshold = failureThreshold;
+    }
+
+    @Override
+    public String toString() {
+        return RetryConfiguration.class.getSimpleName() + " [initialBackoff=" + initialBackoff + ", maxBackoff="
+                        + maxBackoff + ", multiplier=" + multiplier + ", jitter=" + jitter + ", failureThreshold="
+                        + failureThreshold + "]";
+    }
+}
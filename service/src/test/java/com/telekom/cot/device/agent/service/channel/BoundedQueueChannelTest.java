@@ -0,0 +1,177 @@
+package com.telekom.cot.device.agent.service.channel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class BoundedQueueChannelTest {
+
+	/**
+	 * Test the FIFO order over the wrap around of the ring buffer
+	 */
+	@Test
+	public void testFifoOrder() {
+		BoundedQueueChannel<String> channel = new BoundedQueueChannel<>(2, OverflowPolicy.DROP_NEWEST, 0);
+		channel.add("Test1");
+		channel.add("Test2");
+		assertEquals("Test1", channel.getItem());
+		channel.add("Test3");
+		assertEquals("Test2", channel.getItem());
+		assertEquals("Test3", channel.getItem());
+		assertNull(channel.getItem());
+		assertEquals(3, channel.getAcceptedCount());
+	}
+
+	/**
+	 * Test policy DROP_OLDEST, the oldest item is replaced
+	 */
+	@Test
+	public void testDropOldest() {
+		BoundedQueueChannel<String> channel = new BoundedQueueChannel<>(2, OverflowPolicy.DROP_OLDEST, 0);
+		channel.add(new String[] { "Test1", "Test2", "Test3" });
+
+		assertEquals(2, channel.size());
+		assertEquals(1, channel.getDroppedCount());
+		assertEquals(3, channel.getAcceptedCount());
+		assertEquals("Test2", channel.getItem());
+		assertEquals("Test3", channel.getItem());
+	}
+
+	/**
+	 * Test policy DROP_NEWEST, the new item is rejected
+	 */
+	@Test
+	public void testDropNewest() {
+		BoundedQueueChannel<String> channel = new BoundedQueueChannel<>(2, OverflowPolicy.DROP_NEWEST, 0);
+		channel.add("Test1");
+		channel.add("Test2");
+
+		assertFalse(channel.offer("Test3"));
+		assertEquals(1, channel.getDroppedCount());
+		assertEquals("Test1", channel.getItem());
+		assertEquals("Test2", channel.getItem());
+	}
+
+	/**
+	 * Test policy BLOCK, the producer is blocked until the consumer makes room
+	 */
+	@Test
+	public void testBlock() throws Exception {
+		BoundedQueueChannel<String> channel = new BoundedQueueChannel<>(1, OverflowPolicy.BLOCK, 5000);
+		channel.add("Test1");
+
+		Thread consumer = new Thread(() -> {
+			try {
+				Thread.sleep(100);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			channel.getItem();
+		});
+		consumer.start();
+
+		assertTrue(channel.offer("Test2"));
+		consumer.join();
+		assertEquals("Test2", channel.getItem());
+		assertEquals(0, channel.getDroppedCount());
+	}
+
+	/**
+	 * Test policy BLOCK, the item is dropped after the block timeout
+	 */
+	@Test
+	public void testBlockTimeout() {
+		BoundedQueueChannel<String> channel = new BoundedQueueChannel<>(1, OverflowPolicy.BLOCK, 10);
+		channel.add("Test1");
+
+		assertFalse(channel.offer("Test2"));
+		assertEquals(1, channel.getDroppedCount());
+		assertEquals("Test1", channel.getItem());
+	}
+
+	/**
+	 * Test policy SPILL, the new item is handed over to the spill handler
+	 */
+	@Test
+	public void testSpill() {
+		List<String> spilled = new ArrayList<>();
+		BoundedQueueChannel<String> channel = new BoundedQueueChannel<>(1, OverflowPolicy.SPILL, 0);
+		channel.add("Test1");
+
+		// no spill handler, item is dropped
+		assertFalse(channel.offer("Test2"));
+		assertEquals(1, channel.getDroppedCount());
+
+		channel.setSpillHandler(spilled::add);
+		assertTrue(channel.offer("Test3"));
+		assertEquals(1, channel.getSpilledCount());
+		assertEquals(1, spilled.size());
+		assertEquals("Test3", spilled.get(0));
+		assertEquals("Test1", channel.getItem());
+	}
+
+	/**
+	 * Test drain to a consumer over the wrap around of the ring buffer
+	 */
+	@Test
+	public void testDrainTo() {
+		BoundedQueueChannel<String> channel = new BoundedQueueChannel<>(2, OverflowPolicy.DROP_OLDEST, 0);
+		channel.add(new String[] { "Test1", "Test2", "Test3" });
+		List<String> drained = new ArrayList<>();
+
+		assertEquals(2, channel.drainTo(drained::add, 10));
+		assertEquals(0, channel.size());
+		assertEquals("Test2", drained.get(0));
+		assertEquals("Test3", drained.get(1));
+	}
+
+	/**
+	 * Test take, the consumer is woken up by the producer
+	 */
+	@Test
+	public void testTake() throws Exception {
+		BoundedQueueChannel<String> channel = new BoundedQueueChannel<>(2, OverflowPolicy.DROP_OLDEST, 0);
+		List<String> taken = new ArrayList<>();
+
+		Thread producer = new Thread(() -> {
+			try {
+				Thread.sleep(100);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			channel.add("Test1");
+		});
+		producer.start();
+
+		assertEquals(1, channel.take(taken::add, 10, 5, TimeUnit.SECONDS));
+		producer.join();
+		assertEquals("Test1", taken.get(0));
+	}
+
+	/**
+	 * Test take, nothing is retrieved after the timeout
+	 */
+	@Test
+	public void testTakeTimeout() throws Exception {
+		BoundedQueueChannel<String> channel = new BoundedQueueChannel<>(2, OverflowPolicy.DROP_OLDEST, 0);
+		List<String> taken = new ArrayList<>();
+
+		assertEquals(0, channel.take(taken::add, 10, 10, TimeUnit.MILLISECONDS));
+		assertTrue(taken.isEmpty());
+	}
+
+	/**
+	 * Test invalid capacity
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidCapacity() {
+		new BoundedQueueChannel<String>(0, OverflowPolicy.DROP_OLDEST, 0);
+	}
+}
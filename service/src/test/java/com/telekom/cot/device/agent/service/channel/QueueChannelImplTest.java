@@ -1,6 +1,7 @@
 package com.telekom.cot.device.agent.service.channel;
 
 import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
 
 import org.hamcrest.Matchers;
 import org.junit.Assert;
@@ -52,6 +53,17 @@ public class QueueChannelImplTest {
 		Assert.assertThat(myQueue.getItem(), Matchers.equalTo("Test2"));
 	}
 
+	/**
+	 * Test the count of queued items
+	 */
+	@Test
+	public void testSize() {
+		myQueue.add(testArray);
+		Assert.assertThat(myQueue.size(), Matchers.equalTo(2));
+		myQueue.getItem();
+		Assert.assertThat(myQueue.size(), Matchers.equalTo(1));
+	}
+
 	/**
 	 * Test if the Queue returns null when empty
 	 */
@@ -60,4 +72,28 @@ public class QueueChannelImplTest {
 		Assert.assertNull(myQueue.getItem());
 	}
 
+	/**
+	 * Test drain to a consumer with max. count of items
+	 */
+	@Test
+	public void testDrainTo() {
+		myQueue.add(testArray);
+		ArrayList<String> drained = new ArrayList<String>();
+		Assert.assertThat(myQueue.drainTo(drained::add, 1), Matchers.equalTo(1));
+		Assert.assertThat(myQueue.drainTo(drained::add, 10), Matchers.equalTo(1));
+		Assert.assertThat(drained, Matchers.contains("Test1", "Test2"));
+	}
+
+	/**
+	 * Test take, waits for the first item and retrieves all available items
+	 */
+	@Test
+	public void testTake() throws Exception {
+		ArrayList<String> taken = new ArrayList<String>();
+		Assert.assertThat(myQueue.take(taken::add, 10, 10, TimeUnit.MILLISECONDS), Matchers.equalTo(0));
+
+		myQueue.add(testArray);
+		Assert.assertThat(myQueue.take(taken::add, 10, 10, TimeUnit.MILLISECONDS), Matchers.equalTo(2));
+		Assert.assertThat(taken, Matchers.contains("Test1", "Test2"));
+	}
 }
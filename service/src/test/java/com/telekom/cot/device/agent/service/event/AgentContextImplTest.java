@@ -54,6 +54,40 @@ public class AgentContextImplTest {
         context.getAgentEventPublisher(Execution.SYNC).publishEvent(new TestEvent());
     }
 
+    @Test
+    public void testMetrics() throws AbstractAgentException, InterruptedException {
+        AgentEventConfiguration configuration = new AgentEventConfiguration();
+        configuration.getMetrics().setEnabled(true);
+        AgentContext context = new AgentContextImpl(configuration);
+        AgentEventListener<Obj1> failingListener = new AgentEventListener<Obj1>() {
+
+            @Override
+            public void onAgentEvent(Obj1 event) {
+                throw new IllegalStateException("test");
+            }
+        };
+        context.addAgentEventListener(list1);
+        context.addAgentEventListener(failingListener);
+        context.addAgentEventListener(testListener);
+        context.getAgentEventPublisher(Execution.SYNC).publishEvent(new Obj1());
+        context.getAgentEventPublisher(Execution.ASYNC).publishEvent(new Obj1());
+        context.getAgentEventPublisher(Execution.SYNC).publishEvent(new TestEvent());
+        TimeUnit.MILLISECONDS.sleep(100);
+
+        AgentEventMetrics metrics = context.getAgentEventMetrics();
+        assertThat(metrics.getEventType(Obj1.class).getPublishCount(), Matchers.equalTo(2L));
+        assertThat(metrics.getEventType(TestEvent.class).getPublishCount(), Matchers.equalTo(1L));
+        assertThat(metrics.getEventType(Obj1.class).getListeners().size(), Matchers.equalTo(2));
+        for (AgentEventMetrics.ListenerMetrics listenerMetrics : metrics.getEventType(Obj1.class).getListeners()
+                        .values()) {
+            assertThat(listenerMetrics.getDeliveredCount(), Matchers.equalTo(2L));
+            assertThat(listenerMetrics.getQueueWait().getCount(), Matchers.equalTo(2L));
+        }
+        long exceptions = metrics.getEventType(Obj1.class).getListeners().values().stream()
+                        .mapToLong(AgentEventMetrics.ListenerMetrics::getExceptionCount).sum();
+        assertThat(exceptions, Matchers.equalTo(2L));
+    }
+
     public static class List1 implements AgentEventListener<Obj1> {
 
         private boolean executed = false;
@@ -1,6 +1,8 @@
 package com.telekom.cot.device.agent.service.event;
 
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.util.List;
@@ -43,6 +45,37 @@ public class AgentEventListenerCollectionTest {
         assertThat(listeners.size(), Matchers.equalTo(1));
     }
     
+    @Test
+    public void testGetSupertypeListeners() throws AbstractAgentException {
+        AgentEventListenerCollection collection = new AgentEventListenerCollection();
+        List1 list1 = new List1();
+        SubList1 subList1 = new SubList1();
+        collection.add(list1);
+        collection.add(subList1);
+        assertThat(collection.getListeners(Obj1.class).size(), Matchers.equalTo(1));
+        List<AgentEventListener<AgentEvent>> listeners = collection.getListeners(SubObj1.class);
+        assertThat(listeners.size(), Matchers.equalTo(2));
+
+        SubObj1 event = new SubObj1();
+        listeners.forEach(listener -> listener.onAgentEvent(event));
+        assertTrue(list1.isExecuted());
+        assertTrue(subList1.isExecuted());
+    }
+
+    @Test
+    public void testSnapshot() throws AbstractAgentException {
+        AgentEventListenerCollection collection = new AgentEventListenerCollection();
+        List1 list1 = new List1();
+        collection.add(list1);
+        List<AgentEventListener<AgentEvent>> listeners = collection.getListeners(Obj1.class);
+        assertTrue(collection.contains(list1));
+
+        collection.remove(list1);
+        assertFalse(collection.contains(list1));
+        assertThat(listeners.size(), Matchers.equalTo(1));
+        assertThat(collection.getListeners(Obj1.class).size(), Matchers.equalTo(0));
+    }
+
     @Test
     public void testAddError() {
         AgentEventListenerCollection collection = new AgentEventListenerCollection();
@@ -69,6 +102,20 @@ public class AgentEventListenerCollectionTest {
         }
     }
 
+    public static class SubList1 implements AgentEventListener<SubObj1> {
+
+        private boolean executed = false;
+
+        @Override
+        public void onAgentEvent(SubObj1 event) {
+            executed = true;
+        }
+
+        public boolean isExecuted() {
+            return executed;
+        }
+    }
+
     public static class Obj1 extends AgentEvent {
 
         @Override
@@ -76,4 +123,7 @@ public class AgentEventListenerCollectionTest {
             return "Obj1";
         }
     }
+
+    public static class SubObj1 extends Obj1 {
+    }
 }
@@ -69,11 +69,11 @@ public class AgentEventListenerWrapperTest {
         // inject
         InjectionUtil.inject(handler2, mockLogger);
         handler2.onAgentEvent(obj2);
-        verify(mockLogger, times(2)).info("is the event type equals listener type result={}", true);
-        verify(mockLogger).info("onAgentEvent event={}", obj1);
-        verify(mockLogger).info("onAgentEvent event={}", obj2);
+        verify(mockLogger, times(2)).trace("is the event type equals listener type result={}", true);
+        verify(mockLogger).debug("onAgentEvent event={}", obj1);
+        verify(mockLogger).debug("onAgentEvent event={}", obj2);
         handler2.onAgentEvent(obj1);
-        verify(mockLogger).info("is the event type equals listener type result={}", false);
+        verify(mockLogger).trace("is the event type equals listener type result={}", false);
         verify(mockLogger).error("can't invoke event");
     }
 
@@ -7,10 +7,10 @@ import java.util.Calendar;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 import org.hamcrest.Matchers;
-import org.junit.Ignore;
 import org.junit.Test;
 
 import com.telekom.cot.device.agent.common.exc.AbstractAgentException;
+import com.telekom.cot.device.agent.service.event.AgentEventConfiguration.RejectionPolicy;
 import com.telekom.cot.device.agent.service.event.AgentEvent;
 import com.telekom.cot.device.agent.service.event.AgentEventListener;
 import com.telekom.cot.device.agent.service.event.AgentEventListenerCollection;
@@ -44,31 +44,97 @@ public class AgentEventPublisherAsyncTest {
     }
 
     @Test
-    @Ignore
     public void testPublishEventPoolSizeByTwo() throws InterruptedException, AbstractAgentException {
         AgentEventListenerCollection collection = new AgentEventListenerCollection();
         AgentEventPublisherAsync async = new AgentEventPublisherAsync(collection, 2);
         List1 list1 = new List1();
+        List1 list2 = new List1();
         Obj1 obj11 = new Obj1();
         Obj1 obj12 = new Obj1();
         collection.add(list1);
-        // publish three events
+        collection.add(list2);
+        // publish two events
         async.publishEvent(obj11);
         async.publishEvent(obj12);
-        async.publishEvent(new Obj2());
         // wait
         TimeUnit.SECONDS.sleep(5);
-        // only two events are expected
-        assertThat(list1.getEvents().size(), org.hamcrest.Matchers.equalTo(2));
-        // check the first type
-        assertThat(list1.getEvents().get(0), org.hamcrest.Matchers.equalTo(obj11));
-        // check the second type
-        assertThat(list1.getEvents().get(1), org.hamcrest.Matchers.equalTo(obj12));
-        // time diff is less than 100 ms
-        int diff = (int) (list1.getTimes().get(1) - list1.getTimes().get(0));
+        // each listener gets the events in the published order
+        for (List1 list : new List1[] { list1, list2 }) {
+            assertThat(list.getEvents(), Matchers.contains(obj11, obj12));
+            // one at a time, the time diff is 2 seconds
+            int diff = (int) (list.getTimes().get(1) - list.getTimes().get(0));
+            assertThat(diff, Matchers.greaterThanOrEqualTo(1900));
+        }
+        // the listeners are executed in parallel
+        int diff = (int) Math.abs(list2.getTimes().get(0) - list1.getTimes().get(0));
         assertThat(diff, Matchers.lessThan(200));
     }
 
+    @Test
+    public void testPublishEventMailboxFull() throws InterruptedException, AbstractAgentException {
+        AgentEventListenerCollection collection = new AgentEventListenerCollection();
+        AgentEventPublisherAsync async = new AgentEventPublisherAsync(collection, 1, 1);
+        List1 list1 = new List1();
+        Obj1 obj11 = new Obj1();
+        collection.add(list1);
+        // the first event is taken at once, the second one is pending, the third one is dropped
+        async.publishEvent(obj11);
+        TimeUnit.MILLISECONDS.sleep(500);
+        async.publishEvent(new Obj1());
+        async.publishEvent(new Obj1());
+        assertThat(async.getDroppedCount(), Matchers.equalTo(1L));
+        assertThat(async.getRejectedCount(), Matchers.equalTo(1L));
+        assertThat(async.getQueueSize(), Matchers.equalTo(1));
+    }
+
+    @Test
+    public void testPublishEventCallerRuns() throws InterruptedException, AbstractAgentException {
+        AgentEventConfiguration configuration = new AgentEventConfiguration();
+        configuration.setThreadPoolSize(1);
+        configuration.setQueueCapacity(1);
+        configuration.setThreadNamePrefix("test-event-");
+        configuration.setRejectionPolicy(RejectionPolicy.CALLER_RUNS);
+        AgentEventListenerCollection collection = new AgentEventListenerCollection();
+        AgentEventPublisherAsync async = new AgentEventPublisherAsync(collection, configuration);
+        ThreadListener listener = new ThreadListener();
+        collection.add(listener);
+        Obj2 obj21 = new Obj2();
+        Obj2 obj22 = new Obj2();
+        Obj2 obj23 = new Obj2();
+        // the first event blocks the thread, the second one is pending, the third one is delivered by the caller
+        async.publishEvent(obj21);
+        TimeUnit.MILLISECONDS.sleep(100);
+        async.publishEvent(obj22);
+        async.publishEvent(obj23);
+
+        assertThat(listener.getEvents(), Matchers.contains(obj21, obj22, obj23));
+        assertThat(listener.getThreads().get(0), Matchers.startsWith("test-event-"));
+        assertThat(listener.getThreads().get(2), Matchers.equalTo(Thread.currentThread().getName()));
+        assertThat(async.getRejectedCount(), Matchers.equalTo(1L));
+        assertThat(async.getDroppedCount(), Matchers.equalTo(0L));
+    }
+
+    @Test
+    public void testListenerRemoved() throws InterruptedException, AbstractAgentException {
+        AgentEventListenerCollection collection = new AgentEventListenerCollection();
+        AgentEventPublisherAsync async = new AgentEventPublisherAsync(collection, 1);
+        ThreadListener listener = new ThreadListener();
+        collection.add(listener);
+        // the first event blocks the thread, the others are pending
+        async.publishEvent(new Obj2());
+        TimeUnit.MILLISECONDS.sleep(100);
+        async.publishEvent(new Obj2());
+        async.publishEvent(new Obj2());
+        assertThat(async.getQueueSize(), Matchers.equalTo(2));
+
+        // the mailbox of the removed listener is discarded with its pending events
+        collection.remove(listener);
+        async.listenerRemoved(listener);
+        assertThat(async.getQueueSize(), Matchers.equalTo(0));
+        TimeUnit.MILLISECONDS.sleep(600);
+        assertThat(listener.getEvents().size(), Matchers.equalTo(1));
+    }
+
     public static class List1 implements AgentEventListener<Obj1> {
 
         private List<Obj1> events = new ArrayList<>();
@@ -95,6 +161,33 @@ public class AgentEventPublisherAsyncTest {
         }
     }
 
+    public static class ThreadListener implements AgentEventListener<Obj2> {
+
+        private List<Obj2> events = new ArrayList<>();
+        private List<String> threads = new ArrayList<>();
+
+        @Override
+        public synchronized void onAgentEvent(Obj2 event) {
+            events.add(event);
+            threads.add(Thread.currentThread().getName());
+            if (events.size() == 1) {
+                try {
+                    TimeUnit.MILLISECONDS.sleep(500);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        public synchronized List<Obj2> getEvents() {
+            return events;
+        }
+
+        public synchronized List<String> getThreads() {
+            return threads;
+        }
+    }
+
     public static class Obj1 extends AgentEvent {
 
         @Override
@@ -0,0 +1,174 @@
+package com.telekom.cot.device.agent.service.event;
+
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.hamcrest.Matchers;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.telekom.cot.device.agent.common.exc.AbstractAgentException;
+import com.telekom.cot.device.agent.service.event.AgentEventConfiguration.WaitStrategy;
+
+public class AgentEventPublisherRingBufferTest {
+
+    private AgentEventConfiguration configuration;
+    private AgentEventListenerCollection collection;
+    private AgentEventPublisherRingBuffer publisher;
+
+    @Before
+    public void setUp() {
+        configuration = new AgentEventConfiguration();
+        configuration.getRingBuffer().setBufferSize(8);
+        collection = new AgentEventListenerCollection();
+    }
+
+    @After
+    public void tearDown() {
+        if (publisher != null) {
+            publisher.shutdown();
+        }
+    }
+
+    /**
+     * test that each listener gets all events in the published order, by all wait strategies
+     */
+    @Test
+    public void testPublishEventOrder() throws AbstractAgentException, InterruptedException {
+        for (WaitStrategy waitStrategy : WaitStrategy.values()) {
+            configuration.getRingBuffer().setWaitStrategy(waitStrategy);
+            collection = new AgentEventListenerCollection();
+            publisher = new AgentEventPublisherRingBuffer(collection, configuration);
+            List<CountingListener> listeners = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                CountingListener listener = new CountingListener(100);
+                listeners.add(listener);
+                collection.add(listener);
+            }
+
+            for (int i = 0; i < 100; i++) {
+                publisher.publishEvent(new Obj1(i));
+            }
+
+            for (CountingListener listener : listeners) {
+                assertThat(listener.await(), Matchers.equalTo(true));
+                for (int i = 0; i < 100; i++) {
+                    assertThat(listener.getEvents().get(i).number, Matchers.equalTo(i));
+                }
+            }
+            assertThat(publisher.getDroppedCount(), Matchers.equalTo(0L));
+            publisher.shutdown();
+        }
+    }
+
+    /**
+     * test a full ring buffer, the publisher waits at most the block timeout, then the event is dropped
+     */
+    @Test
+    public void testPublishEventFull() throws AbstractAgentException, InterruptedException {
+        configuration.setBlockTimeout(100L);
+        configuration.getRingBuffer().setConsumerGroups(1);
+        publisher = new AgentEventPublisherRingBuffer(collection, configuration);
+        CountDownLatch blocker = new CountDownLatch(1);
+        collection.add(new AgentEventListener<Obj1>() {
+
+            @Override
+            public void onAgentEvent(Obj1 event) {
+                try {
+                    blocker.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        // the first event blocks the consumer (its slot isn't released), 8 events fill the ring buffer
+        for (int i = 0; i < 10; i++) {
+            publisher.publishEvent(new Obj1(i));
+        }
+        assertThat(publisher.getQueueSize(), Matchers.equalTo(8));
+        blocker.countDown();
+
+        assertThat(publisher.getDroppedCount(), Matchers.equalTo(2L));
+    }
+
+    /**
+     * test a listener throwing an error, the consumer keeps running and delivers the following events
+     */
+    @Test
+    public void testPublishEventListenerError() throws AbstractAgentException, InterruptedException {
+        configuration.getRingBuffer().setConsumerGroups(1);
+        publisher = new AgentEventPublisherRingBuffer(collection, configuration);
+        CountingListener listener = new CountingListener(3);
+        collection.add(new AgentEventListener<Obj1>() {
+
+            @Override
+            public void onAgentEvent(Obj1 event) {
+                if (event.number == 0) {
+                    throw new AssertionError("test");
+                }
+            }
+        });
+        collection.add(listener);
+
+        for (int i = 0; i < 3; i++) {
+            publisher.publishEvent(new Obj1(i));
+        }
+
+        assertThat(listener.await(), Matchers.equalTo(true));
+        assertThat(listener.getEvents().size(), Matchers.equalTo(3));
+        for (int i = 0; i < 20 && publisher.getQueueSize() > 0; i++) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertThat(publisher.getQueueSize(), Matchers.equalTo(0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBufferSize() {
+        configuration.getRingBuffer().setBufferSize(10);
+        new AgentEventPublisherRingBuffer(collection, configuration);
+    }
+
+    public static class CountingListener implements AgentEventListener<Obj1> {
+
+        private final List<Obj1> events = new ArrayList<>();
+        private final CountDownLatch latch;
+
+        public CountingListener(int count) {
+            latch = new CountDownLatch(count);
+        }
+
+        @Override
+        public void onAgentEvent(Obj1 event) {
+            events.add(event);
+            latch.countDown();
+        }
+
+        public boolean await() throws InterruptedException {
+            return latch.await(5, TimeUnit.SECONDS);
+        }
+
+        public List<Obj1> getEvents() {
+            return events;
+        }
+    }
+
+    public static class Obj1 extends AgentEvent {
+
+        private final int number;
+
+        public Obj1(int number) {
+            this.number = number;
+        }
+
+        @Override
+        public Object getSource() {
+            return "Obj1";
+        }
+    }
+}
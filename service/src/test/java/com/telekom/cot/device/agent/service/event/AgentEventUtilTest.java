@@ -1,7 +1,11 @@
 package com.telekom.cot.device.agent.service.event;
 
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
+
 import org.hamcrest.Matchers;
 import org.junit.Test;
 
@@ -44,6 +48,37 @@ public class AgentEventUtilTest {
         assertThat(listenerEventType, Matchers.equalTo(SimpleEvent.class));        
     }
 
+    @Test
+    public void testGetEventTypeByUnrelatedGenericSuperclass() {
+        Class<? extends AgentEvent> listenerEventType = AgentEventUtil.getEventType(new ListListener());
+        assertThat(listenerEventType, Matchers.equalTo(SimpleEvent.class));
+    }
+
+    @Test
+    public void testCreateInvoker() throws Throwable {
+        SimpleEvent[] received = new SimpleEvent[1];
+        AgentEventListener<SimpleEvent> listener = new AgentEventListener<SimpleEvent>() {
+
+            @Override
+            public void onAgentEvent(SimpleEvent event) {
+                received[0] = event;
+            }
+        };
+        MethodHandle invoker = AgentEventUtil.createInvoker(listener);
+
+        SimpleEvent event = new SimpleEvent();
+        invoker.invokeExact((AgentEvent) event);
+        assertSame(event, received[0]);
+    }
+
+    @SuppressWarnings("serial")
+    static class ListListener extends ArrayList<String> implements AgentEventListener<SimpleEvent> {
+
+        @Override
+        public void onAgentEvent(SimpleEvent event) {
+        }
+    }
+
     /*
      * GenericInterface
      */
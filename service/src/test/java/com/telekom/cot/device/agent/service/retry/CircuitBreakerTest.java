@@ -0,0 +1,149 @@
+package com.telekom.cot.device.agent.service.retry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.telekom.cot.device.agent.common.exc.AlarmServiceException;
+import com.telekom.cot.device.agent.common.exc.PlatformServiceException;
+
+public class CircuitBreakerTest {
+
+	private AtomicLong now = new AtomicLong(0);
+	private RetryConfiguration configuration = new RetryConfiguration();
+	private CircuitBreaker circuitBreaker;
+
+	@Before
+	public void setUp() {
+		configuration.setInitialBackoff(1000L);
+		configuration.setMaxBackoff(4000L);
+		configuration.setJitter(0.0);
+		configuration.setFailureThreshold(2);
+		circuitBreaker = new CircuitBreaker("test", configuration, now::get);
+	}
+
+	/**
+	 * test the exponential backoff, it's limited by the max. backoff
+	 */
+	@Test
+	public void testBackoff() {
+		circuitBreaker.onFailure();
+		assertEquals(CircuitState.CLOSED, circuitBreaker.getState());
+		assertEquals(millis(1000), circuitBreaker.getRetryDelay());
+
+		circuitBreaker.onFailure();
+		assertEquals(CircuitState.OPEN, circuitBreaker.getState());
+		assertEquals(millis(2000), circuitBreaker.getRetryDelay());
+
+		circuitBreaker.onFailure();
+		circuitBreaker.onFailure();
+		assertEquals(millis(4000), circuitBreaker.getRetryDelay());
+
+		now.addAndGet(millis(1000));
+		assertEquals(millis(3000), circuitBreaker.getRetryDelay());
+	}
+
+	/**
+	 * test the jitter, the backoff is reduced by at most the jitter fraction
+	 */
+	@Test
+	public void testJitter() {
+		configuration.setJitter(0.5);
+		circuitBreaker = new CircuitBreaker("test", configuration, now::get);
+
+		for (int attempt = 0; attempt < 100; attempt++) {
+			circuitBreaker.onSuccess();
+			circuitBreaker.onFailure();
+			long delay = circuitBreaker.getRetryDelay();
+			assertTrue(delay >= millis(500) && delay <= millis(1000));
+		}
+	}
+
+	/**
+	 * test the states, an open circuit rejects requests until the backoff expires, then a single probe is passed
+	 */
+	@Test
+	public void testHalfOpenProbe() {
+		assertTrue(circuitBreaker.tryAcquire());
+		circuitBreaker.onFailure();
+		circuitBreaker.onFailure();
+		assertFalse(circuitBreaker.tryAcquire());
+
+		now.addAndGet(millis(2000));
+		assertTrue(circuitBreaker.tryAcquire());
+		assertEquals(CircuitState.HALF_OPEN, circuitBreaker.getState());
+		assertFalse(circuitBreaker.tryAcquire());
+
+		// the failed probe reopens the circuit with a longer backoff
+		circuitBreaker.onFailure();
+		assertEquals(CircuitState.OPEN, circuitBreaker.getState());
+		assertEquals(millis(4000), circuitBreaker.getRetryDelay());
+
+		now.addAndGet(millis(4000));
+		assertTrue(circuitBreaker.tryAcquire());
+		circuitBreaker.onSuccess();
+		assertEquals(CircuitState.CLOSED, circuitBreaker.getState());
+		assertEquals(0, circuitBreaker.getRetryDelay());
+		assertTrue(circuitBreaker.tryAcquire());
+	}
+
+	/**
+	 * test method execute, the failures are recorded and an open circuit rejects the request
+	 */
+	@Test
+	public void testExecute() throws Exception {
+		AtomicInteger executions = new AtomicInteger();
+		CircuitBreaker.Request failingRequest = () -> {
+			executions.incrementAndGet();
+			throw new PlatformServiceException("test");
+		};
+
+		for (int attempt = 0; attempt < 2; attempt++) {
+			try {
+				circuitBreaker.execute(failingRequest, AlarmServiceException.class);
+				fail();
+			} catch (PlatformServiceException e) {
+				// expected
+			}
+		}
+
+		try {
+			circuitBreaker.execute(failingRequest, AlarmServiceException.class);
+			fail();
+		} catch (AlarmServiceException e) {
+			assertEquals(2, executions.get());
+		}
+
+		now.addAndGet(millis(2000));
+		circuitBreaker.execute(executions::incrementAndGet, AlarmServiceException.class);
+		assertEquals(3, executions.get());
+		assertEquals(CircuitState.CLOSED, circuitBreaker.getState());
+	}
+
+	/**
+	 * test method forceExecute, the request is executed while the circuit is open and its success closes the circuit
+	 */
+	@Test
+	public void testForceExecute() throws Exception {
+		circuitBreaker.onFailure();
+		circuitBreaker.onFailure();
+		assertEquals(CircuitState.OPEN, circuitBreaker.getState());
+
+		AtomicInteger executions = new AtomicInteger();
+		circuitBreaker.forceExecute(executions::incrementAndGet);
+		assertEquals(1, executions.get());
+		assertEquals(CircuitState.CLOSED, circuitBreaker.getState());
+	}
+
+	private long millis(long millis) {
+		return TimeUnit.MILLISECONDS.toNanos(millis);
+	}
+}